@@ -0,0 +1,215 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component;
+
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentAddress;
+import jmul.terminal.component.ComponentRoles;
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.misc.ComponentDictionary;
+import jmul.terminal.component.misc.ComponentDictionaryImpl;
+import jmul.terminal.component.misc.ComponentRegistry;
+import jmul.terminal.component.misc.ComponentStateMonitor;
+import jmul.terminal.component.misc.ComponentStateMonitorImpl;
+import jmul.terminal.component.misc.NameRoleEntry;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests component addresses and their use in the messagebus, the
+ * component dictionary and the state monitor.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class ComponentAddressTest {
+
+    /**
+     * Tests that addresses are interned and have dense ids.
+     */
+    @Test
+    public void testRegister() {
+
+        ComponentAddress address1 = ComponentAddress.register("address test 1");
+        ComponentAddress address2 = ComponentAddress.register("address test 2");
+
+        assertSame(address1, ComponentAddress.register("address test 1"));
+        assertSame(address1, ComponentAddress.lookup("address test 1"));
+        assertEquals("address test 1", address1.name());
+        assertNotEquals(address1.id(), address2.id());
+        assertTrue(address1.id() < ComponentAddress.addressCount());
+        assertTrue(address2.id() < ComponentAddress.addressCount());
+    }
+
+    /**
+     * Tests that the ids of addresses which aren't referenced anymore are reused while
+     * components with new names are registered and unregistered. Released addresses
+     * are enqueued asynchronously after a garbage collection, thus the test pauses
+     * briefly after each collection.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test
+    public void testReuseIds() throws InterruptedException {
+
+        ComponentRegistry registry = new ComponentRegistry();
+        int count = ComponentAddress.addressCount();
+        int churn = 10000;
+
+        for (int a = 0; a < churn; a++) {
+
+            String name = "address test churn " + a;
+            registry.register(new NameRoleEntry(name, ComponentRoles.WORKER));
+            registry.unregister(name);
+
+            if ((a % 500) == 0) {
+
+                System.gc();
+                Thread.sleep(10L);
+            }
+        }
+
+        assertEquals(0, registry.componentCount());
+        assertTrue(ComponentAddress.addressCount() < count + (churn / 2));
+    }
+
+    /**
+     * Tests that looking up an unknown name doesn't register an address.
+     */
+    @Test
+    public void testLookupUnknownName() {
+
+        int count = ComponentAddress.addressCount();
+
+        assertNull(ComponentAddress.lookup("address test unknown"));
+        assertNull(ComponentAddress.lookup(null));
+        assertEquals(count, ComponentAddress.addressCount());
+    }
+
+    /**
+     * Tests registering an address with invalid parameters.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterNull() {
+
+        ComponentAddress.register(null);
+    }
+
+    /**
+     * Tests that a message carries the addresses of sender and receiver.
+     */
+    @Test
+    public void testMessageAddresses() {
+
+        ComponentAddress sender = ComponentAddress.register("address test sender");
+        ComponentAddress receiver = ComponentAddress.register("address test receiver");
+
+        StopMessage message = new StopMessage(sender, receiver);
+        assertEquals("address test sender", message.senderName());
+        assertEquals("address test receiver", message.receiverName());
+        assertSame(sender, message.senderAddress());
+        assertSame(receiver, message.receiverAddress());
+        assertSame(receiver, message.withState(ComponentStates.READY).receiverAddress());
+
+        StopMessage namedMessage = new StopMessage("address test sender", "address test nobody");
+        assertSame(sender, namedMessage.senderAddress());
+        assertNull(namedMessage.receiverAddress());
+    }
+
+    /**
+     * Tests routing messages by the receiver's address.
+     */
+    @Test
+    public void testRouting() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("address test a", "address test b");
+        ComponentAddress sender = ComponentAddress.register("address test sender");
+        ComponentAddress receiver = ComponentAddress.lookup("address test b");
+
+        assertEquals(receiver.id(), messagebus.receiverHandle("address test b"));
+
+        StopMessage message = new StopMessage(sender, receiver);
+        messagebus.send(message);
+
+        assertSame(message, messagebus.fetch(newQuery("address test b")).result());
+        assertEquals(0, messagebus.size("address test a"));
+    }
+
+    /**
+     * Tests the lookups of a dictionary and a state monitor by address.
+     */
+    @Test
+    public void testDictionaryAndMonitor() {
+
+        ComponentDictionary dictionary =
+            new ComponentDictionaryImpl(new NameRoleEntry("address test core", "core"),
+                                        new NameRoleEntry("address test logger", "logger"));
+        ComponentAddress logger = dictionary.getAddressByRole("logger");
+
+        assertSame(ComponentAddress.lookup("address test logger"), logger);
+        assertEquals("logger", dictionary.getRoleByAddress(logger));
+        assertEquals("address test core", dictionary.getNameByRole("core"));
+        assertEquals(2, dictionary.addresses().length);
+
+        ComponentStateMonitor monitor = new ComponentStateMonitorImpl(dictionary.names());
+        monitor.updateState(logger, ComponentStates.UNKNOWN);
+        monitor.updateState("address test logger", ComponentStates.READY);
+
+        assertSame(ComponentStates.READY, monitor.getState(logger));
+        assertNull(monitor.getState(dictionary.getAddressByRole("core")));
+    }
+
+    /**
+     * Tests looking up the state of a component which the state monitor doesn't know.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMonitorUnknownAddress() {
+
+        ComponentStateMonitor monitor = new ComponentStateMonitorImpl("address test core");
+        monitor.getState(ComponentAddress.register("address test other"));
+    }
+
+}
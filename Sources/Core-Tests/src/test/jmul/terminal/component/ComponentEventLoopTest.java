@@ -0,0 +1,317 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+
+import jmul.misc.state.State;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentBase;
+import jmul.terminal.component.ComponentEventLoop;
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.messages.CustomPropertyKeys;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.messaging.ComponentMessageHandler;
+import jmul.terminal.component.messaging.MessageProcessingRule;
+import jmul.terminal.component.scheduling.BusySpinIdleStrategy;
+import jmul.terminal.component.state.ComponentStateHandler;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.DeadLetterQueue;
+import jmul.terminal.messaging.DeadLetterReasons;
+import jmul.terminal.messaging.MessageSelectors;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * This test suite tests the event loop of components.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class ComponentEventLoopTest {
+
+    /**
+     * Tests processing messages until the component stops.
+     */
+    @Test
+    public void testRunUntilStopped() {
+
+        LoopComponent component = new LoopComponent("loop component 1");
+
+        for (int a = 0; a < 10; a++) {
+
+            component.sendMessage(new LogEntryMessage("sender", component.name(), LogLevels.INFO, "entry " + a));
+        }
+        component.sendMessage(new StopMessage("sender", component.name()));
+
+        component.eventLoop.run();
+
+        assertEquals(ComponentStates.STOPPED, component.state);
+        assertEquals(10, component.entries.size());
+        assertEquals("entry 0", component.entries.get(0));
+        assertEquals("entry 9", component.entries.get(9));
+
+        assertEquals(11L, component.eventLoop.processedMessages());
+        assertEquals(1L, component.eventLoop.iterations());
+        assertEquals(1L, component.eventLoop.batchTimes().count());
+        assertEquals(1, component.batches);
+    }
+
+    /**
+     * Tests that a message which cannot be processed is stashed, doesn't block the
+     * following messages and is offered again when the state of the component changes.
+     */
+    @Test
+    public void testStashedMessage() {
+
+        LoopComponent component = new LoopComponent("loop component 2");
+        component.state = ComponentStates.UNKNOWN;
+
+        component.sendMessage(new StopMessage("sender", component.name()));
+        component.sendMessage(new LogEntryMessage("sender", component.name(), LogLevels.INFO, "entry 1"));
+
+        assertEquals(1, component.eventLoop.runOnce());
+        assertEquals(0, component.eventLoop.pendingMessages());
+        assertEquals(1, component.eventLoop.stashSize());
+        assertEquals(1L, component.eventLoop.stashedMessages());
+        assertEquals("[entry 1]", component.entries.toString());
+
+        component.sendMessage(new LogEntryMessage("sender", component.name(), LogLevels.INFO, "entry 2"));
+        component.state = ComponentStates.READY;
+        component.sendMessage(new LogEntryMessage("sender", component.name(), LogLevels.INFO, "entry 3"));
+
+        component.eventLoop.run();
+
+        assertEquals(ComponentStates.STOPPED, component.state);
+        assertEquals(0, component.eventLoop.stashSize());
+        assertEquals("[entry 1]", component.entries.toString());
+        assertEquals(2, component.messagebus().size());
+        assertEquals(0L, component.eventLoop.unprocessableMessages());
+    }
+
+    /**
+     * Tests that stashed messages are put into the dead letter queue if the stash
+     * overflows or if the loop ends.
+     */
+    @Test
+    public void testUnprocessableMessages() {
+
+        LoopComponent component = new LoopComponent("loop component 5", 2);
+        component.state = ComponentStates.ERROR;
+
+        for (int a = 0; a < 3; a++) {
+
+            component.sendMessage(new LogEntryMessage("sender", component.name(), LogLevels.INFO, "entry " + a));
+        }
+
+        assertEquals(0, component.eventLoop.runOnce());
+        assertEquals(2, component.eventLoop.stashSize());
+        assertEquals(3L, component.eventLoop.stashedMessages());
+        assertEquals(1L, component.eventLoop.unprocessableMessages());
+
+        component.state = ComponentStates.STOPPED;
+        component.eventLoop.run();
+
+        DeadLetterQueue deadLetterQueue = ((BlockingQueuingMessagebus) component.messagebus()).deadLetterQueue();
+
+        assertEquals(0, component.eventLoop.stashSize());
+        assertEquals(3L, component.eventLoop.unprocessableMessages());
+        assertEquals(3L, deadLetterQueue.count(DeadLetterReasons.UNPROCESSABLE));
+    }
+
+    /**
+     * Tests an event loop which only fetches selected messages.
+     */
+    @Test
+    public void testSelector() {
+
+        LoopComponent component = new LoopComponent("loop component 3");
+        component.selectStopMessages = true;
+        ((BlockingQueuingMessagebus) component.messagebus()).indexTopics(component.name());
+
+        component.sendMessage(new LogEntryMessage("sender", component.name(), LogLevels.INFO, "entry"));
+        component.sendMessage(new StopMessage("sender", component.name()));
+
+        component.eventLoop.run();
+
+        assertEquals(ComponentStates.STOPPED, component.state);
+        assertTrue(component.entries.isEmpty());
+        assertEquals(1, component.messagebus().size());
+    }
+
+    /**
+     * Tests creating an event loop with an invalid batch size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+
+        LoopComponent component = new LoopComponent("loop component 4");
+
+        new ComponentEventLoop(component, component.messageHandler, new ComponentStateHandler(),
+                               ComponentStates.STOPPED, 0) {
+
+            @Override
+            protected State currentState() {
+
+                return ComponentStates.READY;
+            }
+        };
+    }
+
+}
+
+
+/**
+ * A component which records log entries and stops upon a stop message. Log entries
+ * are also recorded in the state {@link ComponentStates#UNKNOWN}.
+ */
+class LoopComponent extends ComponentBase {
+
+    /**
+     * The current state.
+     */
+    volatile State state;
+
+    /**
+     * All recorded log entries.
+     */
+    final List<String> entries;
+
+    /**
+     * The number of processed batches.
+     */
+    int batches;
+
+    /**
+     * A flag which indicates that only stop messages are fetched.
+     */
+    boolean selectStopMessages;
+
+    /**
+     * The message handler.
+     */
+    final ComponentMessageHandler messageHandler;
+
+    /**
+     * The event loop.
+     */
+    final ComponentEventLoop eventLoop;
+
+    /**
+     * Creates a new component according to the specified parameter.
+     *
+     * @param name
+     *        the name of this component
+     */
+    LoopComponent(String name) {
+
+        this(name, ComponentEventLoop.DEFAULT_STASH_CAPACITY);
+    }
+
+    /**
+     * Creates a new component according to the specified parameters.
+     *
+     * @param name
+     *        the name of this component
+     * @param stashCapacity
+     *        the maximum number of stashed messages
+     */
+    LoopComponent(String name, int stashCapacity) {
+
+        super(name, new BusySpinIdleStrategy());
+
+        connect(new BlockingQueuingMessagebus(name));
+
+        state = ComponentStates.READY;
+        entries = new ArrayList<>();
+
+        MessageProcessingRule logEntryRule = new MessageProcessingRule() {
+
+            @Override
+            public boolean processMessage(Message message) {
+
+                entries.add((String) message.get(CustomPropertyKeys.LOG_ENTRY));
+                return true;
+            }
+        };
+
+        messageHandler = new ComponentMessageHandler();
+        messageHandler.addRule(ComponentStates.UNKNOWN, LogEntryMessage.class, logEntryRule);
+        messageHandler.addRule(ComponentStates.READY, LogEntryMessage.class, logEntryRule);
+        messageHandler.addRule(ComponentStates.READY, StopMessage.class, new MessageProcessingRule() {
+
+            @Override
+            public boolean processMessage(Message message) {
+
+                state = ComponentStates.STOPPED;
+                return true;
+            }
+        });
+
+        eventLoop = new ComponentEventLoop(this, messageHandler, new ComponentStateHandler(), ComponentStates.STOPPED,
+                                           ComponentEventLoop.DEFAULT_MAX_BATCH_SIZE, stashCapacity) {
+
+            @Override
+            protected State currentState() {
+
+                return state;
+            }
+
+            @Override
+            protected Predicate<? super Message> selector(State state) {
+
+                return selectStopMessages ? MessageSelectors.byType(StopMessage.class) : null;
+            }
+
+            @Override
+            protected void batchProcessed(int processedMessages) {
+
+                batches++;
+            }
+        };
+    }
+
+}
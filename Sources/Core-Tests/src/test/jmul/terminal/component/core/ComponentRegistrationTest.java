@@ -0,0 +1,223 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.core;
+
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentRoles;
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.SystemStates;
+import jmul.terminal.component.core.ComponentRuntime;
+import jmul.terminal.component.core.CoreComponent;
+import jmul.terminal.component.messages.RegisterComponentMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.messages.UnregisterComponentMessage;
+import jmul.terminal.component.misc.NameRoleEntry;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+
+
+/**
+ * This test suite tests registering and unregistering components while the system
+ * is running.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class ComponentRegistrationTest {
+
+    /**
+     * Waits until the core component has reached the specified state.
+     *
+     * @param coreComponent
+     *        the core component
+     * @param state
+     *        the expected system state
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    private static void awaitSystemState(CoreComponent coreComponent, SystemStates state)
+        throws InterruptedException {
+
+        while (state != coreComponent.systemState()) {
+
+            Thread.sleep(10L);
+        }
+    }
+
+    /**
+     * Tests a component which registers itself by message while the system is running
+     * and which is stopped together with the system.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 10000L)
+    public void testRegisterByMessage() throws InterruptedException {
+
+        CoreComponent coreComponent = new CoreComponent(ComponentNames.CORE_COMPONENT_NAME);
+        Thread coreThread = new Thread(new CoreThread(coreComponent));
+        coreThread.start();
+
+        awaitSystemState(coreComponent, SystemStates.RUNNING);
+
+        JoiningWorkerComponent workerComponent = new JoiningWorkerComponent("joining worker");
+        workerComponent.connect(coreComponent.messagebus());
+        Thread workerThread = new Thread(workerComponent);
+        workerThread.start();
+
+        while (!coreComponent.isKnownComponent(workerComponent.name()) ||
+               (ComponentStates.READY != coreComponent.componentState(workerComponent.name()))) {
+
+            Thread.sleep(10L);
+        }
+
+        assertEquals(1, coreComponent.componentCount());
+
+        coreComponent.messagebus().send(new StopMessage(ComponentNames.SIGINT_COMPONENT_NAME, coreComponent.name()));
+        coreThread.join();
+        workerThread.join();
+
+        assertEquals(SystemStates.STOPPED, coreComponent.systemState());
+        assertEquals(ComponentStates.STOPPED, coreComponent.componentState(workerComponent.name()));
+    }
+
+    /**
+     * Tests registering a component while the system is running and launching it with
+     * a runtime.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 10000L)
+    public void testRegisterAndLaunch() throws InterruptedException {
+
+        CoreComponent coreComponent = new CoreComponent(ComponentNames.CORE_COMPONENT_NAME);
+        ComponentRuntime runtime = new ComponentRuntime(coreComponent);
+        Thread runtimeThread = new Thread(runtime);
+        runtimeThread.start();
+
+        awaitSystemState(coreComponent, SystemStates.RUNNING);
+
+        NameRoleEntry entry = new NameRoleEntry("late worker", ComponentRoles.WORKER);
+        assertTrue(coreComponent.registerComponent(entry));
+        assertFalse(coreComponent.registerComponent(entry));
+        assertEquals(ComponentStates.UNKNOWN, coreComponent.componentState(entry.name));
+
+        runtime.launch(new WorkerComponent(entry.name));
+
+        while (ComponentStates.READY != coreComponent.componentState(entry.name)) {
+
+            Thread.sleep(10L);
+        }
+
+        coreComponent.messagebus().send(new StopMessage(ComponentNames.SIGINT_COMPONENT_NAME, coreComponent.name()));
+        runtimeThread.join();
+
+        assertEquals(SystemStates.STOPPED, coreComponent.systemState());
+        assertEquals(0, runtime.activeComponents());
+    }
+
+    /**
+     * Tests unregistering a component which was registered in advance. The system
+     * doesn't wait for the unregistered component anymore.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 10000L)
+    public void testUnregisterByMessage() throws InterruptedException {
+
+        String workerName = "leaving worker";
+        NameRoleEntry entry = new NameRoleEntry(workerName, ComponentRoles.WORKER);
+        CoreComponent coreComponent = new CoreComponent(ComponentNames.CORE_COMPONENT_NAME, entry);
+
+        Thread coreThread = new Thread(new CoreThread(coreComponent));
+        coreThread.start();
+
+        Thread.sleep(100L);
+        assertEquals(SystemStates.INITIALIZATION, coreComponent.systemState());
+
+        coreComponent.messagebus().send(new UnregisterComponentMessage(workerName, coreComponent.name()));
+
+        awaitSystemState(coreComponent, SystemStates.RUNNING);
+
+        assertFalse(coreComponent.isKnownComponent(workerName));
+        assertEquals(0, coreComponent.componentCount());
+        assertFalse(coreComponent.unregisterComponent(workerName));
+
+        coreComponent.messagebus().send(new StopMessage(ComponentNames.SIGINT_COMPONENT_NAME, coreComponent.name()));
+        coreThread.join();
+
+        assertEquals(SystemStates.STOPPED, coreComponent.systemState());
+        assertEquals(0, ((BlockingQueuingMessagebus) coreComponent.messagebus()).size(workerName));
+    }
+
+}
+
+
+/**
+ * A worker component which registers itself with the core component before it
+ * signals its readiness.
+ */
+class JoiningWorkerComponent extends WorkerComponent {
+
+    /**
+     * Creates a new component according to the specified parameter.
+     *
+     * @param name
+     *        the name of this component
+     */
+    JoiningWorkerComponent(String name) {
+
+        super(name);
+    }
+
+    /**
+     * Registers this component and waits for the stop signal.
+     */
+    @Override
+    public void run() {
+
+        sendMessage(new RegisterComponentMessage(name(), ComponentNames.CORE_COMPONENT_NAME, ComponentRoles.WORKER));
+        super.run();
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.core;
+
+
+import java.util.concurrent.ThreadFactory;
+
+import jmul.messaging.MessageQueryResult;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentRoles;
+import jmul.terminal.component.IndependentComponentBase;
+import jmul.terminal.component.SystemStates;
+import jmul.terminal.component.core.ComponentRuntime;
+import jmul.terminal.component.core.CoreComponent;
+import jmul.terminal.component.messages.ComponentReadyMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.misc.NameRoleEntry;
+
+
+/**
+ * This test suite tests launching and supervising components with a component
+ * runtime.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class ComponentRuntimeTest {
+
+    /**
+     * The number of components.
+     */
+    private static final int COMPONENTS;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        COMPONENTS = 200;
+    }
+
+    /**
+     * Tests the lifecycle of many components which are launched by a runtime. The
+     * runtime runs the core component on a separate thread.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 30000L)
+    public void testLifecycleWithManyComponents() throws InterruptedException {
+
+        NameRoleEntry[] entries = new NameRoleEntry[COMPONENTS];
+        for (int a = 0; a < COMPONENTS; a++) {
+
+            entries[a] = new NameRoleEntry("worker " + a, ComponentRoles.WORKER);
+        }
+
+        CoreComponent coreComponent = new CoreComponent(ComponentNames.CORE_COMPONENT_NAME, entries);
+        ComponentRuntime runtime = new ComponentRuntime(coreComponent);
+
+        for (NameRoleEntry entry : entries) {
+
+            runtime.launch(new WorkerComponent(entry.name));
+        }
+
+        Thread runtimeThread = new Thread(runtime);
+        runtimeThread.start();
+
+        while (SystemStates.RUNNING != coreComponent.systemState()) {
+
+            Thread.sleep(10L);
+        }
+
+        assertEquals(COMPONENTS, runtime.activeComponents());
+
+        coreComponent.messagebus().send(new StopMessage(ComponentNames.SIGINT_COMPONENT_NAME, coreComponent.name()));
+        runtimeThread.join();
+
+        assertEquals(SystemStates.STOPPED, coreComponent.systemState());
+        assertEquals(0, runtime.activeComponents());
+        assertTrue(runtime.join(1000L));
+    }
+
+    /**
+     * Tests launching a component which is unknown to the core component. The component
+     * is registered.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 10000L)
+    public void testLaunchUnknownComponent() throws InterruptedException {
+
+        CoreComponent coreComponent = new CoreComponent(ComponentNames.CORE_COMPONENT_NAME);
+        ComponentRuntime runtime = new ComponentRuntime(coreComponent);
+
+        runtime.launch(new WorkerComponent("unknown"));
+        assertTrue(coreComponent.isKnownComponent("unknown"));
+        assertEquals(1, coreComponent.componentCount());
+
+        coreComponent.messagebus().send(new StopMessage(ComponentNames.SIGINT_COMPONENT_NAME, "unknown"));
+        assertTrue(runtime.join(5000L));
+    }
+
+    /**
+     * Tests launching a component again after it has terminated.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 10000L)
+    public void testRelaunchComponent() throws InterruptedException {
+
+        NameRoleEntry entry = new NameRoleEntry("worker", ComponentRoles.WORKER);
+        CoreComponent coreComponent = new CoreComponent(ComponentNames.CORE_COMPONENT_NAME, entry);
+        ComponentRuntime runtime = new ComponentRuntime(coreComponent);
+
+        for (int a = 0; a < 3; a++) {
+
+            runtime.launch(new WorkerComponent(entry.name));
+            assertEquals(1, runtime.activeComponents());
+
+            coreComponent.messagebus().send(new StopMessage(ComponentNames.SIGINT_COMPONENT_NAME, entry.name));
+            assertTrue(runtime.join(5000L));
+            assertEquals(0, runtime.activeComponents());
+        }
+
+        assertEquals(1, coreComponent.componentCount());
+    }
+
+    /**
+     * Tests components which fail (i.e. before they are ready and while they are
+     * stopping). The failing components are unregistered, thus the system still
+     * reaches the states running and stopped and the runtime returns.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 10000L)
+    public void testFailingComponent() throws InterruptedException {
+
+        NameRoleEntry failingEntry = new NameRoleEntry("failing worker", ComponentRoles.WORKER);
+        NameRoleEntry stoppingEntry = new NameRoleEntry("failing stopping worker", ComponentRoles.WORKER);
+        NameRoleEntry workerEntry = new NameRoleEntry("worker", ComponentRoles.WORKER);
+
+        CoreComponent coreComponent =
+            new CoreComponent(ComponentNames.CORE_COMPONENT_NAME, failingEntry, stoppingEntry, workerEntry);
+
+        final ThreadFactory componentThreadFactory = ComponentRuntime.newThreadFactory();
+        ThreadFactory threadFactory = new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = componentThreadFactory.newThread(runnable);
+                thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+
+                    @Override
+                    public void uncaughtException(Thread thread, Throwable e) {
+
+                        // the failure is expected
+                    }
+                });
+
+                return thread;
+            }
+        };
+
+        ComponentRuntime runtime = new ComponentRuntime(coreComponent, threadFactory);
+
+        runtime.launch(new IndependentComponentBase(failingEntry.name) {
+
+            @Override
+            public void run() {
+
+                throw new IllegalStateException("failure");
+            }
+        });
+        runtime.launch(new IndependentComponentBase(stoppingEntry.name) {
+
+            @Override
+            public void run() {
+
+                sendMessage(new ComponentReadyMessage(name(), ComponentNames.CORE_COMPONENT_NAME));
+
+                while (true) {
+
+                    MessageQueryResult result = awaitMessage(1000L);
+
+                    if (result.existsResult() && (result.result() instanceof StopMessage)) {
+
+                        throw new IllegalStateException("failure while stopping");
+                    }
+                }
+            }
+        });
+        runtime.launch(new WorkerComponent(workerEntry.name));
+
+        Thread runtimeThread = new Thread(runtime);
+        runtimeThread.start();
+
+        while (SystemStates.RUNNING != coreComponent.systemState()) {
+
+            Thread.sleep(10L);
+        }
+
+        coreComponent.messagebus().send(new StopMessage(ComponentNames.SIGINT_COMPONENT_NAME, coreComponent.name()));
+        runtimeThread.join(5000L);
+
+        assertFalse(runtimeThread.isAlive());
+        assertEquals(SystemStates.STOPPED, coreComponent.systemState());
+        assertTrue(runtime.failure(failingEntry.name) instanceof IllegalStateException);
+        assertTrue(runtime.failure(stoppingEntry.name) instanceof IllegalStateException);
+        assertNull(runtime.failure(workerEntry.name));
+        assertFalse(coreComponent.isKnownComponent(failingEntry.name));
+    }
+
+}
@@ -39,6 +39,7 @@ import jmul.concurrent.threads.ThreadHelper;
 import jmul.test.classification.UnitTest;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
 import jmul.terminal.component.ComponentRoles;
@@ -90,8 +91,8 @@ public class CoreComponentLifecycle2Test {
 
         ThreadHelper.sleep(1000L);
 
-        System.out.println("Test:" + coreComponent.systemState().getStateName());
         assertEquals(SystemStates.RUNNING, coreComponent.systemState());
+        assertTrue(coreComponent.timeToRunning() >= 0L);
 
         try {
 
@@ -102,7 +103,6 @@ public class CoreComponentLifecycle2Test {
             throw new RuntimeException(e);
         }
 
-        System.out.println("Test:" + coreComponent.systemState().getStateName());
         assertEquals(SystemStates.STOPPED, coreComponent.systemState());
     }
 
@@ -37,6 +37,7 @@ package test.jmul.terminal.component.core;
 
 import jmul.concurrent.threads.ThreadHelper;
 
+import jmul.messaging.MessageQueryResult;
 import jmul.messaging.Messagebus;
 
 import jmul.test.classification.UnitTest;
@@ -44,8 +45,11 @@ import jmul.test.classification.UnitTest;
 import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
+import jmul.terminal.component.IndependentComponentBase;
 import jmul.terminal.component.SystemStates;
 import jmul.terminal.component.core.CoreComponent;
+import jmul.terminal.component.messages.ComponentReadyMessage;
+import jmul.terminal.component.messages.ComponentStoppedMessage;
 import jmul.terminal.component.messages.StopMessage;
 
 
@@ -146,3 +150,42 @@ class SendStopSignalThread implements Runnable {
     }
 
 }
+
+
+/**
+ * A worker component which signals its readiness and waits for the stop signal.
+ */
+class WorkerComponent extends IndependentComponentBase {
+
+    /**
+     * Creates a new component according to the specified parameter.
+     *
+     * @param name
+     *        the name of this component
+     */
+    WorkerComponent(String name) {
+
+        super(name);
+    }
+
+    /**
+     * Waits for the stop signal.
+     */
+    @Override
+    public void run() {
+
+        sendMessage(new ComponentReadyMessage(name(), ComponentNames.CORE_COMPONENT_NAME));
+
+        while (true) {
+
+            MessageQueryResult result = awaitMessage(1000L);
+
+            if (result.existsResult() && (result.result() instanceof StopMessage)) {
+
+                sendMessage(new ComponentStoppedMessage(name(), ComponentNames.CORE_COMPONENT_NAME));
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.core;
+
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentRoles;
+import jmul.terminal.component.SystemStates;
+import jmul.terminal.component.core.ComponentRuntime;
+import jmul.terminal.component.core.CoreComponent;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.misc.NameRoleEntry;
+import jmul.terminal.component.scheduling.BlockingIdleStrategy;
+
+
+/**
+ * This test suite tests the start-up of the core component and measures the time
+ * the system needs to reach the state running.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class CoreComponentStartupTest {
+
+    /**
+     * The number of components.
+     */
+    private static final int COMPONENTS;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        COMPONENTS = 100;
+    }
+
+    /**
+     * Runs the specified runtime until the system is running and stops it afterwards.
+     *
+     * @param coreComponent
+     *        the core component
+     * @param runtime
+     *        the runtime of the core component
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    private static void runAndStop(CoreComponent coreComponent, ComponentRuntime runtime)
+        throws InterruptedException {
+
+        assertEquals(-1L, coreComponent.timeToRunning());
+
+        Thread runtimeThread = new Thread(runtime);
+        runtimeThread.start();
+
+        while (SystemStates.RUNNING != coreComponent.systemState()) {
+
+            Thread.sleep(1L);
+        }
+
+        coreComponent.messagebus().send(new StopMessage(ComponentNames.SIGINT_COMPONENT_NAME, coreComponent.name()));
+        runtimeThread.join();
+
+        assertEquals(SystemStates.STOPPED, coreComponent.systemState());
+    }
+
+    /**
+     * Tests that a system without components passes through all start-up states
+     * without waiting for messages.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 10000L)
+    public void testStartupWithoutComponents() throws InterruptedException {
+
+        CoreComponent coreComponent = new CoreComponent(ComponentNames.CORE_COMPONENT_NAME);
+        runAndStop(coreComponent, new ComponentRuntime(coreComponent));
+
+        long timeout = BlockingIdleStrategy.DEFAULT_TIMEOUT * 1000000L;
+        assertTrue(coreComponent.timeToRunning() >= 0L);
+        assertTrue(coreComponent.timeToRunning() < timeout);
+    }
+
+    /**
+     * Tests that the system is running as soon as all components are ready.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 30000L)
+    public void testStartupWithManyComponents() throws InterruptedException {
+
+        NameRoleEntry[] entries = new NameRoleEntry[COMPONENTS];
+        for (int a = 0; a < COMPONENTS; a++) {
+
+            entries[a] = new NameRoleEntry("starting worker " + a, ComponentRoles.WORKER);
+        }
+
+        CoreComponent coreComponent = new CoreComponent(ComponentNames.CORE_COMPONENT_NAME, entries);
+        ComponentRuntime runtime = new ComponentRuntime(coreComponent);
+
+        for (NameRoleEntry entry : entries) {
+
+            runtime.launch(new WorkerComponent(entry.name));
+        }
+
+        runAndStop(coreComponent, runtime);
+
+        // the core has to wait for the ready messages of all components
+        assertTrue(coreComponent.timeToRunning() > 0L);
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.logging;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentRoles;
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.logging.FileLoggingComponent;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.misc.NameRoleEntry;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.MessagePriorities;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * This test suite tests the file logging component.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class FileLoggingComponentTest {
+
+    /**
+     * Tests that log entries which were sent before the stop message are written
+     * although the stop message overtakes them.
+     *
+     * @throws IOException
+     *         is thrown if the log file cannot be read
+     */
+    @Test(timeout = 10000L)
+    public void testLogEntriesBeforeStop() throws IOException {
+
+        File logFile = File.createTempFile("file-logging-test", ".log");
+        logFile.deleteOnExit();
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("core", "logger");
+        messagebus.setTopicPriority(StopMessage.STOP_TOPIC, MessagePriorities.CONTROL);
+
+        int entries = 1000;
+        for (int a = 0; a < entries; a++) {
+
+            messagebus.send(new LogEntryMessage("core", "logger", LogLevels.INFO, "entry " + a));
+        }
+        messagebus.send(new StopMessage("core", "logger"));
+
+        FileLoggingComponent loggingComponent =
+            new FileLoggingComponent("logger", LogLevels.DEBUG, logFile.getPath(),
+                                     new NameRoleEntry("core", ComponentRoles.CORE));
+        loggingComponent.connect(messagebus);
+        loggingComponent.run();
+
+        assertEquals(ComponentStates.STOPPED, loggingComponent.componentState());
+        assertEquals(0, messagebus.size("logger"));
+
+        String log = new String(Files.readAllBytes(logFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(log.contains("entry 0"));
+        assertTrue(log.contains("entry " + (entries - 1)));
+        assertEquals(0L, messagebus.deadLetterQueue().count());
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.messages;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jmul.messaging.PropertyKey;
+import jmul.messaging.StandardPropertyKeys;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.messages.ComponentMessage;
+import jmul.terminal.component.messages.CustomPropertyKeys;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * This test suite tests the array based properties of component messages.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class ComponentMessageTest {
+
+    /**
+     * Tests a message without custom properties.
+     */
+    @Test
+    public void testWithoutCustomProperties() {
+
+        StopMessage message = new StopMessage("sender", "receiver");
+
+        assertFalse(message.contains(CustomPropertyKeys.COMPONENT_STATE));
+        assertNull(message.get(CustomPropertyKeys.COMPONENT_STATE));
+        assertEquals(message.timestamp(), message.date().getTime());
+
+        List<PropertyKey> keys = keys(message);
+        assertEquals(Arrays.<PropertyKey>asList(StandardPropertyKeys.values()), keys);
+    }
+
+    /**
+     * Tests iterating over the properties of a message with custom properties.
+     */
+    @Test
+    public void testIterator() {
+
+        LogEntryMessage message = new LogEntryMessage("sender", "receiver", LogLevels.INFO, "entry");
+
+        List<PropertyKey> keys = keys(message);
+        assertEquals(6, keys.size());
+        assertTrue(keys.contains(CustomPropertyKeys.LOG_LEVEL));
+        assertTrue(keys.contains(CustomPropertyKeys.LOG_ENTRY));
+        assertFalse(keys.contains(CustomPropertyKeys.COMPONENT_STATE));
+    }
+
+    /**
+     * Tests adding a state to a message.
+     */
+    @Test
+    public void testWithState() {
+
+        LogEntryMessage message = new LogEntryMessage("sender", "receiver", LogLevels.INFO, "entry");
+        LogEntryMessage wrappedMessage = message.withState(ComponentStates.READY);
+
+        assertEquals(message.timestamp(), wrappedMessage.timestamp());
+        assertEquals(ComponentStates.READY, wrappedMessage.get(CustomPropertyKeys.COMPONENT_STATE));
+        assertEquals("entry", wrappedMessage.get(CustomPropertyKeys.LOG_ENTRY));
+        assertFalse(message.contains(CustomPropertyKeys.COMPONENT_STATE));
+    }
+
+    /**
+     * Tests creating a message without sender.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingSender() {
+
+        new StopMessage(" ", "receiver");
+    }
+
+    /**
+     * Collects the property keys of the specified message.
+     *
+     * @param message
+     *        a message
+     *
+     * @return all property keys
+     */
+    private static List<PropertyKey> keys(ComponentMessage message) {
+
+        List<PropertyKey> keys = new ArrayList<>();
+        for (PropertyKey key : message) {
+
+            keys.add(key);
+        }
+
+        return keys;
+    }
+
+}
@@ -34,7 +34,7 @@
 package test.jmul.terminal.component.messages;
 
 
-import jmul.messaging.StandardMessage;
+import jmul.messaging.Message;
 import jmul.messaging.StandardPropertyKeys;
 
 import jmul.misc.state.State;
@@ -76,7 +76,7 @@ public class MessageRewrapTest {
         State state = ComponentStates.UNKNOWN;
 
         ComponentReadyMessage original = new ComponentReadyMessage(sender, recipient);
-        StandardMessage rewrapped = MessageHelper.rewrapMessageWithState(original, state);
+        Message rewrapped = MessageHelper.rewrapMessageWithState(original, state);
         assertTrue(rewrapped instanceof ComponentReadyMessage);
 
         assertEquals(original.get(StandardPropertyKeys.SENDER), rewrapped.get(StandardPropertyKeys.SENDER));
@@ -98,7 +98,7 @@ public class MessageRewrapTest {
         State state = ComponentStates.UNKNOWN;
 
         ComponentStoppedMessage original = new ComponentStoppedMessage(sender, recipient);
-        StandardMessage rewrapped = MessageHelper.rewrapMessageWithState(original, state);
+        Message rewrapped = MessageHelper.rewrapMessageWithState(original, state);
         assertTrue(rewrapped instanceof ComponentStoppedMessage);
 
         assertEquals(original.get(StandardPropertyKeys.SENDER), rewrapped.get(StandardPropertyKeys.SENDER));
@@ -120,7 +120,7 @@ public class MessageRewrapTest {
         State state = ComponentStates.UNKNOWN;
 
         StopMessage original = new StopMessage(sender, recipient);
-        StandardMessage rewrapped = MessageHelper.rewrapMessageWithState(original, state);
+        Message rewrapped = MessageHelper.rewrapMessageWithState(original, state);
         assertTrue(rewrapped instanceof StopMessage);
 
         assertEquals(original.get(StandardPropertyKeys.SENDER), rewrapped.get(StandardPropertyKeys.SENDER));
@@ -144,7 +144,7 @@ public class MessageRewrapTest {
         State state = ComponentStates.UNKNOWN;
 
         LogEntryMessage original = new LogEntryMessage(sender, recipient, logLevel, logEntry);
-        StandardMessage rewrapped = MessageHelper.rewrapMessageWithState(original, state);
+        Message rewrapped = MessageHelper.rewrapMessageWithState(original, state);
         assertTrue(rewrapped instanceof LogEntryMessage);
 
         assertEquals(original.get(StandardPropertyKeys.SENDER), rewrapped.get(StandardPropertyKeys.SENDER));
@@ -34,13 +34,18 @@
 package test.jmul.terminal.component.messaging;
 
 
-import jmul.messaging.StandardMessage;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
 
 import jmul.misc.state.State;
 
 import jmul.test.classification.UnitTest;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
 import jmul.terminal.component.ComponentStates;
@@ -132,7 +137,7 @@ public class ComponentMessageHandlerTest {
 
         MessageHandler handler = new ComponentMessageHandler();
 
-        StandardMessage message = new StopMessage("sender", "receiver");
+        Message message = new StopMessage("sender", "receiver");
 
         handler.processMessage(message);
     }
@@ -145,7 +150,7 @@ public class ComponentMessageHandlerTest {
 
         MessageHandler handler = new ComponentMessageHandler();
 
-        StandardMessage message = new StopMessage("sender", "receiver");
+        Message message = new StopMessage("sender", "receiver");
         message = new StopMessage((StopMessage) message, SystemStates.ERROR);
 
         boolean result = handler.processMessage(message);
@@ -162,7 +167,7 @@ public class ComponentMessageHandlerTest {
         ((ComponentMessageHandler) handler).addRule(SystemStates.RUNNING, StopMessage.class, new DoNothingRule());
         assertEquals(1, handler.ruleCount());
 
-        StandardMessage message = new StopMessage("sender", "receiver");
+        Message message = new StopMessage("sender", "receiver");
         message = new StopMessage((StopMessage) message, SystemStates.RUNNING);
 
         boolean result = handler.processMessage(message);
@@ -180,13 +185,31 @@ public class ComponentMessageHandlerTest {
         ((ComponentMessageHandler) handler).addRule(SystemStates.RUNNING, StopMessage.class, new DoNothingRule());
         assertEquals(1, handler.ruleCount());
 
-        StandardMessage message = new StopMessage("sender", "receiver");
+        Message message = new StopMessage("sender", "receiver");
         message = new StopMessage((StopMessage) message, SystemStates.INITIALIZATION);
 
         boolean result = handler.processMessage(message);
         assertEquals(false, result);
     }
 
+    /**
+     * Tests the selector for a state which selects all messages for which there is a rule.
+     */
+    @Test
+    public void testSelector() {
+
+        ComponentMessageHandler handler = new ComponentMessageHandler();
+        Predicate<Message> selector = handler.selector(SystemStates.RUNNING);
+
+        Message message = new StopMessage("sender", "receiver");
+        assertFalse(selector.test(message));
+
+        handler.addRule(SystemStates.RUNNING, StopMessage.class, new DoNothingRule());
+        assertTrue(selector.test(message));
+        assertFalse(handler.selector(SystemStates.INITIALIZATION).test(message));
+        assertSame(selector, handler.selector(SystemStates.RUNNING));
+    }
+
     /**
      * Tests processing a message with a rule that cannot process the message.
      */
@@ -197,7 +220,7 @@ public class ComponentMessageHandlerTest {
         ((ComponentMessageHandler) handler).addRule(SystemStates.RUNNING, StopMessage.class, new FailProcessingRule());
         assertEquals(1, handler.ruleCount());
 
-        StandardMessage message = new StopMessage("sender", "receiver");
+        Message message = new StopMessage("sender", "receiver");
         message = new StopMessage((StopMessage) message, SystemStates.RUNNING);
 
         boolean result = handler.processMessage(message);
@@ -214,7 +237,7 @@ public class ComponentMessageHandlerTest {
         ((ComponentMessageHandler) handler).addRule(SystemStates.RUNNING, StopMessage.class, new ErrorProcessingRule());
         assertEquals(1, handler.ruleCount());
 
-        StandardMessage message = new StopMessage("sender", "receiver");
+        Message message = new StopMessage("sender", "receiver");
         message = new StopMessage((StopMessage) message, SystemStates.RUNNING);
 
         handler.processMessage(message);
@@ -231,7 +254,7 @@ public class ComponentMessageHandlerTest {
 class DoNothingRule implements MessageProcessingRule {
 
     @Override
-    public boolean processMessage(StandardMessage message) {
+    public boolean processMessage(Message message) {
 
         return true;
     }
@@ -247,7 +270,7 @@ class DoNothingRule implements MessageProcessingRule {
 class FailProcessingRule implements MessageProcessingRule {
 
     @Override
-    public boolean processMessage(StandardMessage message) {
+    public boolean processMessage(Message message) {
 
         return false;
     }
@@ -263,7 +286,7 @@ class FailProcessingRule implements MessageProcessingRule {
 class ErrorProcessingRule implements MessageProcessingRule {
 
     @Override
-    public boolean processMessage(StandardMessage message) {
+    public boolean processMessage(Message message) {
 
         throw new RuntimeException();
     }
@@ -0,0 +1,196 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.messaging;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageSender;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.ReplyMessage;
+import jmul.terminal.component.messages.RequestMessage;
+import jmul.terminal.component.messaging.RequestReplyClient;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests requests and replies.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class RequestReplyTest {
+
+    /**
+     * Tests many outstanding requests.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     * @throws ExecutionException
+     *         is thrown if a request failed
+     */
+    @Test(timeout = 20000L)
+    public void testPipelinedRequests() throws InterruptedException, ExecutionException {
+
+        final BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("requester", "responder");
+        RequestReplyClient client = new RequestReplyClient(newSender("requester", messagebus));
+
+        final int requests = 100;
+
+        Thread responder = new Thread() {
+
+            @Override
+            public void run() {
+
+                for (int a = 0; a < requests; a++) {
+
+                    RequestMessage request = (RequestMessage) messagebus.await(newQuery("responder")).result();
+                    messagebus.send(request.reply((Long) request.payload() * 2L));
+                }
+            }
+        };
+        responder.start();
+
+        List<CompletableFuture<ReplyMessage>> futures = new ArrayList<>();
+        for (long a = 0; a < requests; a++) {
+
+            futures.add(client.request("responder", "double", a, 10000L));
+        }
+
+        for (int a = 0; a < requests; a++) {
+
+            Message reply = messagebus.await(newQuery("requester")).result();
+            assertTrue(client.processMessage(reply));
+        }
+
+        for (int a = 0; a < requests; a++) {
+
+            assertEquals(Long.valueOf(a * 2L), futures.get(a).get().payload());
+        }
+
+        assertEquals(0, client.pendingRequests());
+        responder.join();
+    }
+
+    /**
+     * Tests a request without reply.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 10000L)
+    public void testTimeout() throws InterruptedException {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("requester", "responder");
+        RequestReplyClient client = new RequestReplyClient(newSender("requester", messagebus));
+
+        CompletableFuture<ReplyMessage> future = client.request("responder", "question", null, 50L);
+        assertEquals(1, client.pendingRequests());
+
+        try {
+
+            future.get();
+            fail("The request should have expired!");
+
+        } catch (ExecutionException e) {
+
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        assertEquals(0, client.pendingRequests());
+
+        RequestMessage request = (RequestMessage) messagebus.fetch(newQuery("responder")).result();
+        assertTrue(client.processMessage(request.reply("too late")));
+        assertEquals(0, client.pendingRequests());
+    }
+
+    /**
+     * Tests cancelling a request.
+     */
+    @Test
+    public void testCancel() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("requester", "responder");
+        RequestReplyClient client = new RequestReplyClient(newSender("requester", messagebus));
+
+        CompletableFuture<ReplyMessage> future = client.request("responder", "question", null, 10000L);
+        future.cancel(false);
+
+        assertEquals(0, client.pendingRequests());
+        assertFalse(client.processMessage(messagebus.fetch(newQuery("responder")).result()));
+    }
+
+    /**
+     * Creates a sender which sends messages via the specified messagebus.
+     *
+     * @param name
+     *        the name of the sender
+     * @param messagebus
+     *        a messagebus
+     *
+     * @return a sender
+     */
+    private static MessageSender newSender(final String name, final BlockingQueuingMessagebus messagebus) {
+
+        return new MessageSender() {
+
+            @Override
+            public String senderName() {
+
+                return name;
+            }
+
+            @Override
+            public void sendMessage(Message message) {
+
+                messagebus.send(message);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,198 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.misc;
+
+
+import java.util.Arrays;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentAddress;
+import jmul.terminal.component.ComponentRoles;
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.misc.ComponentRegistry;
+import jmul.terminal.component.misc.NameRoleEntry;
+
+
+/**
+ * This test suite tests a component registry.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class ComponentRegistryTest {
+
+    /**
+     * Tests creating a registry with components which are registered in advance.
+     */
+    @Test
+    public void testCreateRegistry() {
+
+        ComponentRegistry registry =
+            new ComponentRegistry(new NameRoleEntry("registry core", ComponentRoles.CORE),
+                                  new NameRoleEntry("registry logger", ComponentRoles.LOGGER));
+
+        assertEquals(2, registry.size());
+        assertEquals(2, registry.componentCount());
+        assertTrue(registry.existsName("registry core"));
+        assertTrue(registry.existsComponent("registry logger"));
+        assertTrue(registry.existsRole(ComponentRoles.LOGGER));
+        assertFalse(registry.existsRole(ComponentRoles.WORKER));
+
+        assertEquals("registry logger", registry.getNameByRole(ComponentRoles.LOGGER));
+        assertEquals(ComponentRoles.CORE, registry.getRoleByName("registry core"));
+        assertEquals(ComponentRoles.CORE, registry.getRoleByAddress(ComponentAddress.lookup("registry core")));
+        assertEquals("[registry core, registry logger]", Arrays.toString(registry.names()));
+        assertEquals(null, registry.getState("registry core"));
+    }
+
+    /**
+     * Tests registering and unregistering components. A component which is registered
+     * again has no state.
+     */
+    @Test
+    public void testRegisterAndUnregister() {
+
+        ComponentRegistry registry = new ComponentRegistry();
+        NameRoleEntry entry = new NameRoleEntry("registry worker 1", ComponentRoles.WORKER);
+
+        assertTrue(registry.register(entry));
+        assertFalse(registry.register(entry));
+        assertEquals(1, registry.size());
+
+        registry.updateState(entry.name, ComponentStates.READY);
+        assertEquals(ComponentStates.READY, registry.getState(entry.name));
+
+        ComponentAddress[] addresses = registry.addresses();
+
+        assertTrue(registry.unregister(entry.name));
+        assertFalse(registry.unregister(entry.name));
+        assertFalse(registry.existsName(entry.name));
+        assertFalse(registry.existsRole(ComponentRoles.WORKER));
+        assertEquals(0, registry.size());
+        assertEquals(1, addresses.length);
+
+        assertTrue(registry.register(entry));
+        assertEquals(null, registry.getState(entry.name));
+    }
+
+    /**
+     * Tests that the role of an unregistered component is taken over by the next
+     * component with the same role.
+     */
+    @Test
+    public void testRoleTakeover() {
+
+        ComponentRegistry registry =
+            new ComponentRegistry(new NameRoleEntry("registry worker 2", ComponentRoles.WORKER),
+                                  new NameRoleEntry("registry worker 3", ComponentRoles.WORKER));
+
+        assertEquals("registry worker 2", registry.getNameByRole(ComponentRoles.WORKER));
+
+        registry.unregister("registry worker 2");
+
+        assertEquals("registry worker 3", registry.getNameByRole(ComponentRoles.WORKER));
+    }
+
+    /**
+     * Tests checking if all registered components are in a specific state.
+     */
+    @Test
+    public void testInState() {
+
+        ComponentRegistry registry =
+            new ComponentRegistry(new NameRoleEntry("registry worker 4", ComponentRoles.WORKER),
+                                  new NameRoleEntry("registry worker 5", ComponentRoles.WORKER));
+
+        assertFalse(registry.inState(ComponentStates.READY));
+
+        registry.updateState("registry worker 4", ComponentStates.READY);
+        registry.updateState("registry worker 5", ComponentStates.UNKNOWN);
+        assertFalse(registry.inState(ComponentStates.READY));
+
+        registry.unregister("registry worker 5");
+        assertTrue(registry.inState(ComponentStates.READY));
+
+        assertTrue(new ComponentRegistry().inState(ComponentStates.READY));
+    }
+
+    /**
+     * Tests counting the components per state.
+     */
+    @Test
+    public void testCountInState() {
+
+        ComponentRegistry registry =
+            new ComponentRegistry(new NameRoleEntry("registry worker 6", ComponentRoles.WORKER),
+                                  new NameRoleEntry("registry worker 7", ComponentRoles.WORKER));
+
+        assertEquals(0, registry.countInState(ComponentStates.UNKNOWN));
+
+        registry.updateState("registry worker 6", ComponentStates.UNKNOWN);
+        registry.updateState("registry worker 7", ComponentStates.UNKNOWN);
+        assertEquals(2, registry.countInState(ComponentStates.UNKNOWN));
+
+        registry.updateState("registry worker 6", ComponentStates.READY);
+        assertEquals(1, registry.countInState(ComponentStates.UNKNOWN));
+        assertEquals(1, registry.countInState(ComponentStates.READY));
+
+        registry.unregister("registry worker 6");
+        assertEquals(0, registry.countInState(ComponentStates.READY));
+        assertEquals(1, registry.countInState(ComponentStates.UNKNOWN));
+    }
+
+    /**
+     * Tests looking up the state of an unknown component.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownComponent() {
+
+        new ComponentRegistry().getState("registry unknown");
+    }
+
+    /**
+     * Tests creating a registry with a <code>null</code> entry.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullEntry() {
+
+        new ComponentRegistry((NameRoleEntry) null);
+    }
+
+}
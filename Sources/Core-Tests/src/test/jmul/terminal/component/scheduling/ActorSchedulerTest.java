@@ -0,0 +1,369 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.scheduling;
+
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import jmul.messaging.Message;
+
+import jmul.misc.state.State;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.messages.ComponentReadyMessage;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.messaging.ComponentMessageHandler;
+import jmul.terminal.component.messaging.MessageHandler;
+import jmul.terminal.component.messaging.MessageProcessingRule;
+import jmul.terminal.component.scheduling.ActorScheduler;
+import jmul.terminal.component.scheduling.ScheduledComponentBase;
+import jmul.terminal.component.state.ComponentStateHandler;
+import jmul.terminal.component.state.StateHandler;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * This test suite tests running components on a shared pool.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class ActorSchedulerTest {
+
+    /**
+     * Tests many components which receive messages from several threads.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 30000L)
+    public void testManyComponents() throws InterruptedException {
+
+        final int components = 500;
+        final int messagesPerComponent = 200;
+
+        final BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus();
+        ActorScheduler scheduler = new ActorScheduler(messagebus, ActorScheduler.newPool(4), 16);
+
+        CountingComponent[] countingComponents = new CountingComponent[components];
+        for (int a = 0; a < components; a++) {
+
+            countingComponents[a] = new CountingComponent("component " + a, null);
+            scheduler.schedule(countingComponents[a]);
+        }
+
+        Thread[] senders = new Thread[4];
+        for (int a = 0; a < senders.length; a++) {
+
+            final int offset = a;
+            senders[a] = new Thread() {
+
+                @Override
+                public void run() {
+
+                    for (int b = offset; b < messagesPerComponent; b += 4) {
+
+                        for (int c = 0; c < components; c++) {
+
+                            messagebus.send(new LogEntryMessage("sender", "component " + c, LogLevels.INFO, "count"));
+                        }
+                    }
+                }
+            };
+            senders[a].start();
+        }
+
+        for (Thread sender : senders) {
+
+            sender.join();
+        }
+
+        for (CountingComponent component : countingComponents) {
+
+            messagebus.send(new StopMessage("sender", component.name()));
+        }
+
+        for (CountingComponent component : countingComponents) {
+
+            assertTrue(scheduler.awaitStop(component.name(), 10000L));
+            assertEquals(messagesPerComponent, component.count);
+        }
+
+        assertEquals(0, scheduler.activeComponents());
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests that a flooded component yields after its quota.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 30000L)
+    public void testFairness() throws InterruptedException {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("busy", "idle");
+        ExecutorService pool = ActorScheduler.newPool(1);
+        ActorScheduler scheduler = new ActorScheduler(messagebus, pool, 1);
+
+        for (int a = 0; a < 1000; a++) {
+
+            messagebus.send(new LogEntryMessage("sender", "busy", LogLevels.INFO, "count"));
+        }
+        messagebus.send(new StopMessage("sender", "busy"));
+        messagebus.send(new LogEntryMessage("sender", "idle", LogLevels.INFO, "count"));
+        messagebus.send(new StopMessage("sender", "idle"));
+
+        // The pool thread is blocked until both components have been scheduled, thus
+        // the busy component cannot run several times before the idle one is scheduled.
+        final CountDownLatch scheduled = new CountDownLatch(1);
+        pool.execute(new Runnable() {
+
+            @Override
+            public void run() {
+
+                try {
+
+                    scheduled.await();
+
+                } catch (InterruptedException e) {
+
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        List<String> processingOrder = new CopyOnWriteArrayList<>();
+        scheduler.schedule(new CountingComponent("busy", processingOrder));
+        scheduler.schedule(new CountingComponent("idle", processingOrder));
+        scheduled.countDown();
+
+        assertTrue(scheduler.awaitStop("busy", 10000L));
+        assertTrue(scheduler.awaitStop("idle", 10000L));
+
+        assertEquals(1001, processingOrder.size());
+        assertTrue(processingOrder.indexOf("idle") >= 0);
+        assertTrue(processingOrder.indexOf("idle") < 5);
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests that messages which cannot be processed in the current state don't block the
+     * messages behind them and are processed after the state has changed.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 30000L)
+    public void testStashedMessages() throws InterruptedException {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("gated");
+        ActorScheduler scheduler = new ActorScheduler(messagebus, ActorScheduler.newPool(1), 16);
+
+        for (int a = 0; a < 3; a++) {
+
+            messagebus.send(new LogEntryMessage("sender", "gated", LogLevels.INFO, "count"));
+        }
+        messagebus.send(new ComponentReadyMessage("sender", "gated"));
+
+        CountingComponent component = new CountingComponent("gated", null, true);
+        scheduler.schedule(component);
+
+        messagebus.send(new StopMessage("sender", "gated"));
+
+        assertTrue(scheduler.awaitStop("gated", 10000L));
+        assertEquals(3, component.count);
+        assertEquals(0, messagebus.deadLetterQueue().size());
+        scheduler.shutdown();
+    }
+
+}
+
+
+/**
+ * A component which counts messages until it receives a stop message.
+ */
+class CountingComponent extends ScheduledComponentBase {
+
+    /**
+     * The number of processed messages (i.e. isn't synchronized since the component
+     * must never run on two threads at the same time).
+     */
+    int count;
+
+    /**
+     * The state.
+     */
+    private volatile State state;
+
+    /**
+     * An entity that processes messages.
+     */
+    private final MessageHandler messageHandler;
+
+    /**
+     * An entity that updates state.
+     */
+    private final StateHandler stateHandler;
+
+    /**
+     * Records the names of components in the order in which they processed messages
+     * (i.e. may be <code>null</code>).
+     */
+    private final List<String> processingOrder;
+
+    /**
+     * A flag which indicates if this component waits for a ready message before it
+     * counts messages.
+     */
+    private final boolean gated;
+
+    /**
+     * Creates a new component according to the specified parameters.
+     *
+     * @param name
+     *        the name of this component
+     * @param processingOrder
+     *        a list which records the processing order or <code>null</code>
+     */
+    CountingComponent(String name, List<String> processingOrder) {
+
+        this(name, processingOrder, false);
+    }
+
+    /**
+     * Creates a new component according to the specified parameters.
+     *
+     * @param name
+     *        the name of this component
+     * @param processingOrder
+     *        a list which records the processing order or <code>null</code>
+     * @param gated
+     *        if <code>true</code> the component becomes ready after it has received a
+     *        ready message, else the component becomes ready when it starts
+     */
+    CountingComponent(String name, List<String> processingOrder, boolean gated) {
+
+        super(name);
+
+        this.processingOrder = processingOrder;
+        this.gated = gated;
+
+        state = ComponentStates.UNKNOWN;
+
+        ComponentMessageHandler componentMessageHandler = new ComponentMessageHandler();
+        componentMessageHandler.addRule(ComponentStates.READY, LogEntryMessage.class, new MessageProcessingRule() {
+
+            @Override
+            public boolean processMessage(Message message) {
+
+                count++;
+                record();
+                return true;
+            }
+        });
+        componentMessageHandler.addRule(ComponentStates.READY, StopMessage.class, new MessageProcessingRule() {
+
+            @Override
+            public boolean processMessage(Message message) {
+
+                state = state.transitionTo(ComponentStates.STOPPED);
+                return true;
+            }
+        });
+        componentMessageHandler.addRule(ComponentStates.UNKNOWN, ComponentReadyMessage.class,
+                                        new MessageProcessingRule() {
+
+            @Override
+            public boolean processMessage(Message message) {
+
+                state = state.transitionTo(ComponentStates.READY);
+                return true;
+            }
+        });
+        messageHandler = componentMessageHandler;
+
+        stateHandler = new ComponentStateHandler();
+    }
+
+    /**
+     * Records that this component processed a message.
+     */
+    private void record() {
+
+        if (processingOrder != null) {
+
+            processingOrder.add(name());
+        }
+    }
+
+    @Override
+    protected MessageHandler messageHandler() {
+
+        return messageHandler;
+    }
+
+    @Override
+    protected StateHandler stateHandler() {
+
+        return stateHandler;
+    }
+
+    @Override
+    public State componentState() {
+
+        return state;
+    }
+
+    @Override
+    protected void started() {
+
+        if (!gated) {
+
+            state = state.transitionTo(ComponentStates.READY);
+        }
+    }
+
+}
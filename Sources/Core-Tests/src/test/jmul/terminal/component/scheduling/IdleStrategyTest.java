@@ -0,0 +1,217 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.component.scheduling;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentBase;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.scheduling.BackoffIdleStrategy;
+import jmul.terminal.component.scheduling.BlockingIdleStrategy;
+import jmul.terminal.component.scheduling.BusySpinIdleStrategy;
+import jmul.terminal.component.scheduling.IdleStrategy;
+import jmul.terminal.component.scheduling.SpinYieldIdleStrategy;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+
+
+/**
+ * This test suite tests the idle strategies of component loops.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class IdleStrategyTest {
+
+    /**
+     * Tests the maximum blocking time of all idle strategies.
+     */
+    @Test
+    public void testMaxBlockingTime() {
+
+        assertEquals(0L, new BusySpinIdleStrategy().maxBlockingTime());
+        assertEquals(0L, new SpinYieldIdleStrategy().maxBlockingTime());
+        assertEquals(0L, new BackoffIdleStrategy().maxBlockingTime());
+        assertEquals(BlockingIdleStrategy.DEFAULT_TIMEOUT, new BlockingIdleStrategy().maxBlockingTime());
+        assertEquals(20L, new BlockingIdleStrategy(20L).maxBlockingTime());
+    }
+
+    /**
+     * Tests the exponential backoff of the park period and its reset.
+     */
+    @Test
+    public void testBackoff() {
+
+        BackoffIdleStrategy idleStrategy = new BackoffIdleStrategy(2, 1, 1000L, 8000L);
+
+        idleStrategy.idle(0);
+        idleStrategy.idle(0);
+        idleStrategy.idle(0);
+        assertEquals(1000L, idleStrategy.parkPeriod());
+
+        idleStrategy.idle(0);
+        assertEquals(2000L, idleStrategy.parkPeriod());
+
+        idleStrategy.idle(0);
+        idleStrategy.idle(0);
+        assertEquals(8000L, idleStrategy.parkPeriod());
+
+        idleStrategy.idle(0);
+        assertEquals(8000L, idleStrategy.parkPeriod());
+
+        idleStrategy.idle(1);
+        assertEquals(1000L, idleStrategy.parkPeriod());
+    }
+
+    /**
+     * Tests creating a backoff with an invalid park period.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParkPeriod() {
+
+        new BackoffIdleStrategy(1, 1, 2000L, 1000L);
+    }
+
+    /**
+     * Tests creating a blocking idle strategy with an invalid timeout.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimeout() {
+
+        new BlockingIdleStrategy(0L);
+    }
+
+    /**
+     * Tests that a blocking fetch without messages is accounted as idle time.
+     */
+    @Test
+    public void testBlockingIdleTime() {
+
+        PollingComponent component = new PollingComponent("blocking poller", new BlockingIdleStrategy(30L));
+        component.connect(new BlockingQueuingMessagebus(component.name()));
+
+        assertEquals(0, component.poll());
+        assertTrue(component.idleTime() >= 25L);
+        assertTrue(component.messages.isEmpty());
+    }
+
+    /**
+     * Tests fetching messages with non-blocking idle strategies.
+     */
+    @Test
+    public void testNonBlockingFetch() {
+
+        IdleStrategy[] idleStrategies =
+        { new BusySpinIdleStrategy(), new SpinYieldIdleStrategy(), new BackoffIdleStrategy() };
+
+        for (int a = 0; a < idleStrategies.length; a++) {
+
+            PollingComponent component = new PollingComponent("poller " + a, idleStrategies[a]);
+            component.connect(new BlockingQueuingMessagebus(component.name()));
+
+            long startTime = System.currentTimeMillis();
+            assertEquals(0, component.poll());
+            assertTrue(System.currentTimeMillis() - startTime < 30L);
+
+            Message message = new StopMessage("sender", component.name());
+            component.sendMessage(message);
+
+            assertEquals(1, component.poll());
+            assertSame(message, component.messages.get(0));
+        }
+    }
+
+}
+
+
+/**
+ * A component which fetches messages according to its idle strategy.
+ */
+class PollingComponent extends ComponentBase {
+
+    /**
+     * All fetched messages.
+     */
+    final List<Message> messages;
+
+    /**
+     * An entity which collects fetched messages.
+     */
+    private final Consumer<Message> messageCollector;
+
+    /**
+     * Creates a new component according to the specified parameters.
+     *
+     * @param name
+     *        the name of this component
+     * @param idleStrategy
+     *        an idle strategy
+     */
+    PollingComponent(String name, IdleStrategy idleStrategy) {
+
+        super(name, idleStrategy);
+
+        messages = new ArrayList<>();
+        messageCollector = new Consumer<Message>() {
+
+            @Override
+            public void accept(Message message) {
+
+                messages.add(message);
+            }
+        };
+    }
+
+    /**
+     * Fetches messages once.
+     *
+     * @return the number of fetched messages
+     */
+    int poll() {
+
+        return fetchMessages(16, messageCollector);
+    }
+
+}
@@ -0,0 +1,394 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import jmul.concurrent.threads.ThreadHelper;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQuery;
+import jmul.messaging.MessageQueryResult;
+import jmul.messaging.Receiver;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.BlockingMessagebus;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+
+
+/**
+ * This test suite tests the behaviour of a blocking messagebus.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class BlockingQueuingMessagebusTest {
+
+    /**
+     * Tests fetching a message from an empty messagebus.
+     */
+    @Test
+    public void testFetchFromEmptyMessagebus() {
+
+        BlockingMessagebus messagebus = new BlockingQueuingMessagebus();
+
+        MessageQueryResult result = messagebus.fetch(newQuery("receiver"));
+
+        assertFalse(result.existsResult());
+        assertEquals(0, messagebus.size());
+    }
+
+    /**
+     * Tests sending and fetching a message.
+     */
+    @Test
+    public void testSendAndFetch() {
+
+        BlockingMessagebus messagebus = new BlockingQueuingMessagebus();
+
+        Message message = new StopMessage("sender", "receiver");
+        messagebus.send(message);
+        assertEquals(1, messagebus.size());
+
+        MessageQueryResult result = messagebus.fetch(newQuery("receiver"));
+
+        assertTrue(result.existsResult());
+        assertSame(message, result.result());
+        assertEquals(0, messagebus.size());
+    }
+
+    /**
+     * Tests waiting for a message when no message is sent.
+     */
+    @Test(timeout = 5000L)
+    public void testAwaitWithTimeout() {
+
+        BlockingMessagebus messagebus = new BlockingQueuingMessagebus();
+
+        long start = System.currentTimeMillis();
+        MessageQueryResult result = messagebus.await(newQuery("receiver"), 100L);
+        long duration = System.currentTimeMillis() - start;
+
+        assertFalse(result.existsResult());
+        assertTrue(duration >= 90L);
+    }
+
+    /**
+     * Tests if a waiting receiver is woken up when a message is sent.
+     */
+    @Test(timeout = 5000L)
+    public void testAwaitIsWokenUpBySend() {
+
+        final BlockingMessagebus messagebus = new BlockingQueuingMessagebus();
+        final Message message = new StopMessage("sender", "receiver");
+
+        Thread thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                ThreadHelper.sleep(100L);
+                messagebus.send(message);
+            }
+        });
+        thread.start();
+
+        long start = System.currentTimeMillis();
+        MessageQueryResult result = messagebus.await(newQuery("receiver"), 4000L);
+        long duration = System.currentTimeMillis() - start;
+
+        assertTrue(result.existsResult());
+        assertSame(message, result.result());
+        assertTrue(duration < 4000L);
+    }
+
+    /**
+     * Tests a blocking fetch without timeout.
+     */
+    @Test(timeout = 5000L)
+    public void testAwaitWithoutTimeout() {
+
+        final BlockingMessagebus messagebus = new BlockingQueuingMessagebus();
+        final Message message = new StopMessage("sender", "receiver");
+
+        Thread thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                ThreadHelper.sleep(100L);
+                messagebus.send(message);
+            }
+        });
+        thread.start();
+
+        MessageQueryResult result = messagebus.await(newQuery("receiver"));
+
+        assertTrue(result.existsResult());
+        assertSame(message, result.result());
+    }
+
+    /**
+     * Tests waiting with an invalid timeout.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAwaitWithInvalidTimeout() {
+
+        BlockingMessagebus messagebus = new BlockingQueuingMessagebus();
+        messagebus.await(newQuery("receiver"), -1L);
+    }
+
+    /**
+     * Tests the handles of receivers which were registered in advance.
+     */
+    @Test
+    public void testReceiverHandles() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a", "b", "a");
+
+        int handleA = messagebus.receiverHandle("a");
+        int handleB = messagebus.receiverHandle("b");
+
+        assertNotEquals(BlockingQueuingMessagebus.NO_HANDLE, handleA);
+        assertNotEquals(BlockingQueuingMessagebus.NO_HANDLE, handleB);
+        assertNotEquals(handleA, handleB);
+        assertEquals(BlockingQueuingMessagebus.NO_HANDLE, messagebus.receiverHandle("c"));
+    }
+
+    /**
+     * Tests sending messages by handle and by name to a registered receiver.
+     */
+    @Test
+    public void testSendToRegisteredReceiver() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+        int handle = messagebus.receiverHandle("receiver");
+
+        Message message1 = new StopMessage("sender", "receiver");
+        Message message2 = new StopMessage("sender", "receiver");
+        messagebus.send(handle, message1);
+        messagebus.send(message2);
+        assertEquals(2, messagebus.size());
+
+        assertSame(message1, messagebus.fetch(newQuery("receiver")).result());
+        assertSame(message2, messagebus.fetch(handle).result());
+        assertFalse(messagebus.fetch(handle).existsResult());
+    }
+
+    /**
+     * Tests sending messages to a receiver which was not registered in advance.
+     */
+    @Test
+    public void testSendToDynamicReceiver() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+
+        Message message = new StopMessage("sender", "other receiver");
+        messagebus.send(message);
+        assertEquals(1, messagebus.size());
+
+        assertFalse(messagebus.fetch(newQuery("receiver")).existsResult());
+        assertSame(message, messagebus.fetch(newQuery("other receiver")).result());
+    }
+
+    /**
+     * Tests sending with an invalid handle.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSendWithInvalidHandle() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+        messagebus.send(BlockingQueuingMessagebus.NO_HANDLE, new StopMessage("sender", "receiver"));
+    }
+
+    /**
+     * Tests several producers which send messages concurrently to one receiver.
+     */
+    @Test(timeout = 20000L)
+    public void testConcurrentProducers() {
+
+        final int producerCount = 4;
+        final int messagesPerProducer = 10000;
+
+        final BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+
+        Thread[] producers = new Thread[producerCount];
+        for (int index = 0; index < producerCount; index++) {
+
+            producers[index] = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    for (int a = 0; a < messagesPerProducer; a++) {
+
+                        messagebus.send(new StopMessage("sender", "receiver"));
+                    }
+                }
+            });
+            producers[index].start();
+        }
+
+        int received = 0;
+        MessageQuery query = newQuery("receiver");
+        while (received < producerCount * messagesPerProducer) {
+
+            if (messagebus.await(query, 1000L).existsResult()) {
+
+                received++;
+            }
+        }
+
+        assertEquals(producerCount * messagesPerProducer, received);
+        assertEquals(0, messagebus.size());
+    }
+
+    /**
+     * Tests draining messages in batches.
+     */
+    @Test
+    public void testDrain() {
+
+        BlockingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+
+        for (int a = 0; a < 10; a++) {
+
+            messagebus.send(new StopMessage("sender", "receiver"));
+        }
+
+        MessageCollector collector = new MessageCollector();
+
+        assertEquals(4, messagebus.drain(newQuery("receiver"), 4, collector));
+        assertEquals(4, collector.messages.size());
+        assertEquals(6, messagebus.size());
+
+        assertEquals(6, messagebus.drain(newQuery("receiver"), 100, collector));
+        assertEquals(10, collector.messages.size());
+        assertEquals(0, messagebus.size());
+
+        assertEquals(0, messagebus.drain(newQuery("receiver"), 100, collector));
+        assertEquals(0, messagebus.drain(newQuery("unknown receiver"), 100, collector));
+    }
+
+    /**
+     * Tests if the order of messages is preserved when draining messages.
+     */
+    @Test
+    public void testDrainPreservesOrder() {
+
+        BlockingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+
+        List<Message> sentMessages = new ArrayList<>();
+        for (int a = 0; a < 10; a++) {
+
+            Message message = new StopMessage("sender", "receiver");
+            sentMessages.add(message);
+            messagebus.send(message);
+        }
+
+        MessageCollector collector = new MessageCollector();
+        messagebus.drain(newQuery("receiver"), 100, collector, 100L);
+
+        assertEquals(sentMessages, collector.messages);
+    }
+
+    /**
+     * Tests draining messages with a timeout when no message is sent.
+     */
+    @Test(timeout = 5000L)
+    public void testDrainWithTimeout() {
+
+        BlockingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+        MessageCollector collector = new MessageCollector();
+
+        assertEquals(0, messagebus.drain(newQuery("receiver"), 100, collector, 100L));
+        assertTrue(collector.messages.isEmpty());
+    }
+
+    /**
+     * Tests draining with an invalid maximum number of messages.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrainWithInvalidMaximum() {
+
+        BlockingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+        messagebus.drain(newQuery("receiver"), 0, new MessageCollector());
+    }
+
+    /**
+     * Creates a new query for the specified receiver.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return a query
+     */
+    public static MessageQuery newQuery(final String receiverName) {
+
+        return new MessageQuery(new Receiver() {
+
+            @Override
+            public String receiverName() {
+
+                return receiverName;
+            }
+        });
+    }
+
+}
+
+
+class MessageCollector implements Consumer<Message> {
+
+    final List<Message> messages = new ArrayList<>();
+
+    @Override
+    public void accept(Message message) {
+
+        messages.add(message);
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.MailboxOverflowException;
+import jmul.terminal.messaging.OverflowPolicies;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests topic subscriptions and broadcasts.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class BroadcastTest {
+
+    /**
+     * Tests publishing a message to several subscribers.
+     */
+    @Test
+    public void testPublish() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a", "b");
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "a");
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "b");
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "c");
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "c");
+
+        Message message = new StopMessage("sender", BlockingQueuingMessagebus.ALL_SUBSCRIBERS);
+        assertEquals(3, messagebus.publish(message));
+        assertEquals(3, messagebus.size());
+
+        assertSame(message, messagebus.fetch(newQuery("a")).result());
+        assertSame(message, messagebus.fetch(newQuery("b")).result());
+        assertSame(message, messagebus.fetch(newQuery("c")).result());
+        assertFalse(messagebus.fetch(newQuery("c")).existsResult());
+    }
+
+    /**
+     * Tests publishing a message without subscribers.
+     */
+    @Test
+    public void testPublishWithoutSubscribers() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+
+        assertEquals(0, messagebus.publish(new StopMessage("sender", BlockingQueuingMessagebus.ALL_SUBSCRIBERS)));
+        assertEquals(0, messagebus.size());
+    }
+
+    /**
+     * Tests removing a subscription.
+     */
+    @Test
+    public void testUnsubscribe() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a", "b");
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "a");
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "b");
+        messagebus.unsubscribe(StopMessage.STOP_TOPIC, "a");
+        messagebus.unsubscribe(StopMessage.STOP_TOPIC, "unknown");
+
+        assertEquals(1, messagebus.publish(new StopMessage("sender", BlockingQueuingMessagebus.ALL_SUBSCRIBERS)));
+        assertFalse(messagebus.fetch(newQuery("a")).existsResult());
+    }
+
+    /**
+     * Tests publishing a message when a subscriber's mailbox is full.
+     */
+    @Test
+    public void testPublishToFullMailbox() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a", "b");
+        messagebus.configureMailbox("a", new MailboxConfiguration(1, OverflowPolicies.FAIL));
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "a");
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "b");
+
+        messagebus.publish(new StopMessage("sender", BlockingQueuingMessagebus.ALL_SUBSCRIBERS));
+
+        try {
+
+            messagebus.publish(new StopMessage("sender", BlockingQueuingMessagebus.ALL_SUBSCRIBERS));
+            fail("The mailbox should have rejected the message!");
+
+        } catch (MailboxOverflowException e) {
+
+            // expected
+        }
+
+        assertEquals(3, messagebus.size());
+        assertEquals(1L, messagebus.rejectedMessages("a"));
+    }
+
+    /**
+     * Tests subscribing without topic.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubscribeWithoutTopic() {
+
+        new BlockingQueuingMessagebus("a").subscribe(null, "a");
+    }
+
+}
@@ -0,0 +1,355 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.DeadLetter;
+import jmul.terminal.messaging.DeadLetterListener;
+import jmul.terminal.messaging.DeadLetterQueue;
+import jmul.terminal.messaging.DeadLetterReasons;
+import jmul.terminal.messaging.Mailbox;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.MailboxListener;
+import jmul.terminal.messaging.OverflowPolicies;
+import jmul.terminal.messaging.ProducerTypes;
+import jmul.terminal.messaging.RingBufferLane;
+import jmul.terminal.messaging.WaitStrategies;
+import jmul.terminal.utils.logging.LogLevels;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests the dead letter queue, the reclamation of mailboxes and the
+ * expiry of messages.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class DeadLetterTest {
+
+    /**
+     * Tests sending a message to an unknown receiver when dynamic receivers are disabled.
+     */
+    @Test
+    public void testUnknownReceiver() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+        messagebus.setDynamicReceivers(false);
+
+        Message message = new StopMessage("sender", "typo");
+        messagebus.send(message);
+
+        assertEquals(0, messagebus.size());
+        assertEquals(1, messagebus.deadLetterQueue().size());
+        assertEquals(1L, messagebus.deadLetterQueue().count(DeadLetterReasons.UNKNOWN_RECEIVER));
+
+        DeadLetter deadLetter = messagebus.deadLetterQueue().poll();
+        assertSame(message, deadLetter.message());
+        assertEquals(DeadLetterReasons.UNKNOWN_RECEIVER, deadLetter.reason());
+        assertEquals(0, messagebus.deadLetterQueue().size());
+    }
+
+    /**
+     * Tests sending a message to a receiver which has opened its mailbox when dynamic
+     * receivers are disabled.
+     */
+    @Test
+    public void testOpenedMailbox() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+        messagebus.setDynamicReceivers(false);
+        messagebus.openMailbox("b");
+
+        Message message = new StopMessage("sender", "b");
+        messagebus.send(message);
+
+        assertSame(message, messagebus.fetch(newQuery("b")).result());
+        assertEquals(0L, messagebus.deadLetterQueue().count());
+    }
+
+    /**
+     * Tests that waiting for messages doesn't create a mailbox for an unknown receiver
+     * or reopen a closed mailbox when dynamic receivers are disabled.
+     */
+    @Test(timeout = 5000L)
+    public void testAwaitUnknownReceiver() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+        messagebus.setDynamicReceivers(false);
+        messagebus.openMailbox("b");
+        messagebus.closeMailbox("b");
+
+        assertFalse(messagebus.await(newQuery("typo"), 10L).existsResult());
+        assertFalse(messagebus.await(newQuery("b"), 10L).existsResult());
+        assertEquals(0, messagebus.drain(newQuery("b"), 10, new MessageCollector(), 10L));
+
+        messagebus.send(new StopMessage("sender", "typo"));
+        messagebus.send(new StopMessage("sender", "b"));
+
+        assertEquals(0, messagebus.size());
+        assertEquals(2L, messagebus.deadLetterQueue().count(DeadLetterReasons.UNKNOWN_RECEIVER));
+    }
+
+    /**
+     * Tests that a sender which must not wait gets rid of a message which doesn't fit
+     * into the receiver's mailbox (e.g. the core component and a slow logger).
+     */
+    @Test(timeout = 5000L)
+    public void testTrySend() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("logger");
+        messagebus.configureMailbox("logger", new MailboxConfiguration(2, LogLevels.WARNING));
+        messagebus.useLane("logger", new RingBufferLane(2, ProducerTypes.MULTI, WaitStrategies.YIELDING));
+
+        Message first = new LogEntryMessage("core", "logger", LogLevels.ERROR, "first");
+        Message second = new LogEntryMessage("core", "logger", LogLevels.WARNING, "second");
+        Message third = new LogEntryMessage("core", "logger", LogLevels.ERROR, "third");
+
+        assertTrue(messagebus.trySend(first));
+        assertTrue(messagebus.trySend(second));
+        assertFalse(messagebus.trySend(third));
+
+        assertEquals(2, messagebus.size("logger"));
+        assertEquals(1L, messagebus.rejectedMessages("logger"));
+        assertEquals(1L, messagebus.deadLetterQueue().count(DeadLetterReasons.REJECTED));
+        assertSame(third, messagebus.deadLetterQueue().snapshot().get(0).message());
+    }
+
+    /**
+     * Tests the capacity limit of a dead letter queue.
+     */
+    @Test
+    public void testEviction() {
+
+        DeadLetterQueue deadLetterQueue = new DeadLetterQueue(2);
+
+        Message first = new StopMessage("sender", "x");
+        Message second = new StopMessage("sender", "y");
+        Message third = new StopMessage("sender", "z");
+
+        deadLetterQueue.add(first, DeadLetterReasons.UNKNOWN_RECEIVER);
+        deadLetterQueue.add(second, DeadLetterReasons.UNKNOWN_RECEIVER);
+        deadLetterQueue.add(third, DeadLetterReasons.EXPIRED);
+
+        assertEquals(2, deadLetterQueue.size());
+        assertEquals(3L, deadLetterQueue.count());
+        assertEquals(2L, deadLetterQueue.count(DeadLetterReasons.UNKNOWN_RECEIVER));
+        assertEquals(1L, deadLetterQueue.count(DeadLetterReasons.EXPIRED));
+        assertEquals(1L, deadLetterQueue.evictedDeadLetters());
+
+        List<DeadLetter> deadLetters = deadLetterQueue.snapshot();
+        assertSame(second, deadLetters.get(0).message());
+        assertSame(third, deadLetters.get(1).message());
+    }
+
+    /**
+     * Tests sampling dead letters.
+     */
+    @Test
+    public void testSampler() {
+
+        final List<Long> samples = new CopyOnWriteArrayList<>();
+
+        DeadLetterQueue deadLetterQueue = new DeadLetterQueue();
+        deadLetterQueue.setSampler(new DeadLetterListener() {
+
+            @Override
+            public void deadLetterSampled(DeadLetter deadLetter, long count) {
+
+                samples.add(count);
+            }
+        }, 10);
+
+        for (int a = 0; a < 25; a++) {
+
+            deadLetterQueue.add(new StopMessage("sender", "x"), DeadLetterReasons.UNKNOWN_RECEIVER);
+        }
+
+        assertEquals(3, samples.size());
+        assertEquals(Long.valueOf(1L), samples.get(0));
+        assertEquals(Long.valueOf(11L), samples.get(1));
+        assertEquals(Long.valueOf(21L), samples.get(2));
+    }
+
+    /**
+     * Tests closing the mailbox of a dynamic receiver.
+     */
+    @Test
+    public void testCloseDynamicMailbox() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+        messagebus.subscribe(StopMessage.STOP_TOPIC, "b");
+        messagebus.send(new StopMessage("sender", "b"));
+        messagebus.send(new StopMessage("sender", "b"));
+
+        assertEquals(2, messagebus.closeMailbox("b"));
+        assertEquals(0, messagebus.size());
+        assertFalse(messagebus.statistics().containsKey("b"));
+        assertEquals(2L, messagebus.deadLetterQueue().count(DeadLetterReasons.RECLAIMED));
+        assertEquals(0, messagebus.publish(new StopMessage("sender", BlockingQueuingMessagebus.ALL_SUBSCRIBERS)));
+        assertEquals(0, messagebus.closeMailbox("b"));
+    }
+
+    /**
+     * Tests closing and reopening the mailbox of a registered receiver. The listener of
+     * the mailbox is notified again after the mailbox has been reopened.
+     */
+    @Test
+    public void testCloseRegisteredMailbox() {
+
+        final List<String> notifications = new CopyOnWriteArrayList<>();
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+        messagebus.setMailboxListener("a", new MailboxListener() {
+
+            @Override
+            public void messageArrived(String receiverName) {
+
+                notifications.add(receiverName);
+            }
+        });
+        messagebus.send(new StopMessage("sender", "a"));
+
+        assertEquals(1, messagebus.closeMailbox("a"));
+        assertEquals(1L, messagebus.deadLetterQueue().count(DeadLetterReasons.RECLAIMED));
+
+        messagebus.send(new StopMessage("sender", "a"));
+        assertEquals(0, messagebus.size());
+        assertEquals(1L, messagebus.deadLetterQueue().count(DeadLetterReasons.CLOSED));
+        assertEquals(0L, messagebus.deadLetterQueue().count(DeadLetterReasons.UNKNOWN_RECEIVER));
+        assertEquals(1, notifications.size());
+
+        messagebus.openMailbox("a");
+
+        Message message = new StopMessage("sender", "a");
+        messagebus.send(message);
+        assertEquals(2, notifications.size());
+        assertSame(message, messagebus.fetch(newQuery("a")).result());
+    }
+
+    /**
+     * Tests that expired messages are not delivered.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test thread is interrupted
+     */
+    @Test
+    public void testExpiry() throws InterruptedException {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+        messagebus.setTimeToLive(20L);
+        messagebus.send(new LogEntryMessage("sender", "a", LogLevels.INFO, "stale"));
+
+        Thread.sleep(50L);
+
+        Message message = new LogEntryMessage("sender", "a", LogLevels.INFO, "fresh");
+        messagebus.send(message);
+
+        assertSame(message, messagebus.fetch(newQuery("a")).result());
+        assertEquals(1L, messagebus.expiredMessages());
+        assertEquals(1L, messagebus.deadLetterQueue().count(DeadLetterReasons.EXPIRED));
+    }
+
+    /**
+     * Tests purging expired messages which nobody fetches.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test thread is interrupted
+     */
+    @Test
+    public void testPurge() throws InterruptedException {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a", "b");
+        messagebus.useLane("b", new RingBufferLane(16, ProducerTypes.MULTI, WaitStrategies.YIELDING));
+        messagebus.setTimeToLive(20L);
+
+        for (int a = 0; a < 5; a++) {
+
+            messagebus.send(new LogEntryMessage("sender", "a", LogLevels.INFO, "stale"));
+            messagebus.send(new LogEntryMessage("sender", "b", LogLevels.INFO, "stale"));
+        }
+
+        Thread.sleep(50L);
+        messagebus.send(new LogEntryMessage("sender", "a", LogLevels.INFO, "fresh"));
+
+        assertEquals(10, messagebus.purgeExpiredMessages());
+        assertEquals(1, messagebus.size());
+        assertEquals(0, messagebus.purgeExpiredMessages());
+    }
+
+    /**
+     * Tests that a full mailbox discards expired messages before applying its overflow
+     * policy.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test thread is interrupted
+     */
+    @Test
+    public void testExpiryMakesSpace() throws InterruptedException {
+
+        DeadLetterQueue deadLetterQueue = new DeadLetterQueue();
+
+        Mailbox mailbox = new Mailbox("a", new MailboxConfiguration(1, OverflowPolicies.FAIL));
+        mailbox.setDeadLetterQueue(deadLetterQueue);
+        mailbox.setTimeToLive(20L);
+        mailbox.put(new LogEntryMessage("sender", "a", LogLevels.INFO, "stale"));
+
+        Thread.sleep(50L);
+
+        Message message = new LogEntryMessage("sender", "a", LogLevels.INFO, "fresh");
+        assertTrue(mailbox.put(message));
+        assertSame(message, mailbox.poll());
+        assertNull(mailbox.poll());
+        assertEquals(0L, mailbox.rejectedMessages());
+        assertEquals(1L, deadLetterQueue.count(DeadLetterReasons.EXPIRED));
+    }
+
+}
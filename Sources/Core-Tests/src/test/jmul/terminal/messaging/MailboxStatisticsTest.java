@@ -0,0 +1,153 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import java.util.Map;
+
+import jmul.concurrent.threads.ThreadHelper;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.MailboxStatistics;
+import jmul.terminal.messaging.OverflowPolicies;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests the counters of mailboxes.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class MailboxStatisticsTest {
+
+    /**
+     * Tests depth, high water mark and the enqueue and dequeue counters.
+     */
+    @Test
+    public void testCounters() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a", "b");
+
+        for (int a = 0; a < 10; a++) {
+
+            messagebus.send(new StopMessage("sender", "a"));
+        }
+
+        for (int a = 0; a < 4; a++) {
+
+            messagebus.fetch(newQuery("a"));
+        }
+
+        messagebus.send(new StopMessage("sender", "a"));
+
+        MailboxStatistics statistics = messagebus.statistics("a");
+        assertEquals("a", statistics.receiverName());
+        assertEquals(7, statistics.depth());
+        assertEquals(10, statistics.highWaterMark());
+        assertEquals(11L, statistics.enqueuedMessages());
+        assertEquals(4L, statistics.dequeuedMessages());
+        assertEquals(7, messagebus.size("a"));
+        assertEquals(0, messagebus.size("b"));
+    }
+
+    /**
+     * Tests the counters of a full mailbox.
+     */
+    @Test
+    public void testDroppedMessages() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+        messagebus.configureMailbox("a", new MailboxConfiguration(2, OverflowPolicies.DROP_NEWEST));
+
+        for (int a = 0; a < 5; a++) {
+
+            messagebus.send(new StopMessage("sender", "a"));
+        }
+
+        MailboxStatistics statistics = messagebus.statistics("a");
+        assertEquals(2, statistics.depth());
+        assertEquals(2, statistics.highWaterMark());
+        assertEquals(2L, statistics.enqueuedMessages());
+        assertEquals(3L, statistics.droppedMessages());
+    }
+
+    /**
+     * Tests snapshots of all mailboxes.
+     */
+    @Test
+    public void testAllStatistics() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a", "b");
+        messagebus.send(new StopMessage("sender", "c"));
+
+        Map<String, MailboxStatistics> statistics = messagebus.statistics();
+        assertEquals(3, statistics.size());
+        assertEquals(0, statistics.get("a").depth());
+        assertEquals(1, statistics.get("c").depth());
+        assertEquals(0, messagebus.statistics("unknown").depth());
+    }
+
+    /**
+     * Tests the rates between two snapshots.
+     */
+    @Test
+    public void testRates() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("a");
+        MailboxStatistics earlierSnapshot = messagebus.statistics("a");
+
+        for (int a = 0; a < 100; a++) {
+
+            messagebus.send(new StopMessage("sender", "a"));
+        }
+
+        ThreadHelper.sleep(10L);
+        MailboxStatistics laterSnapshot = messagebus.statistics("a");
+
+        double enqueueRate = laterSnapshot.enqueueRate(earlierSnapshot);
+        assertTrue(enqueueRate > 0.0d);
+        assertTrue(enqueueRate <= 100.0d * 1000.0d / 10.0d);
+        assertEquals(0.0d, laterSnapshot.dequeueRate(earlierSnapshot), 0.0d);
+    }
+
+}
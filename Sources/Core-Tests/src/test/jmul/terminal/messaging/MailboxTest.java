@@ -0,0 +1,223 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import jmul.concurrent.threads.ThreadHelper;
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.Mailbox;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.MailboxOverflowException;
+import jmul.terminal.messaging.OverflowPolicies;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * This test suite tests the capacity limits and overflow policies of a mailbox.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class MailboxTest {
+
+    /**
+     * Tests a mailbox without capacity limit.
+     */
+    @Test
+    public void testUnboundedMailbox() {
+
+        Mailbox mailbox = new Mailbox("receiver");
+
+        for (int a = 0; a < 1000; a++) {
+
+            assertTrue(mailbox.put(new StopMessage("sender", "receiver")));
+        }
+
+        assertEquals(1000, mailbox.size());
+        assertEquals(0L, mailbox.droppedMessages());
+        assertEquals(0L, mailbox.rejectedMessages());
+    }
+
+    /**
+     * Tests the overflow policy which rejects new messages.
+     */
+    @Test
+    public void testFailPolicy() {
+
+        Mailbox mailbox = new Mailbox("receiver", new MailboxConfiguration(2, OverflowPolicies.FAIL));
+
+        mailbox.put(new StopMessage("sender", "receiver"));
+        mailbox.put(new StopMessage("sender", "receiver"));
+
+        try {
+
+            mailbox.put(new StopMessage("sender", "receiver"));
+            fail("The message wasn't rejected!");
+
+        } catch (MailboxOverflowException e) {
+
+            // expected
+        }
+
+        assertEquals(2, mailbox.size());
+        assertEquals(1L, mailbox.rejectedMessages());
+        assertEquals(0L, mailbox.droppedMessages());
+    }
+
+    /**
+     * Tests the overflow policy which drops new messages.
+     */
+    @Test
+    public void testDropNewestPolicy() {
+
+        Mailbox mailbox = new Mailbox("receiver", new MailboxConfiguration(2, OverflowPolicies.DROP_NEWEST));
+
+        Message message1 = new StopMessage("sender", "receiver");
+        Message message2 = new StopMessage("sender", "receiver");
+        Message message3 = new StopMessage("sender", "receiver");
+
+        assertTrue(mailbox.put(message1));
+        assertTrue(mailbox.put(message2));
+        assertFalse(mailbox.put(message3));
+
+        assertEquals(2, mailbox.size());
+        assertEquals(1L, mailbox.droppedMessages());
+        assertSame(message1, mailbox.poll());
+        assertSame(message2, mailbox.poll());
+    }
+
+    /**
+     * Tests the overflow policy which drops the oldest messages.
+     */
+    @Test
+    public void testDropOldestPolicy() {
+
+        Mailbox mailbox = new Mailbox("receiver", new MailboxConfiguration(2, OverflowPolicies.DROP_OLDEST));
+
+        Message message1 = new StopMessage("sender", "receiver");
+        Message message2 = new StopMessage("sender", "receiver");
+        Message message3 = new StopMessage("sender", "receiver");
+
+        assertTrue(mailbox.put(message1));
+        assertTrue(mailbox.put(message2));
+        assertTrue(mailbox.put(message3));
+
+        assertEquals(2, mailbox.size());
+        assertEquals(1L, mailbox.droppedMessages());
+        assertSame(message2, mailbox.poll());
+        assertSame(message3, mailbox.poll());
+    }
+
+    /**
+     * Tests the overflow policy which drops log entries according to their log level.
+     */
+    @Test(timeout = 5000L)
+    public void testDropByLogLevelPolicy() {
+
+        Mailbox mailbox = new Mailbox("receiver", new MailboxConfiguration(1, LogLevels.WARNING));
+
+        assertTrue(mailbox.put(new LogEntryMessage("sender", "receiver", LogLevels.ERROR, "a")));
+        assertFalse(mailbox.put(new LogEntryMessage("sender", "receiver", LogLevels.DEBUG, "b")));
+
+        assertEquals(1, mailbox.size());
+        assertEquals(1L, mailbox.droppedMessages());
+    }
+
+    /**
+     * Tests the overflow policy which blocks the sender until there is space.
+     */
+    @Test(timeout = 5000L)
+    public void testBlockPolicy() {
+
+        final Mailbox mailbox = new Mailbox("receiver", new MailboxConfiguration(1, OverflowPolicies.BLOCK));
+
+        Message message1 = new StopMessage("sender", "receiver");
+        final Message message2 = new StopMessage("sender", "receiver");
+        mailbox.put(message1);
+
+        Thread sender = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                mailbox.put(message2);
+            }
+        });
+        sender.start();
+
+        ThreadHelper.sleep(200L);
+        assertTrue(sender.isAlive());
+        assertEquals(1, mailbox.size());
+
+        assertSame(message1, mailbox.poll());
+        ThreadHelper.waitForThreadToEnd(sender);
+
+        assertEquals(1, mailbox.size());
+        assertSame(message2, mailbox.poll());
+        assertEquals(0L, mailbox.droppedMessages());
+        assertEquals(0L, mailbox.rejectedMessages());
+    }
+
+    /**
+     * Tests creating a configuration with an invalid capacity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+
+        new MailboxConfiguration(0, OverflowPolicies.BLOCK);
+    }
+
+    /**
+     * Tests creating a configuration which drops log entries without threshold.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingLogLevelThreshold() {
+
+        new MailboxConfiguration(1, OverflowPolicies.DROP_BY_LOG_LEVEL);
+    }
+
+}
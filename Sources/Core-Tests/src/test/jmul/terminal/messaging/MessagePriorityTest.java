@@ -0,0 +1,159 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.Mailbox;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.MessagePriorities;
+import jmul.terminal.messaging.OverflowPolicies;
+import jmul.terminal.utils.logging.LogLevels;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests the delivery order of control messages and standard messages.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class MessagePriorityTest {
+
+    /**
+     * Tests a control message which overtakes pending standard messages.
+     */
+    @Test
+    public void testControlMessageOvertakes() {
+
+        Mailbox mailbox = new Mailbox("receiver");
+
+        for (int a = 0; a < 1000; a++) {
+
+            mailbox.put(new LogEntryMessage("sender", "receiver", LogLevels.INFO, "text"));
+        }
+
+        Message stopMessage = new StopMessage("sender", "receiver");
+        mailbox.put(stopMessage, MessagePriorities.CONTROL);
+
+        assertEquals(1001, mailbox.size());
+        assertSame(stopMessage, mailbox.poll());
+        assertEquals(1000, mailbox.size());
+    }
+
+    /**
+     * Tests a control message which is sent to a full mailbox.
+     */
+    @Test
+    public void testControlMessageIgnoresCapacity() {
+
+        Mailbox mailbox = new Mailbox("receiver", new MailboxConfiguration(1, OverflowPolicies.FAIL));
+        mailbox.put(new LogEntryMessage("sender", "receiver", LogLevels.INFO, "text"));
+
+        assertTrue(mailbox.put(new StopMessage("sender", "receiver"), MessagePriorities.CONTROL));
+        assertEquals(2, mailbox.size());
+    }
+
+    /**
+     * Tests that standard messages are not starved by control messages.
+     */
+    @Test
+    public void testStarvationProtection() {
+
+        Mailbox mailbox = new Mailbox("receiver");
+
+        Message standardMessage = new LogEntryMessage("sender", "receiver", LogLevels.INFO, "text");
+        mailbox.put(standardMessage);
+
+        for (int a = 0; a < 1000; a++) {
+
+            mailbox.put(new StopMessage("sender", "receiver"), MessagePriorities.CONTROL);
+        }
+
+        int position = 0;
+        while (mailbox.poll() != standardMessage) {
+
+            position++;
+        }
+
+        assertTrue(position < 1000);
+
+        int remainingMessages = 0;
+        while (mailbox.poll() != null) {
+
+            remainingMessages++;
+        }
+
+        assertEquals(1000 - position, remainingMessages);
+        assertNull(mailbox.poll());
+    }
+
+    /**
+     * Tests topic priorities of a messagebus.
+     */
+    @Test
+    public void testTopicPriority() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("receiver");
+        messagebus.setTopicPriority(StopMessage.STOP_TOPIC, MessagePriorities.CONTROL);
+
+        messagebus.send(new LogEntryMessage("sender", "receiver", LogLevels.INFO, "text"));
+        Message stopMessage = new StopMessage("sender", "receiver");
+        messagebus.send(stopMessage);
+
+        assertSame(stopMessage, messagebus.fetch(newQuery("receiver")).result());
+    }
+
+    /**
+     * Tests a topic priority without priority.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingPriority() {
+
+        new BlockingQueuingMessagebus("receiver").setTopicPriority(StopMessage.STOP_TOPIC, null);
+    }
+
+}
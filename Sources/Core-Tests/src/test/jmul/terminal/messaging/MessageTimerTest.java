@@ -0,0 +1,263 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import jmul.concurrent.threads.ThreadHelper;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQueryResult;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.CustomPropertyKeys;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.MessageTimeout;
+import jmul.terminal.messaging.MessageTimer;
+import jmul.terminal.utils.logging.LogLevels;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests delivering delayed and periodic messages with a message timer.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class MessageTimerTest {
+
+    /**
+     * A messagebus.
+     */
+    private BlockingQueuingMessagebus messagebus;
+
+    /**
+     * A message timer.
+     */
+    private MessageTimer timer;
+
+    /**
+     * Preparations before a test.
+     */
+    @Before
+    public void setUp() {
+
+        messagebus = new BlockingQueuingMessagebus("a");
+        timer = new MessageTimer(1L);
+    }
+
+    /**
+     * Cleanup after a test.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @After
+    public void tearDown() throws InterruptedException {
+
+        timer.stop();
+        timer = null;
+        messagebus = null;
+    }
+
+    /**
+     * Tests delivering a message after a delay.
+     */
+    @Test
+    public void testDelayedMessage() {
+
+        Message message = new StopMessage("timer", "a");
+
+        long startTime = System.currentTimeMillis();
+        MessageTimeout timeout = timer.schedule(messagebus, message, 50L);
+
+        assertEquals(1L, timer.pendingTimeouts());
+        assertEquals(0, messagebus.size());
+
+        MessageQueryResult result = messagebus.await(newQuery("a"), 5000L);
+        long elapsedTime = System.currentTimeMillis() - startTime;
+
+        assertSame(message, result.result());
+        assertTrue(elapsedTime >= 45L);
+        assertTrue(timeout.isExpired());
+        assertEquals(1L, timeout.deliveries());
+        assertEquals(0L, timer.pendingTimeouts());
+        assertFalse(timeout.cancel());
+    }
+
+    /**
+     * Tests that messages are delivered in the order of their deadlines, also if the
+     * deadlines are covered by different wheels.
+     */
+    @Test
+    public void testOrderOfDeadlines() {
+
+        long[] delays = { 300L, 10L, 100L, 0L, 70L };
+
+        for (long delay : delays) {
+
+            timer.schedule(messagebus, new LogEntryMessage("timer", "a", LogLevels.INFO, "" + delay), delay);
+        }
+
+        List<String> entries = new ArrayList<>();
+        for (int a = 0; a < delays.length; a++) {
+
+            Message message = messagebus.await(newQuery("a"), 5000L).result();
+            entries.add((String) message.get(CustomPropertyKeys.LOG_ENTRY));
+        }
+
+        assertEquals("[0, 10, 70, 100, 300]", entries.toString());
+    }
+
+    /**
+     * Tests cancelling a timeout.
+     */
+    @Test
+    public void testCancel() {
+
+        MessageTimeout cancelledTimeout = timer.schedule(messagebus, new StopMessage("timer", "a"), 20L);
+        Message message = new StopMessage("timer", "a");
+        timer.schedule(messagebus, message, 60L);
+
+        assertTrue(cancelledTimeout.cancel());
+        assertFalse(cancelledTimeout.cancel());
+        assertTrue(cancelledTimeout.isCancelled());
+        assertEquals(1L, timer.pendingTimeouts());
+
+        assertSame(message, messagebus.await(newQuery("a"), 5000L).result());
+        assertEquals(0, messagebus.size());
+        assertEquals(0L, cancelledTimeout.deliveries());
+    }
+
+    /**
+     * Tests periodic messages.
+     */
+    @Test
+    public void testPeriodicMessages() {
+
+        final AtomicInteger counter = new AtomicInteger();
+        Supplier<Message> messageFactory = new Supplier<Message>() {
+
+            @Override
+            public Message get() {
+
+                String entry = "tick " + counter.incrementAndGet();
+                return new LogEntryMessage("timer", "a", LogLevels.INFO, entry);
+            }
+        };
+
+        MessageTimeout timeout = timer.schedule(messagebus, messageFactory, 0L, 10L);
+        assertTrue(timeout.isPeriodic());
+
+        for (int a = 1; a <= 5; a++) {
+
+            Message message = messagebus.await(newQuery("a"), 5000L).result();
+            assertEquals("tick " + a, message.get(CustomPropertyKeys.LOG_ENTRY));
+        }
+
+        assertTrue(timeout.cancel());
+        assertEquals(0L, timer.pendingTimeouts());
+
+        long deliveries = timeout.deliveries();
+        ThreadHelper.sleep(50L);
+        assertEquals(deliveries, timeout.deliveries());
+    }
+
+    /**
+     * Tests scheduling and cancelling a large number of timeouts.
+     */
+    @Test
+    public void testManyTimeouts() {
+
+        int count = 200000;
+        Message message = new StopMessage("timer", "a");
+        List<MessageTimeout> timeouts = new ArrayList<>(count);
+
+        for (int a = 0; a < count; a++) {
+
+            timeouts.add(timer.schedule(messagebus, message, 1000L + (a % 100000)));
+        }
+
+        assertEquals(count, timer.pendingTimeouts());
+
+        for (MessageTimeout timeout : timeouts) {
+
+            assertTrue(timeout.cancel());
+        }
+
+        assertEquals(0L, timer.pendingTimeouts());
+        assertFalse(messagebus.await(newQuery("a"), 50L).existsResult());
+    }
+
+    /**
+     * Tests scheduling a message with a stopped timer.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testStoppedTimer() throws InterruptedException {
+
+        timer.schedule(messagebus, new StopMessage("timer", "a"), 10L);
+        timer.stop();
+
+        assertTrue(timer.isStopped());
+        timer.schedule(messagebus, new StopMessage("timer", "a"), 10L);
+    }
+
+    /**
+     * Tests scheduling a message with an invalid delay.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDelay() {
+
+        timer.schedule(messagebus, new StopMessage("timer", "a"), -1L);
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jmul.concurrent.threads.ThreadHelper;
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.Mailbox;
+import jmul.terminal.messaging.ProducerTypes;
+import jmul.terminal.messaging.QueueLane;
+import jmul.terminal.messaging.RingBufferLane;
+import jmul.terminal.messaging.WaitStrategies;
+
+
+/**
+ * This test suite tests a ring buffer lane.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class RingBufferLaneTest {
+
+    /**
+     * Tests adding and removing messages with a single producer.
+     */
+    @Test
+    public void testSingleProducer() {
+
+        RingBufferLane lane = new RingBufferLane(4, ProducerTypes.SINGLE, WaitStrategies.BUSY_SPIN);
+
+        for (int round = 0; round < 3; round++) {
+
+            List<Message> messages = new ArrayList<>();
+
+            for (int a = 0; a < 4; a++) {
+
+                Message message = new StopMessage("sender", "receiver");
+                messages.add(message);
+                lane.offer(message);
+            }
+
+            for (Message message : messages) {
+
+                assertSame(message, lane.poll());
+            }
+
+            assertNull(lane.poll());
+        }
+    }
+
+    /**
+     * Tests a producer which waits for space in a full ring buffer.
+     */
+    @Test
+    public void testFullRingBuffer() {
+
+        final RingBufferLane lane = new RingBufferLane(2, ProducerTypes.MULTI, WaitStrategies.PARKING);
+        lane.offer(new StopMessage("sender", "receiver"));
+        lane.offer(new StopMessage("sender", "receiver"));
+
+        final Message lastMessage = new StopMessage("sender", "receiver");
+        Thread producer = new Thread() {
+
+            @Override
+            public void run() {
+
+                lane.offer(lastMessage);
+            }
+        };
+        producer.start();
+
+        ThreadHelper.sleep(100L);
+        assertEquals(true, producer.isAlive());
+
+        lane.poll();
+        ThreadHelper.waitForThreadToEnd(producer);
+
+        lane.poll();
+        assertSame(lastMessage, lane.poll());
+        assertNull(lane.poll());
+    }
+
+    /**
+     * Tests several producers which write concurrently into a small ring buffer.
+     */
+    @Test
+    public void testMultipleProducers() {
+
+        final int producerCount = 4;
+        final int messagesPerProducer = 10000;
+
+        final RingBufferLane lane = new RingBufferLane(64, ProducerTypes.MULTI, WaitStrategies.YIELDING);
+
+        Thread[] producers = new Thread[producerCount];
+        for (int a = 0; a < producerCount; a++) {
+
+            producers[a] = new Thread() {
+
+                @Override
+                public void run() {
+
+                    for (int b = 0; b < messagesPerProducer; b++) {
+
+                        lane.offer(new StopMessage("sender", "receiver"));
+                    }
+                }
+            };
+            producers[a].start();
+        }
+
+        int count = 0;
+        while (count < producerCount * messagesPerProducer) {
+
+            if (lane.poll() != null) {
+
+                count++;
+            }
+        }
+
+        for (Thread producer : producers) {
+
+            ThreadHelper.waitForThreadToEnd(producer);
+        }
+
+        assertNull(lane.poll());
+    }
+
+    /**
+     * Tests replacing the lane of a mailbox which already contains messages.
+     */
+    @Test
+    public void testReplaceLane() {
+
+        Mailbox mailbox = new Mailbox("receiver");
+
+        Message firstMessage = new StopMessage("sender", "receiver");
+        Message secondMessage = new StopMessage("sender", "receiver");
+        mailbox.put(firstMessage);
+
+        mailbox.useLane(new RingBufferLane(8, ProducerTypes.MULTI, WaitStrategies.YIELDING));
+        mailbox.put(secondMessage);
+
+        assertEquals(2, mailbox.size());
+        assertSame(firstMessage, mailbox.poll());
+        assertSame(secondMessage, mailbox.poll());
+        assertNull(mailbox.poll());
+
+        mailbox.useLane(new QueueLane());
+        assertEquals(0, mailbox.size());
+    }
+
+    /**
+     * Tests a ring buffer with an invalid capacity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+
+        new RingBufferLane(100, ProducerTypes.MULTI, WaitStrategies.YIELDING);
+    }
+
+    /**
+     * Tests a ring buffer without wait strategy.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingWaitStrategy() {
+
+        new RingBufferLane(128, ProducerTypes.MULTI, null);
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.ComponentMessage;
+import jmul.terminal.component.messages.ComponentReadyMessage;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.MessageSelectors;
+import jmul.terminal.utils.logging.LogLevels;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests fetching messages selectively by topic or message type.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class SelectiveFetchTest {
+
+    /**
+     * Tests fetching a message by topic which is queued behind many other messages.
+     */
+    @Test
+    public void testFetchByTopic() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("core");
+        messagebus.indexTopics("core");
+
+        for (int a = 0; a < 1000; a++) {
+
+            messagebus.send(new LogEntryMessage("logger", "core", LogLevels.INFO, "entry " + a));
+        }
+
+        Message message = new ComponentReadyMessage("component", "core");
+        messagebus.send(message);
+
+        Message result = messagebus.fetch(newQuery("core"), MessageSelectors.byTopic(message.topic())).result();
+        assertSame(message, result);
+        assertEquals(1000, messagebus.size());
+
+        assertFalse(messagebus.fetch(newQuery("core"), MessageSelectors.byTopic(message.topic())).existsResult());
+    }
+
+    /**
+     * Tests fetching messages by type. The messages of a type are fetched in the order
+     * in which they were sent.
+     */
+    @Test
+    public void testFetchByType() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("core");
+        messagebus.indexTopics("core");
+
+        Message first = new LogEntryMessage("logger", "core", LogLevels.INFO, "first");
+        Message ready = new ComponentReadyMessage("component", "core");
+        Message second = new LogEntryMessage("logger", "core", LogLevels.INFO, "second");
+
+        messagebus.send(first);
+        messagebus.send(ready);
+        messagebus.send(second);
+
+        assertSame(first, messagebus.fetch(newQuery("core"), MessageSelectors.byType(LogEntryMessage.class)).result());
+        assertSame(second, messagebus.fetch(newQuery("core"), MessageSelectors.byType(LogEntryMessage.class)).result());
+        assertFalse(messagebus.fetch(newQuery("core"), MessageSelectors.byType(StopMessage.class)).existsResult());
+        assertSame(ready, messagebus.fetch(newQuery("core")).result());
+    }
+
+    /**
+     * Tests that an indexed mailbox keeps the order of all messages for an unselective
+     * fetch.
+     */
+    @Test
+    public void testOrderOfIndexedMailbox() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("core");
+        messagebus.indexTopics("core");
+
+        List<Message> messages = new ArrayList<>();
+        for (int a = 0; a < 10; a++) {
+
+            Message message;
+            if ((a % 3) == 0) {
+
+                message = new ComponentReadyMessage("component" + a, "core");
+
+            } else {
+
+                message = new LogEntryMessage("logger", "core", LogLevels.INFO, "entry " + a);
+            }
+
+            messages.add(message);
+            messagebus.send(message);
+        }
+
+        for (Message message : messages) {
+
+            assertSame(message, messagebus.fetch(newQuery("core")).result());
+        }
+
+        assertEquals(0, messagebus.size());
+    }
+
+    /**
+     * Tests that a mailbox without an index only examines the oldest message.
+     */
+    @Test
+    public void testFetchWithoutIndex() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("core");
+
+        Message entry = new LogEntryMessage("logger", "core", LogLevels.INFO, "entry");
+        Message ready = new ComponentReadyMessage("component", "core");
+
+        messagebus.send(entry);
+        messagebus.send(ready);
+
+        assertFalse(messagebus.fetch(newQuery("core"), MessageSelectors.byTopic(ready.topic())).existsResult());
+        assertSame(entry, messagebus.fetch(newQuery("core"), MessageSelectors.byTopic(entry.topic())).result());
+        assertSame(ready, messagebus.fetch(newQuery("core"), MessageSelectors.byTopic(ready.topic())).result());
+    }
+
+    /**
+     * Tests waiting for a selected message which is sent by another thread.
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test
+    public void testAwaitSelectedMessage() throws InterruptedException {
+
+        final BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("core");
+        messagebus.indexTopics("core");
+        messagebus.send(new LogEntryMessage("logger", "core", LogLevels.INFO, "entry"));
+
+        final Message ready = new ComponentReadyMessage("component", "core");
+        final CountDownLatch waiting = new CountDownLatch(1);
+
+        Thread sender = new Thread() {
+
+            @Override
+            public void run() {
+
+                try {
+
+                    waiting.await(1L, TimeUnit.SECONDS);
+
+                } catch (InterruptedException e) {
+
+                    return;
+                }
+
+                messagebus.send(new LogEntryMessage("logger", "core", LogLevels.INFO, "another entry"));
+                messagebus.send(ready);
+            }
+        };
+        sender.start();
+
+        waiting.countDown();
+        Message result = messagebus.await(newQuery("core"), MessageSelectors.byTopic(ready.topic()), 5000L).result();
+        sender.join();
+
+        assertSame(ready, result);
+        assertEquals(2, messagebus.size());
+
+        assertFalse(messagebus.await(newQuery("core"), MessageSelectors.byTopic(ready.topic()), 10L).existsResult());
+    }
+
+    /**
+     * Tests draining selected messages.
+     */
+    @Test
+    public void testDrainSelectedMessages() {
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus("core");
+        messagebus.indexTopics("core");
+
+        for (int a = 0; a < 5; a++) {
+
+            messagebus.send(new LogEntryMessage("logger", "core", LogLevels.INFO, "entry " + a));
+            messagebus.send(new ComponentReadyMessage("component" + a, "core"));
+        }
+
+        final List<Message> drainedMessages = new ArrayList<>();
+        Consumer<Message> consumer = new Consumer<Message>() {
+
+            @Override
+            public void accept(Message message) {
+
+                drainedMessages.add(message);
+            }
+        };
+
+        int count =
+            messagebus.drain(newQuery("core"), MessageSelectors.byType(ComponentReadyMessage.class), 3, consumer, 10L);
+
+        assertEquals(3, count);
+        assertEquals(3, drainedMessages.size());
+        assertEquals(7, messagebus.size());
+
+        for (int a = 0; a < drainedMessages.size(); a++) {
+
+            assertTrue(drainedMessages.get(a) instanceof ComponentReadyMessage);
+            assertEquals("component" + a, ((ComponentMessage) drainedMessages.get(a)).senderName());
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.RequestMessage;
+import jmul.terminal.messaging.MessageSelectors;
+import jmul.terminal.messaging.TopicIndexedLane;
+
+
+/**
+ * This test suite tests a lane which keeps a separate queue for each topic.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class TopicIndexedLaneTest {
+
+    /**
+     * Tests that messages with different topics are delivered in the order in which
+     * they were offered.
+     */
+    @Test
+    public void testOrderAcrossTopics() {
+
+        TopicIndexedLane lane = new TopicIndexedLane();
+        List<Message> messages = new ArrayList<>();
+
+        for (int a = 0; a < 100; a++) {
+
+            Message message = new RequestMessage("sender", "receiver", "topic " + (a % 7), a, null);
+            messages.add(message);
+            lane.offer(message);
+        }
+
+        for (Message message : messages) {
+
+            assertSame(message, lane.poll());
+        }
+
+        assertNull(lane.poll());
+    }
+
+    /**
+     * Tests a topic which is used again after its queue has been emptied (i.e. the
+     * empty queue has been removed).
+     */
+    @Test
+    public void testReuseTopic() {
+
+        TopicIndexedLane lane = new TopicIndexedLane();
+
+        for (int a = 0; a < 3; a++) {
+
+            Message message = new RequestMessage("sender", "receiver", "topic", a, null);
+            lane.offer(message);
+
+            assertSame(message, lane.poll());
+            assertNull(lane.poll());
+        }
+    }
+
+    /**
+     * Tests that a selector only examines the oldest message of each topic.
+     */
+    @Test
+    public void testSelect() {
+
+        TopicIndexedLane lane = new TopicIndexedLane();
+
+        Message first = new RequestMessage("sender", "receiver", "first", 1L, null);
+        Message second = new RequestMessage("sender", "receiver", "second", 2L, null);
+        Message third = new RequestMessage("sender", "receiver", "first", 3L, null);
+        lane.offer(first);
+        lane.offer(second);
+        lane.offer(third);
+
+        assertSame(second, lane.select(MessageSelectors.byTopic("second")));
+        assertNull(lane.select(MessageSelectors.byTopic("second")));
+        assertSame(first, lane.poll());
+        assertSame(third, lane.select(MessageSelectors.byTopic("first")));
+        assertNull(lane.poll());
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging.codec;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import java.nio.ByteBuffer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import jmul.messaging.Message;
+import jmul.messaging.PropertyKey;
+
+import jmul.terminal.component.messages.ComponentMessage;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.messaging.codec.MessageCodec;
+import jmul.terminal.messaging.codec.StandardMessageCodec;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * A simple benchmark which compares the binary codec with java serialization.
+ * Messages aren't serializable, thus their properties are serialized as map.
+ * This class is no test suite and has to be run manually.
+ *
+ * @author Kristian Kutin
+ */
+public final class MessageCodecBenchmark {
+
+    /**
+     * The number of warm up iterations.
+     */
+    private static final int WARM_UP_ITERATIONS;
+
+    /**
+     * The number of measured iterations.
+     */
+    private static final int ITERATIONS;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        WARM_UP_ITERATIONS = 200000;
+        ITERATIONS = 1000000;
+    }
+
+    /**
+     * The default constructor.
+     */
+    private MessageCodecBenchmark() {
+
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * The main method.
+     *
+     * @param args
+     *        all command line arguments (i.e. are ignored)
+     *
+     * @throws IOException
+     *         is thrown if the serialization fails
+     * @throws ClassNotFoundException
+     *         is thrown if the deserialization fails
+     */
+    public static void main(String... args) throws IOException, ClassNotFoundException {
+
+        Message message =
+            new LogEntryMessage("console logger", "file logger", LogLevels.INFO, "The component has been started.");
+
+        runCodec(message, WARM_UP_ITERATIONS);
+        runSerialization(message, WARM_UP_ITERATIONS / 10);
+
+        long start = System.nanoTime();
+        int codecSize = runCodec(message, ITERATIONS);
+        long codecTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int serializationSize = runSerialization(message, ITERATIONS / 10);
+        long serializationTime = (System.nanoTime() - start) * 10;
+
+        System.out.printf("binary codec:       %4d bytes, %6d ns per round trip%n", codecSize,
+                          codecTime / ITERATIONS);
+        System.out.printf("java serialization: %4d bytes, %6d ns per round trip%n", serializationSize,
+                          serializationTime / ITERATIONS);
+    }
+
+    /**
+     * Encodes and decodes the specified message with the binary codec.
+     *
+     * @param message
+     *        a message
+     * @param iterations
+     *        the number of round trips
+     *
+     * @return the size of the encoded message
+     */
+    private static int runCodec(Message message, int iterations) {
+
+        MessageCodec codec = new StandardMessageCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        int size = 0;
+
+        for (int a = 0; a < iterations; a++) {
+
+            buffer.clear();
+            codec.encode(message, buffer);
+            size = buffer.position();
+
+            buffer.flip();
+            consume(codec.decode(buffer));
+        }
+
+        return size;
+    }
+
+    /**
+     * Serializes and deserializes the properties of the specified message.
+     *
+     * @param message
+     *        a message
+     * @param iterations
+     *        the number of round trips
+     *
+     * @return the size of the serialized properties
+     *
+     * @throws IOException
+     *         is thrown if the serialization fails
+     * @throws ClassNotFoundException
+     *         is thrown if the deserialization fails
+     */
+    private static int runSerialization(Message message, int iterations) throws IOException,
+                                                                                 ClassNotFoundException {
+
+        int size = 0;
+
+        for (int a = 0; a < iterations; a++) {
+
+            HashMap<String, Object> properties = new HashMap<>();
+            for (PropertyKey key : (ComponentMessage) message) {
+
+                properties.put(key.toString(), message.get(key));
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+
+                output.writeObject(properties);
+            }
+            size = bytes.size();
+
+            try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+
+                consume((Map<?, ?>) input.readObject());
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Prevents the JIT compiler from eliminating the decoding.
+     *
+     * @param object
+     *        a decoded object
+     */
+    private static void consume(Object object) {
+
+        if (object.hashCode() == System.nanoTime()) {
+
+            System.out.print("");
+        }
+    }
+
+}
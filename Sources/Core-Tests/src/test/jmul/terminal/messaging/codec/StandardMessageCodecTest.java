@@ -0,0 +1,262 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging.codec;
+
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import java.util.Date;
+
+import jmul.messaging.Message;
+import jmul.messaging.StandardMessage;
+import jmul.messaging.StandardPropertyKeys;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentRoles;
+import jmul.terminal.component.messages.ComponentMessage;
+import jmul.terminal.component.messages.ComponentReadyMessage;
+import jmul.terminal.component.messages.ComponentStoppedMessage;
+import jmul.terminal.component.messages.CustomPropertyKeys;
+import jmul.terminal.component.messages.EntryHelper;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.RegisterComponentMessage;
+import jmul.terminal.component.messages.ReplyMessage;
+import jmul.terminal.component.messages.RequestMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.messages.UnregisterComponentMessage;
+import jmul.terminal.messaging.codec.MessageCodec;
+import jmul.terminal.messaging.codec.MessageCodecException;
+import jmul.terminal.messaging.codec.StandardMessageCodec;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * This test suite tests encoding and decoding messages.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class StandardMessageCodecTest {
+
+    /**
+     * Tests encoding and decoding all supported message types.
+     */
+    @Test
+    public void testRoundTrip() {
+
+        Message[] messages = {
+            new StandardMessage("sender", "receiver", "topic"), new StopMessage("sender", "receiver"),
+            new ComponentReadyMessage("sender", "receiver"), new ComponentStoppedMessage("sender", "receiver"),
+            new LogEntryMessage("sender", "receiver", LogLevels.WARNING, "a log entry with umlauts (\u00e4\u00f6\u00fc)"),
+            new RequestMessage("sender", "receiver", "question", 42L, "payload"),
+            new ReplyMessage("receiver", "sender", Long.MAX_VALUE, null),
+            new RegisterComponentMessage("sender", "receiver", ComponentRoles.LOGGER),
+            new UnregisterComponentMessage("sender", "receiver")
+        };
+
+        MessageCodec codec = new StandardMessageCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        for (Message message : messages) {
+
+            codec.encode(message, buffer);
+        }
+
+        buffer.flip();
+
+        for (Message message : messages) {
+
+            Message decodedMessage = codec.decode(buffer);
+
+            assertSame(message.getClass(), decodedMessage.getClass());
+            assertEquals(message.senderName(), decodedMessage.senderName());
+            assertEquals(message.receiverName(), decodedMessage.receiverName());
+            assertEquals(message.topic(), decodedMessage.topic());
+            assertEquals(message.get(CustomPropertyKeys.LOG_LEVEL), decodedMessage.get(CustomPropertyKeys.LOG_LEVEL));
+            assertEquals(message.get(CustomPropertyKeys.LOG_ENTRY), decodedMessage.get(CustomPropertyKeys.LOG_ENTRY));
+            assertEquals(message.get(CustomPropertyKeys.CORRELATION_ID),
+                         decodedMessage.get(CustomPropertyKeys.CORRELATION_ID));
+            assertEquals(message.get(CustomPropertyKeys.PAYLOAD), decodedMessage.get(CustomPropertyKeys.PAYLOAD));
+            assertEquals(message.get(CustomPropertyKeys.COMPONENT_ROLE),
+                         decodedMessage.get(CustomPropertyKeys.COMPONENT_ROLE));
+        }
+
+        assertEquals(0, buffer.remaining());
+    }
+
+    /**
+     * Tests that a decoded component message keeps the creation date of the encoded
+     * message.
+     */
+    @Test
+    public void testCreationDate() {
+
+        ComponentMessage message = new LogEntryMessage("sender", "receiver", LogLevels.INFO, "entry");
+        message = message.withTimestamp(message.timestamp() - 60000L);
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        new StandardMessageCodec().encode(message, buffer);
+        buffer.flip();
+
+        ComponentMessage decodedMessage = (ComponentMessage) new StandardMessageCodec().decode(buffer);
+
+        assertEquals(message.timestamp(), decodedMessage.timestamp());
+        assertEquals(message.date(), decodedMessage.get(StandardPropertyKeys.CREATION_DATE));
+    }
+
+    /**
+     * Tests the binary format of a message (i.e. the key ids must not depend on the
+     * declaration order of the property keys).
+     */
+    @Test
+    public void testBinaryFormat() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        new StandardMessageCodec().encode(new ReplyMessage("a", "b", 1L, null).withTimestamp(1L), buffer);
+        buffer.flip();
+
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+
+        byte[] expectedBytes = { 2, 6, 1, 'a', 1, 'b', 2, 1, 35, 2, 2 };
+        assertArrayEquals(expectedBytes, bytes);
+    }
+
+    /**
+     * Tests encoding and decoding a standard message with additional properties.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAdditionalProperties() {
+
+        Date date = new Date(1234567890123L);
+        Message message =
+            new StandardMessage("sender", "receiver", "topic", EntryHelper.newEntry(CustomPropertyKeys.LOG_ENTRY, "entry"),
+                                EntryHelper.newEntry(CustomPropertyKeys.LOG_LEVEL, LogLevels.ERROR),
+                                EntryHelper.newEntry(CustomPropertyKeys.COMPONENT_STATE, date));
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        new StandardMessageCodec().encode(message, buffer);
+        buffer.flip();
+
+        Message decodedMessage = new StandardMessageCodec().decode(buffer);
+
+        assertEquals("entry", decodedMessage.get(CustomPropertyKeys.LOG_ENTRY));
+        assertEquals(LogLevels.ERROR, decodedMessage.get(CustomPropertyKeys.LOG_LEVEL));
+        assertFalse(decodedMessage.contains(CustomPropertyKeys.COMPONENT_STATE));
+    }
+
+    /**
+     * Tests decoding long strings and characters outside of the basic multilingual
+     * plane from a direct buffer.
+     */
+    @Test
+    public void testDirectBuffer() {
+
+        StringBuilder builder = new StringBuilder();
+        for (int a = 0; a < 500; a++) {
+
+            builder.append("x\u00e4\u20ac\ud83d\ude00");
+        }
+        String logEntry = builder.toString();
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+        new StandardMessageCodec().encode(new LogEntryMessage("sender", "receiver", LogLevels.INFO, logEntry), buffer);
+        buffer.flip();
+
+        Message decodedMessage = new StandardMessageCodec().decode(buffer);
+
+        assertEquals(logEntry, decodedMessage.get(CustomPropertyKeys.LOG_ENTRY));
+        assertEquals(0, buffer.remaining());
+    }
+
+    /**
+     * Tests the size of an encoded message.
+     */
+    @Test
+    public void testCompactEncoding() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        new StandardMessageCodec().encode(new StopMessage("sender", "receiver").withTimestamp(1234567890123L), buffer);
+
+        // version, type, two length prefixes, sender, receiver, creation date and the property count
+        assertEquals(1 + 1 + 1 + 6 + 1 + 8 + 6 + 1, buffer.position());
+    }
+
+    /**
+     * Tests decoding a message with an unknown format version.
+     */
+    @Test(expected = MessageCodecException.class)
+    public void testUnknownVersion() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        new StandardMessageCodec().encode(new StopMessage("sender", "receiver"), buffer);
+        buffer.flip();
+        buffer.put(0, (byte) (StandardMessageCodec.VERSION + 1));
+
+        new StandardMessageCodec().decode(buffer);
+    }
+
+    /**
+     * Tests encoding into a buffer which is too small.
+     */
+    @Test(expected = BufferOverflowException.class)
+    public void testBufferTooSmall() {
+
+        new StandardMessageCodec().encode(new StopMessage("sender", "receiver"), ByteBuffer.allocate(8));
+    }
+
+    /**
+     * Tests decoding an incomplete message.
+     */
+    @Test(expected = MessageCodecException.class)
+    public void testIncompleteMessage() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        new StandardMessageCodec().encode(new StopMessage("sender", "receiver"), buffer);
+        buffer.flip();
+        buffer.limit(buffer.limit() - 2);
+
+        new StandardMessageCodec().decode(buffer);
+    }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging.journal;
+
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQueryResult;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jmul.terminal.component.messages.CustomPropertyKeys;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.messaging.journal.JournaledMessagebus;
+import jmul.terminal.utils.logging.LogLevels;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests a journaled messagebus.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class JournaledMessagebusTest {
+
+    /**
+     * The journal directory.
+     */
+    private Path directory;
+
+    /**
+     * Prepares a journal directory.
+     *
+     * @throws IOException
+     *         is thrown if the directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("journal");
+    }
+
+    /**
+     * Deletes the journal directory.
+     */
+    @After
+    public void tearDown() {
+
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+
+            for (File file : files) {
+
+                file.delete();
+            }
+        }
+
+        directory.toFile().delete();
+    }
+
+    /**
+     * Tests sending and fetching messages.
+     */
+    @Test
+    public void testSendAndFetch() {
+
+        JournaledMessagebus messagebus = new JournaledMessagebus(directory, 4096, "logger");
+        messagebus.send(new LogEntryMessage("core", "logger", LogLevels.INFO, "entry 1"));
+        messagebus.send(new StopMessage("core", "logger"));
+
+        assertEquals(2, messagebus.size());
+        assertEquals("entry 1", messagebus.fetch(newQuery("logger")).result().get(CustomPropertyKeys.LOG_ENTRY));
+        assertTrue(messagebus.fetch(newQuery("logger")).result() instanceof StopMessage);
+        assertFalse(messagebus.fetch(newQuery("logger")).existsResult());
+        assertEquals(2L, messagebus.offset("logger"));
+
+        messagebus.close();
+    }
+
+    /**
+     * Tests replaying messages which were not fetched before the messagebus was closed.
+     */
+    @Test
+    public void testReplay() {
+
+        JournaledMessagebus messagebus = new JournaledMessagebus(directory, 4096, "logger", "core");
+
+        for (int a = 0; a < 10; a++) {
+
+            messagebus.send(new LogEntryMessage("core", "logger", LogLevels.INFO, "entry " + a));
+        }
+
+        messagebus.send(new StopMessage("logger", "core"));
+
+        for (int a = 0; a < 4; a++) {
+
+            messagebus.fetch(newQuery("logger"));
+        }
+
+        messagebus.close();
+
+
+        messagebus = new JournaledMessagebus(directory, 4096, "logger", "core");
+        assertEquals(7, messagebus.size());
+
+        MessageQueryResult result = messagebus.fetch(newQuery("logger"));
+        assertEquals("entry 4", result.result().get(CustomPropertyKeys.LOG_ENTRY));
+        assertTrue(messagebus.fetch(newQuery("core")).result() instanceof StopMessage);
+
+        messagebus.send(new LogEntryMessage("core", "logger", LogLevels.INFO, "entry 10"));
+        messagebus.close();
+
+
+        messagebus = new JournaledMessagebus(directory, 4096, "logger", "core");
+        assertEquals(6, messagebus.size());
+
+        String lastEntry = null;
+        while (true) {
+
+            MessageQueryResult nextResult = messagebus.fetch(newQuery("logger"));
+            if (!nextResult.existsResult()) {
+
+                break;
+            }
+
+            lastEntry = (String) nextResult.result().get(CustomPropertyKeys.LOG_ENTRY);
+        }
+
+        assertEquals("entry 10", lastEntry);
+        messagebus.close();
+    }
+
+    /**
+     * Tests segments which are deleted after all their messages were fetched.
+     */
+    @Test
+    public void testSegmentDeletion() {
+
+        JournaledMessagebus messagebus = new JournaledMessagebus(directory, 256, "logger");
+
+        for (int a = 0; a < 100; a++) {
+
+            messagebus.send(new LogEntryMessage("core", "logger", LogLevels.INFO, "entry " + a));
+        }
+
+        assertTrue(segmentCount() > 10);
+
+        for (int a = 0; a < 100; a++) {
+
+            Message message = messagebus.fetch(newQuery("logger")).result();
+            assertEquals("entry " + a, message.get(CustomPropertyKeys.LOG_ENTRY));
+        }
+
+        messagebus.checkpoint();
+        assertEquals(1, segmentCount());
+
+        messagebus.close();
+
+        messagebus = new JournaledMessagebus(directory, 256, "logger");
+        assertEquals(0, messagebus.size());
+        messagebus.close();
+    }
+
+    /**
+     * Tests reopening a journal several times, with and without messages being sent
+     * in between. The sequence numbers continue after all segments were deleted.
+     */
+    @Test
+    public void testReopenSeveralTimes() {
+
+        JournaledMessagebus messagebus = new JournaledMessagebus(directory, 4096, "logger");
+        messagebus.send(new LogEntryMessage("core", "logger", LogLevels.INFO, "entry 1"));
+        messagebus.close();
+
+        for (int a = 0; a < 3; a++) {
+
+            messagebus = new JournaledMessagebus(directory, 4096, "logger");
+            assertEquals(1, messagebus.size());
+            messagebus.close();
+        }
+
+        messagebus = new JournaledMessagebus(directory, 4096, "logger");
+        assertEquals("entry 1", messagebus.fetch(newQuery("logger")).result().get(CustomPropertyKeys.LOG_ENTRY));
+        messagebus.close();
+
+        for (int a = 0; a < 3; a++) {
+
+            messagebus = new JournaledMessagebus(directory, 4096, "logger");
+            assertEquals(0, messagebus.size());
+            messagebus.close();
+        }
+
+        assertEquals(1, segmentCount());
+
+        messagebus = new JournaledMessagebus(directory, 4096, "logger");
+        messagebus.send(new LogEntryMessage("core", "logger", LogLevels.INFO, "entry 2"));
+        assertEquals("entry 2", messagebus.fetch(newQuery("logger")).result().get(CustomPropertyKeys.LOG_ENTRY));
+        assertEquals(2L, messagebus.offset("logger"));
+        messagebus.close();
+
+        messagebus = new JournaledMessagebus(directory, 4096, "logger");
+        assertEquals(0, messagebus.size());
+        messagebus.close();
+    }
+
+    /**
+     * Tests concurrent senders (i.e. group commit).
+     *
+     * @throws InterruptedException
+     *         is thrown if the test is interrupted
+     */
+    @Test(timeout = 20000L)
+    public void testConcurrentSenders() throws InterruptedException {
+
+        final JournaledMessagebus messagebus = new JournaledMessagebus(directory, 65536, "logger");
+
+        Thread[] senders = new Thread[4];
+        for (int a = 0; a < senders.length; a++) {
+
+            senders[a] = new Thread() {
+
+                @Override
+                public void run() {
+
+                    for (int b = 0; b < 250; b++) {
+
+                        messagebus.send(new StopMessage("core", "logger"));
+                    }
+                }
+            };
+            senders[a].start();
+        }
+
+        for (Thread sender : senders) {
+
+            sender.join();
+        }
+
+        assertEquals(1000, messagebus.size());
+        messagebus.close();
+
+        JournaledMessagebus reopenedMessagebus = new JournaledMessagebus(directory, 65536, "logger");
+        assertEquals(1000, reopenedMessagebus.size());
+        reopenedMessagebus.close();
+    }
+
+    /**
+     * Returns the number of segment files.
+     *
+     * @return the number of segment files
+     */
+    private int segmentCount() {
+
+        String[] fileNames = directory.toFile().list(new FilenameFilter() {
+
+            @Override
+            public boolean accept(File dir, String name) {
+
+                return name.endsWith(".segment");
+            }
+        });
+
+        return fileNames.length;
+    }
+
+}
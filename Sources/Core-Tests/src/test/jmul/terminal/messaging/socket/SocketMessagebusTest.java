@@ -0,0 +1,356 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.messaging.socket;
+
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Arrays;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQueryResult;
+import jmul.messaging.StandardMessage;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.core.CoreComponent;
+import jmul.terminal.component.messages.CustomPropertyKeys;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.misc.NameRoleEntry;
+import jmul.terminal.component.scheduling.BlockingIdleStrategy;
+import jmul.terminal.messaging.DeadLetterReasons;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.OverflowPolicies;
+import jmul.terminal.messaging.socket.BrokerAddress;
+import jmul.terminal.messaging.socket.MessageBroker;
+import jmul.terminal.messaging.socket.SocketMessagebus;
+import jmul.terminal.utils.logging.LogLevels;
+import static test.jmul.terminal.messaging.BlockingQueuingMessagebusTest.newQuery;
+
+
+/**
+ * This test suite tests the exchange of messages via a message broker.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class SocketMessagebusTest {
+
+    /**
+     * The maximum waiting time for a message in milliseconds.
+     */
+    private static final long TIMEOUT;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        TIMEOUT = 5000L;
+    }
+
+    /**
+     * Tests sending messages via the loopback interface.
+     *
+     * @throws IOException
+     *         is thrown if a connection cannot be established
+     */
+    @Test
+    public void testLoopback() throws IOException {
+
+        MessageBroker broker = new MessageBroker(BrokerAddress.newLoopbackAddress(0));
+        broker.start();
+
+        try {
+
+            exchangeMessages(broker.address());
+
+        } finally {
+
+            broker.close();
+        }
+    }
+
+    /**
+     * Tests sending messages via a unix domain socket. The test is skipped if the
+     * runtime doesn't support unix domain sockets.
+     *
+     * @throws IOException
+     *         is thrown if a connection cannot be established
+     */
+    @Test
+    public void testUnixDomainSocket() throws IOException {
+
+        if (!BrokerAddress.isUnixDomainSocketSupported()) {
+
+            return;
+        }
+
+        Path directory = Files.createTempDirectory("broker");
+        Path socketFile = directory.resolve("broker.socket");
+
+        MessageBroker broker = new MessageBroker(BrokerAddress.newAddress(socketFile, 0));
+        broker.start();
+
+        try {
+
+            assertTrue(broker.address().isUnixDomainSocket());
+            exchangeMessages(broker.address());
+
+        } finally {
+
+            broker.close();
+            Files.deleteIfExists(socketFile);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Sends messages between two processes (i.e. simulated by two messagebuses).
+     *
+     * @param address
+     *        the address of a broker
+     *
+     * @throws IOException
+     *         is thrown if a connection cannot be established
+     */
+    private static void exchangeMessages(BrokerAddress address) throws IOException {
+
+        SocketMessagebus first = new SocketMessagebus(address, "a");
+        SocketMessagebus second = new SocketMessagebus(address, "b", "c");
+
+        try {
+
+            first.send(new LogEntryMessage("a", "b", LogLevels.INFO, "hello"));
+            MessageQueryResult result = second.await(newQuery("b"), TIMEOUT);
+            assertTrue(result.existsResult());
+            assertEquals("hello", result.result().get(CustomPropertyKeys.LOG_ENTRY));
+
+            second.send(new StopMessage("b", "a"));
+            result = first.await(newQuery("a"), TIMEOUT);
+            assertTrue(result.existsResult());
+            assertTrue(result.result() instanceof StopMessage);
+
+            second.send(new StandardMessage("b", "c", "local"));
+            assertEquals(1, second.size());
+            assertTrue(second.fetch(newQuery("c")).existsResult());
+
+            int count = 10000;
+            for (int a = 0; a < count; a++) {
+
+                first.send(new StandardMessage("a", "c", String.valueOf(a)));
+            }
+
+            for (int a = 0; a < count; a++) {
+
+                result = second.await(newQuery("c"), TIMEOUT);
+                assertTrue(result.existsResult());
+                assertEquals(String.valueOf(a), result.result().topic());
+            }
+
+            assertFalse(second.fetch(newQuery("c")).existsResult());
+
+        } finally {
+
+            first.close();
+            second.close();
+        }
+    }
+
+    /**
+     * Tests sending a message to a receiver which connects later.
+     *
+     * @throws IOException
+     *         is thrown if a connection cannot be established
+     */
+    @Test
+    public void testBacklog() throws IOException {
+
+        MessageBroker broker = new MessageBroker(BrokerAddress.newLoopbackAddress(0));
+        broker.start();
+
+        SocketMessagebus first = new SocketMessagebus(broker.address(), "a");
+        SocketMessagebus second = null;
+
+        try {
+
+            first.send(new StopMessage("a", "late"));
+
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (broker.backlogSize() == 0 && System.currentTimeMillis() < deadline) {
+
+                Thread.yield();
+            }
+            assertEquals(1, broker.backlogSize());
+
+            second = new SocketMessagebus(broker.address(), "late");
+            Message message = second.await(newQuery("late"), TIMEOUT).result();
+            assertTrue(message instanceof StopMessage);
+            assertEquals(0, broker.backlogSize());
+
+        } finally {
+
+            first.close();
+            if (second != null) {
+
+                second.close();
+            }
+            broker.close();
+        }
+    }
+
+    /**
+     * Tests that messages for an unannounced receiver are rejected and put into the
+     * broker's dead letter queue if the backlog is full.
+     *
+     * @throws IOException
+     *         is thrown if a connection cannot be established
+     */
+    @Test
+    public void testBoundedBacklog() throws IOException {
+
+        MessageBroker broker =
+            new MessageBroker(BrokerAddress.newLoopbackAddress(0), new MailboxConfiguration(2, OverflowPolicies.FAIL));
+        broker.start();
+
+        SocketMessagebus first = new SocketMessagebus(broker.address(), "a");
+
+        try {
+
+            for (int a = 0; a < 3; a++) {
+
+                first.send(new StandardMessage("a", "late", String.valueOf(a)));
+            }
+
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (broker.deadLetterQueue().count() == 0 && System.currentTimeMillis() < deadline) {
+
+                Thread.yield();
+            }
+
+            assertEquals(2, broker.backlogSize());
+            assertEquals(1L, broker.deadLetterQueue().count(DeadLetterReasons.REJECTED));
+
+        } finally {
+
+            first.close();
+            broker.close();
+        }
+    }
+
+    /**
+     * Tests that messages which cannot be encoded or which exceed the maximum frame size
+     * are put into the dead letter queue and that the connection keeps working.
+     *
+     * @throws IOException
+     *         is thrown if a connection cannot be established
+     */
+    @Test
+    public void testUntransmittableMessages() throws IOException {
+
+        MessageBroker broker = new MessageBroker(BrokerAddress.newLoopbackAddress(0));
+        broker.start();
+
+        SocketMessagebus first = new SocketMessagebus(broker.address(), "a");
+        SocketMessagebus second = new SocketMessagebus(broker.address(), "b");
+
+        try {
+
+            char[] text = new char[64 * 1024 * 1024];
+            Arrays.fill(text, 'x');
+
+            first.send(new StandardMessage("a", "b", "unsupported") {
+            });
+            first.send(new LogEntryMessage("a", "b", LogLevels.INFO, new String(text)));
+            first.send(new LogEntryMessage("a", "b", LogLevels.INFO, "hello"));
+
+            MessageQueryResult result = second.await(newQuery("b"), TIMEOUT);
+            assertTrue(result.existsResult());
+            assertEquals("hello", result.result().get(CustomPropertyKeys.LOG_ENTRY));
+            assertEquals(2L, first.deadLetterQueue().count(DeadLetterReasons.UNENCODABLE));
+
+        } finally {
+
+            first.close();
+            second.close();
+            broker.close();
+        }
+    }
+
+    /**
+     * Tests a core component which uses a messagebus that is connected to a broker.
+     * Components which are registered at runtime are announced to the broker.
+     *
+     * @throws IOException
+     *         is thrown if a connection cannot be established
+     */
+    @Test
+    public void testCoreComponent() throws IOException {
+
+        MessageBroker broker = new MessageBroker(BrokerAddress.newLoopbackAddress(0));
+        broker.start();
+
+        SocketMessagebus first = new SocketMessagebus(broker.address());
+        SocketMessagebus second = new SocketMessagebus(broker.address(), "b");
+
+        try {
+
+            CoreComponent coreComponent =
+                new CoreComponent("core", new BlockingIdleStrategy(), first, new NameRoleEntry("known", "worker"));
+            assertTrue(coreComponent.registerComponent(new NameRoleEntry("late", "worker")));
+
+            second.send(new StopMessage("b", "known"));
+            second.send(new StopMessage("b", "late"));
+
+            assertTrue(first.await(newQuery("known"), TIMEOUT).existsResult());
+            assertTrue(first.await(newQuery("late"), TIMEOUT).existsResult());
+
+        } finally {
+
+            first.close();
+            second.close();
+            broker.close();
+        }
+    }
+
+}
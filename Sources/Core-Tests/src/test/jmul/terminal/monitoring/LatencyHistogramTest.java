@@ -0,0 +1,144 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.monitoring;
+
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.monitoring.LatencyHistogram;
+
+
+/**
+ * This test suite tests a latency histogram.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class LatencyHistogramTest {
+
+    /**
+     * Tests an empty histogram.
+     */
+    @Test
+    public void testEmptyHistogram() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0L, histogram.count());
+        assertEquals(0L, histogram.max());
+        assertEquals(0L, histogram.percentile(0.99d));
+        assertEquals(0.0d, histogram.mean(), 0.0d);
+    }
+
+    /**
+     * Tests percentiles of uniformly distributed values.
+     */
+    @Test
+    public void testPercentiles() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long a = 1L; a <= 100000L; a++) {
+
+            histogram.record(a * 1000L);
+        }
+
+        assertEquals(100000L, histogram.count());
+        assertEquals(100000000L, histogram.max());
+        assertEquals(50000500.0d, histogram.mean(), 0.1d);
+
+        assertWithinError(50000000L, histogram.percentile(0.5d));
+        assertWithinError(99000000L, histogram.percentile(0.99d));
+        assertWithinError(99900000L, histogram.percentile(0.999d));
+        assertEquals(100000000L, histogram.percentile(1.0d));
+    }
+
+    /**
+     * Tests small and negative values.
+     */
+    @Test
+    public void testSmallValues() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+        histogram.record(3L);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0L, histogram.percentile(0.3d));
+        assertEquals(3L, histogram.percentile(0.6d));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(1.0d));
+    }
+
+    /**
+     * Tests resetting a histogram.
+     */
+    @Test
+    public void testReset() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000L);
+        histogram.reset();
+
+        assertEquals(0L, histogram.count());
+        assertEquals(0L, histogram.percentile(0.5d));
+    }
+
+    /**
+     * Tests an invalid percentile.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+
+        new LatencyHistogram().percentile(1.5d);
+    }
+
+    /**
+     * Checks if the specified actual value is at most 12.5 % higher than the expected value.
+     *
+     * @param expected
+     *        the expected value
+     * @param actual
+     *        the actual value
+     */
+    private static void assertWithinError(long expected, long actual) {
+
+        assertTrue("expected " + expected + " but was " + actual, actual >= expected);
+        assertTrue("expected " + expected + " but was " + actual, actual <= expected + expected / 8L);
+    }
+
+}
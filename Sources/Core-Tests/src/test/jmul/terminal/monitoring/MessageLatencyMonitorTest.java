@@ -0,0 +1,111 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package test.jmul.terminal.monitoring;
+
+
+import jmul.messaging.Message;
+
+import jmul.test.classification.UnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.messages.MessageHelper;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.messaging.ComponentMessageHandler;
+import jmul.terminal.component.messaging.InstrumentedMessageHandler;
+import jmul.terminal.component.messaging.MessageHandler;
+import jmul.terminal.component.messaging.MessageProcessingRule;
+import jmul.terminal.monitoring.MessageLatencyMonitor;
+
+
+/**
+ * This test suite tests recording message latencies.
+ *
+ * @author Kristian Kutin
+ */
+@UnitTest
+public class MessageLatencyMonitorTest {
+
+    /**
+     * Tests recording queue waiting times.
+     */
+    @Test
+    public void testQueueWait() {
+
+        MessageLatencyMonitor monitor = new MessageLatencyMonitor();
+
+        monitor.recordQueueWait("receiver", new StopMessage("sender", "receiver"));
+        monitor.recordQueueWait("receiver", new StopMessage("sender", "receiver"));
+
+        assertEquals(2L, monitor.queueWaitTimes("receiver", StopMessage.class).count());
+        assertEquals(0L, monitor.queueWaitTimes("other receiver", StopMessage.class).count());
+        assertEquals(1, monitor.getQueueWaitTimes().length);
+        assertTrue(monitor.getQueueWaitTimes()[0].startsWith("receiver StopMessage queue wait: count=2"));
+
+        monitor.reset();
+        assertEquals(0, monitor.getQueueWaitTimes().length);
+    }
+
+    /**
+     * Tests recording processing times with an instrumented message handler.
+     */
+    @Test
+    public void testHandlerTime() {
+
+        MessageLatencyMonitor monitor = new MessageLatencyMonitor();
+
+        ComponentMessageHandler componentMessageHandler = new ComponentMessageHandler();
+        componentMessageHandler.addRule(ComponentStates.READY, StopMessage.class, new MessageProcessingRule() {
+
+            @Override
+            public boolean processMessage(Message message) {
+
+                return true;
+            }
+        });
+
+        MessageHandler messageHandler = new InstrumentedMessageHandler("receiver", componentMessageHandler, monitor);
+        Message message =
+            MessageHelper.rewrapMessageWithState(new StopMessage("sender", "receiver"), ComponentStates.READY);
+
+        assertTrue(messageHandler.processMessage(message));
+        assertEquals(1, messageHandler.ruleCount());
+        assertEquals(1L, monitor.handlerTimes("receiver", StopMessage.class).count());
+        assertEquals(1, monitor.getHandlerTimes().length);
+    }
+
+}
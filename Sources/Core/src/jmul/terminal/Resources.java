@@ -34,6 +34,8 @@
 package jmul.terminal;
 
 
+import jmul.terminal.messaging.MessageTimer;
+import jmul.terminal.monitoring.MessageLatencyMonitor;
 import jmul.terminal.utils.logging.ConsoleLogger;
 import jmul.terminal.utils.logging.LogLevels;
 import jmul.terminal.utils.logging.Logger;
@@ -52,12 +54,24 @@ public final class Resources {
      */
     public static final Logger LOGGER;
 
+    /**
+     * A monitor for message latencies.
+     */
+    public static final MessageLatencyMonitor LATENCY_MONITOR;
+
+    /**
+     * A timer which delivers delayed and periodic messages.
+     */
+    public static final MessageTimer MESSAGE_TIMER;
+
     /*
      * The static initializer.
      */
     static {
 
         LOGGER = new SynchronizedLogger(new ConsoleLogger(LogLevels.DEBUG));
+        LATENCY_MONITOR = new MessageLatencyMonitor();
+        MESSAGE_TIMER = new MessageTimer();
     }
 
     /**
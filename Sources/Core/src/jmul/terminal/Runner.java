@@ -4,6 +4,7 @@ package jmul.terminal;
 import jmul.cmd.ParameterContainer;
 import jmul.cmd.ParameterContainerImpl;
 
+import jmul.terminal.component.core.ComponentRuntime;
 import jmul.terminal.component.core.CoreComponent;
 import jmul.terminal.component.core.SigintHandler;
 import jmul.terminal.component.core.WaitThread;
@@ -46,7 +47,8 @@ public class Runner {
         Thread waitThread = new WaitThread(coreComponent);
         Runtime.getRuntime().addShutdownHook(waitThread);
 
-        coreComponent.run();
+        ComponentRuntime runtime = new ComponentRuntime(coreComponent);
+        runtime.run();
     }
 
 }
@@ -0,0 +1,329 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component;
+
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * This class represents the address of a component. Addresses are interned, i.e.
+ * there is exactly one address per component name and addresses can be compared by
+ * identity. Every address has a dense integer id which is assigned when the address
+ * is registered, thus messagebus, dictionary and state monitor can keep their entries
+ * in arrays which are indexed by the id.<br>
+ * <br>
+ * Only names of components are registered. Looking up an arbitrary name (e.g. a
+ * misspelled receiver name) doesn't create an address.<br>
+ * <br>
+ * Addresses are only weakly referenced by the address table. An address which isn't
+ * referenced anymore (e.g. the component has been unregistered and terminated) is
+ * removed and its id is reused by the next address. Ids thus stay dense even if
+ * components with new names are registered and unregistered all the time. An entity
+ * which keeps entries in an array indexed by the id has to keep a reference to the
+ * addresses of its entries.
+ *
+ * @author Kristian Kutin
+ */
+public final class ComponentAddress {
+
+    /**
+     * All registered addresses (i.e. the key is the component name).
+     */
+    private static final ConcurrentHashMap<String, AddressReference> ADDRESSES;
+
+    /**
+     * The queue of addresses which aren't referenced anymore.
+     */
+    private static final ReferenceQueue<ComponentAddress> RELEASED_ADDRESSES;
+
+    /**
+     * The ids which can be reused (guarded by the address table).
+     */
+    private static final BitSet FREE_IDS;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        ADDRESSES = new ConcurrentHashMap<>();
+        RELEASED_ADDRESSES = new ReferenceQueue<>();
+        FREE_IDS = new BitSet();
+    }
+
+    /**
+     * The number of ids which have been assigned so far (guarded by the address table).
+     */
+    private static int idCount;
+
+    /**
+     * The name of the component.
+     */
+    private final String name;
+
+    /**
+     * The id of this address.
+     */
+    private final int id;
+
+    /**
+     * Creates a new address according to the specified parameters.
+     *
+     * @param name
+     *        the name of the component
+     * @param id
+     *        the id of the address
+     */
+    private ComponentAddress(String name, int id) {
+
+        super();
+
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Returns the address of the specified component. If the component has no address
+     * yet a new address is registered.
+     *
+     * @param name
+     *        the name of a component
+     *
+     * @return an address
+     */
+    public static ComponentAddress register(String name) {
+
+        if (name == null) {
+
+            throw new IllegalArgumentException("No name (null) was specified!");
+        }
+
+        ComponentAddress address = lookup(name);
+        if (address != null) {
+
+            return address;
+        }
+
+        synchronized (ADDRESSES) {
+
+            releaseAddresses();
+
+            AddressReference reference = ADDRESSES.get(name);
+            address = (reference == null) ? null : reference.get();
+
+            if (address == null) {
+
+                if (reference != null) {
+
+                    release(reference);
+                }
+
+                address = new ComponentAddress(name, nextId());
+                ADDRESSES.put(name, new AddressReference(address));
+            }
+
+            return address;
+        }
+    }
+
+    /**
+     * Removes all addresses which aren't referenced anymore and frees their ids. The
+     * caller has to hold the lock of the address table.
+     */
+    private static void releaseAddresses() {
+
+        while (true) {
+
+            AddressReference reference = (AddressReference) RELEASED_ADDRESSES.poll();
+            if (reference == null) {
+
+                break;
+            }
+
+            release(reference);
+        }
+    }
+
+    /**
+     * Removes the specified address from the address table and frees its id. The caller
+     * has to hold the lock of the address table.
+     *
+     * @param reference
+     *        a reference to an address which isn't referenced anymore
+     */
+    private static void release(AddressReference reference) {
+
+        if (reference.released) {
+
+            return;
+        }
+
+        reference.released = true;
+        ADDRESSES.remove(reference.name, reference);
+        FREE_IDS.set(reference.id);
+    }
+
+    /**
+     * Returns the lowest free id. The caller has to hold the lock of the address table.
+     *
+     * @return an id
+     */
+    private static int nextId() {
+
+        int id = FREE_IDS.nextSetBit(0);
+
+        if (id >= 0) {
+
+            FREE_IDS.clear(id);
+            return id;
+        }
+
+        id = idCount;
+        idCount++;
+
+        return id;
+    }
+
+    /**
+     * Returns the address of the specified component.
+     *
+     * @param name
+     *        the name of a component
+     *
+     * @return an address or <code>null</code> if no address has been registered for
+     *         the specified component
+     */
+    public static ComponentAddress lookup(String name) {
+
+        if (name == null) {
+
+            return null;
+        }
+
+        AddressReference reference = ADDRESSES.get(name);
+
+        return (reference == null) ? null : reference.get();
+    }
+
+    /**
+     * Returns the number of ids which have been assigned so far. All ids are smaller
+     * than this number. Since ids are reused the number only grows if more addresses
+     * are in use at the same time.
+     *
+     * @return the number of ids
+     */
+    public static int addressCount() {
+
+        synchronized (ADDRESSES) {
+
+            return idCount;
+        }
+    }
+
+    /**
+     * Returns the name of the component.
+     *
+     * @return a name
+     */
+    public String name() {
+
+        return name;
+    }
+
+    /**
+     * Returns the id of this address.
+     *
+     * @return an id
+     */
+    public int id() {
+
+        return id;
+    }
+
+    /**
+     * Returns a string representation for this address.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        return name;
+    }
+
+
+    /**
+     * A weak reference to an address which remembers the name and id of the address,
+     * thus the address can be removed after it has been cleared.
+     */
+    private static final class AddressReference extends WeakReference<ComponentAddress> {
+
+        /**
+         * The name of the component.
+         */
+        final String name;
+
+        /**
+         * The id of the address.
+         */
+        final int id;
+
+        /**
+         * A flag which indicates that the id has been freed (guarded by the address
+         * table).
+         */
+        boolean released;
+
+        /**
+         * Creates a new reference according to the specified parameter.
+         *
+         * @param address
+         *        an address
+         */
+        AddressReference(ComponentAddress address) {
+
+            super(address, RELEASED_ADDRESSES);
+
+            this.name = address.name;
+            this.id = address.id;
+        }
+
+    }
+
+}
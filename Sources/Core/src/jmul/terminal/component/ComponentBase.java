@@ -34,6 +34,13 @@
 package jmul.terminal.component;
 
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import jmul.concurrent.threads.ThreadHelper;
+
 import jmul.messaging.Message;
 import jmul.messaging.MessageListener;
 import jmul.messaging.MessageQuery;
@@ -41,8 +48,15 @@ import jmul.messaging.MessageQueryResult;
 import jmul.messaging.MessageSender;
 import jmul.messaging.Messagebus;
 
+import jmul.terminal.Resources;
 import jmul.terminal.component.core.ComponentAlreadyConnectedException;
 import jmul.terminal.component.core.MissingMessagebusException;
+import jmul.terminal.component.scheduling.BlockingIdleStrategy;
+import jmul.terminal.component.scheduling.IdleStrategy;
+import jmul.terminal.messaging.BlockingMessagebus;
+import jmul.terminal.messaging.BroadcastMessagebus;
+import jmul.terminal.messaging.MessageTimeout;
+import jmul.terminal.messaging.SelectiveMessagebus;
 
 
 /**
@@ -57,22 +71,58 @@ public abstract class ComponentBase implements MessageListener, MessageSender {
      */
     private final String name;
 
+    /**
+     * The address of this component.
+     */
+    private final ComponentAddress address;
+
     /**
      * A messaging queue.
      */
     private volatile Messagebus messagebus;
 
     /**
-     * Creates a new instance according to the specified component name.
+     * Determines how the loop of this component waits while there is no work.
+     */
+    private final IdleStrategy idleStrategy;
+
+    /**
+     * The time in nanoseconds this component has spent waiting for work.
+     */
+    private volatile long idleTime;
+
+    /**
+     * Creates a new instance according to the specified component name. The component
+     * blocks while it waits for messages (see {@link BlockingIdleStrategy}).
      *
      * @param name
      *        the name for this component
      */
     public ComponentBase(String name) {
 
+        this(name, new BlockingIdleStrategy());
+    }
+
+    /**
+     * Creates a new instance according to the specified parameters.
+     *
+     * @param name
+     *        the name for this component
+     * @param idleStrategy
+     *        determines how the loop of this component waits while there is no work
+     */
+    public ComponentBase(String name, IdleStrategy idleStrategy) {
+
         super();
 
+        if (idleStrategy == null) {
+
+            throw new IllegalArgumentException("No idle strategy (null) was specified!");
+        }
+
         this.name = checkName(name);
+        this.address = ComponentAddress.register(name);
+        this.idleStrategy = idleStrategy;
     }
 
     /**
@@ -110,7 +160,18 @@ public abstract class ComponentBase implements MessageListener, MessageSender {
     }
 
     /**
-     * Connect this component with a messagebus.
+     * Returns the address of this component.
+     *
+     * @return an address
+     */
+    public ComponentAddress address() {
+
+        return address;
+    }
+
+    /**
+     * Connect this component with a messagebus. The messagebus must support
+     * broadcasts (see {@link #publishMessage(Message)}).
      *
      * @param messagebus
      *        a messagebus
@@ -161,7 +222,274 @@ public abstract class ComponentBase implements MessageListener, MessageSender {
         }
 
         MessageQuery query = new MessageQuery(this);
-        return messagebus.fetch(query);
+        return recordQueueWait(messagebus.fetch(query));
+    }
+
+    /**
+     * Waits at most the specified time for a new message. If the messagebus supports
+     * blocking the calling thread is woken up as soon as a message arrives. Otherwise
+     * the messagebus is checked once and the calling thread sleeps for the specified
+     * time if there is no message.
+     *
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the query result
+     */
+    public MessageQueryResult awaitMessage(long timeout) {
+
+        if (messagebus == null) {
+
+            throw new MissingMessagebusException();
+        }
+
+        MessageQuery query = new MessageQuery(this);
+
+        if (messagebus instanceof BlockingMessagebus) {
+
+            return recordQueueWait(((BlockingMessagebus) messagebus).await(query, timeout));
+        }
+
+        MessageQueryResult result = messagebus.fetch(query);
+        if (!result.existsResult()) {
+
+            ThreadHelper.sleep(timeout);
+        }
+
+        return recordQueueWait(result);
+    }
+
+    /**
+     * Records how long the fetched message waited in the messagebus.
+     *
+     * @param result
+     *        a query result
+     *
+     * @return the specified query result
+     */
+    private MessageQueryResult recordQueueWait(MessageQueryResult result) {
+
+        if (result.existsResult()) {
+
+            Resources.LATENCY_MONITOR.recordQueueWait(name, result.result());
+        }
+
+        return result;
+    }
+
+    /**
+     * Waits at most the specified time for new messages and passes up to the specified
+     * number of messages to the specified consumer. If the messagebus supports blocking
+     * the calling thread is woken up as soon as a message arrives. Otherwise the
+     * messagebus is checked and the calling thread sleeps for the specified time if
+     * there are no messages. The waiting time of each message is recorded.
+     *
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    public int awaitMessages(int maxMessages, long timeout, final Consumer<? super Message> consumer) {
+
+        if (messagebus == null) {
+
+            throw new MissingMessagebusException();
+        }
+
+        MessageQuery query = new MessageQuery(this);
+        Consumer<Message> instrumentedConsumer = new Consumer<Message>() {
+
+            @Override
+            public void accept(Message message) {
+
+                Resources.LATENCY_MONITOR.recordQueueWait(name, message);
+                consumer.accept(message);
+            }
+        };
+
+        if (messagebus instanceof BlockingMessagebus) {
+
+            return ((BlockingMessagebus) messagebus).drain(query, maxMessages, instrumentedConsumer, timeout);
+        }
+
+        int count = 0;
+        while (count < maxMessages) {
+
+            MessageQueryResult result = messagebus.fetch(query);
+            if (!result.existsResult()) {
+
+                break;
+            }
+
+            instrumentedConsumer.accept(result.result());
+            count++;
+        }
+
+        if (count == 0) {
+
+            ThreadHelper.sleep(timeout);
+        }
+
+        return count;
+    }
+
+    /**
+     * Waits at most the specified time for new messages which are selected by the
+     * specified selector and passes up to the specified number of messages to the
+     * specified consumer. Messages which are not selected remain in the messagebus.
+     * If the messagebus doesn't support a selective fetch all messages are fetched
+     * (see {@link #awaitMessages(int, long, Consumer)}).
+     *
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     * @param selector
+     *        a selector
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    public int awaitMessages(int maxMessages, long timeout, Predicate<? super Message> selector,
+                             final Consumer<? super Message> consumer) {
+
+        if (messagebus == null) {
+
+            throw new MissingMessagebusException();
+        }
+
+        if (!(messagebus instanceof SelectiveMessagebus)) {
+
+            return awaitMessages(maxMessages, timeout, consumer);
+        }
+
+        MessageQuery query = new MessageQuery(this);
+        Consumer<Message> instrumentedConsumer = new Consumer<Message>() {
+
+            @Override
+            public void accept(Message message) {
+
+                Resources.LATENCY_MONITOR.recordQueueWait(name, message);
+                consumer.accept(message);
+            }
+        };
+
+        return ((SelectiveMessagebus) messagebus).drain(query, selector, maxMessages, instrumentedConsumer, timeout);
+    }
+
+    /**
+     * Fetches up to the specified number of messages and passes them to the specified
+     * consumer. The idle strategy of this component determines if the fetch blocks or
+     * if the component idles afterwards while there are no messages.
+     *
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    protected int fetchMessages(int maxMessages, Consumer<? super Message> consumer) {
+
+        long timeout = idleStrategy.maxBlockingTime();
+        long startTime = System.nanoTime();
+
+        int count = awaitMessages(maxMessages, timeout, consumer);
+        return fetched(count, timeout, startTime);
+    }
+
+    /**
+     * Fetches up to the specified number of messages which are selected by the
+     * specified selector and passes them to the specified consumer. The idle strategy
+     * of this component determines if the fetch blocks or if the component idles
+     * afterwards while there are no messages.
+     *
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param selector
+     *        a selector
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    protected int fetchMessages(int maxMessages, Predicate<? super Message> selector,
+                                Consumer<? super Message> consumer) {
+
+        long timeout = idleStrategy.maxBlockingTime();
+        long startTime = System.nanoTime();
+
+        int count = awaitMessages(maxMessages, timeout, selector, consumer);
+        return fetched(count, timeout, startTime);
+    }
+
+    /**
+     * Accounts for a fetch. The time a blocking fetch took is idle time, after a
+     * non-blocking fetch without messages the component idles.
+     *
+     * @param count
+     *        the number of fetched messages
+     * @param timeout
+     *        the maximum blocking time of the fetch in milliseconds
+     * @param startTime
+     *        the start time of the fetch in nanoseconds
+     *
+     * @return the number of fetched messages
+     */
+    private int fetched(int count, long timeout, long startTime) {
+
+        if (timeout > 0L) {
+
+            idleTime += System.nanoTime() - startTime;
+        }
+
+        if (count > 0) {
+
+            idleStrategy.idle(count);
+
+        } else if (timeout == 0L) {
+
+            idle();
+        }
+
+        return count;
+    }
+
+    /**
+     * Waits according to the idle strategy of this component. The loop of a component
+     * calls this method when an iteration didn't do any work (e.g. pending messages
+     * cannot be processed yet).
+     */
+    protected void idle() {
+
+        long startTime = System.nanoTime();
+        idleStrategy.idle(0);
+        idleTime += System.nanoTime() - startTime;
+    }
+
+    /**
+     * Returns the idle strategy of this component.
+     *
+     * @return an idle strategy
+     */
+    public IdleStrategy idleStrategy() {
+
+        return idleStrategy;
+    }
+
+    /**
+     * Returns the time this component has spent waiting for work so far.
+     *
+     * @return the idle time in milliseconds
+     */
+    public long idleTime() {
+
+        return TimeUnit.NANOSECONDS.toMillis(idleTime);
     }
 
     /**
@@ -183,6 +511,74 @@ public abstract class ComponentBase implements MessageListener, MessageSender {
         messagebus.send(message);
     }
 
+    /**
+     * Sends the specified message after the specified delay (see
+     * {@link Resources#MESSAGE_TIMER}).
+     *
+     * @param message
+     *        a message
+     * @param delay
+     *        the delay in milliseconds
+     *
+     * @return a timeout which can be cancelled
+     */
+    public MessageTimeout scheduleMessage(Message message, long delay) {
+
+        checkMessage(message);
+
+        if (messagebus == null) {
+
+            throw new MissingMessagebusException();
+        }
+
+        return Resources.MESSAGE_TIMER.schedule(messagebus, message, delay);
+    }
+
+    /**
+     * Sends a new message after the specified initial delay and afterwards once per
+     * period until the returned timeout is cancelled (see {@link Resources#MESSAGE_TIMER}).
+     * Heartbeats and ticks thus don't need a separate thread.
+     *
+     * @param messageFactory
+     *        an entity which creates the messages
+     * @param initialDelay
+     *        the delay of the first message in milliseconds
+     * @param period
+     *        the period in milliseconds
+     *
+     * @return a timeout which can be cancelled
+     */
+    public MessageTimeout scheduleMessages(Supplier<? extends Message> messageFactory, long initialDelay, long period) {
+
+        if (messagebus == null) {
+
+            throw new MissingMessagebusException();
+        }
+
+        return Resources.MESSAGE_TIMER.schedule(messagebus, messageFactory, initialDelay, period);
+    }
+
+    /**
+     * Publishes the specified message (i.e. delivers the same message instance to
+     * all subscribers of the message's topic).
+     *
+     * @param message
+     *        a message
+     *
+     * @return the number of subscribers which received the message
+     */
+    public int publishMessage(Message message) {
+
+        checkMessage(message);
+
+        if (messagebus == null) {
+
+            throw new MissingMessagebusException();
+        }
+
+        return ((BroadcastMessagebus) messagebus).publish(message);
+    }
+
     /**
      * Checks the specified message.
      *
@@ -216,6 +612,13 @@ public abstract class ComponentBase implements MessageListener, MessageSender {
             throw new IllegalArgumentException("No messagebus (null) was specified!");
         }
 
+        if (!(messagebus instanceof BroadcastMessagebus)) {
+
+            String message = String.format("The messagebus (%s) doesn't support broadcasts!",
+                                           messagebus.getClass().getName());
+            throw new IllegalArgumentException(message);
+        }
+
         return messagebus;
     }
 
@@ -0,0 +1,590 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component;
+
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+import jmul.messaging.Messagebus;
+
+import jmul.misc.state.State;
+
+import jmul.terminal.component.messages.MessageHelper;
+import jmul.terminal.component.messaging.MessageHandler;
+import jmul.terminal.component.state.StateHandler;
+import jmul.terminal.messaging.DeadLetterReasons;
+import jmul.terminal.messaging.ManagedMessagebus;
+import jmul.terminal.monitoring.LatencyHistogram;
+
+
+/**
+ * The event loop of a component. Each iteration fetches a batch of messages (see
+ * {@link ComponentBase#fetchMessages(int, Consumer)}), passes the messages to the
+ * component's message handler and lets the component's state handler update the
+ * state. The state handler is applied until the state doesn't change anymore, thus
+ * a sequence of state transitions doesn't wait for further messages. The loop ends
+ * when the component reaches its stop state.<br>
+ * <br>
+ * Messages are processed in the order in which they were received. A message which
+ * cannot be processed in the current state is put into a stash and the following
+ * messages are processed, thus a single message doesn't block the component. The
+ * stashed messages are offered again in their original order before any other
+ * messages when the state changes. If the stash is full the oldest stashed message
+ * is put into the messagebus' dead letter queue, as are all stashed messages when
+ * the loop ends.<br>
+ * <br>
+ * The loop records the number of iterations, processed and stashed messages and the
+ * time needed to process a batch. Dispatching a message doesn't build strings or
+ * allocate collections, messages are only rewrapped with the current state.<br>
+ * <br>
+ * A component provides its current state and may provide a selector (see
+ * {@link #selector(State)}) and hooks which are called after a batch and after each
+ * iteration.
+ *
+ * @author Kristian Kutin
+ */
+public abstract class ComponentEventLoop implements Runnable {
+
+    /**
+     * The default maximum number of messages which are fetched at once.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE;
+
+    /**
+     * The default maximum number of stashed messages.
+     */
+    public static final int DEFAULT_STASH_CAPACITY;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_MAX_BATCH_SIZE = 256;
+        DEFAULT_STASH_CAPACITY = 1024;
+    }
+
+    /**
+     * The component which runs this loop.
+     */
+    private final ComponentBase component;
+
+    /**
+     * The entity which processes messages.
+     */
+    private final MessageHandler messageHandler;
+
+    /**
+     * The entity which updates the component state.
+     */
+    private final StateHandler stateHandler;
+
+    /**
+     * The state in which the loop ends.
+     */
+    private final State stopState;
+
+    /**
+     * The maximum number of messages which are fetched at once.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Messages which have been fetched but which have not been processed yet.
+     */
+    private final Deque<Message> pendingMessages;
+
+    /**
+     * An entity which collects fetched messages.
+     */
+    private final Consumer<Message> messageCollector;
+
+    /**
+     * Messages which couldn't be processed in the state in which they were offered.
+     */
+    private final Deque<Message> stash;
+
+    /**
+     * The maximum number of stashed messages.
+     */
+    private final int stashCapacity;
+
+    /**
+     * The state in which the last message was offered.
+     */
+    private State lastState;
+
+    /**
+     * The time needed to process a batch of messages.
+     */
+    private final LatencyHistogram batchTimes;
+
+    /**
+     * The number of iterations.
+     */
+    private volatile long iterations;
+
+    /**
+     * The number of processed messages.
+     */
+    private volatile long processedMessages;
+
+    /**
+     * The number of messages which have been put into the stash.
+     */
+    private volatile long stashedMessages;
+
+    /**
+     * The number of stashed messages which have been put into the dead letter queue.
+     */
+    private volatile long unprocessableMessages;
+
+    /**
+     * Creates a new event loop with the default batch size and stash capacity.
+     *
+     * @param component
+     *        the component which runs this loop
+     * @param messageHandler
+     *        the entity which processes messages
+     * @param stateHandler
+     *        the entity which updates the component state
+     * @param stopState
+     *        the state in which the loop ends
+     */
+    public ComponentEventLoop(ComponentBase component, MessageHandler messageHandler, StateHandler stateHandler,
+                              State stopState) {
+
+        this(component, messageHandler, stateHandler, stopState, DEFAULT_MAX_BATCH_SIZE, DEFAULT_STASH_CAPACITY);
+    }
+
+    /**
+     * Creates a new event loop with the default stash capacity.
+     *
+     * @param component
+     *        the component which runs this loop
+     * @param messageHandler
+     *        the entity which processes messages
+     * @param stateHandler
+     *        the entity which updates the component state
+     * @param stopState
+     *        the state in which the loop ends
+     * @param maxBatchSize
+     *        the maximum number of messages which are fetched at once
+     */
+    public ComponentEventLoop(ComponentBase component, MessageHandler messageHandler, StateHandler stateHandler,
+                              State stopState, int maxBatchSize) {
+
+        this(component, messageHandler, stateHandler, stopState, maxBatchSize, DEFAULT_STASH_CAPACITY);
+    }
+
+    /**
+     * Creates a new event loop according to the specified parameters.
+     *
+     * @param component
+     *        the component which runs this loop
+     * @param messageHandler
+     *        the entity which processes messages
+     * @param stateHandler
+     *        the entity which updates the component state
+     * @param stopState
+     *        the state in which the loop ends
+     * @param maxBatchSize
+     *        the maximum number of messages which are fetched at once
+     * @param stashCapacity
+     *        the maximum number of stashed messages
+     */
+    public ComponentEventLoop(ComponentBase component, MessageHandler messageHandler, StateHandler stateHandler,
+                              State stopState, int maxBatchSize, int stashCapacity) {
+
+        super();
+
+        if (component == null) {
+
+            throw new IllegalArgumentException("No component (null) was specified!");
+        }
+
+        if (messageHandler == null) {
+
+            throw new IllegalArgumentException("No message handler (null) was specified!");
+        }
+
+        if (stateHandler == null) {
+
+            throw new IllegalArgumentException("No state handler (null) was specified!");
+        }
+
+        if (stopState == null) {
+
+            throw new IllegalArgumentException("No stop state (null) was specified!");
+        }
+
+        if (maxBatchSize < 1) {
+
+            String message = String.format("An invalid batch size (%d) was specified!", maxBatchSize);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (stashCapacity < 1) {
+
+            String message = String.format("An invalid stash capacity (%d) was specified!", stashCapacity);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.component = component;
+        this.messageHandler = messageHandler;
+        this.stateHandler = stateHandler;
+        this.stopState = stopState;
+        this.maxBatchSize = maxBatchSize;
+        this.stashCapacity = stashCapacity;
+
+        pendingMessages = new ArrayDeque<>(maxBatchSize);
+        messageCollector = new Consumer<Message>() {
+
+            @Override
+            public void accept(Message message) {
+
+                pendingMessages.add(message);
+            }
+        };
+        stash = new ArrayDeque<>();
+        batchTimes = new LatencyHistogram();
+    }
+
+    /**
+     * Returns the current state of the component.
+     *
+     * @return the current state
+     */
+    protected abstract State currentState();
+
+    /**
+     * Returns a selector for the specified state. Only selected messages are fetched,
+     * other messages remain in the messagebus.
+     *
+     * @param state
+     *        the current state of the component
+     *
+     * @return a selector or <code>null</code> if all messages are to be fetched
+     */
+    protected Predicate<? super Message> selector(State state) {
+
+        return null;
+    }
+
+    /**
+     * Is called after a batch of messages has been processed.
+     *
+     * @param processedMessages
+     *        the number of processed messages (i.e. positive)
+     */
+    protected void batchProcessed(int processedMessages) {
+
+        // nothing to do by default
+    }
+
+    /**
+     * Is called after each iteration.
+     */
+    protected void iterationCompleted() {
+
+        // nothing to do by default
+    }
+
+    /**
+     * Runs iterations until the component reaches its stop state. The state is
+     * updated once before the first iteration. Messages which are still stashed
+     * afterwards are put into the dead letter queue.
+     */
+    @Override
+    public void run() {
+
+        updateState();
+
+        while (stopState != currentState()) {
+
+            runOnce();
+        }
+
+        while (!stash.isEmpty()) {
+
+            discard(stash.poll());
+        }
+    }
+
+    /**
+     * Runs a single iteration.
+     *
+     * @return the number of processed messages
+     */
+    public int runOnce() {
+
+        iterations++;
+
+        unstashIfStateChanged(currentState());
+
+        if (pendingMessages.isEmpty()) {
+
+            Predicate<? super Message> selector = selector(currentState());
+
+            if (selector == null) {
+
+                component.fetchMessages(maxBatchSize, messageCollector);
+
+            } else {
+
+                component.fetchMessages(maxBatchSize, selector, messageCollector);
+            }
+        }
+
+        int count = processPendingMessages();
+        if (count > 0) {
+
+            batchProcessed(count);
+        }
+
+        updateState();
+        iterationCompleted();
+
+        return count;
+    }
+
+    /**
+     * Processes all pending messages in the order in which they were received. If a
+     * message cannot be processed it is stashed and the following messages are
+     * processed.
+     *
+     * @return the number of processed messages
+     */
+    private int processPendingMessages() {
+
+        if (pendingMessages.isEmpty()) {
+
+            return 0;
+        }
+
+        long startTime = System.nanoTime();
+        int count = 0;
+
+        while (!pendingMessages.isEmpty()) {
+
+            State state = currentState();
+            unstashIfStateChanged(state);
+
+            Message message = pendingMessages.poll();
+            Message wrappedMessage = MessageHelper.rewrapMessageWithState(message, state);
+
+            if (!messageHandler.processMessage(wrappedMessage)) {
+
+                stash(message);
+                continue;
+            }
+
+            count++;
+        }
+
+        if (count > 0) {
+
+            processedMessages += count;
+            batchTimes.record(System.nanoTime() - startTime);
+        }
+
+        return count;
+    }
+
+    /**
+     * Applies the state handler until the state doesn't change anymore.
+     */
+    private void updateState() {
+
+        State state = currentState();
+
+        while (stateHandler.updateState(state)) {
+
+            State newState = currentState();
+
+            if (newState == state) {
+
+                break;
+            }
+
+            state = newState;
+        }
+    }
+
+    /**
+     * Puts the specified message into the stash. If the stash is full the oldest
+     * stashed message is discarded.
+     *
+     * @param message
+     *        a message which couldn't be processed
+     */
+    private void stash(Message message) {
+
+        if (stash.size() >= stashCapacity) {
+
+            discard(stash.poll());
+        }
+
+        stash.add(message);
+        stashedMessages++;
+    }
+
+    /**
+     * Offers all stashed messages again before the pending messages if the specified
+     * state differs from the state in which the last message was offered.
+     *
+     * @param state
+     *        the current state
+     */
+    private void unstashIfStateChanged(State state) {
+
+        if (state == lastState) {
+
+            return;
+        }
+
+        lastState = state;
+
+        while (!stash.isEmpty()) {
+
+            pendingMessages.addFirst(stash.pollLast());
+        }
+    }
+
+    /**
+     * Puts the specified message into the dead letter queue of the component's
+     * messagebus.
+     *
+     * @param message
+     *        a message which couldn't be processed
+     */
+    private void discard(Message message) {
+
+        unprocessableMessages++;
+
+        Messagebus messagebus = component.messagebus();
+        if (messagebus instanceof ManagedMessagebus) {
+
+            ((ManagedMessagebus) messagebus).deadLetterQueue().add(message, DeadLetterReasons.UNPROCESSABLE);
+        }
+    }
+
+    /**
+     * Returns the number of iterations so far.
+     *
+     * @return the number of iterations
+     */
+    public long iterations() {
+
+        return iterations;
+    }
+
+    /**
+     * Returns the number of processed messages so far.
+     *
+     * @return the number of processed messages
+     */
+    public long processedMessages() {
+
+        return processedMessages;
+    }
+
+    /**
+     * Returns the number of messages which have been put into the stash so far.
+     *
+     * @return the number of stashed messages
+     */
+    public long stashedMessages() {
+
+        return stashedMessages;
+    }
+
+    /**
+     * Returns the number of stashed messages which have been put into the dead letter
+     * queue so far.
+     *
+     * @return the number of unprocessable messages
+     */
+    public long unprocessableMessages() {
+
+        return unprocessableMessages;
+    }
+
+    /**
+     * Returns the number of messages which are currently stashed.
+     *
+     * @return the stash size
+     */
+    public int stashSize() {
+
+        return stash.size();
+    }
+
+    /**
+     * Returns the number of messages which have been fetched but not processed yet.
+     *
+     * @return the number of pending messages
+     */
+    public int pendingMessages() {
+
+        return pendingMessages.size();
+    }
+
+    /**
+     * Returns the time needed to process a batch of messages.
+     *
+     * @return a histogram with times in nanoseconds
+     */
+    public LatencyHistogram batchTimes() {
+
+        return batchTimes;
+    }
+
+    /**
+     * Returns a summary of the recorded metrics.
+     *
+     * @return a summary
+     */
+    @Override
+    public String toString() {
+
+        return String.format("event loop[iterations=%d;processed=%d;stashed=%d;unprocessable=%d;batch times=%s]",
+                             iterations, processedMessages, stashedMessages, unprocessableMessages, batchTimes);
+    }
+
+}
@@ -51,6 +51,11 @@ public final class ComponentRoles {
      */
     public static final String LOGGER;
 
+    /**
+     * A specific component role.
+     */
+    public static final String WORKER;
+
     /*
      * The static initializer.
      */
@@ -58,6 +63,7 @@ public final class ComponentRoles {
 
         CORE = "core";
         LOGGER = "logger";
+        WORKER = "worker";
     }
 
 }
@@ -34,6 +34,9 @@
 package jmul.terminal.component;
 
 
+import jmul.terminal.component.scheduling.IdleStrategy;
+
+
 /**
  * A base implementation for components which run in an independant thread.
  *
@@ -52,4 +55,17 @@ public abstract class IndependentComponentBase extends ComponentBase implements
         super(name);
     }
 
+    /**
+     * Creates a new component according to the specified parameters.
+     *
+     * @param name
+     *        the name for this component
+     * @param idleStrategy
+     *        determines how the loop of this component waits while there is no work
+     */
+    public IndependentComponentBase(String name, IdleStrategy idleStrategy) {
+
+        super(name, idleStrategy);
+    }
+
 }
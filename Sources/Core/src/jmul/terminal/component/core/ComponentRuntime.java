@@ -0,0 +1,406 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.core;
+
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jmul.messaging.Messagebus;
+
+import jmul.terminal.component.ComponentRoles;
+import jmul.terminal.component.IndependentComponentBase;
+import jmul.terminal.component.misc.NameRoleEntry;
+import jmul.terminal.messaging.ManagedMessagebus;
+
+
+/**
+ * A runtime which launches and supervises components. Every component runs on its
+ * own virtual thread if the java runtime supports virtual threads, otherwise on a
+ * platform thread. A component which waits for messages thus doesn't occupy an
+ * operating system thread.<br>
+ * <br>
+ * The components are connected to the core component's messagebus. The core
+ * component runs on the thread which calls {@link #run()} and all components are
+ * joined after the core component has stopped. Components which are unknown to the
+ * core component are registered when they are launched. The mailbox of a terminated
+ * component is reclaimed and the component can be launched again. A component which
+ * fails is unregistered, thus the system state doesn't wait for it anymore.
+ *
+ * @author Kristian Kutin
+ */
+public class ComponentRuntime implements Runnable {
+
+    /**
+     * The core component.
+     */
+    private final CoreComponent coreComponent;
+
+    /**
+     * The factory which creates the threads for components.
+     */
+    private final ThreadFactory threadFactory;
+
+    /**
+     * The threads of all launched components which haven't terminated yet (i.e. the key
+     * is the component's name).
+     */
+    private final Map<String, Thread> componentThreads;
+
+    /**
+     * The exceptions which terminated components (i.e. the key is the component's name).
+     */
+    private final Map<String, Throwable> failures;
+
+    /**
+     * Creates a new runtime according to the specified parameter. Components are run
+     * on virtual threads if possible.
+     *
+     * @param coreComponent
+     *        the core component
+     */
+    public ComponentRuntime(CoreComponent coreComponent) {
+
+        this(coreComponent, newThreadFactory());
+    }
+
+    /**
+     * Creates a new runtime according to the specified parameters.
+     *
+     * @param coreComponent
+     *        the core component
+     * @param threadFactory
+     *        a factory which creates the threads for components
+     */
+    public ComponentRuntime(CoreComponent coreComponent, ThreadFactory threadFactory) {
+
+        super();
+
+        if (coreComponent == null) {
+
+            throw new IllegalArgumentException("No core component (null) was specified!");
+        }
+
+        if (threadFactory == null) {
+
+            throw new IllegalArgumentException("No thread factory (null) was specified!");
+        }
+
+        this.coreComponent = coreComponent;
+        this.threadFactory = threadFactory;
+
+        componentThreads = new LinkedHashMap<>();
+        failures = Collections.synchronizedMap(new LinkedHashMap<String, Throwable>());
+    }
+
+    /**
+     * Checks if the java runtime supports virtual threads.
+     *
+     * @return <code>true</code> if virtual threads are supported, else <code>false</code>
+     */
+    public static boolean isVirtualThreadSupported() {
+
+        try {
+
+            Thread.class.getMethod("ofVirtual");
+            return true;
+
+        } catch (NoSuchMethodException e) {
+
+            return false;
+        }
+    }
+
+    /**
+     * Creates a factory for virtual threads (i.e. is looked up by reflection since the
+     * sources target older java versions) or for platform threads if virtual threads
+     * aren't supported.
+     *
+     * @return a thread factory
+     */
+    public static ThreadFactory newThreadFactory() {
+
+        if (!isVirtualThreadSupported()) {
+
+            return newPlatformThreadFactory();
+        }
+
+        try {
+
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderType.getMethod("name", String.class, long.class);
+            Method factoryMethod = builderType.getMethod("factory");
+
+            builder = nameMethod.invoke(builder, "component-", 1L);
+            return (ThreadFactory) factoryMethod.invoke(builder);
+
+        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException |
+                 ClassNotFoundException e) {
+
+            return newPlatformThreadFactory();
+        }
+    }
+
+    /**
+     * Creates a factory for platform threads.
+     *
+     * @return a thread factory
+     */
+    public static ThreadFactory newPlatformThreadFactory() {
+
+        return new ThreadFactory() {
+
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                return new Thread(runnable, "component-" + threadNumber.incrementAndGet());
+            }
+        };
+    }
+
+    /**
+     * Connects the specified component to the core component's messagebus and starts
+     * it on a new thread. A component which is unknown to the core component is
+     * registered as worker.
+     *
+     * @param component
+     *        a component
+     *
+     * @return the thread on which the component runs
+     */
+    public Thread launch(IndependentComponentBase component) {
+
+        return launch(component, ComponentRoles.WORKER);
+    }
+
+    /**
+     * Connects the specified component to the core component's messagebus and starts
+     * it on a new thread. A component which is unknown to the core component is
+     * registered with the specified role (see {@link CoreComponent#registerComponent}).
+     *
+     * @param component
+     *        a component
+     * @param role
+     *        the role of the component if it has to be registered
+     *
+     * @return the thread on which the component runs
+     */
+    public synchronized Thread launch(final IndependentComponentBase component, String role) {
+
+        if (component == null) {
+
+            throw new IllegalArgumentException("No component (null) was specified!");
+        }
+
+        final String componentName = component.name();
+
+        if (componentThreads.containsKey(componentName)) {
+
+            String message = String.format("The component %s has already been launched!", componentName);
+            throw new IllegalArgumentException(message);
+        }
+
+        coreComponent.registerComponent(new NameRoleEntry(componentName, role));
+        failures.remove(componentName);
+
+        if (!component.isConnected()) {
+
+            component.connect(coreComponent.messagebus());
+        }
+
+        Runnable supervisedComponent = new Runnable() {
+
+            @Override
+            public void run() {
+
+                try {
+
+                    component.run();
+
+                } catch (RuntimeException | Error e) {
+
+                    failures.put(componentName, e);
+                    coreComponent.unregisterComponent(componentName);
+                    throw e;
+
+                } finally {
+
+                    reclaimMailbox(componentName);
+                    componentTerminated(componentName, Thread.currentThread());
+                }
+            }
+        };
+
+        Thread thread = threadFactory.newThread(supervisedComponent);
+        thread.setName(componentName);
+        componentThreads.put(componentName, thread);
+        thread.start();
+
+        return thread;
+    }
+
+    /**
+     * Reclaims the mailbox of a terminated component. Messages which are still in
+     * the mailbox are put into the messagebus' dead letter queue.
+     *
+     * @param componentName
+     *        the name of a terminated component
+     */
+    private void reclaimMailbox(String componentName) {
+
+        Messagebus messagebus = coreComponent.messagebus();
+
+        if (messagebus instanceof ManagedMessagebus) {
+
+            ((ManagedMessagebus) messagebus).closeMailbox(componentName);
+        }
+    }
+
+    /**
+     * Removes the thread of a terminated component.
+     *
+     * @param componentName
+     *        the name of a terminated component
+     * @param thread
+     *        the thread on which the component ran
+     */
+    private synchronized void componentTerminated(String componentName, Thread thread) {
+
+        componentThreads.remove(componentName, thread);
+    }
+
+    /**
+     * Runs the core component on the current thread and joins all components after the
+     * core component has stopped.
+     */
+    @Override
+    public void run() {
+
+        coreComponent.run();
+
+        try {
+
+            join(0L);
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until all launched components have terminated.
+     *
+     * @param timeout
+     *        the maximum waiting time in milliseconds (i.e. zero means no limit)
+     *
+     * @return <code>true</code> if all components have terminated, else <code>false</code>
+     *
+     * @throws InterruptedException
+     *         is thrown if the current thread is interrupted while waiting
+     */
+    public boolean join(long timeout) throws InterruptedException {
+
+        Thread[] threads;
+        synchronized (this) {
+
+            threads = componentThreads.values().toArray(new Thread[componentThreads.size()]);
+        }
+
+        long deadline = System.currentTimeMillis() + timeout;
+
+        for (Thread thread : threads) {
+
+            if (timeout == 0L) {
+
+                thread.join();
+                continue;
+            }
+
+            long remainingTime = deadline - System.currentTimeMillis();
+            if (remainingTime <= 0L) {
+
+                break;
+            }
+
+            thread.join(remainingTime);
+        }
+
+        return activeComponents() == 0;
+    }
+
+    /**
+     * Returns the number of launched components which haven't terminated yet.
+     *
+     * @return the number of active components
+     */
+    public synchronized int activeComponents() {
+
+        int count = 0;
+
+        for (Thread thread : componentThreads.values()) {
+
+            if (thread.isAlive()) {
+
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the exception which terminated the specified component.
+     *
+     * @param componentName
+     *        the name of a component
+     *
+     * @return an exception or <code>null</code> if the component didn't fail
+     */
+    public Throwable failure(String componentName) {
+
+        return failures.get(componentName);
+    }
+
+}
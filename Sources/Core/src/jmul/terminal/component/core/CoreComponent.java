@@ -34,36 +34,47 @@
 package jmul.terminal.component.core;
 
 
-import jmul.concurrent.threads.ThreadHelper;
+import java.util.function.Predicate;
 
-import jmul.messaging.MessageQueryResult;
-import jmul.messaging.QueuingMessagebus;
-import jmul.messaging.StandardMessage;
+import jmul.messaging.Message;
 
 import jmul.misc.state.IllegalStateTransitionException;
 import jmul.misc.state.State;
 
 import jmul.terminal.Resources;
+import jmul.terminal.component.ComponentAddress;
 import jmul.terminal.component.ComponentBase;
+import jmul.terminal.component.ComponentEventLoop;
 import jmul.terminal.component.ComponentRoles;
 import jmul.terminal.component.ComponentStates;
 import jmul.terminal.component.SystemStates;
+import jmul.terminal.component.messages.ComponentMessage;
 import jmul.terminal.component.messages.ComponentReadyMessage;
 import jmul.terminal.component.messages.ComponentStoppedMessage;
 import jmul.terminal.component.messages.LogEntryMessage;
-import jmul.terminal.component.messages.MessageHelper;
+import jmul.terminal.component.messages.RegisterComponentMessage;
 import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.messages.UnregisterComponentMessage;
 import jmul.terminal.component.messaging.ComponentMessageHandler;
+import jmul.terminal.component.messaging.InstrumentedMessageHandler;
 import jmul.terminal.component.messaging.MessageHandler;
 import jmul.terminal.component.messaging.MessageProcessingRule;
 import jmul.terminal.component.misc.ComponentDictionary;
-import jmul.terminal.component.misc.ComponentDictionaryImpl;
-import jmul.terminal.component.misc.ComponentStateMonitor;
-import jmul.terminal.component.misc.ComponentStateMonitorImpl;
+import jmul.terminal.component.misc.ComponentRegistry;
 import jmul.terminal.component.misc.NameRoleEntry;
+import jmul.terminal.component.scheduling.BlockingIdleStrategy;
+import jmul.terminal.component.scheduling.IdleStrategy;
 import jmul.terminal.component.state.ComponentStateHandler;
 import jmul.terminal.component.state.StateHandler;
 import jmul.terminal.component.state.StateUpdateRule;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.BroadcastMessagebus;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.ManagedMessagebus;
+import jmul.terminal.messaging.MessagePriorities;
+import jmul.terminal.messaging.ProducerTypes;
+import jmul.terminal.messaging.RingBufferLane;
+import jmul.terminal.messaging.WaitStrategies;
 import jmul.terminal.utils.logging.LogLevel;
 import jmul.terminal.utils.logging.LogLevels;
 
@@ -71,48 +82,84 @@ import jmul.terminal.utils.logging.LogLevels;
 /**
  * This class represents the core thread for a system. It provides a messaging queue
  * which can be used by all components (i.e. threads). It handles the overall system
- * state.
+ * state. Components can be registered and unregistered while the system is running
+ * (see {@link RegisterComponentMessage} and {@link UnregisterComponentMessage}).
+ * The system is initialized as soon as the last known component reports that it is
+ * ready and moves on to running without waiting for further messages.
  *
  * @author Kristian Kutin
  */
 public class CoreComponent extends ComponentBase {
 
     /**
-     * A constant sleep time.
+     * The maximum number of messages in the logger's mailbox.
      */
-    private static final long DEFAULT_SLEEP_TIME;
+    private static final int LOGGER_MAILBOX_CAPACITY;
+
+    /**
+     * The interval in milliseconds at which the message latencies are logged.
+     */
+    private static final long LATENCY_DUMP_INTERVAL;
 
     /*
      * The static initializer.
      */
     static {
 
-        DEFAULT_SLEEP_TIME = 50L;
+        LOGGER_MAILBOX_CAPACITY = 65536;
+        LATENCY_DUMP_INTERVAL = 60000L;
     }
 
     /**
-     * A dicitonary which contains all components and their roles this component
-     * needs to know.
+     * A registry which contains all components this component needs to know, their
+     * roles and their states. Components can be registered and unregistered while the
+     * system is running. The states may not alyways be up to date and the core
+     * component might need to send a message and wait for the response.
      */
-    private final ComponentDictionary componentDictionary;
+    private final ComponentRegistry componentRegistry;
 
     /**
-     * An entity which tracks the state of all known components. The states may not alyways
-     * be up to date and the core component might need to send a message and wait for the
-     * response.
+     * The messagebus which this component is connected to.
      */
-    private final ComponentStateMonitor stateMonitor;
+    private final ManagedMessagebus managedMessagebus;
 
     /**
      * An entity that prcoesses messages.
      */
     private final MessageHandler messageHandler;
 
+    /**
+     * The rules according to which messages are processed. The rules also determine
+     * which messages are fetched in a state.
+     */
+    private final ComponentMessageHandler componentMessageHandler;
+
     /**
      * An entity that updates state.
      */
     private final StateHandler stateHandler;
 
+    /**
+     * The loop which fetches and processes messages.
+     */
+    private final ComponentEventLoop eventLoop;
+
+    /**
+     * The next time at which the message latencies are logged.
+     */
+    private long nextLatencyDump;
+
+    /**
+     * The time in nanoseconds at which this component started running.
+     */
+    private long startTime;
+
+    /**
+     * The time in nanoseconds this system needed to reach the state running or
+     * <code>-1</code> if the system hasn't reached the state running yet.
+     */
+    private volatile long timeToRunning;
+
     /**
      * The overall system state.
      */
@@ -128,24 +175,105 @@ public class CoreComponent extends ComponentBase {
      */
     public CoreComponent(String name, NameRoleEntry... componentEntries) {
 
-        super(name);
+        this(name, new BlockingIdleStrategy(), componentEntries);
+    }
+
+    /**
+     * Creates a new instance according to the specified parameters.
+     *
+     * @param name
+     *        the name of this component
+     * @param idleStrategy
+     *        determines how the loop of this component waits while there is no work
+     * @param componentEntries
+     *        names and roles of components this component needs to know
+     */
+    public CoreComponent(String name, IdleStrategy idleStrategy, NameRoleEntry... componentEntries) {
+
+        this(name, idleStrategy, new ComponentRegistry(componentEntries));
+    }
+
+    /**
+     * Creates a new instance according to the specified parameters. The component is
+     * connected to a new {@link BlockingQueuingMessagebus}.
+     *
+     * @param name
+     *        the name of this component
+     * @param idleStrategy
+     *        determines how the loop of this component waits while there is no work
+     * @param componentRegistry
+     *        a registry which contains all known components
+     */
+    private CoreComponent(String name, IdleStrategy idleStrategy, ComponentRegistry componentRegistry) {
+
+        this(name, idleStrategy, newMessagebus(name, componentRegistry), componentRegistry);
+    }
+
+    /**
+     * Creates a new instance according to the specified parameters. The component is
+     * connected to the specified messagebus (e.g. a messagebus which is connected to a
+     * message broker). Mailboxes are opened for this component and all known components.
+     *
+     * @param name
+     *        the name of this component
+     * @param idleStrategy
+     *        determines how the loop of this component waits while there is no work
+     * @param messagebus
+     *        the messagebus which this component and all known components use
+     * @param componentEntries
+     *        names and roles of components this component needs to know
+     */
+    public CoreComponent(String name, IdleStrategy idleStrategy, ManagedMessagebus messagebus,
+                         NameRoleEntry... componentEntries) {
+
+        this(name, idleStrategy, messagebus, new ComponentRegistry(componentEntries));
+    }
+
+    /**
+     * Creates a new instance according to the specified parameters.
+     *
+     * @param name
+     *        the name of this component
+     * @param idleStrategy
+     *        determines how the loop of this component waits while there is no work
+     * @param messagebus
+     *        the messagebus which this component and all known components use
+     * @param componentRegistry
+     *        a registry which contains all known components
+     */
+    private CoreComponent(String name, IdleStrategy idleStrategy, ManagedMessagebus messagebus,
+                          ComponentRegistry componentRegistry) {
+
+        super(name, idleStrategy);
 
         state = SystemStates.UNINITIALIZED;
+        timeToRunning = -1L;
 
-        connect(new QueuingMessagebus());
+        this.componentRegistry = componentRegistry;
+        managedMessagebus = prepareMessagebus(name, messagebus, componentRegistry.names());
+        connect(managedMessagebus);
 
-        componentDictionary = new ComponentDictionaryImpl(componentEntries);
-        stateMonitor = new ComponentStateMonitorImpl(componentDictionary.names());
-        initializeComponentStates(componentDictionary.names());
+        initializeComponentStates(componentRegistry.names());
 
-        messageHandler = new ComponentMessageHandler();
-        ((ComponentMessageHandler) messageHandler)
+        componentMessageHandler = new ComponentMessageHandler();
+        componentMessageHandler
             .addRule(SystemStates.INITIALIZATION, ComponentReadyMessage.class, new ComponentReadyRule());
-        ((ComponentMessageHandler) messageHandler)
-            .addRule(SystemStates.RUNNING, StopMessage.class, new StopComponentsRule());
-        ((ComponentMessageHandler) messageHandler)
+        componentMessageHandler.addRule(SystemStates.RUNNING, ComponentReadyMessage.class, new ComponentReadyRule());
+        componentMessageHandler.addRule(SystemStates.RUNNING, StopMessage.class, new StopComponentsRule());
+        componentMessageHandler
             .addRule(SystemStates.STOPPING, ComponentStoppedMessage.class, new ComponentStoppedRule());
+        componentMessageHandler
+            .addRule(SystemStates.INITIALIZATION, RegisterComponentMessage.class, new RegisterComponentRule());
+        componentMessageHandler
+            .addRule(SystemStates.RUNNING, RegisterComponentMessage.class, new RegisterComponentRule());
+        componentMessageHandler
+            .addRule(SystemStates.INITIALIZATION, UnregisterComponentMessage.class, new UnregisterComponentRule());
+        componentMessageHandler
+            .addRule(SystemStates.RUNNING, UnregisterComponentMessage.class, new UnregisterComponentRule());
+        componentMessageHandler
+            .addRule(SystemStates.STOPPING, UnregisterComponentMessage.class, new UnregisterComponentRule());
         //TODO add missing rules
+        messageHandler = new InstrumentedMessageHandler(name, componentMessageHandler, Resources.LATENCY_MONITOR);
 
         stateHandler = new ComponentStateHandler();
         ((ComponentStateHandler) stateHandler).addRule(SystemStates.INITIALIZATION, new UpdateToInitializedRule());
@@ -154,9 +282,112 @@ public class CoreComponent extends ComponentBase {
         ((ComponentStateHandler) stateHandler).addRule(SystemStates.STOPPING, new UpdateToStoppedRule());
         //TODO add missing rules
 
+        eventLoop = new ComponentEventLoop(this, messageHandler, stateHandler, SystemStates.STOPPED) {
+
+            @Override
+            protected State currentState() {
+
+                return systemState();
+            }
+
+            @Override
+            protected Predicate<Message> selector(State state) {
+
+                return componentMessageHandler.selector(state);
+            }
+
+            @Override
+            protected void iterationCompleted() {
+
+                if (System.currentTimeMillis() >= nextLatencyDump) {
+
+                    logLatencies();
+                    nextLatencyDump = System.currentTimeMillis() + LATENCY_DUMP_INTERVAL;
+                }
+            }
+        };
+
         updateSystemState(SystemStates.INITIALIZATION);
     }
 
+    /**
+     * Creates a new messagebus. This component and all known components are
+     * registered in advance. Messages for unknown receivers are put into the dead
+     * letter queue.
+     * Stop messages, state changes and registrations are control messages. The mailbox of this
+     * component keeps a queue per topic for a selective fetch. The logger's mailbox
+     * is a preallocated ring buffer with limited capacity, debug log entries are
+     * dropped if the logger falls behind.
+     *
+     * @param name
+     *        the name of this component
+     * @param componentDictionary
+     *        all known components
+     *
+     * @return a new messagebus
+     */
+    private static BlockingQueuingMessagebus newMessagebus(String name, ComponentDictionary componentDictionary) {
+
+        String[] componentNames = componentDictionary.names();
+
+        String[] receiverNames = new String[componentNames.length + 1];
+        receiverNames[0] = name;
+        System.arraycopy(componentNames, 0, receiverNames, 1, componentNames.length);
+
+        BlockingQueuingMessagebus messagebus = new BlockingQueuingMessagebus(receiverNames);
+        messagebus.setDynamicReceivers(false);
+        messagebus.indexTopics(name);
+        messagebus.setTopicPriority(StopMessage.STOP_TOPIC, MessagePriorities.CONTROL);
+        messagebus.setTopicPriority(ComponentReadyMessage.READY_TOPIC, MessagePriorities.CONTROL);
+        messagebus.setTopicPriority(ComponentStoppedMessage.STOPPED_TOPIC, MessagePriorities.CONTROL);
+        messagebus.setTopicPriority(RegisterComponentMessage.REGISTER_COMPONENT_TOPIC, MessagePriorities.CONTROL);
+        messagebus.setTopicPriority(UnregisterComponentMessage.UNREGISTER_COMPONENT_TOPIC, MessagePriorities.CONTROL);
+
+        if (componentDictionary.existsRole(ComponentRoles.LOGGER)) {
+
+            String loggerName = componentDictionary.getNameByRole(ComponentRoles.LOGGER);
+            MailboxConfiguration configuration = new MailboxConfiguration(LOGGER_MAILBOX_CAPACITY, LogLevels.WARNING);
+            messagebus.configureMailbox(loggerName, configuration);
+            messagebus.useLane(loggerName,
+                               new RingBufferLane(LOGGER_MAILBOX_CAPACITY, ProducerTypes.MULTI,
+                                                  WaitStrategies.YIELDING));
+        }
+
+        return messagebus;
+    }
+
+    /**
+     * Opens the mailboxes of this component and all known components. All known
+     * components subscribe to stop messages.
+     *
+     * @param name
+     *        the name of this component
+     * @param messagebus
+     *        a messagebus
+     * @param componentNames
+     *        the names of all known components
+     *
+     * @return the specified messagebus
+     */
+    private static ManagedMessagebus prepareMessagebus(String name, ManagedMessagebus messagebus,
+                                                       String... componentNames) {
+
+        if (messagebus == null) {
+
+            throw new IllegalArgumentException("No messagebus (null) was specified!");
+        }
+
+        messagebus.openMailbox(name);
+
+        for (String componentName : componentNames) {
+
+            messagebus.openMailbox(componentName);
+            messagebus.subscribe(StopMessage.STOP_TOPIC, componentName);
+        }
+
+        return messagebus;
+    }
+
     /**
      * Initializes the states for the specified components.
      *
@@ -181,7 +412,7 @@ public class CoreComponent extends ComponentBase {
 
         try {
 
-            stateMonitor.updateState(componentName, ComponentStates.UNKNOWN);
+            componentRegistry.updateState(componentName, ComponentStates.UNKNOWN);
 
         } catch (IllegalStateTransitionException e) {
 
@@ -196,7 +427,9 @@ public class CoreComponent extends ComponentBase {
     }
 
     /**
-     * Logs the specified log entry.
+     * Logs the specified log entry. The core never waits for the logger (i.e. the logger
+     * may be waiting for the core). If the logger's mailbox is full the log entry is
+     * put into the dead letter queue.
      *
      * @param logLevel
      *        a log level
@@ -205,12 +438,12 @@ public class CoreComponent extends ComponentBase {
      */
     private void logMesssage(LogLevel logLevel, String logMessage) {
 
-        if (componentDictionary.existsRole(ComponentRoles.LOGGER)) {
+        if (componentRegistry.existsRole(ComponentRoles.LOGGER)) {
 
-            String loggerName = componentDictionary.getNameByRole(ComponentRoles.LOGGER);
+            ComponentAddress loggerAddress = componentRegistry.getAddressByRole(ComponentRoles.LOGGER);
 
-            LogEntryMessage message = new LogEntryMessage(senderName(), loggerName, logLevel, logMessage);
-            sendMessage(message);
+            LogEntryMessage message = new LogEntryMessage(address(), loggerAddress, logLevel, logMessage);
+            managedMessagebus.trySend(message);
 
             return;
         }
@@ -219,18 +452,33 @@ public class CoreComponent extends ComponentBase {
     }
 
     /**
-     * Updates the state for the specified component.
+     * Updates the state for the component which sent the specified message. The
+     * state is looked up by the sender's address if the message carries it.
      *
-     * @param componentName
-     *        the name of a component
+     * @param message
+     *        a message from a component
      * @param newState
      *        the new state
      */
-    private void updateComponentState(String componentName, State newState) {
+    private void updateComponentState(Message message, State newState) {
+
+        ComponentAddress sender = null;
+
+        if (message instanceof ComponentMessage) {
+
+            sender = ((ComponentMessage) message).senderAddress();
+        }
 
         try {
 
-            stateMonitor.updateState(componentName, newState);
+            if (sender != null) {
+
+                componentRegistry.updateState(sender, newState);
+
+            } else {
+
+                componentRegistry.updateState(message.senderName(), newState);
+            }
 
         } catch (IllegalStateTransitionException e) {
 
@@ -256,93 +504,174 @@ public class CoreComponent extends ComponentBase {
     }
 
     /**
-     * The core watches over initialization and the system state. The core also
-     * coordinates stopping this system.
+     * Returns the time this system needed to reach the state running, measured from
+     * the start of this component.
+     *
+     * @return the time in nanoseconds or <code>-1</code> if the system hasn't reached
+     *         the state running yet
      */
-    public void run() {
+    public long timeToRunning() {
 
-        StandardMessage message = null;
-        MessageQueryResult queryResult = null;
-        while (SystemStates.STOPPED != systemState()) {
+        return timeToRunning;
+    }
 
-            if (message == null) {
+    /**
+     * Returns the event loop of this component.
+     *
+     * @return an event loop
+     */
+    public ComponentEventLoop eventLoop() {
 
-                queryResult = fetchMessage();
-            }
+        return eventLoop;
+    }
 
-            logMesssage(LogLevels.DEBUG, "check messages...");
+    /**
+     * Checks if the specified component is known to the core component.
+     *
+     * @param componentName
+     *        the name of a component
+     *
+     * @return <code>true</code> if the component is known, else <code>false</code>
+     */
+    public boolean isKnownComponent(String componentName) {
 
-            if (queryResult.existsResult()) {
+        return componentRegistry.existsName(componentName);
+    }
 
-                if (message == null) {
+    /**
+     * Registers the specified component while the system is running. The component
+     * receives a mailbox, is subscribed to stop messages and its state is unknown
+     * until it reports that it is ready. If the component was already registered its
+     * mailbox is reopened and its subscription is renewed (e.g. the component is
+     * launched again after its mailbox was reclaimed). This method may be called by
+     * any thread.
+     *
+     * @param entry
+     *        the name and role of a component
+     *
+     * @return <code>true</code> if the component has been registered, <code>false</code>
+     *         if the component was already registered
+     */
+    public boolean registerComponent(NameRoleEntry entry) {
 
-                    message = (StandardMessage) queryResult.result();
-                    message = MessageHelper.rewrapMessageWithState(message, systemState());
-                }
+        boolean registered = componentRegistry.register(entry);
 
-                boolean result = messageHandler.processMessage(message);
-                if (result) {
+        managedMessagebus.openMailbox(entry.name);
+        managedMessagebus.subscribe(StopMessage.STOP_TOPIC, entry.name);
 
-                    String messageProcessed = "processed 1 message (" + message + ")";
-                    logMesssage(LogLevels.DEBUG, messageProcessed);
+        if (registered) {
 
-                    message = null;
-                    queryResult = null;
+            initializeComponentState(entry.name);
+        }
 
-                } else {
+        return registered;
+    }
 
-                    String messageNotProcessed = "message not processed (" + message + ")!";
-                    logMesssage(LogLevels.DEBUG, messageNotProcessed);
-                }
-            }
+    /**
+     * Unregisters the specified component while the system is running. The component
+     * doesn't receive stop messages anymore and the system state doesn't depend on
+     * the component's state anymore. The component's mailbox is left open until the
+     * component has stopped. This method may be called by any thread.
+     *
+     * @param componentName
+     *        the name of a component
+     *
+     * @return <code>true</code> if the component has been unregistered, <code>false</code>
+     *         if the component wasn't registered
+     */
+    public boolean unregisterComponent(String componentName) {
 
+        if (!componentRegistry.unregister(componentName)) {
 
-            stateHandler.updateState(systemState());
+            return false;
+        }
 
+        managedMessagebus.unsubscribe(StopMessage.STOP_TOPIC, componentName);
 
-            ThreadHelper.sleep(DEFAULT_SLEEP_TIME);
-        }
+        return true;
     }
 
+    /**
+     * Returns the number of registered components.
+     *
+     * @return the number of registered components
+     */
+    public int componentCount() {
+
+        return componentRegistry.componentCount();
+    }
 
     /**
-     * Checks if all components are ready.
+     * Returns the recorded state of the specified component.
      *
-     * @return <code>true</code> if all components are ready, else <code>false</code>
+     * @param componentName
+     *        the name of a registered component
+     *
+     * @return the recorded state
      */
-    private boolean checkComponentsAreReady() {
+    public State componentState(String componentName) {
 
-        for (String name : componentDictionary.names()) {
+        return componentRegistry.getState(componentName);
+    }
 
-            State currentState = stateMonitor.getState(name);
+    /**
+     * The core watches over initialization and the system state. The core also
+     * coordinates stopping this system. Only messages for which there is a rule in
+     * the current system state are fetched, other messages remain in the messagebus
+     * until the system state changes.
+     */
+    public void run() {
 
-            if (!currentState.equals(ComponentStates.READY)) {
+        // the MBean server is initialized lazily, thus the registration mustn't be part
+        // of the time to running
+        Resources.LATENCY_MONITOR.registerMBean();
 
-                return false;
-            }
-        }
+        startTime = System.nanoTime();
+        nextLatencyDump = System.currentTimeMillis() + LATENCY_DUMP_INTERVAL;
 
-        return true;
+        eventLoop.run();
     }
 
     /**
-     * Checks if all components have stopped.
-     *
-     * @return <code>true</code> if all components have stopped, else <code>false</code>
+     * Logs the recorded message latencies, the metrics of the event loop and the idle
+     * time of this component.
      */
-    private boolean checkComponentsHaveStopped() {
+    private void logLatencies() {
 
-        for (String name : componentDictionary.names()) {
+        for (String line : Resources.LATENCY_MONITOR.getQueueWaitTimes()) {
 
-            State currentState = stateMonitor.getState(name);
+            logMesssage(LogLevels.DEBUG, line);
+        }
 
-            if (!currentState.equals(ComponentStates.STOPPED)) {
+        for (String line : Resources.LATENCY_MONITOR.getHandlerTimes()) {
 
-                return false;
-            }
+            logMesssage(LogLevels.DEBUG, line);
         }
 
-        return true;
+        logMesssage(LogLevels.DEBUG, eventLoop.toString());
+        logMesssage(LogLevels.DEBUG, "idle time: " + idleTime() + " ms");
+    }
+
+
+    /**
+     * Checks if all components are ready. The registry counts the ready components,
+     * thus the check doesn't walk all components.
+     *
+     * @return <code>true</code> if all components are ready, else <code>false</code>
+     */
+    private boolean checkComponentsAreReady() {
+
+        return componentRegistry.inState(ComponentStates.READY);
+    }
+
+    /**
+     * Checks if all components have stopped.
+     *
+     * @return <code>true</code> if all components have stopped, else <code>false</code>
+     */
+    private boolean checkComponentsHaveStopped() {
+
+        return componentRegistry.inState(ComponentStates.STOPPED);
     }
 
     /**
@@ -357,15 +686,12 @@ public class CoreComponent extends ComponentBase {
     }
 
     /**
-     * Send a stop message to all registered components.
+     * Publishes a single stop message to all registered components.
      */
     private void sendStopMessageToAllComponents() {
 
-        for (String name : componentDictionary.names()) {
-
-            StopMessage message = new StopMessage(this.senderName(), name);
-            sendMessage(message);
-        }
+        StopMessage message = new StopMessage(this.senderName(), BroadcastMessagebus.ALL_SUBSCRIBERS);
+        managedMessagebus.publish(message);
     }
 
 
@@ -374,10 +700,14 @@ public class CoreComponent extends ComponentBase {
     class ComponentReadyRule implements MessageProcessingRule {
 
         @Override
-        public boolean processMessage(StandardMessage message) {
+        public boolean processMessage(Message message) {
+
+            updateComponentState(message, ComponentStates.READY);
 
-            String sender = message.senderName();
-            updateComponentState(sender, ComponentStates.READY);
+            if ((SystemStates.INITIALIZATION == systemState()) && checkComponentsAreReady()) {
+
+                updateSystemState(SystemStates.INITIALIZED);
+            }
 
             return true;
         }
@@ -388,7 +718,7 @@ public class CoreComponent extends ComponentBase {
     class StopComponentsRule implements MessageProcessingRule {
 
         @Override
-        public boolean processMessage(StandardMessage message) {
+        public boolean processMessage(Message message) {
 
             sendStopMessageToAllComponents();
             updateSystemState(SystemStates.STOPPING);
@@ -402,10 +732,42 @@ public class CoreComponent extends ComponentBase {
     class ComponentStoppedRule implements MessageProcessingRule {
 
         @Override
-        public boolean processMessage(StandardMessage message) {
+        public boolean processMessage(Message message) {
 
-            String componentName = message.senderName();
-            updateComponentState(componentName, ComponentStates.STOPPED);
+            updateComponentState(message, ComponentStates.STOPPED);
+
+            return true;
+        }
+    }
+
+
+    class RegisterComponentRule implements MessageProcessingRule {
+
+        @Override
+        public boolean processMessage(Message message) {
+
+            RegisterComponentMessage registration = (RegisterComponentMessage) message;
+
+            try {
+
+                registerComponent(new NameRoleEntry(registration.senderName(), registration.role()));
+
+            } catch (IllegalArgumentException e) {
+
+                logMesssage(LogLevels.ERROR, e.getMessage());
+            }
+
+            return true;
+        }
+    }
+
+
+    class UnregisterComponentRule implements MessageProcessingRule {
+
+        @Override
+        public boolean processMessage(Message message) {
+
+            unregisterComponent(message.senderName());
 
             return true;
         }
@@ -447,6 +809,10 @@ public class CoreComponent extends ComponentBase {
         public boolean updateState(State state) {
 
             updateSystemState(SystemStates.RUNNING);
+
+            timeToRunning = System.nanoTime() - startTime;
+            logMesssage(LogLevels.DEBUG, "time to running: " + (timeToRunning / 1000L) + " us");
+
             return true;
         }
     }
@@ -34,7 +34,7 @@
 package jmul.terminal.component.core;
 
 
-import jmul.messaging.StandardMessage;
+import jmul.messaging.Message;
 
 import jmul.terminal.Resources;
 import jmul.terminal.component.IndependentComponentBase;
@@ -115,7 +115,7 @@ public class SigintHandler extends IndependentComponentBase {
 
         Resources.LOGGER.log(LogLevels.INFO, COMPONENT_NAME, "A sigint signal was received.");
 
-        StandardMessage message = new StopMessage(senderName(), coreComponent.name());
+        Message message = new StopMessage(senderName(), coreComponent.name());
         sendMessage(message);
 
         Resources.LOGGER.log(LogLevels.INFO, COMPONENT_NAME, "A stop message was sent.");
@@ -34,14 +34,18 @@
 package jmul.terminal.component.logging;
 
 
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
 import jmul.concurrent.threads.ThreadHelper;
 
-import jmul.messaging.MessageQueryResult;
-import jmul.messaging.StandardMessage;
+import jmul.messaging.Message;
 
 import jmul.misc.state.State;
 
 import jmul.terminal.Resources;
+import jmul.terminal.component.ComponentAddress;
+import jmul.terminal.component.ComponentEventLoop;
 import jmul.terminal.component.ComponentRoles;
 import jmul.terminal.component.ComponentStates;
 import jmul.terminal.component.IndependentComponentBase;
@@ -52,15 +56,18 @@ import jmul.terminal.component.messages.LogEntryMessage;
 import jmul.terminal.component.messages.MessageHelper;
 import jmul.terminal.component.messages.StopMessage;
 import jmul.terminal.component.messaging.ComponentMessageHandler;
+import jmul.terminal.component.messaging.InstrumentedMessageHandler;
 import jmul.terminal.component.messaging.MessageHandler;
 import jmul.terminal.component.messaging.MessageProcessingRule;
 import jmul.terminal.component.misc.ComponentDictionary;
 import jmul.terminal.component.misc.ComponentDictionaryImpl;
 import jmul.terminal.component.misc.NameRoleEntry;
+import jmul.terminal.component.scheduling.BlockingIdleStrategy;
+import jmul.terminal.component.scheduling.IdleStrategy;
 import jmul.terminal.component.state.ComponentStateHandler;
 import jmul.terminal.component.state.StateHandler;
+import jmul.terminal.messaging.MessageSelectors;
 import jmul.terminal.utils.logging.LogLevel;
-import jmul.terminal.utils.logging.LogLevels;
 
 
 /**
@@ -75,12 +82,25 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
      */
     private static final long DEFAULT_SLEEP_TIME;
 
+    /**
+     * The maximum number of remaining log entries which are fetched at once after the
+     * stop message was processed.
+     */
+    private static final int REMAINING_ENTRIES_BATCH_SIZE;
+
+    /**
+     * Selects log entries.
+     */
+    private static final Predicate<Message> LOG_ENTRIES;
+
     /*
      * The static initializer.
      */
     static {
 
         DEFAULT_SLEEP_TIME = 50L;
+        REMAINING_ENTRIES_BATCH_SIZE = 256;
+        LOG_ENTRIES = MessageSelectors.byType(LogEntryMessage.class);
     }
 
     /**
@@ -93,6 +113,11 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
      */
     private final StateHandler stateHandler;
 
+    /**
+     * The loop which fetches and processes messages.
+     */
+    private final ComponentEventLoop eventLoop;
+
     /**
      * The overall component state.
      */
@@ -116,7 +141,25 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
      */
     public ConsoleLoggingComponent(String name, LogLevel logLevel, NameRoleEntry... componentEntries) {
 
-        super(name);
+        this(name, new BlockingIdleStrategy(), logLevel, componentEntries);
+    }
+
+    /**
+     * Creates a new logging component according to the specified parameters.
+     *
+     * @param name
+     *        the name for this component
+     * @param idleStrategy
+     *        determines how the loop of this component waits while there is no work
+     * @param logLevel
+     *        the log level determines which log entries get shown
+     * @param componentEntries
+     *        names and roles of components this component needs to know
+     */
+    public ConsoleLoggingComponent(String name, IdleStrategy idleStrategy, LogLevel logLevel,
+                                   NameRoleEntry... componentEntries) {
+
+        super(name, idleStrategy);
 
         Resources.LOGGER.changeLogLevel(logLevel);
 
@@ -124,15 +167,25 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
 
         componentDictionary = new ComponentDictionaryImpl(componentEntries);
 
-        messageHandler = new ComponentMessageHandler();
-        ((ComponentMessageHandler) messageHandler)
-            .addRule(ComponentStates.READY, LogEntryMessage.class, new ProcessLogEntryMessageRule());
-        ((ComponentMessageHandler) messageHandler)
-            .addRule(ComponentStates.READY, StopMessage.class, new ProcessStopMessageRule());
+        ComponentMessageHandler componentMessageHandler = new ComponentMessageHandler();
+        componentMessageHandler.addRule(ComponentStates.READY, LogEntryMessage.class, new ProcessLogEntryMessageRule());
+        componentMessageHandler.addRule(ComponentStates.READY, StopMessage.class, new ProcessStopMessageRule());
+        componentMessageHandler
+            .addRule(ComponentStates.STOPPED, LogEntryMessage.class, new ProcessLogEntryMessageRule());
         //TODO add missing rules
+        messageHandler = new InstrumentedMessageHandler(name, componentMessageHandler, Resources.LATENCY_MONITOR);
 
         stateHandler = new ComponentStateHandler();
         //TODO add missing rules
+
+        eventLoop = new ComponentEventLoop(this, messageHandler, stateHandler, ComponentStates.STOPPED) {
+
+            @Override
+            protected State currentState() {
+
+                return componentState();
+            }
+        };
     }
 
     /**
@@ -145,6 +198,16 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
         return state;
     }
 
+    /**
+     * Returns the event loop of this component.
+     *
+     * @return an event loop
+     */
+    public ComponentEventLoop eventLoop() {
+
+        return eventLoop;
+    }
+
     /**
      * The logging component will wait
      */
@@ -161,48 +224,34 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
         sendReadyMessage();
 
 
-        StandardMessage message = null;
-        MessageQueryResult queryResult = null;
-        while (ComponentStates.STOPPED != componentState()) {
-
-            if (message == null) {
-
-                queryResult = fetchMessage();
-            }
-
-            if (queryResult.existsResult()) {
-
-                if (message == null) {
+        eventLoop.run();
+        logRemainingEntries();
 
-                    message = (StandardMessage) queryResult.result();
-                    message = MessageHelper.rewrapMessageWithState(message, componentState());
-                }
 
-                boolean result = messageHandler.processMessage(message);
-                if (result) {
+        sendStoppedMessage();
+    }
 
-                    String messageProcessed = "processed 1 message (" + message + ")";
-                    logMesssage(LogLevels.DEBUG, name(), messageProcessed);
+    /**
+     * Writes the log entries which are still in the mailbox after the stop message was
+     * processed. A stop message is a control message and overtakes the log entries
+     * which were sent before it, thus the last log entries of a shutdown would be lost
+     * otherwise.
+     */
+    private void logRemainingEntries() {
 
-                    message = null;
-                    queryResult = null;
+        Consumer<Message> consumer = new Consumer<Message>() {
 
-                } else {
+            @Override
+            public void accept(Message message) {
 
-                    String messageNotProcessed = "message not processed (" + message + ")!";
-                    logMesssage(LogLevels.DEBUG, name(), messageNotProcessed);
-                }
+                messageHandler.processMessage(MessageHelper.rewrapMessageWithState(message, componentState()));
             }
+        };
 
+        while (awaitMessages(REMAINING_ENTRIES_BATCH_SIZE, 0L, LOG_ENTRIES, consumer) > 0) {
 
-            stateHandler.updateState(componentState());
-
-
-            ThreadHelper.sleep(DEFAULT_SLEEP_TIME);
+            // continue until all remaining log entries are written
         }
-
-
-        sendStoppedMessage();
     }
 
     /**
@@ -210,8 +259,8 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
      */
     private void sendReadyMessage() {
 
-        String recipient = componentDictionary.getNameByRole(ComponentRoles.CORE);
-        ComponentReadyMessage message = new ComponentReadyMessage(senderName(), recipient);
+        ComponentAddress recipient = componentDictionary.getAddressByRole(ComponentRoles.CORE);
+        ComponentReadyMessage message = new ComponentReadyMessage(address(), recipient);
         sendMessage(message);
     }
 
@@ -220,8 +269,8 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
      */
     private void sendStoppedMessage() {
 
-        String recipient = componentDictionary.getNameByRole(ComponentRoles.CORE);
-        ComponentStoppedMessage message = new ComponentStoppedMessage(senderName(), recipient);
+        ComponentAddress recipient = componentDictionary.getAddressByRole(ComponentRoles.CORE);
+        ComponentStoppedMessage message = new ComponentStoppedMessage(address(), recipient);
         sendMessage(message);
     }
 
@@ -274,7 +323,7 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
      * @param expectedType
      *        the expected message type
      */
-    static void checkMessageType(StandardMessage message, Class expectedType) {
+    static void checkMessageType(Message message, Class expectedType) {
 
         Class actualType = message.getClass();
         if (expectedType.isAssignableFrom(actualType)) {
@@ -293,7 +342,7 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
      *
      * @return a log level
      */
-    static LogLevel extractLogLevel(StandardMessage message) {
+    static LogLevel extractLogLevel(Message message) {
 
         checkMessageType(message, LogEntryMessage.class);
         return (LogLevel) message.get(CustomPropertyKeys.LOG_LEVEL);
@@ -307,7 +356,7 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
      *
      * @return a log entry
      */
-    static String extractLogEntry(StandardMessage message) {
+    static String extractLogEntry(Message message) {
 
         checkMessageType(message, LogEntryMessage.class);
         return (String) message.get(CustomPropertyKeys.LOG_ENTRY);
@@ -319,7 +368,7 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
     class ProcessLogEntryMessageRule implements MessageProcessingRule {
 
         @Override
-        public boolean processMessage(StandardMessage message) {
+        public boolean processMessage(Message message) {
 
             String sender = message.senderName();
             LogLevel logLevel = extractLogLevel(message);
@@ -336,7 +385,7 @@ public class ConsoleLoggingComponent extends IndependentComponentBase {
     class ProcessStopMessageRule implements MessageProcessingRule {
 
         @Override
-        public boolean processMessage(StandardMessage message) {
+        public boolean processMessage(Message message) {
 
             updateComponentState(ComponentStates.STOPPED);
 
@@ -0,0 +1,515 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.messages;
+
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import jmul.messaging.Message;
+import jmul.messaging.PropertyKey;
+import jmul.messaging.StandardPropertyKeys;
+
+import jmul.misc.state.State;
+
+import jmul.terminal.component.ComponentAddress;
+
+
+/**
+ * The base class of all component messages. The standard properties are kept in
+ * fields and the creation date as primitive timestamp. Custom properties are kept
+ * in an array which is indexed by the ordinal of the property key and which is
+ * only allocated if the message has custom properties.<br>
+ * <br>
+ * A message carries the addresses of sender and receiver. If the message was created
+ * with names instead of addresses the addresses are looked up once on first access.
+ *
+ * @author Kristian Kutin
+ */
+public abstract class ComponentMessage implements Message, Iterable<PropertyKey> {
+
+    /**
+     * All property keys (i.e. standard property keys first).
+     */
+    private static final PropertyKey[] PROPERTY_KEYS;
+
+    /**
+     * The number of custom property keys.
+     */
+    private static final int CUSTOM_PROPERTIES;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        StandardPropertyKeys[] standardKeys = StandardPropertyKeys.values();
+        CustomPropertyKeys[] customKeys = CustomPropertyKeys.values();
+
+        PROPERTY_KEYS = new PropertyKey[standardKeys.length + customKeys.length];
+        System.arraycopy(standardKeys, 0, PROPERTY_KEYS, 0, standardKeys.length);
+        System.arraycopy(customKeys, 0, PROPERTY_KEYS, standardKeys.length, customKeys.length);
+
+        CUSTOM_PROPERTIES = customKeys.length;
+    }
+
+    /**
+     * The name of the sender.
+     */
+    private final String sender;
+
+    /**
+     * The name of the receiver.
+     */
+    private final String receiver;
+
+    /**
+     * The address of the sender (i.e. <code>null</code> if the address hasn't been
+     * looked up yet or if the sender has no address).
+     */
+    private ComponentAddress senderAddress;
+
+    /**
+     * The address of the receiver (i.e. <code>null</code> if the address hasn't been
+     * looked up yet or if the receiver has no address).
+     */
+    private ComponentAddress receiverAddress;
+
+    /**
+     * The topic.
+     */
+    private final String topic;
+
+    /**
+     * The creation date in milliseconds.
+     */
+    private final long timestamp;
+
+    /**
+     * The custom properties (i.e. <code>null</code> if the message has no custom
+     * properties).
+     */
+    private final Object[] properties;
+
+    /**
+     * Creates a new message according to the specified parameters.
+     *
+     * @param sender
+     *        the name of the sender
+     * @param receiver
+     *        the name of the receiver
+     * @param topic
+     *        the topic
+     * @param properties
+     *        the custom properties (see {@link #withProperty})
+     */
+    protected ComponentMessage(String sender, String receiver, String topic, Object[] properties) {
+
+        super();
+
+        checkName(sender, "sender");
+        checkName(receiver, "receiver");
+        checkName(topic, "topic");
+
+        this.sender = sender;
+        this.receiver = receiver;
+        this.topic = topic;
+        this.timestamp = System.currentTimeMillis();
+        this.properties = properties;
+    }
+
+    /**
+     * Creates a new message according to the specified parameters.
+     *
+     * @param sender
+     *        the address of the sender
+     * @param receiver
+     *        the address of the receiver
+     * @param topic
+     *        the topic
+     * @param properties
+     *        the custom properties (see {@link #withProperty})
+     */
+    protected ComponentMessage(ComponentAddress sender, ComponentAddress receiver, String topic,
+                               Object[] properties) {
+
+        this(checkAddress(sender, "sender").name(), checkAddress(receiver, "receiver").name(), topic, properties);
+
+        this.senderAddress = sender;
+        this.receiverAddress = receiver;
+    }
+
+    /**
+     * Creates a new message and passes the details of the specified message and adds
+     * the specified component state. The creation date of the specified message is
+     * kept.
+     *
+     * @param message
+     *        a message
+     * @param state
+     *        the state of the component which processes the message
+     */
+    protected ComponentMessage(ComponentMessage message, State state) {
+
+        super();
+
+        Object[] copiedProperties = (message.properties == null) ? null : message.properties.clone();
+
+        this.sender = message.sender;
+        this.receiver = message.receiver;
+        this.senderAddress = message.senderAddress;
+        this.receiverAddress = message.receiverAddress;
+        this.topic = message.topic;
+        this.timestamp = message.timestamp;
+        this.properties = withProperty(copiedProperties, CustomPropertyKeys.COMPONENT_STATE, state);
+    }
+
+    /**
+     * Creates a new message and passes the details of the specified message except
+     * for the creation date (e.g. to restore the creation date of a decoded message).
+     * The custom properties are shared since they aren't modified after creation.
+     *
+     * @param message
+     *        a message
+     * @param timestamp
+     *        the creation date in milliseconds
+     */
+    protected ComponentMessage(ComponentMessage message, long timestamp) {
+
+        super();
+
+        this.sender = message.sender;
+        this.receiver = message.receiver;
+        this.senderAddress = message.senderAddress;
+        this.receiverAddress = message.receiverAddress;
+        this.topic = message.topic;
+        this.timestamp = timestamp;
+        this.properties = message.properties;
+    }
+
+    /**
+     * Checks the specified name.
+     *
+     * @param name
+     *        a name
+     * @param description
+     *        a description of the name
+     */
+    private static void checkName(String name, String description) {
+
+        if (name == null) {
+
+            String message = String.format("No %s (null) was specified!", description);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (name.trim().isEmpty()) {
+
+            String message = String.format("No %s (empty string) was specified!", description);
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Checks the specified address.
+     *
+     * @param address
+     *        an address
+     * @param description
+     *        a description of the address
+     *
+     * @return the specified address
+     */
+    private static ComponentAddress checkAddress(ComponentAddress address, String description) {
+
+        if (address == null) {
+
+            String message = String.format("No %s (null) was specified!", description);
+            throw new IllegalArgumentException(message);
+        }
+
+        return address;
+    }
+
+    /**
+     * Sets a custom property in the specified array. The array is created if
+     * necessary.
+     *
+     * @param properties
+     *        the custom properties or <code>null</code>
+     * @param key
+     *        a property key
+     * @param value
+     *        a property value
+     *
+     * @return the custom properties
+     */
+    protected static Object[] withProperty(Object[] properties, CustomPropertyKeys key, Object value) {
+
+        Object[] result = (properties == null) ? new Object[CUSTOM_PROPERTIES] : properties;
+        result[key.ordinal()] = value;
+
+        return result;
+    }
+
+    /**
+     * Creates a copy of this message and adds the specified component state.
+     *
+     * @param state
+     *        the state of the component which processes the message
+     *
+     * @return a new message
+     */
+    public abstract ComponentMessage withState(State state);
+
+    /**
+     * Creates a copy of this message with the specified creation date.
+     *
+     * @param timestamp
+     *        the creation date in milliseconds
+     *
+     * @return a new message
+     */
+    public abstract ComponentMessage withTimestamp(long timestamp);
+
+    /**
+     * Returns the name of the sender.
+     *
+     * @return a name
+     */
+    @Override
+    public String senderName() {
+
+        return sender;
+    }
+
+    /**
+     * Returns the name of the receiver.
+     *
+     * @return a name
+     */
+    @Override
+    public String receiverName() {
+
+        return receiver;
+    }
+
+    /**
+     * Returns the address of the sender.
+     *
+     * @return an address or <code>null</code> if the sender has no address
+     */
+    public ComponentAddress senderAddress() {
+
+        ComponentAddress address = senderAddress;
+
+        if (address == null) {
+
+            address = ComponentAddress.lookup(sender);
+            senderAddress = address;
+        }
+
+        return address;
+    }
+
+    /**
+     * Returns the address of the receiver.
+     *
+     * @return an address or <code>null</code> if the receiver has no address
+     */
+    public ComponentAddress receiverAddress() {
+
+        ComponentAddress address = receiverAddress;
+
+        if (address == null) {
+
+            address = ComponentAddress.lookup(receiver);
+            receiverAddress = address;
+        }
+
+        return address;
+    }
+
+    /**
+     * Returns the topic.
+     *
+     * @return a topic
+     */
+    @Override
+    public String topic() {
+
+        return topic;
+    }
+
+    /**
+     * Returns the creation date in milliseconds.
+     *
+     * @return a timestamp
+     */
+    public long timestamp() {
+
+        return timestamp;
+    }
+
+    /**
+     * Returns the creation date.
+     *
+     * @return a date
+     */
+    public Date date() {
+
+        return new Date(timestamp);
+    }
+
+    /**
+     * Returns the value of the specified property.
+     *
+     * @param key
+     *        a property key
+     *
+     * @return a property value or <code>null</code> if the message doesn't contain the
+     *         property
+     */
+    @Override
+    public Object get(PropertyKey key) {
+
+        if (key == StandardPropertyKeys.SENDER) {
+
+            return sender;
+
+        } else if (key == StandardPropertyKeys.RECEIVER) {
+
+            return receiver;
+
+        } else if (key == StandardPropertyKeys.TOPIC) {
+
+            return topic;
+
+        } else if (key == StandardPropertyKeys.CREATION_DATE) {
+
+            return date();
+
+        } else if ((key instanceof CustomPropertyKeys) && (properties != null)) {
+
+            return properties[((CustomPropertyKeys) key).ordinal()];
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if this message contains the specified property.
+     *
+     * @param key
+     *        a property key
+     *
+     * @return <code>true</code> if the message contains the property, else
+     *         <code>false</code>
+     */
+    @Override
+    public boolean contains(PropertyKey key) {
+
+        if (key instanceof StandardPropertyKeys) {
+
+            return true;
+
+        } else if ((key instanceof CustomPropertyKeys) && (properties != null)) {
+
+            return properties[((CustomPropertyKeys) key).ordinal()] != null;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns an iterator over the keys of all properties of this message.
+     *
+     * @return an iterator
+     */
+    @Override
+    public Iterator<PropertyKey> iterator() {
+
+        return new Iterator<PropertyKey>() {
+
+            private int index = nextIndex(0);
+
+            @Override
+            public boolean hasNext() {
+
+                return index < PROPERTY_KEYS.length;
+            }
+
+            @Override
+            public PropertyKey next() {
+
+                if (!hasNext()) {
+
+                    throw new NoSuchElementException();
+                }
+
+                PropertyKey key = PROPERTY_KEYS[index];
+                index = nextIndex(index + 1);
+
+                return key;
+            }
+
+            private int nextIndex(int start) {
+
+                int nextIndex = start;
+                while ((nextIndex < PROPERTY_KEYS.length) && !contains(PROPERTY_KEYS[nextIndex])) {
+
+                    nextIndex++;
+                }
+
+                return nextIndex;
+            }
+        };
+    }
+
+    /**
+     * Returns a string representation of this message.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        String s =
+            String.format("message[sender=%s;receiver=%s;topic=%s;date=%s]", senderName(), receiverName(), topic(),
+                          date().toString());
+        return s;
+    }
+
+}
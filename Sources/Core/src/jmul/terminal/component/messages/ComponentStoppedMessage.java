@@ -34,17 +34,17 @@
 package jmul.terminal.component.messages;
 
 
-import jmul.messaging.StandardMessage;
-
 import jmul.misc.state.State;
 
+import jmul.terminal.component.ComponentAddress;
+
 
 /**
  * A message which signals the core that a component has stopped.
  *
  * @author Kristian Kutin
  */
-public class ComponentStoppedMessage extends StandardMessage {
+public class ComponentStoppedMessage extends ComponentMessage {
 
     /**
      * A topic for a stop message.
@@ -69,7 +69,20 @@ public class ComponentStoppedMessage extends StandardMessage {
      */
     public ComponentStoppedMessage(String sender, String recipient) {
 
-        super(sender, recipient, STOPPED_TOPIC);
+        super(sender, recipient, STOPPED_TOPIC, null);
+    }
+
+    /**
+     * Creates a new stopped message.
+     *
+     * @param sender
+     *        the address of the sender
+     * @param recipient
+     *        the address of the recipient
+     */
+    public ComponentStoppedMessage(ComponentAddress sender, ComponentAddress recipient) {
+
+        super(sender, recipient, STOPPED_TOPIC, null);
     }
 
     /**
@@ -83,24 +96,49 @@ public class ComponentStoppedMessage extends StandardMessage {
      */
     public ComponentStoppedMessage(ComponentStoppedMessage message, State state) {
 
-        this(message.senderName(), message.receiverName(), message.topic(), state);
+        super(message, state);
     }
 
     /**
-     *Creates a new message.
+     * Creates a new message and passes the details of the specified message except
+     * for the creation date.
+     *
+     * @param message
+     *        a message
+     * @param timestamp
+     *        the creation date in milliseconds
+     */
+    public ComponentStoppedMessage(ComponentStoppedMessage message, long timestamp) {
+
+        super(message, timestamp);
+    }
+
+    /**
+     * Creates a copy of this message and adds the specified component state.
      *
-     * @param sender
-     *        the name of a sender
-     * @param receiver
-     *        the name of a receiver
-     * @param topic
-     *        the topic of this message
      * @param state
-     *        the state of the component which processes the messages
+     *        the state of the component which processes the message
+     *
+     * @return a new message
+     */
+    @Override
+    public ComponentStoppedMessage withState(State state) {
+
+        return new ComponentStoppedMessage(this, state);
+    }
+
+    /**
+     * Creates a copy of this message with the specified creation date.
+     *
+     * @param timestamp
+     *        the creation date in milliseconds
+     *
+     * @return a new message
      */
-    private ComponentStoppedMessage(String sender, String receiver, String topic, State state) {
+    @Override
+    public ComponentStoppedMessage withTimestamp(long timestamp) {
 
-        super(sender, receiver, topic, EntryHelper.newEntry(CustomPropertyKeys.COMPONENT_STATE, state));
+        return new ComponentStoppedMessage(this, timestamp);
     }
 
 }
@@ -47,6 +47,11 @@ public enum CustomPropertyKeys implements PropertyKey {
     COMPONENT_STATE,
     
     LOG_LEVEL,
-    LOG_ENTRY;
+    LOG_ENTRY,
+
+    CORRELATION_ID,
+    PAYLOAD,
+
+    COMPONENT_ROLE;
 
 }
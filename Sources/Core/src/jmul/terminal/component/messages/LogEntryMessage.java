@@ -34,10 +34,10 @@
 package jmul.terminal.component.messages;
 
 
-import jmul.messaging.StandardMessage;
-
 import jmul.misc.state.State;
 
+import jmul.terminal.component.ComponentAddress;
+
 import jmul.terminal.utils.logging.LogLevel;
 
 
@@ -46,7 +46,7 @@ import jmul.terminal.utils.logging.LogLevel;
  *
  * @author Kristian Kutin
  */
-public class LogEntryMessage extends StandardMessage {
+public class LogEntryMessage extends ComponentMessage {
 
     /**
      * A topic for a log entry message.
@@ -71,8 +71,28 @@ public class LogEntryMessage extends StandardMessage {
      */
     public LogEntryMessage(String sender, String recipient, LogLevel logLevel, String logEntry) {
 
-        super(sender, recipient, LOG_ENTRY_TOPIC, EntryHelper.newEntry(CustomPropertyKeys.LOG_LEVEL, logLevel),
-              EntryHelper.newEntry(CustomPropertyKeys.LOG_ENTRY, logEntry));
+        super(sender, recipient, LOG_ENTRY_TOPIC,
+              withProperty(withProperty(null, CustomPropertyKeys.LOG_LEVEL, logLevel), CustomPropertyKeys.LOG_ENTRY,
+                           logEntry));
+    }
+
+    /**
+     * Creates a new log entry message.
+     *
+     * @param sender
+     *        the address of the sender
+     * @param recipient
+     *        the address of the recipient
+     * @param logLevel
+     *        the log level
+     * @param logEntry
+     *        the log entry
+     */
+    public LogEntryMessage(ComponentAddress sender, ComponentAddress recipient, LogLevel logLevel, String logEntry) {
+
+        super(sender, recipient, LOG_ENTRY_TOPIC,
+              withProperty(withProperty(null, CustomPropertyKeys.LOG_LEVEL, logLevel), CustomPropertyKeys.LOG_ENTRY,
+                           logEntry));
     }
 
     /**
@@ -86,33 +106,49 @@ public class LogEntryMessage extends StandardMessage {
      */
     public LogEntryMessage(LogEntryMessage message, State state) {
 
-        this(message.senderName(), message.receiverName(), message.topic(),
-             (LogLevel) message.get(CustomPropertyKeys.LOG_LEVEL), (String) message.get(CustomPropertyKeys.LOG_ENTRY),
-             state);
+        super(message, state);
     }
 
     /**
-     *Creates a new message.
+     * Creates a new message and passes the details of the specified message except
+     * for the creation date.
+     *
+     * @param message
+     *        a message
+     * @param timestamp
+     *        the creation date in milliseconds
+     */
+    public LogEntryMessage(LogEntryMessage message, long timestamp) {
+
+        super(message, timestamp);
+    }
+
+    /**
+     * Creates a copy of this message and adds the specified component state.
      *
-     * @param sender
-     *        the name of a sender
-     * @param receiver
-     *        the name of a receiver
-     * @param topic
-     *        the topic of this message
-     * @param logLevel
-     *        a log level
-     * @param logEntry
-     *        a log entry
      * @param state
-     *        the state of the component which processes the messages
+     *        the state of the component which processes the message
+     *
+     * @return a new message
+     */
+    @Override
+    public LogEntryMessage withState(State state) {
+
+        return new LogEntryMessage(this, state);
+    }
+
+    /**
+     * Creates a copy of this message with the specified creation date.
+     *
+     * @param timestamp
+     *        the creation date in milliseconds
+     *
+     * @return a new message
      */
-    private LogEntryMessage(String sender, String receiver, String topic, LogLevel logLevel, String logEntry,
-                            State state) {
+    @Override
+    public LogEntryMessage withTimestamp(long timestamp) {
 
-        super(sender, receiver, topic, EntryHelper.newEntry(CustomPropertyKeys.LOG_LEVEL, logLevel),
-              EntryHelper.newEntry(CustomPropertyKeys.LOG_ENTRY, logEntry),
-              EntryHelper.newEntry(CustomPropertyKeys.COMPONENT_STATE, state));
+        return new LogEntryMessage(this, timestamp);
     }
 
 }
@@ -36,7 +36,7 @@ package jmul.terminal.component.messages;
 
 import java.lang.reflect.InvocationTargetException;
 
-import jmul.messaging.StandardMessage;
+import jmul.messaging.Message;
 
 import jmul.misc.state.State;
 
@@ -68,7 +68,12 @@ public final class MessageHelper {
      *
      * @return a new message which contains the original method's data and the additional state
      */
-    public static StandardMessage rewrapMessageWithState(StandardMessage message, State state) {
+    public static Message rewrapMessageWithState(Message message, State state) {
+
+        if (message instanceof ComponentMessage) {
+
+            return ((ComponentMessage) message).withState(state);
+        }
 
         Class messageType = message.getClass();
         Class[] parameterSignature = { messageType, State.class };
@@ -76,10 +81,10 @@ public final class MessageHelper {
 
         ConstructorInvoker invoker = new ConstructorInvoker(messageType, parameterSignature);
 
-        StandardMessage newMessage;
+        Message newMessage;
         try {
 
-            newMessage = (StandardMessage) invoker.invoke(parameters);
+            newMessage = (Message) invoker.invoke(parameters);
 
         } catch (IllegalAccessException | InstantiationException | InvocationTargetException |
                  NoSuchMethodException e) {
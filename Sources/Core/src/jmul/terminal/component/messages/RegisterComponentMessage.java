@@ -7,7 +7,7 @@
  * JMUL is a central repository for utilities which are used in my
  * other public and private repositories.
  *
- * Copyright (C) 2023  Kristian Kutin
+ * Copyright (C) 2024  Kristian Kutin
  *
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -34,21 +34,19 @@
 package jmul.terminal.component.messages;
 
 
-import jmul.messaging.StandardMessage;
-
 import jmul.misc.state.State;
 
+import jmul.terminal.component.ComponentAddress;
+import jmul.terminal.component.ComponentRoles;
+
 
 /**
  * A message which signals the core component to register the sender as
- * component.
+ * component. A component can thus join the system while it is running.
  *
  * @author Kristian Kutin
- * 
- * @deprecated Message type not needed or maybe not yet needed.
  */
-@Deprecated
-public class RegisterComponentMessage extends StandardMessage {
+public class RegisterComponentMessage extends ComponentMessage {
 
     /**
      * A topic for this message.
@@ -64,7 +62,7 @@ public class RegisterComponentMessage extends StandardMessage {
     }
 
     /**
-     * Creates a new stop message.
+     * Creates a new message. The sender is registered as worker.
      *
      * @param sender
      *        the name of the sender
@@ -73,7 +71,37 @@ public class RegisterComponentMessage extends StandardMessage {
      */
     public RegisterComponentMessage(String sender, String recipient) {
 
-        super(sender, recipient, REGISTER_COMPONENT_TOPIC);
+        this(sender, recipient, ComponentRoles.WORKER);
+    }
+
+    /**
+     * Creates a new message.
+     *
+     * @param sender
+     *        the name of the sender
+     * @param recipient
+     *        the name of the recipient
+     * @param role
+     *        the role of the sender
+     */
+    public RegisterComponentMessage(String sender, String recipient, String role) {
+
+        super(sender, recipient, REGISTER_COMPONENT_TOPIC, withProperty(null, CustomPropertyKeys.COMPONENT_ROLE, role));
+    }
+
+    /**
+     * Creates a new message.
+     *
+     * @param sender
+     *        the address of the sender
+     * @param recipient
+     *        the address of the recipient
+     * @param role
+     *        the role of the sender
+     */
+    public RegisterComponentMessage(ComponentAddress sender, ComponentAddress recipient, String role) {
+
+        super(sender, recipient, REGISTER_COMPONENT_TOPIC, withProperty(null, CustomPropertyKeys.COMPONENT_ROLE, role));
     }
 
     /**
@@ -87,24 +115,59 @@ public class RegisterComponentMessage extends StandardMessage {
      */
     public RegisterComponentMessage(RegisterComponentMessage message, State state) {
 
-        this(message.senderName(), message.receiverName(), message.topic(), state);
+        super(message, state);
     }
 
     /**
-     *Creates a new message.
+     * Creates a new message and passes the details of the specified message except
+     * for the creation date.
+     *
+     * @param message
+     *        a message
+     * @param timestamp
+     *        the creation date in milliseconds
+     */
+    public RegisterComponentMessage(RegisterComponentMessage message, long timestamp) {
+
+        super(message, timestamp);
+    }
+
+    /**
+     * Returns the role with which the sender is registered.
+     *
+     * @return a role
+     */
+    public String role() {
+
+        return (String) get(CustomPropertyKeys.COMPONENT_ROLE);
+    }
+
+    /**
+     * Creates a copy of this message and adds the specified component state.
      *
-     * @param sender
-     *        the name of a sender
-     * @param receiver
-     *        the name of a receiver
-     * @param topic
-     *        the topic of this message
      * @param state
-     *        the state of the component which processes the messages
+     *        the state of the component which processes the message
+     *
+     * @return a new message
+     */
+    @Override
+    public RegisterComponentMessage withState(State state) {
+
+        return new RegisterComponentMessage(this, state);
+    }
+
+    /**
+     * Creates a copy of this message with the specified creation date.
+     *
+     * @param timestamp
+     *        the creation date in milliseconds
+     *
+     * @return a new message
      */
-    private RegisterComponentMessage(String sender, String receiver, String topic, State state) {
+    @Override
+    public RegisterComponentMessage withTimestamp(long timestamp) {
 
-        super(sender, receiver, topic, EntryHelper.newEntry(CustomPropertyKeys.COMPONENT_STATE, state));
+        return new RegisterComponentMessage(this, timestamp);
     }
 
 }
@@ -0,0 +1,155 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.messages;
+
+
+import jmul.misc.state.State;
+
+
+/**
+ * A message which answers a request. It carries the correlation id of the request.
+ *
+ * @author Kristian Kutin
+ */
+public class ReplyMessage extends ComponentMessage {
+
+    /**
+     * A topic for a reply message.
+     */
+    public static final String REPLY_TOPIC;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        REPLY_TOPIC = "reply";
+    }
+
+    /**
+     * Creates a new reply message.
+     *
+     * @param sender
+     *        the name of the sender
+     * @param recipient
+     *        the name of the recipient (i.e. the sender of the request)
+     * @param correlationId
+     *        the id of the request
+     * @param payload
+     *        the content of the reply (i.e. may be <code>null</code>)
+     */
+    public ReplyMessage(String sender, String recipient, long correlationId, Object payload) {
+
+        super(sender, recipient, REPLY_TOPIC,
+              withProperty(withProperty(null, CustomPropertyKeys.CORRELATION_ID, correlationId),
+                           CustomPropertyKeys.PAYLOAD, payload));
+    }
+
+    /**
+     * Creates a new message and passes the details of the spcified message and
+     * adds the specified component state.
+     *
+     * @param message
+     *        a message
+     * @param state
+     *        the state of the component which processes the messages
+     */
+    public ReplyMessage(ReplyMessage message, State state) {
+
+        super(message, state);
+    }
+
+    /**
+     * Creates a new message and passes the details of the specified message except
+     * for the creation date.
+     *
+     * @param message
+     *        a message
+     * @param timestamp
+     *        the creation date in milliseconds
+     */
+    public ReplyMessage(ReplyMessage message, long timestamp) {
+
+        super(message, timestamp);
+    }
+
+    /**
+     * Returns the id of the request.
+     *
+     * @return a correlation id
+     */
+    public long correlationId() {
+
+        return (Long) get(CustomPropertyKeys.CORRELATION_ID);
+    }
+
+    /**
+     * Returns the content of this reply.
+     *
+     * @return the payload or <code>null</code>
+     */
+    public Object payload() {
+
+        return get(CustomPropertyKeys.PAYLOAD);
+    }
+
+    /**
+     * Creates a copy of this message and adds the specified component state.
+     *
+     * @param state
+     *        the state of the component which processes the message
+     *
+     * @return a new message
+     */
+    @Override
+    public ReplyMessage withState(State state) {
+
+        return new ReplyMessage(this, state);
+    }
+
+    /**
+     * Creates a copy of this message with the specified creation date.
+     *
+     * @param timestamp
+     *        the creation date in milliseconds
+     *
+     * @return a new message
+     */
+    @Override
+    public ReplyMessage withTimestamp(long timestamp) {
+
+        return new ReplyMessage(this, timestamp);
+    }
+
+}
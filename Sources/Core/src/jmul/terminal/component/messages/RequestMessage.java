@@ -0,0 +1,157 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.messages;
+
+
+import jmul.misc.state.State;
+
+
+/**
+ * A message which expects a reply. The reply carries the same correlation id.
+ *
+ * @author Kristian Kutin
+ */
+public class RequestMessage extends ComponentMessage {
+
+    /**
+     * Creates a new request message.
+     *
+     * @param sender
+     *        the name of the sender (i.e. the receiver of the reply)
+     * @param recipient
+     *        the name of the recipient
+     * @param topic
+     *        the topic of the request
+     * @param correlationId
+     *        an id which identifies the request
+     * @param payload
+     *        the content of the request (i.e. may be <code>null</code>)
+     */
+    public RequestMessage(String sender, String recipient, String topic, long correlationId, Object payload) {
+
+        super(sender, recipient, topic,
+              withProperty(withProperty(null, CustomPropertyKeys.CORRELATION_ID, correlationId),
+                           CustomPropertyKeys.PAYLOAD, payload));
+    }
+
+    /**
+     * Creates a new message and passes the details of the spcified message and
+     * adds the specified component state.
+     *
+     * @param message
+     *        a message
+     * @param state
+     *        the state of the component which processes the messages
+     */
+    public RequestMessage(RequestMessage message, State state) {
+
+        super(message, state);
+    }
+
+    /**
+     * Creates a new message and passes the details of the specified message except
+     * for the creation date.
+     *
+     * @param message
+     *        a message
+     * @param timestamp
+     *        the creation date in milliseconds
+     */
+    public RequestMessage(RequestMessage message, long timestamp) {
+
+        super(message, timestamp);
+    }
+
+    /**
+     * Returns the id which identifies this request.
+     *
+     * @return a correlation id
+     */
+    public long correlationId() {
+
+        return (Long) get(CustomPropertyKeys.CORRELATION_ID);
+    }
+
+    /**
+     * Returns the content of this request.
+     *
+     * @return the payload or <code>null</code>
+     */
+    public Object payload() {
+
+        return get(CustomPropertyKeys.PAYLOAD);
+    }
+
+    /**
+     * Creates a reply to this request.
+     *
+     * @param payload
+     *        the content of the reply (i.e. may be <code>null</code>)
+     *
+     * @return a reply message
+     */
+    public ReplyMessage reply(Object payload) {
+
+        return new ReplyMessage(receiverName(), senderName(), correlationId(), payload);
+    }
+
+    /**
+     * Creates a copy of this message and adds the specified component state.
+     *
+     * @param state
+     *        the state of the component which processes the message
+     *
+     * @return a new message
+     */
+    @Override
+    public RequestMessage withState(State state) {
+
+        return new RequestMessage(this, state);
+    }
+
+    /**
+     * Creates a copy of this message with the specified creation date.
+     *
+     * @param timestamp
+     *        the creation date in milliseconds
+     *
+     * @return a new message
+     */
+    @Override
+    public RequestMessage withTimestamp(long timestamp) {
+
+        return new RequestMessage(this, timestamp);
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.messages;
+
+
+import jmul.misc.state.State;
+
+import jmul.terminal.component.ComponentAddress;
+
+
+/**
+ * A message which signals the core component to unregister the sender (e.g.
+ * because the sender is going to stop while the system keeps running).
+ *
+ * @author Kristian Kutin
+ */
+public class UnregisterComponentMessage extends ComponentMessage {
+
+    /**
+     * A topic for this message.
+     */
+    public static final String UNREGISTER_COMPONENT_TOPIC;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        UNREGISTER_COMPONENT_TOPIC = "unregister sender as component";
+    }
+
+    /**
+     * Creates a new message.
+     *
+     * @param sender
+     *        the name of the sender
+     * @param recipient
+     *        the name of the recipient
+     */
+    public UnregisterComponentMessage(String sender, String recipient) {
+
+        super(sender, recipient, UNREGISTER_COMPONENT_TOPIC, null);
+    }
+
+    /**
+     * Creates a new message.
+     *
+     * @param sender
+     *        the address of the sender
+     * @param recipient
+     *        the address of the recipient
+     */
+    public UnregisterComponentMessage(ComponentAddress sender, ComponentAddress recipient) {
+
+        super(sender, recipient, UNREGISTER_COMPONENT_TOPIC, null);
+    }
+
+    /**
+     * Creates a new message and passes the details of the spcified message and
+     * adds the specified component state.
+     *
+     * @param message
+     *        a message
+     * @param state
+     *        the state of the component which processes the messages
+     */
+    public UnregisterComponentMessage(UnregisterComponentMessage message, State state) {
+
+        super(message, state);
+    }
+
+    /**
+     * Creates a new message and passes the details of the specified message except
+     * for the creation date.
+     *
+     * @param message
+     *        a message
+     * @param timestamp
+     *        the creation date in milliseconds
+     */
+    public UnregisterComponentMessage(UnregisterComponentMessage message, long timestamp) {
+
+        super(message, timestamp);
+    }
+
+    /**
+     * Creates a copy of this message and adds the specified component state.
+     *
+     * @param state
+     *        the state of the component which processes the message
+     *
+     * @return a new message
+     */
+    @Override
+    public UnregisterComponentMessage withState(State state) {
+
+        return new UnregisterComponentMessage(this, state);
+    }
+
+    /**
+     * Creates a copy of this message with the specified creation date.
+     *
+     * @param timestamp
+     *        the creation date in milliseconds
+     *
+     * @return a new message
+     */
+    @Override
+    public UnregisterComponentMessage withTimestamp(long timestamp) {
+
+        return new UnregisterComponentMessage(this, timestamp);
+    }
+
+}
@@ -34,10 +34,13 @@
 package jmul.terminal.component.messaging;
 
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
-import jmul.messaging.StandardMessage;
+import jmul.messaging.Message;
 
 import jmul.misc.state.State;
 
@@ -48,16 +51,27 @@ import jmul.terminal.component.messages.CustomPropertyKeys;
  * This entity contains rules to process messages. The rules are divided into
  * subcategories (i.e. the component state and the message type). This entity
  * checks for each message if there is an appropriate processing rule and
- * then applies it.
+ * then applies it. The message handler also provides a selector for each state,
+ * thus a component can fetch only messages for which there is a rule.<br>
+ * <br>
+ * The rules are kept in immutable maps which are replaced when a rule is added, thus
+ * rules can be looked up by any thread (e.g. a selector is evaluated by the thread
+ * which sends a message) while another thread adds a rule.
  *
  * @author Kristian Kutin
  */
 public class ComponentMessageHandler implements MessageHandler {
 
     /**
-     * A container for message processing rules.
+     * A container for message processing rules. The map and the maps it contains are
+     * immutable, the container is replaced when a rule is added.
      */
-    private final Map<State, Map<Class, MessageProcessingRule>> rulesContainer;
+    private volatile Map<State, Map<Class<?>, MessageProcessingRule>> rulesContainer;
+
+    /**
+     * The selectors for all states which have been requested so far.
+     */
+    private final Map<State, Predicate<Message>> selectors;
 
     /**
      * The default constructor.
@@ -66,7 +80,8 @@ public class ComponentMessageHandler implements MessageHandler {
 
         super();
 
-        rulesContainer = new HashMap<>();
+        rulesContainer = Collections.emptyMap();
+        selectors = new ConcurrentHashMap<>();
     }
 
     /**
@@ -78,7 +93,7 @@ public class ComponentMessageHandler implements MessageHandler {
      * @return <code>true</code> if the message was processed successfully, else <code>false</code>
      */
     @Override
-    public boolean processMessage(StandardMessage message) {
+    public boolean processMessage(Message message) {
 
         if (message == null) {
 
@@ -91,9 +106,9 @@ public class ComponentMessageHandler implements MessageHandler {
         }
 
         State state = (State) message.get(CustomPropertyKeys.COMPONENT_STATE);
-        Class messageType = message.getClass();
+        Class<?> messageType = message.getClass();
 
-        Map<Class, MessageProcessingRule> rulesByState = rulesContainer.get(state);
+        Map<Class<?>, MessageProcessingRule> rulesByState = rulesContainer.get(state);
         if (rulesByState == null) {
 
             return false;
@@ -123,7 +138,8 @@ public class ComponentMessageHandler implements MessageHandler {
      * @return the previous processing rule or <code>null</code> if no previous processing
      *         rules exists
      */
-    public MessageProcessingRule addRule(State state, Class messageType, MessageProcessingRule rule) {
+    public synchronized MessageProcessingRule addRule(State state, Class<?> messageType,
+                                                      MessageProcessingRule rule) {
 
         if (state == null) {
 
@@ -140,14 +156,70 @@ public class ComponentMessageHandler implements MessageHandler {
             throw new IllegalArgumentException("No rule (null) was specified!");
         }
 
-        Map<Class, MessageProcessingRule> rulesByState = rulesContainer.get(state);
-        if (rulesByState == null) {
+        Map<State, Map<Class<?>, MessageProcessingRule>> newContainer = new HashMap<>(rulesContainer);
+
+        Map<Class<?>, MessageProcessingRule> rulesByState = newContainer.get(state);
+        Map<Class<?>, MessageProcessingRule> newRules =
+            (rulesByState == null) ? new HashMap<Class<?>, MessageProcessingRule>() : new HashMap<>(rulesByState);
+
+        MessageProcessingRule previousRule = newRules.put(messageType, rule);
+        newContainer.put(state, Collections.unmodifiableMap(newRules));
+
+        rulesContainer = Collections.unmodifiableMap(newContainer);
+
+        return previousRule;
+    }
+
+    /**
+     * Checks if there is a rule for the specified state and message type.
+     *
+     * @param state
+     *        a component state
+     * @param messageType
+     *        a message type
+     *
+     * @return <code>true</code> if there is a rule, else <code>false</code>
+     */
+    public boolean existsRule(State state, Class<?> messageType) {
+
+        Map<Class<?>, MessageProcessingRule> rulesByState = rulesContainer.get(state);
+        return (rulesByState != null) && rulesByState.containsKey(messageType);
+    }
+
+    /**
+     * Returns a selector which selects all messages for which there is a rule in the
+     * specified state. The selector evaluates the current snapshot of the rules, thus
+     * rules which are added later are taken into account.
+     *
+     * @param state
+     *        a component state
+     *
+     * @return a selector
+     */
+    public Predicate<Message> selector(final State state) {
+
+        if (state == null) {
+
+            throw new IllegalArgumentException("No state (null) was specified!");
+        }
+
+        Predicate<Message> selector = selectors.get(state);
+
+        if (selector == null) {
+
+            selector = new Predicate<Message>() {
+
+                @Override
+                public boolean test(Message message) {
+
+                    return existsRule(state, message.getClass());
+                }
+            };
 
-            rulesByState = new HashMap<>();
-            rulesContainer.put(state, rulesByState);
+            selectors.put(state, selector);
         }
 
-        return rulesByState.put(messageType, rule);
+        return selector;
     }
 
     /**
@@ -160,7 +232,7 @@ public class ComponentMessageHandler implements MessageHandler {
 
         int count = 0;
 
-        for (Map<Class, MessageProcessingRule> rulesByState : rulesContainer.values()) {
+        for (Map<Class<?>, MessageProcessingRule> rulesByState : rulesContainer.values()) {
 
             count += rulesByState.size();
         }
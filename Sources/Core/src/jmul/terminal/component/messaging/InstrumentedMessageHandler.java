@@ -0,0 +1,138 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.messaging;
+
+
+import jmul.messaging.Message;
+
+import jmul.terminal.monitoring.MessageLatencyMonitor;
+
+
+/**
+ * A message handler which measures how long another message handler needs to
+ * process a message.
+ *
+ * @author Kristian Kutin
+ */
+public class InstrumentedMessageHandler implements MessageHandler {
+
+    /**
+     * The name of the receiver who processes the messages.
+     */
+    private final String receiverName;
+
+    /**
+     * The actual message handler.
+     */
+    private final MessageHandler messageHandler;
+
+    /**
+     * The monitor which records the processing times.
+     */
+    private final MessageLatencyMonitor monitor;
+
+    /**
+     * Creates a new message handler according to the specified parameters.
+     *
+     * @param receiverName
+     *        the name of the receiver who processes the messages
+     * @param messageHandler
+     *        the actual message handler
+     * @param monitor
+     *        the monitor which records the processing times
+     */
+    public InstrumentedMessageHandler(String receiverName, MessageHandler messageHandler,
+                                      MessageLatencyMonitor monitor) {
+
+        super();
+
+        if (receiverName == null) {
+
+            throw new IllegalArgumentException("No receiver name (null) was specified!");
+        }
+
+        if (messageHandler == null) {
+
+            throw new IllegalArgumentException("No message handler (null) was specified!");
+        }
+
+        if (monitor == null) {
+
+            throw new IllegalArgumentException("No monitor (null) was specified!");
+        }
+
+        this.receiverName = receiverName;
+        this.messageHandler = messageHandler;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Passes the specified message to the actual message handler and records the
+     * processing time.
+     *
+     * @param message
+     *        a message
+     *
+     * @return <code>true</code> if the message was processed successfully, else <code>false</code>
+     */
+    @Override
+    public boolean processMessage(Message message) {
+
+        long startTime = System.nanoTime();
+
+        try {
+
+            return messageHandler.processMessage(message);
+
+        } finally {
+
+            if (message != null) {
+
+                monitor.recordHandlerTime(receiverName, message.getClass(), System.nanoTime() - startTime);
+            }
+        }
+    }
+
+    /**
+     * Returns the current number of processing rules the actual message handler knows.
+     *
+     * @return a rule count (i.e. an integer which is zero or positive)
+     */
+    @Override
+    public int ruleCount() {
+
+        return messageHandler.ruleCount();
+    }
+
+}
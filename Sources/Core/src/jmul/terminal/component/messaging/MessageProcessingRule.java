@@ -34,7 +34,7 @@
 package jmul.terminal.component.messaging;
 
 
-import jmul.messaging.StandardMessage;
+import jmul.messaging.Message;
 
 
 /**
@@ -53,6 +53,6 @@ public interface MessageProcessingRule {
      *
      * @return <code>true</code> if the message was processed successfully, else <code>false</code>
      */
-    boolean processMessage(StandardMessage message);
+    boolean processMessage(Message message);
 
 }
@@ -0,0 +1,251 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.messaging;
+
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import jmul.terminal.component.messages.ReplyMessage;
+
+
+/**
+ * A table of requests which are waiting for a reply. Every request is identified by
+ * a correlation id and expires after a timeout (i.e. its future completes with a
+ * {@link TimeoutException} and the entry is removed).
+ *
+ * @author Kristian Kutin
+ */
+public class PendingRequests {
+
+    /**
+     * A timer which is shared by all tables that don't have their own timer.
+     */
+    private static final ScheduledExecutorService SHARED_TIMER;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        ThreadFactory threadFactory = new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "request timeouts");
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, threadFactory);
+        timer.setRemoveOnCancelPolicy(true);
+        SHARED_TIMER = timer;
+    }
+
+    /**
+     * The pending requests (i.e. the key is the correlation id).
+     */
+    private final ConcurrentMap<Long, CompletableFuture<ReplyMessage>> requests;
+
+    /**
+     * The timer which expires requests.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * The next correlation id.
+     */
+    private final AtomicLong nextCorrelationId;
+
+    /**
+     * Creates a new table which uses a shared timer.
+     */
+    public PendingRequests() {
+
+        this(SHARED_TIMER);
+    }
+
+    /**
+     * Creates a new table according to the specified parameter.
+     *
+     * @param timer
+     *        the timer which expires requests
+     */
+    public PendingRequests(ScheduledExecutorService timer) {
+
+        super();
+
+        if (timer == null) {
+
+            throw new IllegalArgumentException("No timer (null) was specified!");
+        }
+
+        this.timer = timer;
+
+        requests = new ConcurrentHashMap<>();
+        nextCorrelationId = new AtomicLong();
+    }
+
+    /**
+     * Returns a new correlation id.
+     *
+     * @return a correlation id
+     */
+    public long newCorrelationId() {
+
+        return nextCorrelationId.incrementAndGet();
+    }
+
+    /**
+     * Adds a request to this table.
+     *
+     * @param correlationId
+     *        the id of the request
+     * @param timeout
+     *        the maximum waiting time for the reply in milliseconds
+     *
+     * @return a future which is completed by the reply
+     */
+    public CompletableFuture<ReplyMessage> register(final long correlationId, final long timeout) {
+
+        if (timeout <= 0L) {
+
+            String message = String.format("An invalid timeout (%d) was specified!", timeout);
+            throw new IllegalArgumentException(message);
+        }
+
+        final CompletableFuture<ReplyMessage> future = new CompletableFuture<>();
+
+        if (requests.putIfAbsent(correlationId, future) != null) {
+
+            String message = String.format("The correlation id %d is already in use!", correlationId);
+            throw new IllegalArgumentException(message);
+        }
+
+        final ScheduledFuture<?> expiry = timer.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+
+                if (requests.remove(correlationId, future)) {
+
+                    String message =
+                        String.format("No reply to the request %d within %d ms!", correlationId, timeout);
+                    future.completeExceptionally(new TimeoutException(message));
+                }
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+
+        future.whenComplete(new BiConsumer<ReplyMessage, Throwable>() {
+
+            @Override
+            public void accept(ReplyMessage reply, Throwable failure) {
+
+                // the caller may have cancelled the request
+                requests.remove(correlationId, future);
+                expiry.cancel(false);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Completes the request which is answered by the specified reply.
+     *
+     * @param reply
+     *        a reply
+     *
+     * @return <code>true</code> if a pending request was completed, <code>false</code>
+     *         if the request is unknown or has already expired
+     */
+    public boolean complete(ReplyMessage reply) {
+
+        if (reply == null) {
+
+            throw new IllegalArgumentException("No reply (null) was specified!");
+        }
+
+        CompletableFuture<ReplyMessage> future = requests.remove(reply.correlationId());
+        if (future == null) {
+
+            return false;
+        }
+
+        return future.complete(reply);
+    }
+
+    /**
+     * Fails the request with the specified correlation id.
+     *
+     * @param correlationId
+     *        the id of the request
+     * @param failure
+     *        the reason
+     *
+     * @return <code>true</code> if a pending request was failed, else <code>false</code>
+     */
+    public boolean fail(long correlationId, Throwable failure) {
+
+        CompletableFuture<ReplyMessage> future = requests.remove(correlationId);
+        if (future == null) {
+
+            return false;
+        }
+
+        return future.completeExceptionally(failure);
+    }
+
+    /**
+     * Returns the number of requests which are waiting for a reply.
+     *
+     * @return the number of pending requests
+     */
+    public int size() {
+
+        return requests.size();
+    }
+
+}
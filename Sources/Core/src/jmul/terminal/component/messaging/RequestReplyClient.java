@@ -0,0 +1,168 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.messaging;
+
+
+import java.util.concurrent.CompletableFuture;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageSender;
+
+import jmul.terminal.component.messages.ReplyMessage;
+import jmul.terminal.component.messages.RequestMessage;
+
+
+/**
+ * An entity which sends requests on behalf of a component and matches the replies.
+ * Requests don't block, thus many requests may be outstanding at the same time.<br>
+ * <br>
+ * Replies are delivered to the component's mailbox. The component passes them on by
+ * adding this client as processing rule for {@link ReplyMessage} to its message
+ * handler.
+ *
+ * @author Kristian Kutin
+ */
+public class RequestReplyClient implements MessageProcessingRule {
+
+    /**
+     * The entity which sends the requests and receives the replies.
+     */
+    private final MessageSender sender;
+
+    /**
+     * The requests which are waiting for a reply.
+     */
+    private final PendingRequests pendingRequests;
+
+    /**
+     * Creates a new client according to the specified parameter.
+     *
+     * @param sender
+     *        the entity which sends the requests and receives the replies
+     */
+    public RequestReplyClient(MessageSender sender) {
+
+        this(sender, new PendingRequests());
+    }
+
+    /**
+     * Creates a new client according to the specified parameters.
+     *
+     * @param sender
+     *        the entity which sends the requests and receives the replies
+     * @param pendingRequests
+     *        a table for requests which are waiting for a reply
+     */
+    public RequestReplyClient(MessageSender sender, PendingRequests pendingRequests) {
+
+        super();
+
+        if (sender == null) {
+
+            throw new IllegalArgumentException("No sender (null) was specified!");
+        }
+
+        if (pendingRequests == null) {
+
+            throw new IllegalArgumentException("No pending requests (null) were specified!");
+        }
+
+        this.sender = sender;
+        this.pendingRequests = pendingRequests;
+    }
+
+    /**
+     * Sends a request to the specified receiver.
+     *
+     * @param receiverName
+     *        the name of the receiver
+     * @param topic
+     *        the topic of the request
+     * @param payload
+     *        the content of the request (i.e. may be <code>null</code>)
+     * @param timeout
+     *        the maximum waiting time for the reply in milliseconds
+     *
+     * @return a future which is completed by the reply or which fails if there is no
+     *         reply within the specified time
+     */
+    public CompletableFuture<ReplyMessage> request(String receiverName, String topic, Object payload, long timeout) {
+
+        long correlationId = pendingRequests.newCorrelationId();
+        CompletableFuture<ReplyMessage> future = pendingRequests.register(correlationId, timeout);
+
+        try {
+
+            sender.sendMessage(new RequestMessage(sender.senderName(), receiverName, topic, correlationId, payload));
+
+        } catch (RuntimeException e) {
+
+            pendingRequests.fail(correlationId, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * Completes the request which is answered by the specified reply. Replies which
+     * arrive too late are discarded.
+     *
+     * @param message
+     *        a message
+     *
+     * @return <code>true</code> if the message is a reply, else <code>false</code>
+     */
+    @Override
+    public boolean processMessage(Message message) {
+
+        if (!(message instanceof ReplyMessage)) {
+
+            return false;
+        }
+
+        pendingRequests.complete((ReplyMessage) message);
+        return true;
+    }
+
+    /**
+     * Returns the number of requests which are waiting for a reply.
+     *
+     * @return the number of pending requests
+     */
+    public int pendingRequests() {
+
+        return pendingRequests.size();
+    }
+
+}
@@ -34,6 +34,9 @@
 package jmul.terminal.component.misc;
 
 
+import jmul.terminal.component.ComponentAddress;
+
+
 /**
  * This interface describes a dictionary which contains names and associated roles.
  *
@@ -95,4 +98,31 @@ public interface ComponentDictionary {
      */
     int size();
 
-}
+    /**
+     * Returns the address of the component which is associated with the specified role.
+     *
+     * @param role
+     *        a role
+     *
+     * @return an address
+     */
+    ComponentAddress getAddressByRole(String role);
+
+    /**
+     * Returns the role which is associated with the specified address.
+     *
+     * @param address
+     *        the address of a component
+     *
+     * @return a role
+     */
+    String getRoleByAddress(ComponentAddress address);
+
+    /**
+     * Returns the addresses of all known components.
+     *
+     * @return all known addresses
+     */
+    ComponentAddress[] addresses();
+
+}
\ No newline at end of file
@@ -34,41 +34,46 @@
 package jmul.terminal.component.misc;
 
 
+import java.util.HashMap;
+import java.util.Map;
+
+import jmul.terminal.component.ComponentAddress;
+
+
 /**
  * An implementation of a dictionary which contains names and associated roles.
- * This implementation is suited for small dictionaries.
+ * The names are registered as component addresses. Roles are stored in an array
+ * which is indexed by the address id, thus looking up the role of an address
+ * doesn't require a search.
  *
  * @author Kristian Kutin
  */
 public class ComponentDictionaryImpl implements ComponentDictionary {
 
     /**
-     * The constant represents 'index not found'.
+     * The size of this dictionary.
      */
-    private static final int INDEX_NOT_FOUND;
+    private final int size;
 
-    /*
-     * The static initializer.
+    /**
+     * A list containing all names.
      */
-    static {
-
-        INDEX_NOT_FOUND = -1;
-    }
+    private final String[] names;
 
     /**
-     * The size of this dictionary.
+     * A list containing the addresses of all names.
      */
-    private final int size;
+    private final ComponentAddress[] addresses;
 
     /**
-     * A list containing all names.
+     * The roles of all names (i.e. the index is the address id of a name).
      */
-    private final String[] names;
+    private final String[] rolesByAddress;
 
     /**
-     * A list containing all roles.
+     * The addresses of all roles (i.e. the key is the role).
      */
-    private final String[] roles;
+    private final Map<String, ComponentAddress> addressesByRole;
 
     /**
      * Creates a new dictionary
@@ -82,13 +87,34 @@ public class ComponentDictionaryImpl implements ComponentDictionary {
 
         size = entries.length;
         names = new String[size];
-        roles = new String[size];
+        addresses = new ComponentAddress[size];
+        addressesByRole = new HashMap<>();
+
+        int maxId = -1;
 
         for (int index = 0; index < size; index++) {
 
             NameRoleEntry entry = entries[index];
             names[index] = entry.name;
-            roles[index] = entry.role;
+            addresses[index] = ComponentAddress.register(entry.name);
+            maxId = Math.max(maxId, addresses[index].id());
+
+            if (!addressesByRole.containsKey(entry.role)) {
+
+                addressesByRole.put(entry.role, addresses[index]);
+            }
+        }
+
+        rolesByAddress = new String[maxId + 1];
+
+        for (int index = 0; index < size; index++) {
+
+            int id = addresses[index].id();
+
+            if (rolesByAddress[id] == null) {
+
+                rolesByAddress[id] = entries[index].role;
+            }
         }
     }
 
@@ -121,6 +147,24 @@ public class ComponentDictionaryImpl implements ComponentDictionary {
         return entries;
     }
 
+    /**
+     * Returns the role which is associated with the specified address.
+     *
+     * @param address
+     *        an address or <code>null</code>
+     *
+     * @return a role or <code>null</code> if the dictionary doesn't contain the address
+     */
+    private String findRole(ComponentAddress address) {
+
+        if ((address == null) || (address.id() >= rolesByAddress.length)) {
+
+            return null;
+        }
+
+        return rolesByAddress[address.id()];
+    }
+
     /**
      * Checks if the dictionary contains the specified name.
      *
@@ -132,16 +176,7 @@ public class ComponentDictionaryImpl implements ComponentDictionary {
     @Override
     public boolean existsName(String name) {
 
-        for (int index = 0; index < names.length; index++) {
-
-            String actualName = names[index];
-            if (actualName.equals(name)) {
-
-                return true;
-            }
-        }
-
-        return false;
+        return findRole(ComponentAddress.lookup(name)) != null;
     }
 
     /**
@@ -155,16 +190,7 @@ public class ComponentDictionaryImpl implements ComponentDictionary {
     @Override
     public boolean existsRole(String role) {
 
-        for (int index = 0; index < roles.length; index++) {
-
-            String actualRole = roles[index];
-            if (actualRole.equals(role)) {
-
-                return true;
-            }
-        }
-
-        return false;
+        return (role != null) && addressesByRole.containsKey(role);
     }
 
     /**
@@ -178,24 +204,29 @@ public class ComponentDictionaryImpl implements ComponentDictionary {
     @Override
     public String getNameByRole(String role) {
 
-        int foundIndex = INDEX_NOT_FOUND;
-        for (int index = 0; index < roles.length; index++) {
+        return getAddressByRole(role).name();
+    }
 
-            String actualRole = roles[index];
-            if (actualRole.equals(role)) {
+    /**
+     * Returns the address of the component which is associated with the specified role.
+     *
+     * @param role
+     *        a role
+     *
+     * @return an address
+     */
+    @Override
+    public ComponentAddress getAddressByRole(String role) {
 
-                foundIndex = index;
-                break;
-            }
-        }
+        ComponentAddress address = (role == null) ? null : addressesByRole.get(role);
 
-        if (foundIndex <= INDEX_NOT_FOUND) {
+        if (address == null) {
 
             String message = String.format("The dictionary doesn't contain the name '%s'!", role);
             throw new IllegalArgumentException(message);
         }
 
-        return names[foundIndex];
+        return address;
     }
 
     /**
@@ -209,24 +240,37 @@ public class ComponentDictionaryImpl implements ComponentDictionary {
     @Override
     public String getRoleByName(String name) {
 
-        int foundIndex = INDEX_NOT_FOUND;
-        for (int index = 0; index < names.length; index++) {
+        String role = findRole(ComponentAddress.lookup(name));
 
-            String actualName = names[index];
-            if (actualName.equals(name)) {
+        if (role == null) {
 
-                foundIndex = index;
-                break;
-            }
+            String message = String.format("The dictionary doesn't contain the name '%s'!", name);
+            throw new IllegalArgumentException(message);
         }
 
-        if (foundIndex <= INDEX_NOT_FOUND) {
+        return role;
+    }
 
-            String message = String.format("The dictionary doesn't contain the name '%s'!", name);
+    /**
+     * Returns the role which is associated with the specified address.
+     *
+     * @param address
+     *        the address of a component
+     *
+     * @return a role
+     */
+    @Override
+    public String getRoleByAddress(ComponentAddress address) {
+
+        String role = findRole(address);
+
+        if (role == null) {
+
+            String message = String.format("The dictionary doesn't contain the name '%s'!", address);
             throw new IllegalArgumentException(message);
         }
 
-        return roles[foundIndex];
+        return role;
     }
 
     /**
@@ -240,6 +284,17 @@ public class ComponentDictionaryImpl implements ComponentDictionary {
         return names.clone();
     }
 
+    /**
+     * Returns the addresses of all known components.
+     *
+     * @return all known addresses
+     */
+    @Override
+    public ComponentAddress[] addresses() {
+
+        return addresses.clone();
+    }
+
     /**
      * Returns the size of the dictionary.
      *
@@ -0,0 +1,652 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.misc;
+
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jmul.misc.state.State;
+
+import jmul.terminal.component.ComponentAddress;
+
+
+/**
+ * A registry which contains the names, roles and states of components. Components
+ * can be registered and unregistered while the system is running.<br>
+ * <br>
+ * The registered components are kept in an immutable snapshot which is replaced as
+ * a whole when a component is registered or unregistered (i.e. copy on write). Look
+ * ups and state checks read the current snapshot without locking, thus routing and
+ * state checks are not slowed down by changes to the registry. The snapshot is
+ * indexed by the address id, thus looking up the role or state of an address
+ * doesn't require a search.<br>
+ * <br>
+ * The state of a component is updated in place. The registry counts the components
+ * per state, thus checking if all components are in a specific state doesn't
+ * require walking all components. Changes to the registry and state updates are
+ * serialized.
+ *
+ * @author Kristian Kutin
+ */
+public class ComponentRegistry implements ComponentDictionary, ComponentStateMonitor {
+
+    /**
+     * The current snapshot of all registered components.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * The number of registered components per state (i.e. the key is the state).
+     */
+    private final Map<State, AtomicInteger> stateCounts;
+
+    /**
+     * Creates a new registry according to the specified parameters.
+     *
+     * @param entries
+     *        names and roles of the components which are registered in advance
+     */
+    public ComponentRegistry(NameRoleEntry... entries) {
+
+        super();
+
+        if (entries == null) {
+
+            throw new IllegalArgumentException("No entries (null) were specified!");
+        }
+
+        snapshot = new Snapshot(new Entry[0]);
+        stateCounts = new ConcurrentHashMap<>();
+
+        for (NameRoleEntry entry : entries) {
+
+            if (entry == null) {
+
+                throw new IllegalArgumentException("Invalid entries (null) were specified!");
+            }
+
+            register(entry);
+        }
+    }
+
+    /**
+     * Registers the specified component. The component has no state until its state
+     * is updated.
+     *
+     * @param entry
+     *        the name and role of a component
+     *
+     * @return <code>true</code> if the component has been registered, <code>false</code>
+     *         if the component was already registered
+     */
+    public synchronized boolean register(NameRoleEntry entry) {
+
+        if (entry == null) {
+
+            throw new IllegalArgumentException("No entry (null) was specified!");
+        }
+
+        ComponentAddress address = ComponentAddress.register(entry.name);
+
+        Snapshot currentSnapshot = snapshot;
+        if (currentSnapshot.find(address) != null) {
+
+            return false;
+        }
+
+        Entry[] entries = currentSnapshot.entries;
+        Entry[] newEntries = new Entry[entries.length + 1];
+        System.arraycopy(entries, 0, newEntries, 0, entries.length);
+        newEntries[entries.length] = new Entry(address, entry.role);
+
+        snapshot = new Snapshot(newEntries);
+
+        return true;
+    }
+
+    /**
+     * Unregisters the specified component.
+     *
+     * @param name
+     *        the name of a component
+     *
+     * @return <code>true</code> if the component has been unregistered, <code>false</code>
+     *         if the component wasn't registered
+     */
+    public synchronized boolean unregister(String name) {
+
+        Snapshot currentSnapshot = snapshot;
+
+        Entry entry = currentSnapshot.find(ComponentAddress.lookup(name));
+        if (entry == null) {
+
+            return false;
+        }
+
+        Entry[] entries = currentSnapshot.entries;
+        Entry[] newEntries = new Entry[entries.length - 1];
+
+        int index = 0;
+        for (Entry existingEntry : entries) {
+
+            if (existingEntry != entry) {
+
+                newEntries[index] = existingEntry;
+                index++;
+            }
+        }
+
+        snapshot = new Snapshot(newEntries);
+        count(entry.state, -1);
+
+        return true;
+    }
+
+    /**
+     * Changes the number of components in the specified state.
+     *
+     * @param state
+     *        a state or <code>null</code>
+     * @param delta
+     *        the change
+     */
+    private void count(State state, int delta) {
+
+        if (state == null) {
+
+            return;
+        }
+
+        AtomicInteger counter = stateCounts.get(state);
+
+        if (counter == null) {
+
+            AtomicInteger newCounter = new AtomicInteger();
+            counter = stateCounts.putIfAbsent(state, newCounter);
+
+            if (counter == null) {
+
+                counter = newCounter;
+            }
+        }
+
+        counter.addAndGet(delta);
+    }
+
+    /**
+     * Updates the state of the specified entry.
+     *
+     * @param entry
+     *        a registered entry
+     * @param newSate
+     *        the new state of the component
+     */
+    private synchronized void updateState(Entry entry, State newSate) {
+
+        if (snapshot.find(entry.address) != entry) {
+
+            String message = String.format("The registry doesn't contain the component '%s'!", entry.address);
+            throw new IllegalArgumentException(message);
+        }
+
+        State previousState = entry.state;
+        State currentState = entry.updateState(newSate);
+
+        count(previousState, -1);
+        count(currentState, 1);
+    }
+
+    /**
+     * Returns the entry of the specified address. If the address doesn't belong to a
+     * registered component an exception is thrown.
+     *
+     * @param address
+     *        an address or <code>null</code>
+     * @param componentName
+     *        the name of the component (i.e. used in the exception message)
+     *
+     * @return an entry
+     */
+    private Entry knownEntry(ComponentAddress address, String componentName) {
+
+        Entry entry = snapshot.find(address);
+
+        if (entry == null) {
+
+            String message = String.format("The registry doesn't contain the component '%s'!", componentName);
+            throw new IllegalArgumentException(message);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Checks if the registry contains the specified name.
+     *
+     * @param name
+     *        a name
+     *
+     * @return <code>true</code> if the registry contains the specified name, else <code>false</code>
+     */
+    @Override
+    public boolean existsName(String name) {
+
+        return snapshot.find(ComponentAddress.lookup(name)) != null;
+    }
+
+    /**
+     * Checks if the registry contains the specified role.
+     *
+     * @param role
+     *        a role
+     *
+     * @return <code>true</code> if the registry contains the specified role, else <code>false</code>
+     */
+    @Override
+    public boolean existsRole(String role) {
+
+        return (role != null) && snapshot.addressesByRole.containsKey(role);
+    }
+
+    /**
+     * Returns the name which is associated with the specified role.
+     *
+     * @param role
+     *        a role
+     *
+     * @return the name associated with the role
+     */
+    @Override
+    public String getNameByRole(String role) {
+
+        return getAddressByRole(role).name();
+    }
+
+    /**
+     * Returns the address of the component which is associated with the specified role.
+     * If several components have the same role the address of the component which was
+     * registered first is returned.
+     *
+     * @param role
+     *        a role
+     *
+     * @return an address
+     */
+    @Override
+    public ComponentAddress getAddressByRole(String role) {
+
+        ComponentAddress address = (role == null) ? null : snapshot.addressesByRole.get(role);
+
+        if (address == null) {
+
+            String message = String.format("The registry doesn't contain the role '%s'!", role);
+            throw new IllegalArgumentException(message);
+        }
+
+        return address;
+    }
+
+    /**
+     * Returns the role which is associated with the specified name.
+     *
+     * @param name
+     *        a name
+     *
+     * @return the role associated with the name
+     */
+    @Override
+    public String getRoleByName(String name) {
+
+        return knownEntry(ComponentAddress.lookup(name), name).role;
+    }
+
+    /**
+     * Returns the role which is associated with the specified address.
+     *
+     * @param address
+     *        the address of a component
+     *
+     * @return a role
+     */
+    @Override
+    public String getRoleByAddress(ComponentAddress address) {
+
+        return knownEntry(address, String.valueOf(address)).role;
+    }
+
+    /**
+     * Returns the names of all registered components.
+     *
+     * @return all registered names
+     */
+    @Override
+    public String[] names() {
+
+        Entry[] entries = snapshot.entries;
+        String[] names = new String[entries.length];
+
+        for (int index = 0; index < entries.length; index++) {
+
+            names[index] = entries[index].address.name();
+        }
+
+        return names;
+    }
+
+    /**
+     * Returns the addresses of all registered components.
+     *
+     * @return all registered addresses
+     */
+    @Override
+    public ComponentAddress[] addresses() {
+
+        Entry[] entries = snapshot.entries;
+        ComponentAddress[] addresses = new ComponentAddress[entries.length];
+
+        for (int index = 0; index < entries.length; index++) {
+
+            addresses[index] = entries[index].address;
+        }
+
+        return addresses;
+    }
+
+    /**
+     * Returns the number of registered components.
+     *
+     * @return the size of the registry
+     */
+    @Override
+    public int size() {
+
+        return snapshot.entries.length;
+    }
+
+    /**
+     * Checks if the registry contains the specified component.
+     *
+     * @param componentName
+     *        the name of a component
+     *
+     * @return <code>true</code> if the registry contains the specified component, else <code>false</code>
+     */
+    @Override
+    public boolean existsComponent(String componentName) {
+
+        return existsName(componentName);
+    }
+
+    /**
+     * Returns the current state for the specified component.
+     *
+     * @param componentName
+     *        the name of a component
+     *
+     * @return the current recorded state for the specified component
+     */
+    @Override
+    public State getState(String componentName) {
+
+        return knownEntry(ComponentAddress.lookup(componentName), componentName).state;
+    }
+
+    /**
+     * Returns the current state for the specified component.
+     *
+     * @param address
+     *        the address of a component
+     *
+     * @return the current recorded state for the specified component
+     */
+    @Override
+    public State getState(ComponentAddress address) {
+
+        return knownEntry(address, String.valueOf(address)).state;
+    }
+
+    /**
+     * Updates the state for the specified component.
+     *
+     * @param componentName
+     *        the name of a component
+     * @param newSate
+     *        the new state of the component
+     */
+    @Override
+    public void updateState(String componentName, State newSate) {
+
+        updateState(knownEntry(ComponentAddress.lookup(componentName), componentName), newSate);
+    }
+
+    /**
+     * Updates the state for the specified component.
+     *
+     * @param address
+     *        the address of a component
+     * @param newSate
+     *        the new state of the component
+     */
+    @Override
+    public void updateState(ComponentAddress address, State newSate) {
+
+        updateState(knownEntry(address, String.valueOf(address)), newSate);
+    }
+
+    /**
+     * Returns the number of registered components which are in the specified state.
+     *
+     * @param state
+     *        a state
+     *
+     * @return the number of components in the specified state
+     */
+    public int countInState(State state) {
+
+        AtomicInteger counter = (state == null) ? null : stateCounts.get(state);
+
+        return (counter == null) ? 0 : counter.get();
+    }
+
+    /**
+     * Checks if all registered components are in the specified state. While a
+     * component is registered or unregistered the check may fail although all
+     * components are in the specified state.
+     *
+     * @param state
+     *        a state
+     *
+     * @return <code>true</code> if all registered components are in the specified state,
+     *         else <code>false</code>
+     */
+    public boolean inState(State state) {
+
+        return countInState(state) == snapshot.entries.length;
+    }
+
+    /**
+     * Returns the number of registered components.
+     *
+     * @return the number of registered components
+     */
+    @Override
+    public int componentCount() {
+
+        return size();
+    }
+
+
+    /**
+     * A registered component.
+     */
+    static final class Entry {
+
+        /**
+         * The address of the component.
+         */
+        final ComponentAddress address;
+
+        /**
+         * The role of the component.
+         */
+        final String role;
+
+        /**
+         * The current state of the component.
+         */
+        volatile State state;
+
+        /**
+         * Creates a new entry according to the specified parameters.
+         *
+         * @param address
+         *        the address of the component
+         * @param role
+         *        the role of the component
+         */
+        Entry(ComponentAddress address, String role) {
+
+            this.address = address;
+            this.role = role;
+        }
+
+        /**
+         * Updates the state of the component.
+         *
+         * @param newSate
+         *        the new state of the component
+         *
+         * @return the updated state
+         */
+        State updateState(State newSate) {
+
+            State currentState = state;
+
+            if (currentState == null) {
+
+                currentState = newSate;
+
+            } else {
+
+                currentState = currentState.transitionTo(newSate);
+            }
+
+            state = currentState;
+
+            return currentState;
+        }
+
+    }
+
+
+    /**
+     * An immutable snapshot of all registered components.
+     */
+    static final class Snapshot {
+
+        /**
+         * All entries in the order in which they were registered.
+         */
+        final Entry[] entries;
+
+        /**
+         * All entries (i.e. the index is the address id). The ids of unregistered
+         * components are reused, thus the array only grows with the number of addresses
+         * which are in use at the same time.
+         */
+        final Entry[] entriesById;
+
+        /**
+         * The addresses of all roles (i.e. the key is the role).
+         */
+        final Map<String, ComponentAddress> addressesByRole;
+
+        /**
+         * Creates a new snapshot according to the specified parameter.
+         *
+         * @param entries
+         *        all entries in the order in which they were registered
+         */
+        Snapshot(Entry[] entries) {
+
+            this.entries = entries;
+
+            int maxId = -1;
+            for (Entry entry : entries) {
+
+                maxId = Math.max(maxId, entry.address.id());
+            }
+
+            Map<String, ComponentAddress> roles = new HashMap<>();
+            entriesById = new Entry[maxId + 1];
+
+            for (Entry entry : entries) {
+
+                entriesById[entry.address.id()] = entry;
+
+                if (!roles.containsKey(entry.role)) {
+
+                    roles.put(entry.role, entry.address);
+                }
+            }
+
+            addressesByRole = Collections.unmodifiableMap(roles);
+        }
+
+        /**
+         * Returns the entry of the specified address.
+         *
+         * @param address
+         *        an address or <code>null</code>
+         *
+         * @return an entry or <code>null</code> if the address doesn't belong to a
+         *         registered component
+         */
+        Entry find(ComponentAddress address) {
+
+            if ((address == null) || (address.id() >= entriesById.length)) {
+
+                return null;
+            }
+
+            return entriesById[address.id()];
+        }
+
+    }
+
+}
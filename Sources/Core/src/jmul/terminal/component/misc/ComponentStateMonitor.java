@@ -36,6 +36,8 @@ package jmul.terminal.component.misc;
 
 import jmul.misc.state.State;
 
+import jmul.terminal.component.ComponentAddress;
+
 
 /**
  * This interface describes an entity which monitors the state of various components.
@@ -74,6 +76,26 @@ public interface ComponentStateMonitor {
      */
     void updateState(String componentName, State newSate);
 
+    /**
+     * Returns the current state for the specified component.
+     *
+     * @param address
+     *        the address of a component
+     *
+     * @return the current recorded state for the specified component
+     */
+    State getState(ComponentAddress address);
+
+    /**
+     * Updates the state for the specified component.
+     *
+     * @param address
+     *        the address of a component
+     * @param newSate
+     *        the new state of the component
+     */
+    void updateState(ComponentAddress address, State newSate);
+
     /**
      * Returns the number of known components.
      *
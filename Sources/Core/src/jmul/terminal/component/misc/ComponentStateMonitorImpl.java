@@ -36,40 +36,31 @@ package jmul.terminal.component.misc;
 
 import jmul.misc.state.State;
 
+import jmul.terminal.component.ComponentAddress;
+
 
 /**
  * An implementation of a component state monitor which contains names and associated states.
- * This implementation is suited for a small number of monitored components.
+ * The names are registered as component addresses. States are stored in an array which is
+ * indexed by the address id, thus looking up or updating the state of an address doesn't
+ * require a search.
  *
  * @author Kristian Kutin
  */
 public class ComponentStateMonitorImpl implements ComponentStateMonitor {
 
-    /**
-     * The constant represents 'index not found'.
-     */
-    private static final int INDEX_NOT_FOUND;
-
-    /*
-     * The static initializer.
-     */
-    static {
-
-        INDEX_NOT_FOUND = -1;
-    }
-
     /**
      * The number of known components.
      */
     private final int componentCount;
 
     /**
-     * A list containing all names.
+     * The addresses of all known components (i.e. the index is the address id).
      */
-    private final String[] names;
+    private final ComponentAddress[] addresses;
 
     /**
-     * A list containing all roles.
+     * The states of all known components (i.e. the index is the address id).
      */
     private final State[] states;
 
@@ -85,16 +76,24 @@ public class ComponentStateMonitorImpl implements ComponentStateMonitor {
 
         check(names);
 
-        this.componentCount = names.length;
-        this.names = new String[componentCount];
-        this.states = new State[componentCount];
+        ComponentAddress[] knownAddresses = new ComponentAddress[names.length];
+        int maxId = -1;
 
-        for (int index = 0; index < componentCount; index++) {
+        for (int index = 0; index < names.length; index++) {
 
-            String name = names[index];
-            this.names[index] = name;
-            this.states[index] = null;
+            knownAddresses[index] = ComponentAddress.register(names[index]);
+            maxId = Math.max(maxId, knownAddresses[index].id());
         }
+
+        this.addresses = new ComponentAddress[maxId + 1];
+        this.states = new State[maxId + 1];
+
+        for (ComponentAddress address : knownAddresses) {
+
+            this.addresses[address.id()] = address;
+        }
+
+        this.componentCount = names.length;
     }
 
     /**
@@ -126,6 +125,42 @@ public class ComponentStateMonitorImpl implements ComponentStateMonitor {
         return names;
     }
 
+    /**
+     * Checks if the specified address belongs to a known component.
+     *
+     * @param address
+     *        an address or <code>null</code>
+     *
+     * @return <code>true</code> if the address belongs to a known component, else
+     *         <code>false</code>
+     */
+    private boolean isKnown(ComponentAddress address) {
+
+        return (address != null) && (address.id() < addresses.length) && (addresses[address.id()] == address);
+    }
+
+    /**
+     * Returns the id of the specified address. If the address doesn't belong to a known
+     * component an exception is thrown.
+     *
+     * @param address
+     *        an address or <code>null</code>
+     * @param componentName
+     *        the name of the component (i.e. used in the exception message)
+     *
+     * @return an id
+     */
+    private int knownId(ComponentAddress address, String componentName) {
+
+        if (!isKnown(address)) {
+
+            String message = String.format("The monitor doesn't know the component '%s'!", componentName);
+            throw new IllegalArgumentException(message);
+        }
+
+        return address.id();
+    }
+
     /**
      * Checks if the monitoring entity knows the specified component.
      *
@@ -137,16 +172,7 @@ public class ComponentStateMonitorImpl implements ComponentStateMonitor {
     @Override
     public boolean existsComponent(String componentName) {
 
-        for (int index = 0; index < names.length; index++) {
-
-            String actualName = names[index];
-            if (actualName.equals(componentName)) {
-
-                return true;
-            }
-        }
-
-        return false;
+        return isKnown(ComponentAddress.lookup(componentName));
     }
 
     /**
@@ -160,24 +186,21 @@ public class ComponentStateMonitorImpl implements ComponentStateMonitor {
     @Override
     public State getState(String componentName) {
 
-        int foundIndex = INDEX_NOT_FOUND;
-        for (int index = 0; index < names.length; index++) {
-
-            String actualName = names[index];
-            if (actualName.equals(componentName)) {
-
-                foundIndex = index;
-                break;
-            }
-        }
-
-        if (foundIndex <= INDEX_NOT_FOUND) {
+        return states[knownId(ComponentAddress.lookup(componentName), componentName)];
+    }
 
-            String message = String.format("The monitor doesn't know the component '%s'!", componentName);
-            throw new IllegalArgumentException(message);
-        }
+    /**
+     * Returns the current state for the specified component.
+     *
+     * @param address
+     *        the address of a component
+     *
+     * @return the current recorded state for the specified component
+     */
+    @Override
+    public State getState(ComponentAddress address) {
 
-        return states[foundIndex];
+        return states[knownId(address, String.valueOf(address))];
     }
 
     /**
@@ -191,24 +214,34 @@ public class ComponentStateMonitorImpl implements ComponentStateMonitor {
     @Override
     public void updateState(String componentName, State newSate) {
 
-        int foundIndex = INDEX_NOT_FOUND;
-        for (int index = 0; index < names.length; index++) {
-
-            String actualName = names[index];
-            if (actualName.equals(componentName)) {
+        updateState(knownId(ComponentAddress.lookup(componentName), componentName), newSate);
+    }
 
-                foundIndex = index;
-                break;
-            }
-        }
+    /**
+     * Updates the state for the specified component.
+     *
+     * @param address
+     *        the address of a component
+     * @param newSate
+     *        the new state of the component
+     */
+    @Override
+    public void updateState(ComponentAddress address, State newSate) {
 
-        if (foundIndex <= INDEX_NOT_FOUND) {
+        updateState(knownId(address, String.valueOf(address)), newSate);
+    }
 
-            String message = String.format("The monitor doesn't know the component '%s'!", componentName);
-            throw new IllegalArgumentException(message);
-        }
+    /**
+     * Updates the state for the component with the specified address id.
+     *
+     * @param id
+     *        the address id of a known component
+     * @param newSate
+     *        the new state of the component
+     */
+    private void updateState(int id, State newSate) {
 
-        State currentState = states[foundIndex];
+        State currentState = states[id];
 
         if (currentState == null) {
 
@@ -219,7 +252,7 @@ public class ComponentStateMonitorImpl implements ComponentStateMonitor {
             currentState = currentState.transitionTo(newSate);
         }
 
-        states[foundIndex] = currentState;
+        states[id] = currentState;
     }
 
     /**
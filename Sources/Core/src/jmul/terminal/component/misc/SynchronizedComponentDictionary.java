@@ -34,6 +34,9 @@
 package jmul.terminal.component.misc;
 
 
+import jmul.terminal.component.ComponentAddress;
+
+
 /**
  * A thread safe implementation of a component dictonary.
  *
@@ -176,4 +179,52 @@ public class SynchronizedComponentDictionary implements ComponentDictionary {
         }
     }
 
-}
+    /**
+     * Returns the address of the component which is associated with the specified role.
+     *
+     * @param role
+     *        a role
+     *
+     * @return an address
+     */
+    @Override
+    public ComponentAddress getAddressByRole(String role) {
+
+        synchronized (componentDictionary) {
+
+            return componentDictionary.getAddressByRole(role);
+        }
+    }
+
+    /**
+     * Returns the role which is associated with the specified address.
+     *
+     * @param address
+     *        the address of a component
+     *
+     * @return a role
+     */
+    @Override
+    public String getRoleByAddress(ComponentAddress address) {
+
+        synchronized (componentDictionary) {
+
+            return componentDictionary.getRoleByAddress(address);
+        }
+    }
+
+    /**
+     * Returns the addresses of all known components.
+     *
+     * @return all known addresses
+     */
+    @Override
+    public ComponentAddress[] addresses() {
+
+        synchronized (componentDictionary) {
+
+            return componentDictionary.addresses();
+        }
+    }
+
+}
\ No newline at end of file
@@ -36,6 +36,8 @@ package jmul.terminal.component.misc;
 
 import jmul.misc.state.State;
 
+import jmul.terminal.component.ComponentAddress;
+
 
 /**
  * A thread safe implementation of a component state monitor.
@@ -135,6 +137,40 @@ public class SynchronizedComponentStateMonitor implements ComponentStateMonitor
         }
     }
 
+    /**
+     * Returns the current state for the specified component.
+     *
+     * @param address
+     *        the address of a component
+     *
+     * @return the current recorded state for the specified component
+     */
+    @Override
+    public State getState(ComponentAddress address) {
+
+        synchronized (componentStateMonitor) {
+
+            return componentStateMonitor.getState(address);
+        }
+    }
+
+    /**
+     * Updates the state for the specified component.
+     *
+     * @param address
+     *        the address of a component
+     * @param newSate
+     *        the new state of the component
+     */
+    @Override
+    public void updateState(ComponentAddress address, State newSate) {
+
+        synchronized (componentStateMonitor) {
+
+            componentStateMonitor.updateState(address, newSate);
+        }
+    }
+
     /**
      * Returns the number of known components.
      *
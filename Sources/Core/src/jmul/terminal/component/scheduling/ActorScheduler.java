@@ -0,0 +1,388 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.scheduling;
+
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.MailboxListener;
+
+
+/**
+ * A scheduler which runs components on a shared pool. A component is only scheduled
+ * when a message for it has arrived. It processes up to a fairness quota of messages
+ * and is queued again behind all other scheduled components if further messages are
+ * pending, thus a busy component cannot starve the other components. Idle components
+ * occupy neither a thread nor CPU time.<br>
+ * <br>
+ * The pool uses a single FIFO queue. A work-stealing pool would put a component
+ * which yields from a worker thread into the worker's local queue ahead of all
+ * other components and thus break fairness.<br>
+ * <br>
+ * A component is never run on two threads at the same time.
+ *
+ * @author Kristian Kutin
+ */
+public class ActorScheduler {
+
+    /**
+     * The default number of messages a component processes before it yields.
+     */
+    public static final int DEFAULT_QUOTA;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_QUOTA = 64;
+    }
+
+    /**
+     * The messagebus which delivers the messages.
+     */
+    private final BlockingQueuingMessagebus messagebus;
+
+    /**
+     * The pool which runs the components.
+     */
+    private final ExecutorService pool;
+
+    /**
+     * The maximum number of messages a component processes before it yields.
+     */
+    private final int quota;
+
+    /**
+     * All scheduled components (i.e. the key is the component's name).
+     */
+    private final Map<String, Activation> activations;
+
+    /**
+     * The number of components which haven't stopped yet.
+     */
+    private final AtomicInteger activeComponents;
+
+    /**
+     * Creates a new scheduler according to the specified parameter. The pool has one
+     * thread per available processor.
+     *
+     * @param messagebus
+     *        the messagebus which delivers the messages
+     */
+    public ActorScheduler(BlockingQueuingMessagebus messagebus) {
+
+        this(messagebus, newPool(Runtime.getRuntime().availableProcessors()), DEFAULT_QUOTA);
+    }
+
+    /**
+     * Creates a new scheduler according to the specified parameters.
+     *
+     * @param messagebus
+     *        the messagebus which delivers the messages
+     * @param pool
+     *        the pool which runs the components
+     * @param quota
+     *        the maximum number of messages a component processes before it yields
+     */
+    public ActorScheduler(BlockingQueuingMessagebus messagebus, ExecutorService pool, int quota) {
+
+        super();
+
+        if (messagebus == null) {
+
+            throw new IllegalArgumentException("No messagebus (null) was specified!");
+        }
+
+        if (pool == null) {
+
+            throw new IllegalArgumentException("No pool (null) was specified!");
+        }
+
+        if (quota < 1) {
+
+            String message = String.format("An invalid quota (%d) was specified!", quota);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.messagebus = messagebus;
+        this.pool = pool;
+        this.quota = quota;
+
+        activations = new ConcurrentHashMap<>();
+        activeComponents = new AtomicInteger();
+    }
+
+    /**
+     * Creates a pool with the specified number of daemon threads which processes
+     * tasks in FIFO order.
+     *
+     * @param parallelism
+     *        the number of threads
+     *
+     * @return a new pool
+     */
+    public static ExecutorService newPool(int parallelism) {
+
+        ThreadFactory threadFactory = new ThreadFactory() {
+
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "scheduler-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                                      new LinkedBlockingQueue<Runnable>(), threadFactory);
+    }
+
+    /**
+     * Connects the specified component to the messagebus and schedules it. The
+     * component is run once right away and afterwards whenever messages have arrived.
+     *
+     * @param component
+     *        a component
+     */
+    public void schedule(ScheduledComponentBase component) {
+
+        if (component == null) {
+
+            throw new IllegalArgumentException("No component (null) was specified!");
+        }
+
+        Activation activation = new Activation(component);
+
+        if (activations.putIfAbsent(component.name(), activation) != null) {
+
+            String message = String.format("The component %s has already been scheduled!", component.name());
+            throw new IllegalArgumentException(message);
+        }
+
+        if (!component.isConnected()) {
+
+            component.connect(messagebus);
+        }
+
+        activeComponents.incrementAndGet();
+        messagebus.setMailboxListener(component.name(), activation);
+        activation.trySchedule();
+    }
+
+    /**
+     * Returns the number of scheduled components which haven't stopped yet.
+     *
+     * @return the number of active components
+     */
+    public int activeComponents() {
+
+        return activeComponents.get();
+    }
+
+    /**
+     * Waits until the specified component has stopped.
+     *
+     * @param componentName
+     *        the name of a scheduled component
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return <code>true</code> if the component has stopped, else <code>false</code>
+     *
+     * @throws InterruptedException
+     *         is thrown if the current thread is interrupted while waiting
+     */
+    public boolean awaitStop(String componentName, long timeout) throws InterruptedException {
+
+        Activation activation = activations.get(componentName);
+
+        if (activation == null) {
+
+            String message = String.format("The component %s has not been scheduled!", componentName);
+            throw new IllegalArgumentException(message);
+        }
+
+        return activation.stopSignal.await(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Shuts down the pool. Components which haven't stopped yet aren't run anymore.
+     */
+    public void shutdown() {
+
+        for (String componentName : activations.keySet()) {
+
+            messagebus.setMailboxListener(componentName, null);
+        }
+
+        pool.shutdown();
+    }
+
+
+    /**
+     * The scheduling state of a component. The component is submitted to the pool if
+     * a message arrives and it isn't already submitted or running.
+     */
+    class Activation implements Runnable, MailboxListener {
+
+        /**
+         * The component.
+         */
+        private final ScheduledComponentBase component;
+
+        /**
+         * A flag which indicates that the component is submitted or running.
+         */
+        private final AtomicBoolean scheduled;
+
+        /**
+         * Counts the notifications about new messages.
+         */
+        private final AtomicInteger arrivals;
+
+        /**
+         * A flag which indicates that the component has been started.
+         */
+        private boolean started;
+
+        /**
+         * Is released when the component has stopped.
+         */
+        private final CountDownLatch stopSignal;
+
+        /**
+         * Creates a new activation according to the specified parameter.
+         *
+         * @param component
+         *        a component
+         */
+        Activation(ScheduledComponentBase component) {
+
+            this.component = component;
+
+            scheduled = new AtomicBoolean();
+            arrivals = new AtomicInteger();
+            stopSignal = new CountDownLatch(1);
+        }
+
+        /**
+         * Submits the component to the pool unless it is already submitted or running.
+         */
+        void trySchedule() {
+
+            if (scheduled.compareAndSet(false, true)) {
+
+                pool.execute(this);
+            }
+        }
+
+        @Override
+        public void messageArrived(String receiverName) {
+
+            arrivals.incrementAndGet();
+            trySchedule();
+        }
+
+        /**
+         * Runs the component once. The component is scheduled again if it used up its
+         * quota, if messages arrived in the meantime or if stashed messages can be
+         * processed after a state change. A component which has stopped
+         * or failed is not scheduled anymore.
+         */
+        @Override
+        public void run() {
+
+            int arrivalsBefore = arrivals.get();
+            int processedMessages;
+
+            try {
+
+                if (!started) {
+
+                    started = true;
+                    component.started();
+                }
+
+                processedMessages = component.processMessages(quota);
+
+                if (component.isStopped()) {
+
+                    component.stopped();
+                    deactivate();
+                    return;
+                }
+
+            } catch (RuntimeException | Error e) {
+
+                deactivate();
+                throw e;
+            }
+
+            scheduled.set(false);
+
+            boolean messagesLeft = (processedMessages >= quota) || (arrivals.get() != arrivalsBefore);
+            if (messagesLeft || component.hasPendingMessages()) {
+
+                trySchedule();
+            }
+        }
+
+        /**
+         * Removes the component from the scheduler and reclaims its mailbox. The
+         * scheduling flag remains set, thus the component is not submitted again.
+         */
+        private void deactivate() {
+
+            messagebus.closeMailbox(component.name());
+            activeComponents.decrementAndGet();
+            stopSignal.countDown();
+        }
+
+    }
+
+}
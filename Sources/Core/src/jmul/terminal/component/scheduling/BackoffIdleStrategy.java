@@ -0,0 +1,212 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.scheduling;
+
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * An idle strategy which spins, yields and finally parks. The park period is doubled
+ * with each iteration without work up to a maximum park period. This strategy suits
+ * background components which should react quickly to a burst of messages but don't
+ * occupy a core while there are no messages.
+ *
+ * @author Kristian Kutin
+ */
+public class BackoffIdleStrategy implements IdleStrategy {
+
+    /**
+     * The default number of iterations during which the loop spins.
+     */
+    public static final int DEFAULT_MAX_SPINS;
+
+    /**
+     * The default number of iterations during which the loop yields.
+     */
+    public static final int DEFAULT_MAX_YIELDS;
+
+    /**
+     * The default minimum park period in nanoseconds.
+     */
+    public static final long DEFAULT_MIN_PARK_PERIOD;
+
+    /**
+     * The default maximum park period in nanoseconds.
+     */
+    public static final long DEFAULT_MAX_PARK_PERIOD;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_MAX_SPINS = 10;
+        DEFAULT_MAX_YIELDS = 5;
+        DEFAULT_MIN_PARK_PERIOD = TimeUnit.MICROSECONDS.toNanos(1L);
+        DEFAULT_MAX_PARK_PERIOD = TimeUnit.MILLISECONDS.toNanos(1L);
+    }
+
+    /**
+     * The number of iterations during which the loop spins.
+     */
+    private final int maxSpins;
+
+    /**
+     * The number of iterations during which the loop yields.
+     */
+    private final int maxYields;
+
+    /**
+     * The minimum park period in nanoseconds.
+     */
+    private final long minParkPeriod;
+
+    /**
+     * The maximum park period in nanoseconds.
+     */
+    private final long maxParkPeriod;
+
+    /**
+     * The number of consecutive iterations without work.
+     */
+    private int idleIterations;
+
+    /**
+     * The current park period in nanoseconds.
+     */
+    private long parkPeriod;
+
+    /**
+     * Creates a new idle strategy with default settings.
+     */
+    public BackoffIdleStrategy() {
+
+        this(DEFAULT_MAX_SPINS, DEFAULT_MAX_YIELDS, DEFAULT_MIN_PARK_PERIOD, DEFAULT_MAX_PARK_PERIOD);
+    }
+
+    /**
+     * Creates a new idle strategy according to the specified parameters.
+     *
+     * @param maxSpins
+     *        the number of iterations during which the loop spins
+     * @param maxYields
+     *        the number of iterations during which the loop yields
+     * @param minParkPeriod
+     *        the minimum park period in nanoseconds
+     * @param maxParkPeriod
+     *        the maximum park period in nanoseconds
+     */
+    public BackoffIdleStrategy(int maxSpins, int maxYields, long minParkPeriod, long maxParkPeriod) {
+
+        super();
+
+        if ((maxSpins < 0) || (maxYields < 0)) {
+
+            String message =
+                String.format("An invalid number of spins (%d) or yields (%d) was specified!", maxSpins, maxYields);
+            throw new IllegalArgumentException(message);
+        }
+
+        if ((minParkPeriod < 1L) || (maxParkPeriod < minParkPeriod)) {
+
+            String message =
+                String.format("An invalid park period (%d - %d) was specified!", minParkPeriod, maxParkPeriod);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkPeriod = minParkPeriod;
+        this.maxParkPeriod = maxParkPeriod;
+
+        parkPeriod = minParkPeriod;
+    }
+
+    /**
+     * Returns the maximum time a loop may block while it waits for new messages.
+     *
+     * @return always zero
+     */
+    @Override
+    public long maxBlockingTime() {
+
+        return 0L;
+    }
+
+    /**
+     * Spins, yields or parks if no work was done.
+     *
+     * @param workCount
+     *        the number of messages which were processed
+     */
+    @Override
+    public void idle(int workCount) {
+
+        if (workCount > 0) {
+
+            idleIterations = 0;
+            parkPeriod = minParkPeriod;
+            return;
+        }
+
+        if (idleIterations < maxSpins) {
+
+            idleIterations++;
+            return;
+        }
+
+        if (idleIterations < maxSpins + maxYields) {
+
+            idleIterations++;
+            Thread.yield();
+            return;
+        }
+
+        LockSupport.parkNanos(parkPeriod);
+        parkPeriod = Math.min(parkPeriod << 1, maxParkPeriod);
+    }
+
+    /**
+     * Returns the current park period.
+     *
+     * @return the park period in nanoseconds
+     */
+    public long parkPeriod() {
+
+        return parkPeriod;
+    }
+
+}
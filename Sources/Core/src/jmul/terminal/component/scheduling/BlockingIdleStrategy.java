@@ -0,0 +1,120 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.scheduling;
+
+
+import jmul.concurrent.threads.ThreadHelper;
+
+
+/**
+ * An idle strategy which blocks on the messagebus until a message arrives or a
+ * timeout elapses (i.e. lowest CPU usage). A loop which cannot process its pending
+ * messages sleeps for the timeout. This is the default strategy of components.
+ *
+ * @author Kristian Kutin
+ */
+public class BlockingIdleStrategy implements IdleStrategy {
+
+    /**
+     * The default timeout in milliseconds.
+     */
+    public static final long DEFAULT_TIMEOUT;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_TIMEOUT = 50L;
+    }
+
+    /**
+     * The timeout in milliseconds.
+     */
+    private final long timeout;
+
+    /**
+     * Creates a new idle strategy with the default timeout.
+     */
+    public BlockingIdleStrategy() {
+
+        this(DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a new idle strategy according to the specified parameter.
+     *
+     * @param timeout
+     *        the timeout in milliseconds
+     */
+    public BlockingIdleStrategy(long timeout) {
+
+        super();
+
+        if (timeout < 1L) {
+
+            String message = String.format("An invalid timeout (%d) was specified!", timeout);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the maximum time a loop may block while it waits for new messages.
+     *
+     * @return the timeout in milliseconds
+     */
+    @Override
+    public long maxBlockingTime() {
+
+        return timeout;
+    }
+
+    /**
+     * Sleeps for the timeout if no work was done.
+     *
+     * @param workCount
+     *        the number of messages which were processed
+     */
+    @Override
+    public void idle(int workCount) {
+
+        if (workCount == 0) {
+
+            ThreadHelper.sleep(timeout);
+        }
+    }
+
+}
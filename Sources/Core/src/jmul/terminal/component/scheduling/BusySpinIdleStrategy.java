@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.scheduling;
+
+
+/**
+ * An idle strategy which spins (i.e. lowest latency, occupies a core). This strategy
+ * suits latency-critical components which run on a dedicated core.
+ *
+ * @author Kristian Kutin
+ */
+public class BusySpinIdleStrategy implements IdleStrategy {
+
+    /**
+     * The default constructor.
+     */
+    public BusySpinIdleStrategy() {
+
+        super();
+    }
+
+    /**
+     * Returns the maximum time a loop may block while it waits for new messages.
+     *
+     * @return always zero
+     */
+    @Override
+    public long maxBlockingTime() {
+
+        return 0L;
+    }
+
+    /**
+     * Returns immediately.
+     *
+     * @param workCount
+     *        the number of messages which were processed
+     */
+    @Override
+    public void idle(int workCount) {
+
+        // spin
+    }
+
+}
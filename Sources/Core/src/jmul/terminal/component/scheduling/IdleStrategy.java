@@ -0,0 +1,66 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.scheduling;
+
+
+/**
+ * This interface describes how the loop of a component waits while there is no work.
+ * A loop either blocks while it fetches messages (see {@link #maxBlockingTime()}) or
+ * fetches without blocking and idles afterwards (see {@link #idle(int)}).<br>
+ * <br>
+ * An idle strategy may keep state (e.g. a backoff), thus every component needs its
+ * own instance.
+ *
+ * @author Kristian Kutin
+ */
+public interface IdleStrategy {
+
+    /**
+     * Returns the maximum time a loop may block while it waits for new messages.
+     *
+     * @return the maximum blocking time in milliseconds (i.e. zero if the loop must
+     *         not block)
+     */
+    long maxBlockingTime();
+
+    /**
+     * Is called after each iteration of a loop. The strategy idles if no work was done
+     * and resets its backoff if work was done.
+     *
+     * @param workCount
+     *        the number of messages which were processed (i.e. zero or positive)
+     */
+    void idle(int workCount);
+
+}
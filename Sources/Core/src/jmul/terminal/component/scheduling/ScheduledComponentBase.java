@@ -0,0 +1,284 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.scheduling;
+
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQueryResult;
+import jmul.messaging.Messagebus;
+
+import jmul.misc.state.State;
+
+import jmul.terminal.component.ComponentBase;
+import jmul.terminal.component.ComponentEventLoop;
+import jmul.terminal.component.ComponentStates;
+import jmul.terminal.component.messages.MessageHelper;
+import jmul.terminal.component.messaging.MessageHandler;
+import jmul.terminal.component.state.StateHandler;
+import jmul.terminal.messaging.DeadLetterReasons;
+import jmul.terminal.messaging.ManagedMessagebus;
+
+
+/**
+ * The base class for components which don't have their own thread. A scheduler
+ * runs the component whenever messages have arrived. The component processes a
+ * limited number of messages with its message handler, updates its state with its
+ * state handler and returns the thread to the scheduler.<br>
+ * <br>
+ * Messages which cannot be processed in the current state are stashed like in a
+ * {@link ComponentEventLoop}, thus they don't block the messages behind them. The
+ * stashed messages are offered again after the state has changed.
+ *
+ * @author Kristian Kutin
+ */
+public abstract class ScheduledComponentBase extends ComponentBase {
+
+    /**
+     * Stashed messages which are offered again before new messages are fetched.
+     */
+    private final Deque<Message> pendingMessages;
+
+    /**
+     * Messages which couldn't be processed in the state in which they were offered.
+     */
+    private final Deque<Message> stash;
+
+    /**
+     * The state in which the last message was offered.
+     */
+    private State lastState;
+
+    /**
+     * Creates a new component according to the specified parameter.
+     *
+     * @param name
+     *        the name of this component
+     */
+    public ScheduledComponentBase(String name) {
+
+        super(name);
+
+        pendingMessages = new ArrayDeque<>();
+        stash = new ArrayDeque<>();
+    }
+
+    /**
+     * Returns the entity which processes messages.
+     *
+     * @return a message handler
+     */
+    protected abstract MessageHandler messageHandler();
+
+    /**
+     * Returns the entity which updates the state.
+     *
+     * @return a state handler
+     */
+    protected abstract StateHandler stateHandler();
+
+    /**
+     * Returns the current state of this component.
+     *
+     * @return the current state
+     */
+    public abstract State componentState();
+
+    /**
+     * Is called once before the first messages are processed (e.g. in order to signal
+     * readiness).
+     */
+    protected void started() {
+
+        // nothing to do by default
+    }
+
+    /**
+     * Is called once after the component has stopped (e.g. in order to signal that
+     * the component has stopped).
+     */
+    protected void stopped() {
+
+        // nothing to do by default
+    }
+
+    /**
+     * Checks if this component has stopped.
+     *
+     * @return <code>true</code> if this component has stopped, else <code>false</code>
+     */
+    public boolean isStopped() {
+
+        return ComponentStates.STOPPED == componentState();
+    }
+
+    /**
+     * Processes up to the specified number of messages in the order in which they were
+     * received and updates the state afterwards. If a message cannot be processed it is
+     * stashed and the following messages are processed. Stashed messages are offered
+     * again after the state has changed. Messages which are still stashed when the
+     * component stops are put into the dead letter queue.
+     *
+     * @param maxMessages
+     *        the maximum number of messages
+     *
+     * @return the number of processed or stashed messages
+     */
+    final int processMessages(int maxMessages) {
+
+        int handledMessages = 0;
+
+        while ((handledMessages < maxMessages) && !isStopped()) {
+
+            State state = componentState();
+            unstashIfStateChanged(state);
+
+            Message message = pendingMessages.poll();
+            if (message == null) {
+
+                MessageQueryResult result = fetchMessage();
+                if (!result.existsResult()) {
+
+                    break;
+                }
+
+                message = result.result();
+            }
+
+            handledMessages++;
+
+            Message wrappedMessage = MessageHelper.rewrapMessageWithState(message, state);
+            if (!messageHandler().processMessage(wrappedMessage)) {
+
+                stash(message);
+            }
+        }
+
+        stateHandler().updateState(componentState());
+
+        if (isStopped()) {
+
+            discardStashedMessages();
+        }
+
+        return handledMessages;
+    }
+
+    /**
+     * Checks if stashed messages can be offered again (i.e. the state has changed after
+     * they were stashed). The scheduler runs the component again in this case although
+     * no new messages have arrived.
+     *
+     * @return <code>true</code> if there are messages which can be offered again, else
+     *         <code>false</code>
+     */
+    final boolean hasPendingMessages() {
+
+        return !pendingMessages.isEmpty() || (!stash.isEmpty() && (componentState() != lastState));
+    }
+
+    /**
+     * Puts the specified message into the stash. If the stash is full the oldest
+     * stashed message is discarded.
+     *
+     * @param message
+     *        a message which couldn't be processed
+     */
+    private void stash(Message message) {
+
+        if (stash.size() >= ComponentEventLoop.DEFAULT_STASH_CAPACITY) {
+
+            discard(stash.poll());
+        }
+
+        stash.add(message);
+    }
+
+    /**
+     * Offers all stashed messages again before the pending messages if the specified
+     * state differs from the state in which the last message was offered.
+     *
+     * @param state
+     *        the current state
+     */
+    private void unstashIfStateChanged(State state) {
+
+        if (state == lastState) {
+
+            return;
+        }
+
+        lastState = state;
+
+        while (!stash.isEmpty()) {
+
+            pendingMessages.addFirst(stash.pollLast());
+        }
+    }
+
+    /**
+     * Puts all stashed and pending messages into the dead letter queue.
+     */
+    private void discardStashedMessages() {
+
+        while (!stash.isEmpty()) {
+
+            discard(stash.poll());
+        }
+
+        while (!pendingMessages.isEmpty()) {
+
+            discard(pendingMessages.poll());
+        }
+    }
+
+    /**
+     * Puts the specified message into the dead letter queue of this component's
+     * messagebus.
+     *
+     * @param message
+     *        a message which couldn't be processed
+     */
+    private void discard(Message message) {
+
+        Messagebus messagebus = messagebus();
+        if (messagebus instanceof ManagedMessagebus) {
+
+            ((ManagedMessagebus) messagebus).deadLetterQueue().add(message, DeadLetterReasons.UNPROCESSABLE);
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.component.scheduling;
+
+
+/**
+ * An idle strategy which spins for a number of iterations without work and yields
+ * afterwards.
+ *
+ * @author Kristian Kutin
+ */
+public class SpinYieldIdleStrategy implements IdleStrategy {
+
+    /**
+     * The default number of iterations during which the loop spins.
+     */
+    public static final int DEFAULT_MAX_SPINS;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_MAX_SPINS = 100;
+    }
+
+    /**
+     * The number of iterations during which the loop spins.
+     */
+    private final int maxSpins;
+
+    /**
+     * The number of consecutive iterations without work.
+     */
+    private int spins;
+
+    /**
+     * Creates a new idle strategy with the default number of spins.
+     */
+    public SpinYieldIdleStrategy() {
+
+        this(DEFAULT_MAX_SPINS);
+    }
+
+    /**
+     * Creates a new idle strategy according to the specified parameter.
+     *
+     * @param maxSpins
+     *        the number of iterations during which the loop spins
+     */
+    public SpinYieldIdleStrategy(int maxSpins) {
+
+        super();
+
+        if (maxSpins < 0) {
+
+            String message = String.format("An invalid number of spins (%d) was specified!", maxSpins);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.maxSpins = maxSpins;
+    }
+
+    /**
+     * Returns the maximum time a loop may block while it waits for new messages.
+     *
+     * @return always zero
+     */
+    @Override
+    public long maxBlockingTime() {
+
+        return 0L;
+    }
+
+    /**
+     * Spins or yields if no work was done.
+     *
+     * @param workCount
+     *        the number of messages which were processed
+     */
+    @Override
+    public void idle(int workCount) {
+
+        if (workCount > 0) {
+
+            spins = 0;
+            return;
+        }
+
+        if (spins < maxSpins) {
+
+            spins++;
+            return;
+        }
+
+        Thread.yield();
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.function.Consumer;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQuery;
+import jmul.messaging.MessageQueryResult;
+import jmul.messaging.Messagebus;
+
+
+/**
+ * This interface describes a messagebus which allows a receiver to wait for
+ * new messages instead of polling the messagebus.
+ *
+ * @author Kristian Kutin
+ */
+public interface BlockingMessagebus extends Messagebus {
+
+    /**
+     * Waits until a message for the specified receiver is available and returns it.
+     * If the current thread is interrupted while waiting an empty result is returned
+     * and the interrupt flag is restored.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     *
+     * @return the query result
+     */
+    MessageQueryResult await(MessageQuery query);
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * available. If no message arrives in time an empty result is returned.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the query result
+     */
+    MessageQueryResult await(MessageQuery query, long timeout);
+
+    /**
+     * Passes up to the specified number of messages for the specified receiver
+     * to the specified consumer. This method doesn't wait for new messages.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    int drain(MessageQuery query, int maxMessages, Consumer<? super Message> consumer);
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * available. Afterwards up to the specified number of messages are passed to the
+     * specified consumer.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    int drain(MessageQuery query, int maxMessages, Consumer<? super Message> consumer, long timeout);
+
+}
@@ -0,0 +1,1386 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQuery;
+import jmul.messaging.MessageQueryResult;
+
+import jmul.terminal.component.ComponentAddress;
+import jmul.terminal.component.messages.ComponentMessage;
+
+
+/**
+ * An implementation of a messagebus which manages a mailbox for each receiver.
+ * A receiver which waits for messages is woken up as soon as a message is sent
+ * to it.<br>
+ * <br>
+ * Receivers which are known in advance are registered when the messagebus is
+ * created. Their mailboxes are stored in an array which is indexed by the id of the
+ * receiver's component address (i.e. the receiver's handle). Component messages
+ * carry the receiver's address, thus routing them doesn't require a lookup by name.
+ * Mailboxes for other receivers are created on demand and stored in a concurrent
+ * map. Sending and fetching messages doesn't require a lock.<br>
+ * <br>
+ * Mailboxes have no capacity limit by default. A capacity limit and an overflow
+ * policy can be configured for each receiver.<br>
+ * <br>
+ * Receivers can subscribe to topics. A published message is delivered to the
+ * mailboxes of all subscribers without being copied.<br>
+ * <br>
+ * Topics can be marked as control topics. Their messages overtake standard messages
+ * (e.g. a stop message isn't queued behind pending log entries).<br>
+ * <br>
+ * Every mailbox maintains atomic counters (i.e. depth, high water mark, enqueued
+ * and dequeued messages). Reading them doesn't depend on the number of messages.<br>
+ * <br>
+ * Messages which cannot be delivered are put into a bounded dead letter queue.
+ * This applies to messages which expired (see {@link #setTimeToLive(long)}), to
+ * messages which remained in a closed mailbox (see {@link #closeMailbox(String)})
+ * and, if dynamic receivers are disabled, to messages for receivers without a
+ * mailbox.<br>
+ * <br>
+ * A receiver may fetch only messages which are selected by a selector (e.g. by topic
+ * or by message type). Messages which are not selected remain in the mailbox. If
+ * the receiver's mailbox indexes topics (see {@link #indexTopics(String)}) the cost
+ * of a selective fetch doesn't depend on the number of messages with other topics.
+ *
+ * @author Kristian Kutin
+ */
+public class BlockingQueuingMessagebus implements ManagedMessagebus {
+
+    /**
+     * The constant represents 'no handle' (i.e. the receiver wasn't registered in
+     * advance).
+     */
+    public static final int NO_HANDLE;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        NO_HANDLE = -1;
+    }
+
+    /**
+     * The mailboxes of all registered receivers.
+     */
+    private final Mailbox[] registeredMailboxes;
+
+    /**
+     * The mailboxes of all registered receivers (i.e. the index is the id of the
+     * receiver's address). The array is not modified after construction.
+     */
+    private final Mailbox[] mailboxesByAddress;
+
+    /**
+     * The addresses of all registered receivers. The references keep the ids of the
+     * addresses from being reused while the array which is indexed by the ids exists.
+     */
+    private final ComponentAddress[] registeredAddresses;
+
+    /**
+     * The mailboxes of all receivers which were not registered in advance.
+     */
+    private final ConcurrentHashMap<String, Mailbox> dynamicMailboxes;
+
+    /**
+     * The mailboxes of all subscribers of a topic. Subscriptions change rarely, thus
+     * the lists are copied on write and can be iterated without a lock.
+     */
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Mailbox>> subscriptions;
+
+    /**
+     * The priorities of topics. Topics without an entry are standard topics.
+     */
+    private final ConcurrentHashMap<String, MessagePriorities> topicPriorities;
+
+    /**
+     * The queue for messages which cannot be delivered.
+     */
+    private final DeadLetterQueue deadLetterQueue;
+
+    /**
+     * A flag which indicates if mailboxes are created on demand for receivers which
+     * were not registered in advance.
+     */
+    private volatile boolean dynamicReceivers;
+
+    /**
+     * The time to live of messages in new mailboxes in milliseconds (i.e. zero means
+     * no limit).
+     */
+    private volatile long defaultTimeToLive;
+
+    /**
+     * Creates a new messagebus according to the specified parameters.
+     *
+     * @param receiverNames
+     *        the names of all receivers which are known in advance
+     */
+    public BlockingQueuingMessagebus(String... receiverNames) {
+
+        this(new DeadLetterQueue(), receiverNames);
+    }
+
+    /**
+     * Creates a new messagebus according to the specified parameters.
+     *
+     * @param deadLetterQueue
+     *        the queue for messages which cannot be delivered
+     * @param receiverNames
+     *        the names of all receivers which are known in advance
+     */
+    public BlockingQueuingMessagebus(DeadLetterQueue deadLetterQueue, String... receiverNames) {
+
+        super();
+
+        checkReceiverNames(receiverNames);
+
+        if (deadLetterQueue == null) {
+
+            throw new IllegalArgumentException("No dead letter queue (null) was specified!");
+        }
+
+        this.deadLetterQueue = deadLetterQueue;
+        this.dynamicReceivers = true;
+
+        Map<ComponentAddress, Mailbox> tmp = new LinkedHashMap<>();
+        int maxId = -1;
+
+        for (String receiverName : receiverNames) {
+
+            ComponentAddress address = ComponentAddress.register(receiverName);
+
+            if (!tmp.containsKey(address)) {
+
+                Mailbox mailbox = new Mailbox(receiverName);
+                mailbox.setDeadLetterQueue(deadLetterQueue);
+                tmp.put(address, mailbox);
+                maxId = Math.max(maxId, address.id());
+            }
+        }
+
+        registeredMailboxes = tmp.values().toArray(new Mailbox[tmp.size()]);
+        registeredAddresses = tmp.keySet().toArray(new ComponentAddress[tmp.size()]);
+        mailboxesByAddress = new Mailbox[maxId + 1];
+
+        for (Map.Entry<ComponentAddress, Mailbox> entry : tmp.entrySet()) {
+
+            mailboxesByAddress[entry.getKey().id()] = entry.getValue();
+        }
+        dynamicMailboxes = new ConcurrentHashMap<>();
+        subscriptions = new ConcurrentHashMap<>();
+        topicPriorities = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Checks the specified receiver names.
+     *
+     * @param receiverNames
+     *        the names of receivers
+     *
+     * @return the specified receiver names
+     */
+    private static String[] checkReceiverNames(String... receiverNames) {
+
+        if (receiverNames == null) {
+
+            throw new IllegalArgumentException("No receiver names (null) were specified!");
+        }
+
+        for (String receiverName : receiverNames) {
+
+            if (receiverName == null) {
+
+                throw new IllegalArgumentException("Invalid receiver names (null) were specified!");
+            }
+        }
+
+        return receiverNames;
+    }
+
+    /**
+     * Returns the handle of the specified receiver (i.e. the id of the receiver's
+     * component address).
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return a handle or {@link #NO_HANDLE} if the receiver was not registered in
+     *         advance
+     */
+    public int receiverHandle(String receiverName) {
+
+        ComponentAddress address = ComponentAddress.lookup(receiverName);
+        if (registeredMailbox(address) == null) {
+
+            return NO_HANDLE;
+        }
+
+        return address.id();
+    }
+
+    /**
+     * Returns the mailbox of the registered receiver with the specified address.
+     *
+     * @param address
+     *        the address of a receiver or <code>null</code>
+     *
+     * @return a mailbox or <code>null</code> if the receiver wasn't registered in advance
+     */
+    private Mailbox registeredMailbox(ComponentAddress address) {
+
+        if ((address == null) || (address.id() >= mailboxesByAddress.length)) {
+
+            return null;
+        }
+
+        return mailboxesByAddress[address.id()];
+    }
+
+    /**
+     * Returns the mailbox for the specified handle.
+     *
+     * @param handle
+     *        the handle of a registered receiver
+     *
+     * @return a mailbox
+     */
+    private Mailbox getMailbox(int handle) {
+
+        if ((handle < 0) || (handle >= mailboxesByAddress.length) || (mailboxesByAddress[handle] == null)) {
+
+            String message = String.format("An invalid handle (%d) was specified!", handle);
+            throw new IllegalArgumentException(message);
+        }
+
+        return mailboxesByAddress[handle];
+    }
+
+    /**
+     * Returns the mailbox for the specified receiver. If no mailbox exists yet a new
+     * mailbox is created.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return a mailbox
+     */
+    private Mailbox getMailbox(String receiverName) {
+
+        Mailbox registeredMailbox = registeredMailbox(ComponentAddress.lookup(receiverName));
+        if (registeredMailbox != null) {
+
+            return registeredMailbox;
+        }
+
+        Mailbox mailbox = dynamicMailboxes.get(receiverName);
+        if (mailbox == null) {
+
+            Mailbox newMailbox = new Mailbox(receiverName);
+            newMailbox.setDeadLetterQueue(deadLetterQueue);
+            newMailbox.setTimeToLive(defaultTimeToLive);
+            mailbox = dynamicMailboxes.putIfAbsent(receiverName, newMailbox);
+
+            if (mailbox == null) {
+
+                mailbox = newMailbox;
+            }
+        }
+
+        return mailbox;
+    }
+
+    /**
+     * Returns the mailbox for the specified receiver if it exists.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return a mailbox or <code>null</code>
+     */
+    private Mailbox findMailbox(String receiverName) {
+
+        Mailbox registeredMailbox = registeredMailbox(ComponentAddress.lookup(receiverName));
+        if (registeredMailbox != null) {
+
+            return registeredMailbox;
+        }
+
+        return dynamicMailboxes.get(receiverName);
+    }
+
+    /**
+     * Returns the mailbox of a receiver which waits for messages. If dynamic receivers
+     * are enabled a missing mailbox is created (i.e. the first message for the receiver
+     * would create it anyway). Otherwise no mailbox is created, thus a closed mailbox
+     * isn't replaced and receivers which are unknown don't get a mailbox.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return a mailbox or <code>null</code> if the receiver has no mailbox
+     */
+    private Mailbox awaitedMailbox(String receiverName) {
+
+        if (dynamicReceivers) {
+
+            return getMailbox(receiverName);
+        }
+
+        return findMailbox(receiverName);
+    }
+
+    /**
+     * Returns the queue for messages which cannot be delivered.
+     *
+     * @return a dead letter queue
+     */
+    @Override
+    public DeadLetterQueue deadLetterQueue() {
+
+        return deadLetterQueue;
+    }
+
+    /**
+     * Determines if mailboxes are created on demand when a message is sent to a
+     * receiver which was not registered in advance. If dynamic receivers are disabled
+     * such messages are put into the dead letter queue, unless the receiver has
+     * opened a mailbox before (see {@link #openMailbox(String)}).
+     *
+     * @param dynamicReceivers
+     *        <code>true</code> if mailboxes are created on demand, else <code>false</code>
+     */
+    public void setDynamicReceivers(boolean dynamicReceivers) {
+
+        this.dynamicReceivers = dynamicReceivers;
+    }
+
+    /**
+     * Opens a mailbox for the specified receiver. If the receiver's mailbox has been
+     * closed it is reopened.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     */
+    @Override
+    public void openMailbox(String receiverName) {
+
+        getMailbox(receiverName).reopen();
+    }
+
+    /**
+     * Closes the mailbox of the specified receiver (e.g. because the receiver has
+     * stopped). The remaining messages are put into the dead letter queue and the
+     * receiver's subscriptions are removed. The mailbox of a receiver which was not
+     * registered in advance is removed. Messages which are sent to the receiver
+     * afterwards are put into the dead letter queue, unless dynamic receivers are
+     * enabled and the receiver wasn't registered in advance.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return the number of reclaimed messages
+     */
+    @Override
+    public int closeMailbox(String receiverName) {
+
+        Mailbox mailbox = findMailbox(receiverName);
+        if (mailbox == null) {
+
+            return 0;
+        }
+
+        dynamicMailboxes.remove(receiverName, mailbox);
+
+        for (CopyOnWriteArrayList<Mailbox> subscribers : subscriptions.values()) {
+
+            subscribers.remove(mailbox);
+        }
+
+        return mailbox.close();
+    }
+
+    /**
+     * Changes the time to live of messages in all mailboxes, including mailboxes which
+     * are created later. Expired messages are not delivered but put into the dead
+     * letter queue.
+     *
+     * @param timeToLive
+     *        the time to live in milliseconds (i.e. zero means no limit)
+     */
+    public void setTimeToLive(long timeToLive) {
+
+        for (Mailbox mailbox : registeredMailboxes) {
+
+            mailbox.setTimeToLive(timeToLive);
+        }
+
+        defaultTimeToLive = timeToLive;
+
+        for (Mailbox mailbox : dynamicMailboxes.values()) {
+
+            mailbox.setTimeToLive(timeToLive);
+        }
+    }
+
+    /**
+     * Changes the time to live of messages in the specified receiver's mailbox.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     * @param timeToLive
+     *        the time to live in milliseconds (i.e. zero means no limit)
+     */
+    public void setTimeToLive(String receiverName, long timeToLive) {
+
+        getMailbox(receiverName).setTimeToLive(timeToLive);
+    }
+
+    /**
+     * Discards expired messages in all mailboxes. Expired messages are discarded
+     * anyway when they are fetched, but messages for receivers which don't fetch
+     * messages anymore would otherwise accumulate.
+     *
+     * @return the number of discarded messages
+     */
+    public int purgeExpiredMessages() {
+
+        int count = 0;
+
+        for (Mailbox mailbox : registeredMailboxes) {
+
+            count += mailbox.purgeExpiredMessages();
+        }
+
+        for (Mailbox mailbox : dynamicMailboxes.values()) {
+
+            count += mailbox.purgeExpiredMessages();
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of messages which expired before they were fetched.
+     *
+     * @return the number of expired messages
+     */
+    public long expiredMessages() {
+
+        long count = 0L;
+
+        for (Mailbox mailbox : registeredMailboxes) {
+
+            count += mailbox.expiredMessages();
+        }
+
+        for (Mailbox mailbox : dynamicMailboxes.values()) {
+
+            count += mailbox.expiredMessages();
+        }
+
+        return count;
+    }
+
+    /**
+     * Changes the capacity and overflow policy of the specified receiver's mailbox.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     * @param configuration
+     *        a mailbox configuration
+     */
+    public void configureMailbox(String receiverName, MailboxConfiguration configuration) {
+
+        getMailbox(receiverName).configure(configuration);
+    }
+
+    /**
+     * Lets the specified receiver's mailbox keep a separate queue for each topic, thus
+     * a selective fetch only examines the oldest message of each topic. Topics should
+     * be indexed before messages are sent to the receiver.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     */
+    public void indexTopics(String receiverName) {
+
+        getMailbox(receiverName).indexTopics();
+    }
+
+    /**
+     * Replaces the lane of the specified receiver's mailbox (e.g. by a ring buffer for
+     * high-volume traffic). The lane should be replaced before messages are sent to
+     * the receiver.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     * @param lane
+     *        a message lane
+     */
+    public void useLane(String receiverName, MessageLane lane) {
+
+        getMailbox(receiverName).useLane(lane);
+    }
+
+    /**
+     * Sets an entity which is notified about new messages for the specified receiver.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     * @param listener
+     *        a listener or <code>null</code> in order to remove the current listener
+     */
+    public void setMailboxListener(String receiverName, MailboxListener listener) {
+
+        getMailbox(receiverName).setListener(listener);
+    }
+
+    /**
+     * Returns the number of messages which were rejected because the specified
+     * receiver's mailbox was full.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return the number of rejected messages
+     */
+    public long rejectedMessages(String receiverName) {
+
+        Mailbox mailbox = findMailbox(receiverName);
+        if (mailbox == null) {
+
+            return 0L;
+        }
+
+        return mailbox.rejectedMessages();
+    }
+
+    /**
+     * Returns the number of messages which were dropped because the specified
+     * receiver's mailbox was full.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return the number of dropped messages
+     */
+    public long droppedMessages(String receiverName) {
+
+        Mailbox mailbox = findMailbox(receiverName);
+        if (mailbox == null) {
+
+            return 0L;
+        }
+
+        return mailbox.droppedMessages();
+    }
+
+    /**
+     * Returns the number of messages which were rejected because a mailbox was full.
+     *
+     * @return the number of rejected messages
+     */
+    public long rejectedMessages() {
+
+        long count = 0L;
+
+        for (Mailbox mailbox : registeredMailboxes) {
+
+            count += mailbox.rejectedMessages();
+        }
+
+        for (Mailbox mailbox : dynamicMailboxes.values()) {
+
+            count += mailbox.rejectedMessages();
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of messages which were dropped because a mailbox was full.
+     *
+     * @return the number of dropped messages
+     */
+    public long droppedMessages() {
+
+        long count = 0L;
+
+        for (Mailbox mailbox : registeredMailboxes) {
+
+            count += mailbox.droppedMessages();
+        }
+
+        for (Mailbox mailbox : dynamicMailboxes.values()) {
+
+            count += mailbox.droppedMessages();
+        }
+
+        return count;
+    }
+
+    /**
+     * Sends the specified message (i.e. puts the message into the receiver's mailbox).
+     * If the receiver's mailbox is full the mailbox's overflow policy is applied.
+     *
+     * @param message
+     *        a message
+     *
+     * @throws MailboxOverflowException
+     *         is thrown if the message was rejected
+     */
+    @Override
+    public void send(Message message) {
+
+        checkMessage(message);
+
+        Mailbox mailbox = receiverMailbox(message);
+        if (mailbox != null) {
+
+            mailbox.put(message, priorityOf(message));
+        }
+    }
+
+    /**
+     * Sends the specified message unless the receiver's mailbox is full. The sender
+     * never waits. A message which doesn't fit is put into the dead letter queue.
+     *
+     * @param message
+     *        a message
+     *
+     * @return <code>true</code> if the message was sent, else <code>false</code>
+     */
+    @Override
+    public boolean trySend(Message message) {
+
+        checkMessage(message);
+
+        Mailbox mailbox = receiverMailbox(message);
+        if (mailbox != null) {
+
+            return mailbox.offer(message, priorityOf(message));
+        }
+
+        return false;
+    }
+
+    /**
+     * Looks up the mailbox of the receiver of the specified message. If the receiver
+     * is unknown the message is put into the dead letter queue.
+     *
+     * @param message
+     *        a message
+     *
+     * @return a mailbox or <code>null</code> if the receiver is unknown
+     */
+    private Mailbox receiverMailbox(Message message) {
+
+        Mailbox mailbox = null;
+
+        if (message instanceof ComponentMessage) {
+
+            mailbox = registeredMailbox(((ComponentMessage) message).receiverAddress());
+        }
+
+        if (mailbox == null) {
+
+            if (dynamicReceivers) {
+
+                mailbox = getMailbox(message.receiverName());
+
+            } else {
+
+                mailbox = findMailbox(message.receiverName());
+
+                if (mailbox == null) {
+
+                    deadLetterQueue.add(message, DeadLetterReasons.UNKNOWN_RECEIVER);
+                }
+            }
+        }
+
+        return mailbox;
+    }
+
+    /**
+     * Changes the priority of all messages with the specified topic.
+     *
+     * @param topic
+     *        a topic
+     * @param priority
+     *        a priority
+     */
+    public void setTopicPriority(String topic, MessagePriorities priority) {
+
+        checkTopic(topic);
+
+        if (priority == null) {
+
+            throw new IllegalArgumentException("No priority (null) was specified!");
+        }
+
+        topicPriorities.put(topic, priority);
+    }
+
+    /**
+     * Returns the priority of the specified message.
+     *
+     * @param message
+     *        a message
+     *
+     * @return a priority
+     */
+    private MessagePriorities priorityOf(Message message) {
+
+        String topic = message.topic();
+        MessagePriorities priority = (topic == null) ? null : topicPriorities.get(topic);
+
+        if (priority == null) {
+
+            return MessagePriorities.STANDARD;
+        }
+
+        return priority;
+    }
+
+    /**
+     * Subscribes the specified receiver to the specified topic. Subscribing a
+     * receiver twice has no effect.
+     *
+     * @param topic
+     *        a topic
+     * @param receiverName
+     *        the name of a receiver
+     */
+    @Override
+    public void subscribe(String topic, String receiverName) {
+
+        checkTopic(topic);
+
+        CopyOnWriteArrayList<Mailbox> subscribers = subscriptions.get(topic);
+        if (subscribers == null) {
+
+            subscriptions.putIfAbsent(topic, new CopyOnWriteArrayList<Mailbox>());
+            subscribers = subscriptions.get(topic);
+        }
+
+        subscribers.addIfAbsent(getMailbox(receiverName));
+    }
+
+    /**
+     * Removes the subscription of the specified receiver to the specified topic.
+     *
+     * @param topic
+     *        a topic
+     * @param receiverName
+     *        the name of a receiver
+     */
+    @Override
+    public void unsubscribe(String topic, String receiverName) {
+
+        checkTopic(topic);
+
+        CopyOnWriteArrayList<Mailbox> subscribers = subscriptions.get(topic);
+        Mailbox mailbox = findMailbox(receiverName);
+
+        if ((subscribers != null) && (mailbox != null)) {
+
+            subscribers.remove(mailbox);
+        }
+    }
+
+    /**
+     * Delivers the specified message to all receivers which have subscribed to the
+     * message's topic. The same message instance is put into every subscriber's
+     * mailbox. If a subscriber's mailbox rejects the message the remaining
+     * subscribers still receive it and the exception is rethrown afterwards.
+     *
+     * @param message
+     *        a message
+     *
+     * @return the number of subscribers which received the message
+     *
+     * @throws MailboxOverflowException
+     *         is thrown if a subscriber's mailbox rejected the message
+     */
+    @Override
+    public int publish(Message message) {
+
+        checkMessage(message);
+
+        CopyOnWriteArrayList<Mailbox> subscribers = subscriptions.get(message.topic());
+        if (subscribers == null) {
+
+            return 0;
+        }
+
+        MessagePriorities priority = priorityOf(message);
+        int count = 0;
+        MailboxOverflowException rejection = null;
+
+        for (Mailbox mailbox : subscribers) {
+
+            try {
+
+                if (mailbox.put(message, priority)) {
+
+                    count++;
+                }
+
+            } catch (MailboxOverflowException e) {
+
+                if (rejection == null) {
+
+                    rejection = e;
+                }
+            }
+        }
+
+        if (rejection != null) {
+
+            throw rejection;
+        }
+
+        return count;
+    }
+
+    /**
+     * Sends the specified message to the receiver with the specified handle. The
+     * receiver name of the message is not evaluated.
+     *
+     * @param handle
+     *        the handle of a registered receiver
+     * @param message
+     *        a message
+     *
+     * @throws MailboxOverflowException
+     *         is thrown if the message was rejected
+     */
+    public void send(int handle, Message message) {
+
+        checkMessage(message);
+
+        getMailbox(handle).put(message, priorityOf(message));
+    }
+
+    /**
+     * Fetches a message for the specified receiver. This method doesn't wait
+     * for new messages.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult fetch(MessageQuery query) {
+
+        checkQuery(query);
+
+        Mailbox mailbox = findMailbox(query.queryString());
+        if (mailbox == null) {
+
+            return new MessageQueryResult();
+        }
+
+        return new MessageQueryResult(mailbox.poll());
+    }
+
+    /**
+     * Fetches a message for the receiver with the specified handle. This method
+     * doesn't wait for new messages.
+     *
+     * @param handle
+     *        the handle of a registered receiver
+     *
+     * @return the query result
+     */
+    public MessageQueryResult fetch(int handle) {
+
+        return new MessageQueryResult(getMailbox(handle).poll());
+    }
+
+    /**
+     * Waits until a message for the specified receiver is available and returns it.
+     * If dynamic receivers are disabled and the receiver has no mailbox the method
+     * returns immediately.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult await(MessageQuery query) {
+
+        checkQuery(query);
+
+        Mailbox mailbox = awaitedMailbox(query.queryString());
+        if (mailbox == null) {
+
+            return new MessageQueryResult();
+        }
+
+        return new MessageQueryResult(mailbox.take());
+    }
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * available.
+     * If dynamic receivers are disabled and the receiver has no mailbox the method
+     * returns immediately.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult await(MessageQuery query, long timeout) {
+
+        checkQuery(query);
+        checkTimeout(timeout);
+
+        Mailbox mailbox = awaitedMailbox(query.queryString());
+        if (mailbox == null) {
+
+            return new MessageQueryResult();
+        }
+
+        return new MessageQueryResult(mailbox.poll(timeout, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Passes up to the specified number of messages for the specified receiver
+     * to the specified consumer. This method doesn't wait for new messages.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    @Override
+    public int drain(MessageQuery query, int maxMessages, Consumer<? super Message> consumer) {
+
+        checkQuery(query);
+        checkMaxMessages(maxMessages);
+        checkConsumer(consumer);
+
+        Mailbox mailbox = findMailbox(query.queryString());
+        if (mailbox == null) {
+
+            return 0;
+        }
+
+        return mailbox.drain(maxMessages, consumer);
+    }
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * available. Afterwards up to the specified number of messages are passed to the
+     * specified consumer.
+     * If dynamic receivers are disabled and the receiver has no mailbox the method
+     * returns immediately.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    @Override
+    public int drain(MessageQuery query, int maxMessages, Consumer<? super Message> consumer, long timeout) {
+
+        checkQuery(query);
+        checkMaxMessages(maxMessages);
+        checkConsumer(consumer);
+        checkTimeout(timeout);
+
+        Mailbox mailbox = awaitedMailbox(query.queryString());
+        if (mailbox == null) {
+
+            return 0;
+        }
+
+        Message firstMessage = mailbox.poll(timeout, TimeUnit.MILLISECONDS);
+        if (firstMessage == null) {
+
+            return 0;
+        }
+
+        consumer.accept(firstMessage);
+        return 1 + mailbox.drain(maxMessages - 1, consumer);
+    }
+
+    /**
+     * Fetches the oldest message for the specified receiver which is selected by the
+     * specified selector. This method doesn't wait for new messages.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector (see {@link MessageSelectors})
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult fetch(MessageQuery query, Predicate<? super Message> selector) {
+
+        checkQuery(query);
+        checkSelector(selector);
+
+        Mailbox mailbox = findMailbox(query.queryString());
+        if (mailbox == null) {
+
+            return new MessageQueryResult();
+        }
+
+        return new MessageQueryResult(mailbox.poll(selector));
+    }
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * selected by the specified selector.
+     * If dynamic receivers are disabled and the receiver has no mailbox the method
+     * returns immediately.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector (see {@link MessageSelectors})
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult await(MessageQuery query, Predicate<? super Message> selector, long timeout) {
+
+        checkQuery(query);
+        checkSelector(selector);
+        checkTimeout(timeout);
+
+        Mailbox mailbox = awaitedMailbox(query.queryString());
+        if (mailbox == null) {
+
+            return new MessageQueryResult();
+        }
+
+        return new MessageQueryResult(mailbox.poll(selector, timeout, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * selected by the specified selector. Afterwards up to the specified number of
+     * selected messages are passed to the specified consumer.
+     * If dynamic receivers are disabled and the receiver has no mailbox the method
+     * returns immediately.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector (see {@link MessageSelectors})
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    @Override
+    public int drain(MessageQuery query, Predicate<? super Message> selector, int maxMessages,
+                     Consumer<? super Message> consumer, long timeout) {
+
+        checkQuery(query);
+        checkSelector(selector);
+        checkMaxMessages(maxMessages);
+        checkConsumer(consumer);
+        checkTimeout(timeout);
+
+        Mailbox mailbox = awaitedMailbox(query.queryString());
+        if (mailbox == null) {
+
+            return 0;
+        }
+
+        Message firstMessage = mailbox.poll(selector, timeout, TimeUnit.MILLISECONDS);
+        if (firstMessage == null) {
+
+            return 0;
+        }
+
+        consumer.accept(firstMessage);
+        return 1 + mailbox.drain(maxMessages - 1, selector, consumer);
+    }
+
+    /**
+     * Returns the number of messages which are currently stored in this messagebus.
+     *
+     * @return the number of messages
+     */
+    @Override
+    public int size() {
+
+        int size = 0;
+
+        for (Mailbox mailbox : registeredMailboxes) {
+
+            size += mailbox.size();
+        }
+
+        for (Mailbox mailbox : dynamicMailboxes.values()) {
+
+            size += mailbox.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the number of messages which are currently stored in the specified
+     * receiver's mailbox.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return the number of messages
+     */
+    public int size(String receiverName) {
+
+        Mailbox mailbox = findMailbox(receiverName);
+        if (mailbox == null) {
+
+            return 0;
+        }
+
+        return mailbox.size();
+    }
+
+    /**
+     * Returns a snapshot of the counters of the specified receiver's mailbox.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return a snapshot
+     */
+    public MailboxStatistics statistics(String receiverName) {
+
+        Mailbox mailbox = findMailbox(receiverName);
+        if (mailbox == null) {
+
+            return new MailboxStatistics(receiverName, System.nanoTime(), 0, 0, 0L, 0L, 0L, 0L);
+        }
+
+        return mailbox.statistics();
+    }
+
+    /**
+     * Returns snapshots of the counters of all mailboxes. The cost depends only on
+     * the number of receivers.
+     *
+     * @return all snapshots (i.e. the key is the receiver name)
+     */
+    public Map<String, MailboxStatistics> statistics() {
+
+        Map<String, MailboxStatistics> result = new LinkedHashMap<>();
+
+        for (Mailbox mailbox : registeredMailboxes) {
+
+            result.put(mailbox.receiverName(), mailbox.statistics());
+        }
+
+        for (Mailbox mailbox : dynamicMailboxes.values()) {
+
+            result.put(mailbox.receiverName(), mailbox.statistics());
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks the specified message.
+     *
+     * @param message
+     *        a message
+     *
+     * @return the specified message
+     */
+    static Message checkMessage(Message message) {
+
+        if (message == null) {
+
+            throw new IllegalArgumentException("No message (null) was specified!");
+        }
+
+        return message;
+    }
+
+    /**
+     * Checks the specified topic.
+     *
+     * @param topic
+     *        a topic
+     *
+     * @return the specified topic
+     */
+    static String checkTopic(String topic) {
+
+        if (topic == null) {
+
+            throw new IllegalArgumentException("No topic (null) was specified!");
+        }
+
+        return topic;
+    }
+
+    /**
+     * Checks the specified query.
+     *
+     * @param query
+     *        a query
+     *
+     * @return the specified query
+     */
+    static MessageQuery checkQuery(MessageQuery query) {
+
+        if (query == null) {
+
+            throw new IllegalArgumentException("No query (null) was specified!");
+        }
+
+        return query;
+    }
+
+    /**
+     * Checks the specified maximum number of messages.
+     *
+     * @param maxMessages
+     *        the maximum number of messages
+     *
+     * @return the specified maximum number of messages
+     */
+    static int checkMaxMessages(int maxMessages) {
+
+        if (maxMessages < 1) {
+
+            String message = String.format("An invalid maximum number of messages (%d) was specified!", maxMessages);
+            throw new IllegalArgumentException(message);
+        }
+
+        return maxMessages;
+    }
+
+    /**
+     * Checks the specified consumer.
+     *
+     * @param consumer
+     *        a consumer
+     *
+     * @return the specified consumer
+     */
+    static <T> Consumer<T> checkConsumer(Consumer<T> consumer) {
+
+        if (consumer == null) {
+
+            throw new IllegalArgumentException("No consumer (null) was specified!");
+        }
+
+        return consumer;
+    }
+
+    /**
+     * Checks the specified selector.
+     *
+     * @param selector
+     *        a selector
+     *
+     * @return the specified selector
+     */
+    static <T> Predicate<T> checkSelector(Predicate<T> selector) {
+
+        if (selector == null) {
+
+            throw new IllegalArgumentException("No selector (null) was specified!");
+        }
+
+        return selector;
+    }
+
+    /**
+     * Checks the specified timeout.
+     *
+     * @param timeout
+     *        a timeout in milliseconds
+     *
+     * @return the specified timeout
+     */
+    static long checkTimeout(long timeout) {
+
+        if (timeout < 0L) {
+
+            String message = String.format("An invalid timeout (%d) was specified!", timeout);
+            throw new IllegalArgumentException(message);
+        }
+
+        return timeout;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import jmul.messaging.Message;
+import jmul.messaging.Messagebus;
+
+
+/**
+ * This interface describes a messagebus which delivers a single message to all
+ * receivers which have subscribed to the message's topic.
+ *
+ * @author Kristian Kutin
+ */
+public interface BroadcastMessagebus extends Messagebus {
+
+    /**
+     * The receiver name of a message which is published to all subscribers of
+     * a topic.
+     */
+    String ALL_SUBSCRIBERS = "*";
+
+    /**
+     * Subscribes the specified receiver to the specified topic. Subscribing a
+     * receiver twice has no effect.
+     *
+     * @param topic
+     *        a topic
+     * @param receiverName
+     *        the name of a receiver
+     */
+    void subscribe(String topic, String receiverName);
+
+    /**
+     * Removes the subscription of the specified receiver to the specified topic.
+     *
+     * @param topic
+     *        a topic
+     * @param receiverName
+     *        the name of a receiver
+     */
+    void unsubscribe(String topic, String receiverName);
+
+    /**
+     * Delivers the specified message to all receivers which have subscribed to the
+     * message's topic. The same message instance is delivered to every subscriber,
+     * the receiver name of the message is not evaluated.
+     *
+     * @param message
+     *        a message
+     *
+     * @return the number of subscribers which received the message
+     */
+    int publish(Message message);
+
+}
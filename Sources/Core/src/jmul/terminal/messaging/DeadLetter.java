@@ -0,0 +1,130 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import jmul.messaging.Message;
+
+
+/**
+ * This class represents a message which couldn't be delivered.
+ *
+ * @author Kristian Kutin
+ */
+public class DeadLetter {
+
+    /**
+     * The message which couldn't be delivered.
+     */
+    private final Message message;
+
+    /**
+     * The reason why the message couldn't be delivered.
+     */
+    private final DeadLetterReasons reason;
+
+    /**
+     * The time (in milliseconds) when the message was declared a dead letter.
+     */
+    private final long timestamp;
+
+    /**
+     * Creates a new dead letter according to the specified parameters.
+     *
+     * @param message
+     *        the message which couldn't be delivered
+     * @param reason
+     *        the reason why the message couldn't be delivered
+     */
+    public DeadLetter(Message message, DeadLetterReasons reason) {
+
+        super();
+
+        if (message == null) {
+
+            throw new IllegalArgumentException("No message (null) was specified!");
+        }
+
+        if (reason == null) {
+
+            throw new IllegalArgumentException("No reason (null) was specified!");
+        }
+
+        this.message = message;
+        this.reason = reason;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the message which couldn't be delivered.
+     *
+     * @return a message
+     */
+    public Message message() {
+
+        return message;
+    }
+
+    /**
+     * Returns the reason why the message couldn't be delivered.
+     *
+     * @return a reason
+     */
+    public DeadLetterReasons reason() {
+
+        return reason;
+    }
+
+    /**
+     * Returns the time when the message was declared a dead letter.
+     *
+     * @return a timestamp in milliseconds
+     */
+    public long timestamp() {
+
+        return timestamp;
+    }
+
+    /**
+     * Returns a string representation for this dead letter.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        return String.format("reason=%s;receiver=%s;topic=%s", reason, message.receiverName(), message.topic());
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+/**
+ * This interface describes an entity which is shown a sample of the dead letters
+ * (e.g. in order to log them without flooding the log).
+ *
+ * @author Kristian Kutin
+ */
+public interface DeadLetterListener {
+
+    /**
+     * Is called for every n-th dead letter. The method is called on the thread which
+     * produced the dead letter and should return quickly.
+     *
+     * @param deadLetter
+     *        a dead letter
+     * @param count
+     *        the total number of dead letters so far
+     */
+    void deadLetterSampled(DeadLetter deadLetter, long count);
+
+}
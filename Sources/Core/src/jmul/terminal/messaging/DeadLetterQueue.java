@@ -0,0 +1,300 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import jmul.messaging.Message;
+
+
+/**
+ * A queue for messages which couldn't be delivered. The queue has a capacity limit.
+ * If the queue is full the oldest dead letter is evicted, thus a flood of undeliverable
+ * messages cannot exhaust the heap.<br>
+ * <br>
+ * The queue counts the dead letters by reason. A listener can be shown every n-th
+ * dead letter (i.e. a sample) in order to report undeliverable messages without
+ * reporting each one.
+ *
+ * @author Kristian Kutin
+ */
+public class DeadLetterQueue {
+
+    /**
+     * The default capacity of a dead letter queue.
+     */
+    public static final int DEFAULT_CAPACITY;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_CAPACITY = 1024;
+    }
+
+    /**
+     * The maximum number of dead letters in this queue.
+     */
+    private final int capacity;
+
+    /**
+     * The dead letters in this queue.
+     */
+    private final Queue<DeadLetter> deadLetters;
+
+    /**
+     * The number of dead letters in this queue (i.e. including dead letters which are
+     * just being added).
+     */
+    private final AtomicInteger size;
+
+    /**
+     * The number of dead letters per reason (i.e. the index is the reason's ordinal).
+     */
+    private final LongAdder[] counters;
+
+    /**
+     * The number of dead letters which were evicted because this queue was full.
+     */
+    private final LongAdder evictedDeadLetters;
+
+    /**
+     * The sequence number of the last dead letter (i.e. used for sampling).
+     */
+    private final AtomicLong sequence;
+
+    /**
+     * An entity which is shown a sample of the dead letters (i.e. may be <code>null</code>).
+     */
+    private volatile DeadLetterListener sampler;
+
+    /**
+     * Every n-th dead letter is shown to the sampler.
+     */
+    private volatile int samplingInterval;
+
+    /**
+     * Creates a new dead letter queue with the default capacity.
+     */
+    public DeadLetterQueue() {
+
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new dead letter queue according to the specified parameters.
+     *
+     * @param capacity
+     *        the maximum number of dead letters in this queue
+     */
+    public DeadLetterQueue(int capacity) {
+
+        super();
+
+        if (capacity < 1) {
+
+            String message = String.format("An invalid capacity (%d) was specified!", capacity);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.capacity = capacity;
+
+        deadLetters = new ConcurrentLinkedQueue<>();
+        size = new AtomicInteger();
+        counters = new LongAdder[DeadLetterReasons.values().length];
+        evictedDeadLetters = new LongAdder();
+        sequence = new AtomicLong();
+        samplingInterval = 1;
+
+        for (int a = 0; a < counters.length; a++) {
+
+            counters[a] = new LongAdder();
+        }
+    }
+
+    /**
+     * Sets an entity which is shown every n-th dead letter.
+     *
+     * @param sampler
+     *        a listener or <code>null</code> in order to remove the current sampler
+     * @param samplingInterval
+     *        the sampler is shown every n-th dead letter
+     */
+    public void setSampler(DeadLetterListener sampler, int samplingInterval) {
+
+        if (samplingInterval < 1) {
+
+            String message = String.format("An invalid sampling interval (%d) was specified!", samplingInterval);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.samplingInterval = samplingInterval;
+        this.sampler = sampler;
+    }
+
+    /**
+     * Adds the specified message to this queue. If this queue is full the oldest dead
+     * letter is evicted.
+     *
+     * @param message
+     *        a message which couldn't be delivered
+     * @param reason
+     *        the reason why the message couldn't be delivered
+     */
+    public void add(Message message, DeadLetterReasons reason) {
+
+        DeadLetter deadLetter = new DeadLetter(message, reason);
+
+        counters[reason.ordinal()].increment();
+
+        size.incrementAndGet();
+        deadLetters.offer(deadLetter);
+
+        while (size.get() > capacity) {
+
+            if (deadLetters.poll() == null) {
+
+                break;
+            }
+
+            size.decrementAndGet();
+            evictedDeadLetters.increment();
+        }
+
+        long count = sequence.incrementAndGet();
+        DeadLetterListener currentSampler = sampler;
+
+        if ((currentSampler != null) && (((count - 1L) % samplingInterval) == 0L)) {
+
+            currentSampler.deadLetterSampled(deadLetter, count);
+        }
+    }
+
+    /**
+     * Removes the oldest dead letter from this queue.
+     *
+     * @return a dead letter or <code>null</code> if this queue is empty
+     */
+    public DeadLetter poll() {
+
+        DeadLetter deadLetter = deadLetters.poll();
+
+        if (deadLetter != null) {
+
+            size.decrementAndGet();
+        }
+
+        return deadLetter;
+    }
+
+    /**
+     * Returns a snapshot of the dead letters in this queue. The dead letters are not
+     * removed.
+     *
+     * @return all dead letters (i.e. the oldest dead letter comes first)
+     */
+    public List<DeadLetter> snapshot() {
+
+        return new ArrayList<>(deadLetters);
+    }
+
+    /**
+     * Returns the number of dead letters in this queue.
+     *
+     * @return the number of dead letters
+     */
+    public int size() {
+
+        return Math.min(size.get(), capacity);
+    }
+
+    /**
+     * Returns the maximum number of dead letters in this queue.
+     *
+     * @return a capacity
+     */
+    public int capacity() {
+
+        return capacity;
+    }
+
+    /**
+     * Returns the number of dead letters with the specified reason so far.
+     *
+     * @param reason
+     *        a reason
+     *
+     * @return the number of dead letters
+     */
+    public long count(DeadLetterReasons reason) {
+
+        return counters[reason.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of dead letters so far.
+     *
+     * @return the number of dead letters
+     */
+    public long count() {
+
+        long count = 0L;
+
+        for (LongAdder counter : counters) {
+
+            count += counter.sum();
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of dead letters which were evicted because this queue was full.
+     *
+     * @return the number of evicted dead letters
+     */
+    public long evictedDeadLetters() {
+
+        return evictedDeadLetters.sum();
+    }
+
+}
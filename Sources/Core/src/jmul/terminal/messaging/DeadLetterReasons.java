@@ -0,0 +1,88 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+/**
+ * This enumeration contains all reasons why a message couldn't be delivered and was
+ * put into a dead letter queue.
+ *
+ * @author Kristian Kutin
+ */
+public enum DeadLetterReasons {
+
+
+    /**
+     * The receiver has no mailbox (e.g. the receiver name is misspelled or the receiver
+     * has been unregistered).
+     */
+    UNKNOWN_RECEIVER,
+
+    /**
+     * The message was still in the mailbox when the mailbox was closed.
+     */
+    RECLAIMED,
+
+    /**
+     * The message was sent after the receiver's mailbox had been closed (e.g. the
+     * receiver has stopped).
+     */
+    CLOSED,
+
+    /**
+     * The message wasn't fetched before its time to live had elapsed.
+     */
+    EXPIRED,
+
+    /**
+     * The receiver couldn't process the message (e.g. the receiver's stash overflowed
+     * or the receiver stopped before it reached a state in which it could process the
+     * message).
+     */
+    UNPROCESSABLE,
+
+    /**
+     * The message couldn't be transmitted to a remote receiver (e.g. the message contains
+     * a property which the codec doesn't support or the encoded message exceeds the
+     * maximum frame size).
+     */
+    UNENCODABLE,
+
+    /**
+     * The message was rejected because the receiver's mailbox was full and the overflow
+     * policy doesn't allow to wait for space.
+     */
+    REJECTED;
+
+}
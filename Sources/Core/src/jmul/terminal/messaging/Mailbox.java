@@ -0,0 +1,1337 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+import jmul.messaging.StandardPropertyKeys;
+
+import jmul.terminal.component.messages.ComponentMessage;
+import jmul.terminal.component.messages.CustomPropertyKeys;
+import jmul.terminal.utils.logging.LogLevel;
+
+
+/**
+ * This class represents the mailbox of a single receiver. Messages are stored in
+ * lock-free lanes (i.e. a linked queue by default or a ring buffer). A receiver
+ * which waits for messages parks its thread and is unparked by the next sender.
+ * Neither sending nor fetching requires a lock.<br>
+ * <br>
+ * A mailbox may be limited to a maximum number of messages. The mailbox's
+ * configuration determines what happens when a message is sent to a full
+ * mailbox (see {@link OverflowPolicies}).<br>
+ * <br>
+ * Control messages are stored in a separate lane and overtake standard messages.
+ * They don't count towards the capacity limit. To avoid starvation a standard
+ * message is delivered after a certain number of consecutive control messages.<br>
+ * <br>
+ * Messages may have a limited time to live. Expired messages are not delivered but
+ * discarded and passed to the dead letter queue. A closed mailbox doesn't accept
+ * messages anymore, its remaining messages are passed to the dead letter queue as
+ * well.<br>
+ * <br>
+ * A receiver may fetch only messages which are selected by a selector (e.g. only
+ * messages with certain topics). If the mailbox indexes topics (see
+ * {@link #indexTopics()}) the oldest message of each topic is examined, otherwise
+ * only the oldest message of each lane is examined.
+ *
+ * @author Kristian Kutin
+ */
+public class Mailbox {
+
+    /**
+     * The maximum number of control messages which are delivered in a row while
+     * standard messages are waiting.
+     */
+    private static final int MAX_CONSECUTIVE_CONTROL_MESSAGES;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        MAX_CONSECUTIVE_CONTROL_MESSAGES = 64;
+    }
+
+    /**
+     * The name of the receiver who owns this mailbox.
+     */
+    private final String receiverName;
+
+    /**
+     * The lane which stores the control messages which have been sent to the receiver.
+     */
+    private volatile MessageLane controlLane;
+
+    /**
+     * The lane which stores the standard messages which have been sent to the receiver.
+     */
+    private volatile MessageLane lane;
+
+    /**
+     * The number of standard messages in this mailbox (i.e. including messages which
+     * are just being added).
+     */
+    private final AtomicInteger size;
+
+    /**
+     * The number of control messages in this mailbox.
+     */
+    private final AtomicInteger controlSize;
+
+    /**
+     * The number of control messages which were delivered in a row. The counter is
+     * only used to avoid starvation, thus concurrent consumers may update it without
+     * synchronization.
+     */
+    private int consecutiveControlMessages;
+
+    /**
+     * All threads which currently wait for a message.
+     */
+    private final Queue<Thread> waitingThreads;
+
+    /**
+     * All senders which currently wait for space in this mailbox.
+     */
+    private final Queue<Thread> blockedSenders;
+
+    /**
+     * The number of messages which were put into this mailbox.
+     */
+    private final LongAdder enqueuedMessages;
+
+    /**
+     * The number of messages which were fetched from this mailbox.
+     */
+    private final LongAdder dequeuedMessages;
+
+    /**
+     * The highest number of messages in this mailbox so far.
+     */
+    private final AtomicInteger highWaterMark;
+
+    /**
+     * The number of rejected messages.
+     */
+    private final LongAdder rejectedMessages;
+
+    /**
+     * The number of dropped messages.
+     */
+    private final LongAdder droppedMessages;
+
+    /**
+     * The capacity and overflow policy of this mailbox.
+     */
+    private volatile MailboxConfiguration configuration;
+
+    /**
+     * The number of expired messages.
+     */
+    private final LongAdder expiredMessages;
+
+    /**
+     * An entity which is notified about new messages (i.e. may be <code>null</code>).
+     */
+    private volatile MailboxListener listener;
+
+    /**
+     * The queue for messages which cannot be delivered (i.e. may be <code>null</code>).
+     */
+    private volatile DeadLetterQueue deadLetterQueue;
+
+    /**
+     * The time to live of a message in milliseconds (i.e. zero means no limit).
+     */
+    private volatile long timeToLive;
+
+    /**
+     * A flag which indicates that this mailbox has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The condition which identifies expired messages.
+     */
+    private final Predicate<Message> expiryCondition;
+
+    /**
+     * Creates a new mailbox without capacity limit.
+     *
+     * @param receiverName
+     *        the name of the receiver who owns this mailbox
+     */
+    public Mailbox(String receiverName) {
+
+        this(receiverName, MailboxConfiguration.UNBOUNDED);
+    }
+
+    /**
+     * Creates a new mailbox according to the specified parameters.
+     *
+     * @param receiverName
+     *        the name of the receiver who owns this mailbox
+     * @param configuration
+     *        the capacity and overflow policy of this mailbox
+     */
+    public Mailbox(String receiverName, MailboxConfiguration configuration) {
+
+        super();
+
+        this.receiverName = checkReceiverName(receiverName);
+        this.configuration = checkConfiguration(configuration);
+
+        controlLane = new QueueLane();
+        lane = new QueueLane();
+        size = new AtomicInteger();
+        controlSize = new AtomicInteger();
+        waitingThreads = new ConcurrentLinkedQueue<>();
+        blockedSenders = new ConcurrentLinkedQueue<>();
+        enqueuedMessages = new LongAdder();
+        dequeuedMessages = new LongAdder();
+        highWaterMark = new AtomicInteger();
+        rejectedMessages = new LongAdder();
+        droppedMessages = new LongAdder();
+        expiredMessages = new LongAdder();
+
+        expiryCondition = new Predicate<Message>() {
+
+            @Override
+            public boolean test(Message message) {
+
+                return isExpired(message, timeToLive);
+            }
+        };
+    }
+
+    /**
+     * Checks the specified receiver name.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return the specified receiver name
+     */
+    private static String checkReceiverName(String receiverName) {
+
+        if (receiverName == null) {
+
+            throw new IllegalArgumentException("No receiver name (null) was specified!");
+        }
+
+        return receiverName;
+    }
+
+    /**
+     * Checks the specified configuration.
+     *
+     * @param configuration
+     *        a mailbox configuration
+     *
+     * @return the specified configuration
+     */
+    private static MailboxConfiguration checkConfiguration(MailboxConfiguration configuration) {
+
+        if (configuration == null) {
+
+            throw new IllegalArgumentException("No configuration (null) was specified!");
+        }
+
+        return configuration;
+    }
+
+    /**
+     * Returns the name of the receiver who owns this mailbox.
+     *
+     * @return a receiver name
+     */
+    public String receiverName() {
+
+        return receiverName;
+    }
+
+    /**
+     * Returns the capacity and overflow policy of this mailbox.
+     *
+     * @return a mailbox configuration
+     */
+    public MailboxConfiguration configuration() {
+
+        return configuration;
+    }
+
+    /**
+     * Changes the capacity and overflow policy of this mailbox. Messages which
+     * are already in the mailbox are kept.
+     *
+     * @param configuration
+     *        a mailbox configuration
+     */
+    public void configure(MailboxConfiguration configuration) {
+
+        this.configuration = checkConfiguration(configuration);
+        wakeUp(blockedSenders);
+    }
+
+    /**
+     * Sets an entity which is notified about new messages.
+     *
+     * @param listener
+     *        a listener or <code>null</code> in order to remove the current listener
+     */
+    public void setListener(MailboxListener listener) {
+
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the queue for messages which cannot be delivered.
+     *
+     * @param deadLetterQueue
+     *        a dead letter queue or <code>null</code> if undeliverable messages are
+     *        just discarded
+     */
+    public void setDeadLetterQueue(DeadLetterQueue deadLetterQueue) {
+
+        this.deadLetterQueue = deadLetterQueue;
+    }
+
+    /**
+     * Changes the time to live of the messages in this mailbox. The time to live
+     * also applies to messages which are already in this mailbox.
+     *
+     * @param timeToLive
+     *        the time to live in milliseconds (i.e. zero means no limit)
+     */
+    public void setTimeToLive(long timeToLive) {
+
+        if (timeToLive < 0L) {
+
+            String message = String.format("An invalid time to live (%d) was specified!", timeToLive);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Returns the time to live of the messages in this mailbox.
+     *
+     * @return the time to live in milliseconds (i.e. zero means no limit)
+     */
+    public long timeToLive() {
+
+        return timeToLive;
+    }
+
+    /**
+     * Replaces the lane for standard messages. Standard messages which are already in
+     * the mailbox are moved to the new lane. The lane should be replaced before messages are
+     * sent to this mailbox.
+     *
+     * @param newLane
+     *        a message lane
+     */
+    public void useLane(MessageLane newLane) {
+
+        if (newLane == null) {
+
+            throw new IllegalArgumentException("No lane (null) was specified!");
+        }
+
+        MessageLane oldLane = lane;
+        lane = newLane;
+
+        while (true) {
+
+            Message message = oldLane.poll();
+            if (message == null) {
+
+                break;
+            }
+
+            newLane.offer(message);
+        }
+    }
+
+    /**
+     * Replaces both lanes by lanes which keep a separate queue for each topic, thus a
+     * selective fetch doesn't depend on the number of messages with other topics.
+     * Messages which are already in the mailbox are moved to the new lanes. The lanes
+     * should be replaced before messages are sent to this mailbox.
+     */
+    public void indexTopics() {
+
+        MessageLane oldControlLane = controlLane;
+        MessageLane newControlLane = new TopicIndexedLane();
+        controlLane = newControlLane;
+
+        while (true) {
+
+            Message message = oldControlLane.poll();
+            if (message == null) {
+
+                break;
+            }
+
+            newControlLane.offer(message);
+        }
+
+        useLane(new TopicIndexedLane());
+    }
+
+    /**
+     * Puts the specified message into this mailbox as a standard message and wakes up
+     * all waiting threads. If the mailbox is full the overflow policy is applied.
+     *
+     * @param message
+     *        a message
+     *
+     * @return <code>true</code> if the message was put into the mailbox, <code>false</code>
+     *         if the message was dropped
+     *
+     * @throws MailboxOverflowException
+     *         is thrown if the message was rejected
+     */
+    public boolean put(Message message) {
+
+        return put(message, MessagePriorities.STANDARD);
+    }
+
+    /**
+     * Puts the specified message into this mailbox with the specified priority and
+     * wakes up all waiting threads. If the mailbox is full the overflow policy is
+     * applied to standard messages. Control messages are always accepted.
+     *
+     * @param message
+     *        a message
+     * @param priority
+     *        the priority of the message
+     *
+     * @return <code>true</code> if the message was put into the mailbox, <code>false</code>
+     *         if the message was dropped
+     *
+     * @throws MailboxOverflowException
+     *         is thrown if the message was rejected
+     */
+    public boolean put(Message message, MessagePriorities priority) {
+
+        return put(message, priority, true);
+    }
+
+    /**
+     * Puts the specified message into this mailbox with the specified priority unless
+     * the mailbox is full. The sender never waits and never gets an exception. If the
+     * overflow policy would make the sender wait or reject the message, the message is
+     * passed to the dead letter queue.
+     *
+     * @param message
+     *        a message
+     * @param priority
+     *        the priority of the message
+     *
+     * @return <code>true</code> if the message was put into the mailbox, <code>false</code>
+     *         if the message was dropped or rejected
+     */
+    public boolean offer(Message message, MessagePriorities priority) {
+
+        return put(message, priority, false);
+    }
+
+    /**
+     * Puts the specified message into this mailbox with the specified priority.
+     *
+     * @param message
+     *        a message
+     * @param priority
+     *        the priority of the message
+     * @param mayWait
+     *        <code>true</code> if the sender may wait for space or get an exception,
+     *        else <code>false</code>
+     *
+     * @return <code>true</code> if the message was put into the mailbox, <code>false</code>
+     *         if the message was dropped or rejected
+     */
+    private boolean put(Message message, MessagePriorities priority, boolean mayWait) {
+
+        if (closed) {
+
+            toDeadLetterQueue(message, DeadLetterReasons.CLOSED);
+            return false;
+        }
+
+        if (priority == MessagePriorities.CONTROL) {
+
+            int currentControlSize = controlSize.incrementAndGet();
+            controlLane.offer(message);
+            enqueuedMessages.increment();
+            updateHighWaterMark(currentControlSize + size.get());
+            return messageAdded();
+        }
+
+        while (true) {
+
+            if (closed) {
+
+                // the mailbox was closed while the sender was waiting for space
+                toDeadLetterQueue(message, DeadLetterReasons.CLOSED);
+                return false;
+            }
+
+            MailboxConfiguration currentConfiguration = configuration;
+
+            int currentSize = size.get();
+            if (currentSize < currentConfiguration.capacity()) {
+
+                if (size.compareAndSet(currentSize, currentSize + 1)) {
+
+                    lane.offer(message);
+                    enqueuedMessages.increment();
+                    updateHighWaterMark(currentSize + 1 + controlSize.get());
+                    return messageAdded();
+                }
+
+                continue;
+            }
+
+            if ((timeToLive > 0L) && (purgeExpiredMessages() > 0)) {
+
+                continue;
+            }
+
+            switch (currentConfiguration.overflowPolicy()) {
+
+            case FAIL:
+                if (!mayWait) {
+
+                    return rejectMessage(message);
+                }
+                rejectedMessages.increment();
+                throw new MailboxOverflowException(receiverName);
+
+            case DROP_NEWEST:
+                droppedMessages.increment();
+                return false;
+
+            case DROP_OLDEST:
+                if (removeStandardMessage() != null) {
+
+                    droppedMessages.increment();
+                }
+                break;
+
+            case DROP_BY_LOG_LEVEL:
+                if (isBelowThreshold(message, currentConfiguration.logLevelThreshold())) {
+
+                    droppedMessages.increment();
+                    return false;
+                }
+                if (!mayWait) {
+
+                    return rejectMessage(message);
+                }
+                waitForSpace();
+                break;
+
+            default:
+                if (!mayWait) {
+
+                    return rejectMessage(message);
+                }
+                waitForSpace();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Wakes up all waiting threads and notifies the listener after a message was
+     * added. If this mailbox has been closed concurrently the message is reclaimed.
+     *
+     * @return <code>true</code> if the message remains in this mailbox, else
+     *         <code>false</code>
+     */
+    private boolean messageAdded() {
+
+        if (closed) {
+
+            reclaimMessages();
+            return false;
+        }
+
+        wakeUp(waitingThreads);
+        notifyListener();
+
+        return true;
+    }
+
+    /**
+     * Rejects the specified message without making the sender wait (i.e. the message is
+     * passed to the dead letter queue).
+     *
+     * @param message
+     *        a message
+     *
+     * @return always <code>false</code>
+     */
+    private boolean rejectMessage(Message message) {
+
+        rejectedMessages.increment();
+        toDeadLetterQueue(message, DeadLetterReasons.REJECTED);
+
+        return false;
+    }
+
+    /**
+     * Checks if the specified message is a log entry whose log level is lower than the
+     * specified threshold.
+     *
+     * @param message
+     *        a message
+     * @param threshold
+     *        a log level
+     *
+     * @return <code>true</code> if the message is a log entry with a lower log level,
+     *         else <code>false</code>
+     */
+    private static boolean isBelowThreshold(Message message, LogLevel threshold) {
+
+        if (!message.contains(CustomPropertyKeys.LOG_LEVEL)) {
+
+            return false;
+        }
+
+        LogLevel logLevel = (LogLevel) message.get(CustomPropertyKeys.LOG_LEVEL);
+        return logLevel.ordinal() < threshold.ordinal();
+    }
+
+    /**
+     * Parks the current thread until there is space in this mailbox. The current
+     * thread registers itself before checking the size again, thus space which is
+     * freed concurrently cannot be missed.
+     *
+     * @throws MailboxOverflowException
+     *         is thrown if the current thread is interrupted while waiting
+     */
+    private void waitForSpace() {
+
+        Thread currentThread = Thread.currentThread();
+        blockedSenders.add(currentThread);
+
+        try {
+
+            while (!closed && (size.get() >= configuration.capacity())) {
+
+                LockSupport.park(this);
+
+                if (Thread.interrupted()) {
+
+                    currentThread.interrupt();
+                    rejectedMessages.increment();
+                    throw new MailboxOverflowException(receiverName);
+                }
+            }
+
+        } finally {
+
+            blockedSenders.remove(currentThread);
+        }
+    }
+
+    /**
+     * Notifies the listener about a new message.
+     */
+    private void notifyListener() {
+
+        MailboxListener currentListener = listener;
+        if (currentListener != null) {
+
+            currentListener.messageArrived(receiverName);
+        }
+    }
+
+    /**
+     * Wakes up all specified threads. Usually nobody waits, thus the threads are only
+     * iterated if there are any (i.e. no iterator is allocated for every message).
+     *
+     * @param threads
+     *        threads which wait for a message or for space
+     */
+    private static void wakeUp(Queue<Thread> threads) {
+
+        if (threads.isEmpty()) {
+
+            return;
+        }
+
+        for (Thread thread : threads) {
+
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Updates the high water mark if the specified depth is higher.
+     *
+     * @param depth
+     *        the current number of messages
+     */
+    private void updateHighWaterMark(int depth) {
+
+        int currentHighWaterMark = highWaterMark.get();
+
+        while (depth > currentHighWaterMark) {
+
+            if (highWaterMark.compareAndSet(currentHighWaterMark, depth)) {
+
+                break;
+            }
+
+            currentHighWaterMark = highWaterMark.get();
+        }
+    }
+
+    /**
+     * Removes the next message and counts it as delivered. Expired messages are
+     * discarded.
+     *
+     * @return a message or <code>null</code> if this mailbox is empty
+     */
+    private Message removeMessage() {
+
+        while (true) {
+
+            Message message = nextMessage();
+            if (message == null) {
+
+                return null;
+            }
+
+            if (isExpired(message, timeToLive)) {
+
+                expiredMessages.increment();
+                toDeadLetterQueue(message, DeadLetterReasons.EXPIRED);
+                continue;
+            }
+
+            dequeuedMessages.increment();
+            return message;
+        }
+    }
+
+    /**
+     * Removes the oldest message which is selected by the specified selector and
+     * counts it as delivered. Control messages are examined first. Expired messages
+     * are discarded.
+     *
+     * @param selector
+     *        a selector or <code>null</code> if every message is selected
+     *
+     * @return a message or <code>null</code> if no message was selected
+     */
+    private Message removeMessage(Predicate<? super Message> selector) {
+
+        if (selector == null) {
+
+            return removeMessage();
+        }
+
+        while (true) {
+
+            Message message = controlLane.select(selector);
+
+            if (message != null) {
+
+                controlSize.decrementAndGet();
+
+            } else {
+
+                message = lane.select(selector);
+                if (message == null) {
+
+                    return null;
+                }
+
+                size.decrementAndGet();
+
+                if (!blockedSenders.isEmpty()) {
+
+                    wakeUp(blockedSenders);
+                }
+            }
+
+            if (isExpired(message, timeToLive)) {
+
+                expiredMessages.increment();
+                toDeadLetterQueue(message, DeadLetterReasons.EXPIRED);
+                continue;
+            }
+
+            dequeuedMessages.increment();
+            return message;
+        }
+    }
+
+    /**
+     * Checks if the specified message has expired. Messages without a creation date
+     * never expire.
+     *
+     * @param message
+     *        a message
+     * @param timeToLive
+     *        the time to live in milliseconds (i.e. zero means no limit)
+     *
+     * @return <code>true</code> if the message has expired, else <code>false</code>
+     */
+    private static boolean isExpired(Message message, long timeToLive) {
+
+        if (timeToLive == 0L) {
+
+            return false;
+        }
+
+        long creationTime;
+
+        if (message instanceof ComponentMessage) {
+
+            creationTime = ((ComponentMessage) message).timestamp();
+
+        } else {
+
+            Object creationDate = message.get(StandardPropertyKeys.CREATION_DATE);
+            if (!(creationDate instanceof Date)) {
+
+                return false;
+            }
+
+            creationTime = ((Date) creationDate).getTime();
+        }
+
+        return (System.currentTimeMillis() - creationTime) > timeToLive;
+    }
+
+    /**
+     * Passes the specified message to the dead letter queue. If there is no dead letter
+     * queue the message is discarded.
+     *
+     * @param message
+     *        a message which cannot be delivered
+     * @param reason
+     *        the reason why the message cannot be delivered
+     */
+    private void toDeadLetterQueue(Message message, DeadLetterReasons reason) {
+
+        DeadLetterQueue currentDeadLetterQueue = deadLetterQueue;
+        if (currentDeadLetterQueue != null) {
+
+            currentDeadLetterQueue.add(message, reason);
+        }
+    }
+
+    /**
+     * Discards all expired messages at the head of this mailbox's lanes. Expired
+     * messages behind a message which hasn't expired yet are discarded when they are
+     * fetched.
+     *
+     * @return the number of discarded messages
+     */
+    public int purgeExpiredMessages() {
+
+        if (timeToLive == 0L) {
+
+            return 0;
+        }
+
+        int count = 0;
+
+        while (true) {
+
+            Message message = controlLane.pollIf(expiryCondition);
+            if (message == null) {
+
+                break;
+            }
+
+            controlSize.decrementAndGet();
+            expiredMessages.increment();
+            toDeadLetterQueue(message, DeadLetterReasons.EXPIRED);
+            count++;
+        }
+
+        while (true) {
+
+            Message message = lane.pollIf(expiryCondition);
+            if (message == null) {
+
+                break;
+            }
+
+            size.decrementAndGet();
+            expiredMessages.increment();
+            toDeadLetterQueue(message, DeadLetterReasons.EXPIRED);
+            count++;
+        }
+
+        if ((count > 0) && !blockedSenders.isEmpty()) {
+
+            wakeUp(blockedSenders);
+        }
+
+        return count;
+    }
+
+    /**
+     * Closes this mailbox. The mailbox doesn't accept messages anymore and all remaining
+     * messages are passed to the dead letter queue. Senders which are waiting for space
+     * are woken up and their messages are passed to the dead letter queue as well.
+     * The listener is kept, thus it is notified again after the mailbox has been
+     * reopened.
+     *
+     * @return the number of reclaimed messages
+     */
+    public int close() {
+
+        closed = true;
+
+        int count = reclaimMessages();
+        wakeUp(blockedSenders);
+
+        return count;
+    }
+
+    /**
+     * Reopens this mailbox after it has been closed.
+     */
+    public void reopen() {
+
+        closed = false;
+    }
+
+    /**
+     * Checks if this mailbox has been closed.
+     *
+     * @return <code>true</code> if this mailbox has been closed, else <code>false</code>
+     */
+    public boolean isClosed() {
+
+        return closed;
+    }
+
+    /**
+     * Removes all messages from this mailbox and passes them to the dead letter queue.
+     *
+     * @return the number of reclaimed messages
+     */
+    private int reclaimMessages() {
+
+        int count = 0;
+
+        while (true) {
+
+            Message message = nextMessage();
+            if (message == null) {
+
+                break;
+            }
+
+            toDeadLetterQueue(message, DeadLetterReasons.RECLAIMED);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Removes the next message. Control messages are removed first unless too many
+     * control messages were delivered in a row.
+     *
+     * @return a message or <code>null</code> if this mailbox is empty
+     */
+    private Message nextMessage() {
+
+        Message message;
+
+        if (consecutiveControlMessages < MAX_CONSECUTIVE_CONTROL_MESSAGES) {
+
+            message = removeControlMessage();
+            if (message != null) {
+
+                consecutiveControlMessages++;
+                return message;
+            }
+        }
+
+        consecutiveControlMessages = 0;
+
+        message = removeStandardMessage();
+        if (message != null) {
+
+            return message;
+        }
+
+        message = removeControlMessage();
+        if (message != null) {
+
+            consecutiveControlMessages++;
+        }
+
+        return message;
+    }
+
+    /**
+     * Removes the next control message.
+     *
+     * @return a message or <code>null</code> if there is no control message
+     */
+    private Message removeControlMessage() {
+
+        Message message = controlLane.poll();
+
+        if (message != null) {
+
+            controlSize.decrementAndGet();
+        }
+
+        return message;
+    }
+
+    /**
+     * Removes the next standard message and frees its space.
+     *
+     * @return a message or <code>null</code> if there is no standard message
+     */
+    private Message removeStandardMessage() {
+
+        Message message = lane.poll();
+
+        if (message != null) {
+
+            size.decrementAndGet();
+
+            if (!blockedSenders.isEmpty()) {
+
+                wakeUp(blockedSenders);
+            }
+        }
+
+        return message;
+    }
+
+    /**
+     * Returns the next message without waiting.
+     *
+     * @return a message or <code>null</code> if this mailbox is empty
+     */
+    public Message poll() {
+
+        return removeMessage();
+    }
+
+    /**
+     * Waits at most the specified time for the next message. If the waiting thread
+     * is interrupted <code>null</code> is returned and the interrupt flag is restored.
+     *
+     * @param timeout
+     *        the maximum waiting time
+     * @param unit
+     *        the time unit of the timeout
+     *
+     * @return a message or <code>null</code> if no message arrived in time
+     */
+    public Message poll(long timeout, TimeUnit unit) {
+
+        return poll(null, timeout, unit);
+    }
+
+    /**
+     * Returns the oldest message which is selected by the specified selector without
+     * waiting.
+     *
+     * @param selector
+     *        a selector
+     *
+     * @return a message or <code>null</code> if no message was selected
+     */
+    public Message poll(Predicate<? super Message> selector) {
+
+        return removeMessage(checkSelector(selector));
+    }
+
+    /**
+     * Waits at most the specified time for a message which is selected by the specified
+     * selector. If the waiting thread is interrupted <code>null</code> is returned and
+     * the interrupt flag is restored.
+     *
+     * @param selector
+     *        a selector or <code>null</code> if every message is selected
+     * @param timeout
+     *        the maximum waiting time
+     * @param unit
+     *        the time unit of the timeout
+     *
+     * @return a message or <code>null</code> if no message was selected in time
+     */
+    public Message poll(Predicate<? super Message> selector, long timeout, TimeUnit unit) {
+
+        Message message = removeMessage(selector);
+        if (message != null) {
+
+            return message;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return waitForMessage(selector, deadline, true);
+    }
+
+    /**
+     * Checks the specified selector.
+     *
+     * @param selector
+     *        a selector
+     *
+     * @return the specified selector
+     */
+    private static <T> Predicate<T> checkSelector(Predicate<T> selector) {
+
+        if (selector == null) {
+
+            throw new IllegalArgumentException("No selector (null) was specified!");
+        }
+
+        return selector;
+    }
+
+    /**
+     * Waits until the next message arrives. If the waiting thread is interrupted
+     * <code>null</code> is returned and the interrupt flag is restored.
+     *
+     * @return a message or <code>null</code> if the waiting thread was interrupted
+     */
+    public Message take() {
+
+        Message message = removeMessage();
+        if (message != null) {
+
+            return message;
+        }
+
+        return waitForMessage(null, 0L, false);
+    }
+
+    /**
+     * Parks the current thread until a message arrives, the deadline has passed or
+     * the thread is interrupted. The current thread registers itself before checking
+     * the queue again, thus a message which is sent concurrently cannot be missed.
+     *
+     * @param selector
+     *        a selector or <code>null</code> if every message is selected
+     * @param deadline
+     *        the deadline in nanoseconds (see {@link System#nanoTime()})
+     * @param timed
+     *        <code>true</code> if the deadline applies, else <code>false</code>
+     *
+     * @return a message or <code>null</code>
+     */
+    private Message waitForMessage(Predicate<? super Message> selector, long deadline, boolean timed) {
+
+        Thread currentThread = Thread.currentThread();
+        waitingThreads.add(currentThread);
+
+        try {
+
+            while (true) {
+
+                Message message = removeMessage(selector);
+                if (message != null) {
+
+                    return message;
+                }
+
+                if (timed) {
+
+                    long remainingTime = deadline - System.nanoTime();
+                    if (remainingTime <= 0L) {
+
+                        return null;
+                    }
+
+                    LockSupport.parkNanos(this, remainingTime);
+
+                } else {
+
+                    LockSupport.park(this);
+                }
+
+                if (Thread.interrupted()) {
+
+                    currentThread.interrupt();
+                    return null;
+                }
+            }
+
+        } finally {
+
+            waitingThreads.remove(currentThread);
+        }
+    }
+
+    /**
+     * Passes up to the specified number of messages to the specified consumer. This
+     * method doesn't wait for new messages.
+     *
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    public int drain(int maxMessages, Consumer<? super Message> consumer) {
+
+        int count = 0;
+
+        while (count < maxMessages) {
+
+            Message message = removeMessage();
+            if (message == null) {
+
+                break;
+            }
+
+            consumer.accept(message);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Passes up to the specified number of messages which are selected by the specified
+     * selector to the specified consumer. This method doesn't wait for new messages.
+     *
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param selector
+     *        a selector
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    public int drain(int maxMessages, Predicate<? super Message> selector, Consumer<? super Message> consumer) {
+
+        checkSelector(selector);
+
+        int count = 0;
+
+        while (count < maxMessages) {
+
+            Message message = removeMessage(selector);
+            if (message == null) {
+
+                break;
+            }
+
+            consumer.accept(message);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of messages in this mailbox.
+     *
+     * @return the number of messages
+     */
+    public int size() {
+
+        return size.get() + controlSize.get();
+    }
+
+    /**
+     * Returns the number of messages which were rejected because this mailbox was full.
+     *
+     * @return the number of rejected messages
+     */
+    public long rejectedMessages() {
+
+        return rejectedMessages.sum();
+    }
+
+    /**
+     * Returns the number of messages which were dropped because this mailbox was full.
+     *
+     * @return the number of dropped messages
+     */
+    public long droppedMessages() {
+
+        return droppedMessages.sum();
+    }
+
+    /**
+     * Returns the number of messages which expired before they were fetched.
+     *
+     * @return the number of expired messages
+     */
+    public long expiredMessages() {
+
+        return expiredMessages.sum();
+    }
+
+    /**
+     * Returns a snapshot of the counters of this mailbox. The cost doesn't depend on
+     * the number of messages in this mailbox.
+     *
+     * @return a snapshot
+     */
+    public MailboxStatistics statistics() {
+
+        return new MailboxStatistics(receiverName, System.nanoTime(), size(), highWaterMark.get(),
+                                     enqueuedMessages.sum(), dequeuedMessages.sum(), rejectedMessages.sum(),
+                                     droppedMessages.sum());
+    }
+
+}
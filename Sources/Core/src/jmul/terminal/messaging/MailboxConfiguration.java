@@ -0,0 +1,220 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import jmul.terminal.utils.logging.LogLevel;
+
+
+/**
+ * This class contains the capacity of a mailbox and the policy which is applied
+ * when the mailbox is full.
+ *
+ * @author Kristian Kutin
+ */
+public class MailboxConfiguration {
+
+    /**
+     * A configuration for mailboxes without capacity limit.
+     */
+    public static final MailboxConfiguration UNBOUNDED;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        UNBOUNDED = new MailboxConfiguration(Integer.MAX_VALUE, OverflowPolicies.BLOCK);
+    }
+
+    /**
+     * The maximum number of messages in a mailbox.
+     */
+    private final int capacity;
+
+    /**
+     * The policy which is applied when the mailbox is full.
+     */
+    private final OverflowPolicies overflowPolicy;
+
+    /**
+     * Log entries with a lower log level are dropped when the mailbox is full
+     * (only relevant for {@link OverflowPolicies#DROP_BY_LOG_LEVEL}).
+     */
+    private final LogLevel logLevelThreshold;
+
+    /**
+     * Creates a new configuration according to the specified parameters.
+     *
+     * @param capacity
+     *        the maximum number of messages in a mailbox
+     * @param overflowPolicy
+     *        the policy which is applied when the mailbox is full
+     */
+    public MailboxConfiguration(int capacity, OverflowPolicies overflowPolicy) {
+
+        super();
+
+        this.capacity = checkCapacity(capacity);
+        this.overflowPolicy = checkOverflowPolicy(overflowPolicy);
+        this.logLevelThreshold = null;
+
+        if (overflowPolicy == OverflowPolicies.DROP_BY_LOG_LEVEL) {
+
+            throw new IllegalArgumentException("No log level threshold was specified!");
+        }
+    }
+
+    /**
+     * Creates a new configuration according to the specified parameters. Log entries
+     * whose log level is lower than the specified threshold are dropped when the
+     * mailbox is full.
+     *
+     * @param capacity
+     *        the maximum number of messages in a mailbox
+     * @param logLevelThreshold
+     *        log entries with a lower log level are dropped
+     */
+    public MailboxConfiguration(int capacity, LogLevel logLevelThreshold) {
+
+        super();
+
+        this.capacity = checkCapacity(capacity);
+        this.overflowPolicy = OverflowPolicies.DROP_BY_LOG_LEVEL;
+        this.logLevelThreshold = checkLogLevelThreshold(logLevelThreshold);
+    }
+
+    /**
+     * Checks the specified capacity.
+     *
+     * @param capacity
+     *        a capacity
+     *
+     * @return the specified capacity
+     */
+    private static int checkCapacity(int capacity) {
+
+        if (capacity < 1) {
+
+            String message = String.format("An invalid capacity (%d) was specified!", capacity);
+            throw new IllegalArgumentException(message);
+        }
+
+        return capacity;
+    }
+
+    /**
+     * Checks the specified overflow policy.
+     *
+     * @param overflowPolicy
+     *        an overflow policy
+     *
+     * @return the specified overflow policy
+     */
+    private static OverflowPolicies checkOverflowPolicy(OverflowPolicies overflowPolicy) {
+
+        if (overflowPolicy == null) {
+
+            throw new IllegalArgumentException("No overflow policy (null) was specified!");
+        }
+
+        return overflowPolicy;
+    }
+
+    /**
+     * Checks the specified log level threshold.
+     *
+     * @param logLevelThreshold
+     *        a log level
+     *
+     * @return the specified log level
+     */
+    private static LogLevel checkLogLevelThreshold(LogLevel logLevelThreshold) {
+
+        if (logLevelThreshold == null) {
+
+            throw new IllegalArgumentException("No log level threshold (null) was specified!");
+        }
+
+        return logLevelThreshold;
+    }
+
+    /**
+     * Returns the maximum number of messages in a mailbox.
+     *
+     * @return a capacity
+     */
+    public int capacity() {
+
+        return capacity;
+    }
+
+    /**
+     * Returns the policy which is applied when the mailbox is full.
+     *
+     * @return an overflow policy
+     */
+    public OverflowPolicies overflowPolicy() {
+
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the log level threshold.
+     *
+     * @return a log level or <code>null</code> if the overflow policy doesn't
+     *         evaluate log levels
+     */
+    public LogLevel logLevelThreshold() {
+
+        return logLevelThreshold;
+    }
+
+    /**
+     * Returns a string representation for this configuration.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        if (logLevelThreshold == null) {
+
+            return String.format("capacity=%d;policy=%s", capacity, overflowPolicy);
+        }
+
+        return String.format("capacity=%d;policy=%s;threshold=%s", capacity, overflowPolicy, logLevelThreshold);
+    }
+
+}
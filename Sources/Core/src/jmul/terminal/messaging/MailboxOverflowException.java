@@ -0,0 +1,69 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+/**
+ * A custom exception for cases when a message is rejected because the receiver's
+ * mailbox is full.
+ *
+ * @author Kristian Kutin
+ */
+public class MailboxOverflowException extends RuntimeException {
+
+    /**
+     * Creates a new instance according to the specified parameter.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     */
+    public MailboxOverflowException(String receiverName) {
+
+        super(createMessage(receiverName));
+    }
+
+    /**
+     * Creates an error message according to the specified parameter.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return an error message
+     */
+    private static String createMessage(String receiverName) {
+
+        return String.format("The mailbox of the receiver %s is full!", receiverName);
+    }
+
+}
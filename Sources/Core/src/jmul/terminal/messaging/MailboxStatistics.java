@@ -0,0 +1,281 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This class contains a snapshot of the counters of a mailbox. Rates are calculated
+ * by comparing two snapshots of the same mailbox.
+ *
+ * @author Kristian Kutin
+ */
+public class MailboxStatistics {
+
+    /**
+     * The name of the receiver who owns the mailbox.
+     */
+    private final String receiverName;
+
+    /**
+     * The time when this snapshot was taken (see {@link System#nanoTime()}).
+     */
+    private final long timestamp;
+
+    /**
+     * The number of messages in the mailbox.
+     */
+    private final int depth;
+
+    /**
+     * The highest number of messages in the mailbox so far.
+     */
+    private final int highWaterMark;
+
+    /**
+     * The number of messages which were put into the mailbox so far.
+     */
+    private final long enqueuedMessages;
+
+    /**
+     * The number of messages which were fetched from the mailbox so far.
+     */
+    private final long dequeuedMessages;
+
+    /**
+     * The number of messages which were rejected so far.
+     */
+    private final long rejectedMessages;
+
+    /**
+     * The number of messages which were dropped so far.
+     */
+    private final long droppedMessages;
+
+    /**
+     * Creates a new snapshot according to the specified parameters.
+     *
+     * @param receiverName
+     *        the name of the receiver who owns the mailbox
+     * @param timestamp
+     *        the time when this snapshot was taken in nanoseconds
+     * @param depth
+     *        the number of messages in the mailbox
+     * @param highWaterMark
+     *        the highest number of messages in the mailbox so far
+     * @param enqueuedMessages
+     *        the number of messages which were put into the mailbox
+     * @param dequeuedMessages
+     *        the number of messages which were fetched from the mailbox
+     * @param rejectedMessages
+     *        the number of rejected messages
+     * @param droppedMessages
+     *        the number of dropped messages
+     */
+    public MailboxStatistics(String receiverName, long timestamp, int depth, int highWaterMark,
+                             long enqueuedMessages, long dequeuedMessages, long rejectedMessages,
+                             long droppedMessages) {
+
+        super();
+
+        this.receiverName = receiverName;
+        this.timestamp = timestamp;
+        this.depth = depth;
+        this.highWaterMark = highWaterMark;
+        this.enqueuedMessages = enqueuedMessages;
+        this.dequeuedMessages = dequeuedMessages;
+        this.rejectedMessages = rejectedMessages;
+        this.droppedMessages = droppedMessages;
+    }
+
+    /**
+     * Returns the name of the receiver who owns the mailbox.
+     *
+     * @return a receiver name
+     */
+    public String receiverName() {
+
+        return receiverName;
+    }
+
+    /**
+     * Returns the time when this snapshot was taken.
+     *
+     * @return a timestamp in nanoseconds (see {@link System#nanoTime()})
+     */
+    public long timestamp() {
+
+        return timestamp;
+    }
+
+    /**
+     * Returns the number of messages in the mailbox.
+     *
+     * @return the number of messages
+     */
+    public int depth() {
+
+        return depth;
+    }
+
+    /**
+     * Returns the highest number of messages in the mailbox so far.
+     *
+     * @return the number of messages
+     */
+    public int highWaterMark() {
+
+        return highWaterMark;
+    }
+
+    /**
+     * Returns the number of messages which were put into the mailbox so far.
+     *
+     * @return the number of messages
+     */
+    public long enqueuedMessages() {
+
+        return enqueuedMessages;
+    }
+
+    /**
+     * Returns the number of messages which were fetched from the mailbox so far.
+     *
+     * @return the number of messages
+     */
+    public long dequeuedMessages() {
+
+        return dequeuedMessages;
+    }
+
+    /**
+     * Returns the number of messages which were rejected so far.
+     *
+     * @return the number of messages
+     */
+    public long rejectedMessages() {
+
+        return rejectedMessages;
+    }
+
+    /**
+     * Returns the number of messages which were dropped so far.
+     *
+     * @return the number of messages
+     */
+    public long droppedMessages() {
+
+        return droppedMessages;
+    }
+
+    /**
+     * Returns the number of messages per second which were put into the mailbox
+     * since the specified earlier snapshot was taken.
+     *
+     * @param earlierSnapshot
+     *        an earlier snapshot of the same mailbox
+     *
+     * @return messages per second
+     */
+    public double enqueueRate(MailboxStatistics earlierSnapshot) {
+
+        checkSnapshot(earlierSnapshot);
+        return rate(enqueuedMessages - earlierSnapshot.enqueuedMessages, timestamp - earlierSnapshot.timestamp);
+    }
+
+    /**
+     * Returns the number of messages per second which were fetched from the mailbox
+     * since the specified earlier snapshot was taken.
+     *
+     * @param earlierSnapshot
+     *        an earlier snapshot of the same mailbox
+     *
+     * @return messages per second
+     */
+    public double dequeueRate(MailboxStatistics earlierSnapshot) {
+
+        checkSnapshot(earlierSnapshot);
+        return rate(dequeuedMessages - earlierSnapshot.dequeuedMessages, timestamp - earlierSnapshot.timestamp);
+    }
+
+    /**
+     * Calculates a rate.
+     *
+     * @param messages
+     *        a number of messages
+     * @param elapsedTime
+     *        the elapsed time in nanoseconds
+     *
+     * @return messages per second
+     */
+    private static double rate(long messages, long elapsedTime) {
+
+        if (elapsedTime <= 0L) {
+
+            return 0.0d;
+        }
+
+        return messages * (double) TimeUnit.SECONDS.toNanos(1L) / elapsedTime;
+    }
+
+    /**
+     * Checks the specified snapshot.
+     *
+     * @param snapshot
+     *        a snapshot
+     */
+    private static void checkSnapshot(MailboxStatistics snapshot) {
+
+        if (snapshot == null) {
+
+            throw new IllegalArgumentException("No snapshot (null) was specified!");
+        }
+    }
+
+    /**
+     * Returns a string representation for this snapshot.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        return String.format("%s: depth=%d, high water mark=%d, enqueued=%d, dequeued=%d, rejected=%d, dropped=%d",
+                             receiverName, depth, highWaterMark, enqueuedMessages, dequeuedMessages,
+                             rejectedMessages, droppedMessages);
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import jmul.messaging.Message;
+
+
+/**
+ * This interface describes a messagebus whose receivers can be added and removed at
+ * runtime (i.e. a receiver's mailbox is opened when the receiver joins and closed
+ * when the receiver leaves). The messagebus supports selective fetches and
+ * broadcasts and has a dead letter queue for messages which cannot be delivered.
+ *
+ * @author Kristian Kutin
+ */
+public interface ManagedMessagebus extends SelectiveMessagebus, BroadcastMessagebus {
+
+    /**
+     * Opens a mailbox for the specified receiver. If the receiver's mailbox has been
+     * closed it is reopened.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     */
+    void openMailbox(String receiverName);
+
+    /**
+     * Closes the mailbox of the specified receiver (e.g. because the receiver has
+     * stopped). The remaining messages are put into the dead letter queue and the
+     * receiver's subscriptions are removed.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return the number of reclaimed messages
+     */
+    int closeMailbox(String receiverName);
+
+    /**
+     * Sends the specified message unless the receiver's mailbox is full. The sender
+     * never waits (e.g. a component which must not be blocked by a slow receiver). A
+     * message which doesn't fit is put into the dead letter queue.
+     *
+     * @param message
+     *        a message
+     *
+     * @return <code>true</code> if the message was sent, else <code>false</code>
+     */
+    boolean trySend(Message message);
+
+    /**
+     * Returns the queue for messages which cannot be delivered.
+     *
+     * @return a dead letter queue
+     */
+    DeadLetterQueue deadLetterQueue();
+
+}
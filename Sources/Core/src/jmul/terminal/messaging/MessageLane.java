@@ -0,0 +1,88 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+
+
+/**
+ * This interface describes a lane (i.e. the storage of a mailbox) which stores messages
+ * in the order in which they arrive.
+ *
+ * @author Kristian Kutin
+ */
+public interface MessageLane {
+
+    /**
+     * Adds the specified message to this lane. Depending on the implementation the
+     * calling thread may have to wait until there is space in this lane.
+     *
+     * @param message
+     *        a message
+     */
+    void offer(Message message);
+
+    /**
+     * Removes the oldest message from this lane.
+     *
+     * @return a message or <code>null</code> if this lane is empty
+     */
+    Message poll();
+
+    /**
+     * Removes the oldest message from this lane if it satisfies the specified condition.
+     *
+     * @param condition
+     *        a condition
+     *
+     * @return a message or <code>null</code> if this lane is empty or the oldest
+     *         message doesn't satisfy the condition
+     */
+    Message pollIf(Predicate<? super Message> condition);
+
+    /**
+     * Removes the oldest message which is selected by the specified selector. Lanes
+     * without an index only examine the oldest message.
+     *
+     * @param selector
+     *        a selector
+     *
+     * @return a message or <code>null</code> if no message was selected
+     */
+    Message select(Predicate<? super Message> selector);
+
+}
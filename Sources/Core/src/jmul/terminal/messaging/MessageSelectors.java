@@ -0,0 +1,117 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+
+
+/**
+ * A utility class which creates selectors for a selective fetch (see
+ * {@link SelectiveMessagebus}).
+ *
+ * @author Kristian Kutin
+ */
+public final class MessageSelectors {
+
+    /**
+     * The default constructor.
+     */
+    private MessageSelectors() {
+
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns a selector which selects messages with one of the specified topics.
+     *
+     * @param topics
+     *        all topics which are to be selected
+     *
+     * @return a selector
+     */
+    public static Predicate<Message> byTopic(String... topics) {
+
+        if (topics == null) {
+
+            throw new IllegalArgumentException("No topics (null) were specified!");
+        }
+
+        final Set<String> selectedTopics = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(topics)));
+
+        return new Predicate<Message>() {
+
+            @Override
+            public boolean test(Message message) {
+
+                return selectedTopics.contains(message.topic());
+            }
+        };
+    }
+
+    /**
+     * Returns a selector which selects messages of one of the specified types. The type
+     * of a message has to match exactly (i.e. subtypes are not selected).
+     *
+     * @param messageTypes
+     *        all message types which are to be selected
+     *
+     * @return a selector
+     */
+    public static Predicate<Message> byType(Class<?>... messageTypes) {
+
+        if (messageTypes == null) {
+
+            throw new IllegalArgumentException("No message types (null) were specified!");
+        }
+
+        final Set<Class<?>> selectedTypes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(messageTypes)));
+
+        return new Predicate<Message>() {
+
+            @Override
+            public boolean test(Message message) {
+
+                return selectedTypes.contains(message.getClass());
+            }
+        };
+    }
+
+}
@@ -0,0 +1,292 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import jmul.messaging.Message;
+import jmul.messaging.Messagebus;
+
+
+/**
+ * A message which has been scheduled with a message timer (see {@link MessageTimer}).
+ * A one-shot timeout delivers a single message. A periodic timeout creates and
+ * delivers a new message each period until it is cancelled.
+ *
+ * @author Kristian Kutin
+ */
+public final class MessageTimeout {
+
+    /**
+     * The state of a timeout which is waiting for its deadline.
+     */
+    private static final int SCHEDULED;
+
+    /**
+     * The state of a cancelled timeout.
+     */
+    private static final int CANCELLED;
+
+    /**
+     * The state of a one-shot timeout which has delivered its message.
+     */
+    private static final int EXPIRED;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        SCHEDULED = 0;
+        CANCELLED = 1;
+        EXPIRED = 2;
+    }
+
+    /**
+     * The timer which manages this timeout.
+     */
+    private final MessageTimer timer;
+
+    /**
+     * The messagebus which delivers the messages.
+     */
+    private final Messagebus messagebus;
+
+    /**
+     * The message of a one-shot timeout.
+     */
+    private final Message message;
+
+    /**
+     * The entity which creates the messages of a periodic timeout.
+     */
+    private final Supplier<? extends Message> messageFactory;
+
+    /**
+     * The period in nanoseconds (i.e. zero for a one-shot timeout).
+     */
+    private final long period;
+
+    /**
+     * The current state.
+     */
+    private final AtomicInteger state;
+
+    /**
+     * The number of delivered messages.
+     */
+    private volatile long deliveries;
+
+    /**
+     * The next deadline in nanoseconds relative to the start of the timer (i.e. is only
+     * accessed by the timer's worker thread).
+     */
+    long deadline;
+
+    /**
+     * The wheel slot which currently contains this timeout (i.e. is only accessed by
+     * the timer's worker thread).
+     */
+    MessageTimer.Slot slot;
+
+    /**
+     * The previous timeout in the same wheel slot.
+     */
+    MessageTimeout previous;
+
+    /**
+     * The next timeout in the same wheel slot.
+     */
+    MessageTimeout next;
+
+    /**
+     * Creates a new timeout according to the specified parameters.
+     *
+     * @param timer
+     *        the timer which manages this timeout
+     * @param messagebus
+     *        the messagebus which delivers the messages
+     * @param message
+     *        the message of a one-shot timeout or <code>null</code>
+     * @param messageFactory
+     *        the entity which creates the messages of a periodic timeout or
+     *        <code>null</code>
+     * @param deadline
+     *        the first deadline in nanoseconds relative to the start of the timer
+     * @param period
+     *        the period in nanoseconds (i.e. zero for a one-shot timeout)
+     */
+    MessageTimeout(MessageTimer timer, Messagebus messagebus, Message message,
+                   Supplier<? extends Message> messageFactory, long deadline, long period) {
+
+        this.timer = timer;
+        this.messagebus = messagebus;
+        this.message = message;
+        this.messageFactory = messageFactory;
+        this.deadline = deadline;
+        this.period = period;
+
+        state = new AtomicInteger(SCHEDULED);
+    }
+
+    /**
+     * Cancels this timeout. No further messages are delivered.
+     *
+     * @return <code>true</code> if this timeout was cancelled, <code>false</code> if it
+     *         had already been cancelled or had already delivered its message
+     */
+    public boolean cancel() {
+
+        if (!state.compareAndSet(SCHEDULED, CANCELLED)) {
+
+            return false;
+        }
+
+        timer.cancelled(this);
+        return true;
+    }
+
+    /**
+     * Checks if this timeout has been cancelled.
+     *
+     * @return <code>true</code> if this timeout has been cancelled, else <code>false</code>
+     */
+    public boolean isCancelled() {
+
+        return state.get() == CANCELLED;
+    }
+
+    /**
+     * Checks if this one-shot timeout has delivered its message.
+     *
+     * @return <code>true</code> if the message has been delivered, else <code>false</code>
+     */
+    public boolean isExpired() {
+
+        return state.get() == EXPIRED;
+    }
+
+    /**
+     * Checks if this timeout is periodic.
+     *
+     * @return <code>true</code> if this timeout is periodic, else <code>false</code>
+     */
+    public boolean isPeriodic() {
+
+        return period > 0L;
+    }
+
+    /**
+     * Returns the number of messages which have been delivered so far.
+     *
+     * @return the number of delivered messages
+     */
+    public long deliveries() {
+
+        return deliveries;
+    }
+
+    /**
+     * Checks if this timeout is still waiting for its deadline.
+     *
+     * @return <code>true</code> if this timeout is scheduled, else <code>false</code>
+     */
+    boolean isScheduled() {
+
+        return state.get() == SCHEDULED;
+    }
+
+    /**
+     * Delivers the message of this timeout. A one-shot timeout expires, the deadline
+     * of a periodic timeout is moved by one period.
+     *
+     * @return <code>true</code> if this timeout has to be scheduled again, else
+     *         <code>false</code>
+     */
+    boolean expire() {
+
+        if (period == 0L) {
+
+            if (!state.compareAndSet(SCHEDULED, EXPIRED)) {
+
+                return false;
+            }
+
+            timer.expired(this);
+            deliveries++;
+            messagebus.send(message);
+            return false;
+        }
+
+        if (!isScheduled()) {
+
+            return false;
+        }
+
+        deadline += period;
+        deliveries++;
+        messagebus.send(messageFactory.get());
+        return true;
+    }
+
+    /**
+     * Returns a string representation for this timeout.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        String stateName;
+        int currentState = state.get();
+
+        if (currentState == CANCELLED) {
+
+            stateName = "cancelled";
+
+        } else if (currentState == EXPIRED) {
+
+            stateName = "expired";
+
+        } else {
+
+            stateName = "scheduled";
+        }
+
+        return String.format("timeout[periodic=%s;state=%s;deliveries=%d]", isPeriodic(), stateName, deliveries);
+    }
+
+}
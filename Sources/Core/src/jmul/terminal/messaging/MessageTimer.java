@@ -0,0 +1,789 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import jmul.messaging.Message;
+import jmul.messaging.Messagebus;
+
+import jmul.terminal.Resources;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * A timer which delivers messages onto a messagebus after a delay or periodically.
+ * The timer is a hierarchical hashed timing wheel. Each level is a wheel of
+ * {@link #WHEEL_SIZE} slots and a slot on a higher level covers a whole revolution
+ * of the level below. A timeout is put into the slot of the lowest level which
+ * covers its deadline and is moved down a level each time a higher wheel advances
+ * to its slot. Scheduling and cancelling a timeout thus take constant time
+ * regardless of the number of pending timeouts.<br>
+ * <br>
+ * A single daemon thread advances the wheels by one tick per tick duration and
+ * delivers the messages of expired timeouts. The thread is started when the first
+ * message is scheduled. Timeouts are handed over to the thread through lock-free
+ * queues, thus the wheels themselves are never shared. A deadline is rounded up to
+ * the next tick and a periodic timeout delivers at most one message per tick.
+ *
+ * @author Kristian Kutin
+ */
+public class MessageTimer {
+
+    /**
+     * The default tick duration in milliseconds.
+     */
+    public static final long DEFAULT_TICK_DURATION;
+
+    /**
+     * The number of slots of a wheel.
+     */
+    public static final int WHEEL_SIZE;
+
+    /**
+     * The number of bits of a slot index.
+     */
+    private static final int WHEEL_BITS;
+
+    /**
+     * A mask which extracts a slot index.
+     */
+    private static final long WHEEL_MASK;
+
+    /**
+     * The number of wheels.
+     */
+    private static final int LEVELS;
+
+    /**
+     * The maximum number of new timeouts which are put into the wheels per tick.
+     */
+    private static final int MAX_TRANSFERS_PER_TICK;
+
+    /**
+     * The state of a timer whose worker thread hasn't been started yet.
+     */
+    private static final int INITIAL;
+
+    /**
+     * The state of a timer whose worker thread is running.
+     */
+    private static final int STARTED;
+
+    /**
+     * The state of a stopped timer.
+     */
+    private static final int STOPPED;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_TICK_DURATION = 10L;
+        WHEEL_SIZE = 64;
+
+        WHEEL_BITS = Integer.numberOfTrailingZeros(WHEEL_SIZE);
+        WHEEL_MASK = WHEEL_SIZE - 1;
+        LEVELS = 4;
+
+        MAX_TRANSFERS_PER_TICK = 100000;
+
+        INITIAL = 0;
+        STARTED = 1;
+        STOPPED = 2;
+    }
+
+    /**
+     * The tick duration in nanoseconds.
+     */
+    private final long tickDuration;
+
+    /**
+     * The wheels (i.e. the first index is the level, the second index is the slot).
+     */
+    private final Slot[][] wheels;
+
+    /**
+     * New timeouts which haven't been put into the wheels yet.
+     */
+    private final Queue<MessageTimeout> scheduledTimeouts;
+
+    /**
+     * Cancelled timeouts which haven't been removed from the wheels yet.
+     */
+    private final Queue<MessageTimeout> cancelledTimeouts;
+
+    /**
+     * The number of timeouts which are waiting for their deadline.
+     */
+    private final AtomicLong pendingTimeouts;
+
+    /**
+     * The state of this timer.
+     */
+    private final AtomicInteger state;
+
+    /**
+     * Is released when the worker thread has determined the start time.
+     */
+    private final CountDownLatch startSignal;
+
+    /**
+     * The start time in nanoseconds (see {@link System#nanoTime()}).
+     */
+    private volatile long startTime;
+
+    /**
+     * The worker thread.
+     */
+    private final Thread worker;
+
+    /**
+     * The current tick (i.e. is only accessed by the worker thread).
+     */
+    private long currentTick;
+
+    /**
+     * Creates a new timer with the default tick duration.
+     */
+    public MessageTimer() {
+
+        this(DEFAULT_TICK_DURATION);
+    }
+
+    /**
+     * Creates a new timer according to the specified parameter.
+     *
+     * @param tickDuration
+     *        the tick duration in milliseconds
+     */
+    public MessageTimer(long tickDuration) {
+
+        super();
+
+        if (tickDuration < 1L) {
+
+            String message = String.format("An invalid tick duration (%d) was specified!", tickDuration);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+
+        wheels = new Slot[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+
+            for (int index = 0; index < WHEEL_SIZE; index++) {
+
+                wheels[level][index] = new Slot();
+            }
+        }
+
+        scheduledTimeouts = new ConcurrentLinkedQueue<>();
+        cancelledTimeouts = new ConcurrentLinkedQueue<>();
+        pendingTimeouts = new AtomicLong();
+        state = new AtomicInteger(INITIAL);
+        startSignal = new CountDownLatch(1);
+
+        worker = new Thread(new Worker(), "message-timer");
+        worker.setDaemon(true);
+    }
+
+    /**
+     * Schedules the specified message. The message is delivered onto the specified
+     * messagebus after the specified delay.
+     *
+     * @param messagebus
+     *        the messagebus which delivers the message
+     * @param message
+     *        a message
+     * @param delay
+     *        the delay in milliseconds
+     *
+     * @return a timeout which can be cancelled
+     */
+    public MessageTimeout schedule(Messagebus messagebus, Message message, long delay) {
+
+        checkMessagebus(messagebus);
+
+        if (message == null) {
+
+            throw new IllegalArgumentException("No message (null) was specified!");
+        }
+
+        checkDelay(delay);
+
+        return schedule(new MessageTimeout(this, messagebus, message, null, deadline(delay), 0L));
+    }
+
+    /**
+     * Schedules periodic messages. A new message is created and delivered onto the
+     * specified messagebus after the specified initial delay and afterwards once per
+     * period until the timeout is cancelled.
+     *
+     * @param messagebus
+     *        the messagebus which delivers the messages
+     * @param messageFactory
+     *        an entity which creates the messages
+     * @param initialDelay
+     *        the delay of the first message in milliseconds
+     * @param period
+     *        the period in milliseconds
+     *
+     * @return a timeout which can be cancelled
+     */
+    public MessageTimeout schedule(Messagebus messagebus, Supplier<? extends Message> messageFactory, long initialDelay,
+                                   long period) {
+
+        checkMessagebus(messagebus);
+
+        if (messageFactory == null) {
+
+            throw new IllegalArgumentException("No message factory (null) was specified!");
+        }
+
+        checkDelay(initialDelay);
+
+        if (period < 1L) {
+
+            String message = String.format("An invalid period (%d) was specified!", period);
+            throw new IllegalArgumentException(message);
+        }
+
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(period);
+        return schedule(new MessageTimeout(this, messagebus, null, messageFactory, deadline(initialDelay),
+                                           periodNanos));
+    }
+
+    /**
+     * Hands the specified timeout over to the worker thread.
+     *
+     * @param timeout
+     *        a new timeout
+     *
+     * @return the specified timeout
+     */
+    private MessageTimeout schedule(MessageTimeout timeout) {
+
+        pendingTimeouts.incrementAndGet();
+        scheduledTimeouts.add(timeout);
+
+        if (state.get() == STOPPED && scheduledTimeouts.remove(timeout)) {
+
+            pendingTimeouts.decrementAndGet();
+            throw new IllegalStateException("The timer has been stopped!");
+        }
+
+        return timeout;
+    }
+
+    /**
+     * Checks the specified messagebus.
+     *
+     * @param messagebus
+     *        a messagebus
+     */
+    private static void checkMessagebus(Messagebus messagebus) {
+
+        if (messagebus == null) {
+
+            throw new IllegalArgumentException("No messagebus (null) was specified!");
+        }
+    }
+
+    /**
+     * Checks the specified delay.
+     *
+     * @param delay
+     *        a delay in milliseconds
+     */
+    private static void checkDelay(long delay) {
+
+        if (delay < 0L) {
+
+            String message = String.format("An invalid delay (%d) was specified!", delay);
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Starts the worker thread if necessary and calculates the deadline for the
+     * specified delay.
+     *
+     * @param delay
+     *        a delay in milliseconds
+     *
+     * @return a deadline in nanoseconds relative to the start time
+     */
+    private long deadline(long delay) {
+
+        start();
+        return System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(delay);
+    }
+
+    /**
+     * Starts the worker thread unless it is already running and waits until the start
+     * time has been determined.
+     */
+    private void start() {
+
+        if ((state.get() == INITIAL) && state.compareAndSet(INITIAL, STARTED)) {
+
+            worker.start();
+        }
+
+        if (state.get() == STOPPED) {
+
+            throw new IllegalStateException("The timer has been stopped!");
+        }
+
+        boolean interrupted = false;
+        while (startSignal.getCount() > 0L) {
+
+            try {
+
+                startSignal.await();
+
+            } catch (InterruptedException e) {
+
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops this timer. Messages which haven't been delivered yet are discarded.
+     *
+     * @throws InterruptedException
+     *         is thrown if the current thread is interrupted while waiting for the
+     *         worker thread
+     */
+    public void stop() throws InterruptedException {
+
+        if (state.getAndSet(STOPPED) != STARTED) {
+
+            return;
+        }
+
+        LockSupport.unpark(worker);
+        worker.join();
+    }
+
+    /**
+     * Checks if this timer has been stopped.
+     *
+     * @return <code>true</code> if this timer has been stopped, else <code>false</code>
+     */
+    public boolean isStopped() {
+
+        return state.get() == STOPPED;
+    }
+
+    /**
+     * Returns the number of timeouts which are waiting for their deadline.
+     *
+     * @return the number of pending timeouts
+     */
+    public long pendingTimeouts() {
+
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * Returns the tick duration.
+     *
+     * @return the tick duration in milliseconds
+     */
+    public long tickDuration() {
+
+        return TimeUnit.NANOSECONDS.toMillis(tickDuration);
+    }
+
+    /**
+     * Is called when the specified timeout has been cancelled.
+     *
+     * @param timeout
+     *        a cancelled timeout
+     */
+    void cancelled(MessageTimeout timeout) {
+
+        pendingTimeouts.decrementAndGet();
+        cancelledTimeouts.add(timeout);
+    }
+
+    /**
+     * Is called when the specified one-shot timeout expires.
+     *
+     * @param timeout
+     *        an expired timeout
+     */
+    void expired(MessageTimeout timeout) {
+
+        pendingTimeouts.decrementAndGet();
+    }
+
+    /**
+     * Puts the specified timeout into the slot which covers its deadline.
+     *
+     * @param timeout
+     *        a timeout
+     * @param earliestTick
+     *        the earliest tick at which the timeout may expire
+     */
+    private void insert(MessageTimeout timeout, long earliestTick) {
+
+        long deadlineTick = Math.max(ticks(timeout.deadline), earliestTick);
+        long delta = deadlineTick - currentTick;
+
+        int level = 0;
+        while ((level < LEVELS - 1) && (delta >= (1L << (WHEEL_BITS * (level + 1))))) {
+
+            level++;
+        }
+
+        long range = 1L << (WHEEL_BITS * LEVELS);
+        if (delta >= range) {
+
+            // The timeout is beyond the highest wheel and is put into its last slot.
+            // The deadline is checked again when the timeout is moved down.
+            deadlineTick = currentTick + range - 1L;
+        }
+
+        int index = (int) ((deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        wheels[level][index].add(timeout);
+    }
+
+    /**
+     * Converts the specified deadline into a tick (i.e. rounds up).
+     *
+     * @param deadline
+     *        a deadline in nanoseconds relative to the start time
+     *
+     * @return a tick
+     */
+    private long ticks(long deadline) {
+
+        if (deadline <= 0L) {
+
+            return 0L;
+        }
+
+        return (deadline + tickDuration - 1L) / tickDuration;
+    }
+
+    /**
+     * Advances the wheels to the specified tick. Higher wheels move their timeouts
+     * down before the timeouts of the lowest wheel expire.
+     *
+     * @param tick
+     *        the next tick
+     */
+    private void advance(long tick) {
+
+        currentTick = tick;
+
+        transferScheduledTimeouts();
+        removeCancelledTimeouts();
+
+        for (int level = LEVELS - 1; level > 0; level--) {
+
+            long lowerTicks = (1L << (WHEEL_BITS * level)) - 1L;
+            if ((tick & lowerTicks) != 0L) {
+
+                continue;
+            }
+
+            int index = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            MessageTimeout timeout = wheels[level][index].clear();
+            while (timeout != null) {
+
+                MessageTimeout next = timeout.next;
+                timeout.next = null;
+                insert(timeout, tick);
+                timeout = next;
+            }
+        }
+
+        int index = (int) (tick & WHEEL_MASK);
+        MessageTimeout timeout = wheels[0][index].clear();
+        while (timeout != null) {
+
+            MessageTimeout next = timeout.next;
+            timeout.next = null;
+
+            if (ticks(timeout.deadline) > tick) {
+
+                insert(timeout, tick);
+
+            } else {
+
+                expire(timeout, tick);
+            }
+
+            timeout = next;
+        }
+    }
+
+    /**
+     * Puts new timeouts into the wheels.
+     */
+    private void transferScheduledTimeouts() {
+
+        for (int a = 0; a < MAX_TRANSFERS_PER_TICK; a++) {
+
+            MessageTimeout timeout = scheduledTimeouts.poll();
+            if (timeout == null) {
+
+                break;
+            }
+
+            if (timeout.isScheduled()) {
+
+                insert(timeout, currentTick);
+            }
+        }
+    }
+
+    /**
+     * Removes cancelled timeouts from the wheels.
+     */
+    private void removeCancelledTimeouts() {
+
+        MessageTimeout timeout = cancelledTimeouts.poll();
+        while (timeout != null) {
+
+            if (timeout.slot != null) {
+
+                timeout.slot.remove(timeout);
+            }
+
+            timeout = cancelledTimeouts.poll();
+        }
+    }
+
+    /**
+     * Delivers the message of the specified timeout. A periodic timeout is scheduled
+     * again.
+     *
+     * @param timeout
+     *        an expired timeout
+     * @param tick
+     *        the current tick
+     */
+    private void expire(MessageTimeout timeout, long tick) {
+
+        boolean scheduleAgain;
+
+        try {
+
+            scheduleAgain = timeout.expire();
+
+        } catch (RuntimeException e) {
+
+            String message = "The message of a timeout couldn't be delivered (" + e + ")!";
+            Resources.LOGGER.log(LogLevels.WARNING, "message timer", message);
+            scheduleAgain = timeout.isPeriodic() && timeout.isScheduled();
+        }
+
+        if (scheduleAgain) {
+
+            insert(timeout, tick + 1L);
+        }
+    }
+
+
+    /**
+     * A slot of a wheel which contains a doubly linked list of timeouts, thus a
+     * cancelled timeout is removed in constant time.
+     */
+    static final class Slot {
+
+        /**
+         * The first timeout.
+         */
+        private MessageTimeout head;
+
+        /**
+         * The last timeout.
+         */
+        private MessageTimeout tail;
+
+        /**
+         * Appends the specified timeout.
+         *
+         * @param timeout
+         *        a timeout
+         */
+        void add(MessageTimeout timeout) {
+
+            timeout.slot = this;
+            timeout.previous = tail;
+            timeout.next = null;
+
+            if (tail == null) {
+
+                head = timeout;
+
+            } else {
+
+                tail.next = timeout;
+            }
+
+            tail = timeout;
+        }
+
+        /**
+         * Removes the specified timeout.
+         *
+         * @param timeout
+         *        a timeout which is contained in this slot
+         */
+        void remove(MessageTimeout timeout) {
+
+            if (timeout.previous == null) {
+
+                head = timeout.next;
+
+            } else {
+
+                timeout.previous.next = timeout.next;
+            }
+
+            if (timeout.next == null) {
+
+                tail = timeout.previous;
+
+            } else {
+
+                timeout.next.previous = timeout.previous;
+            }
+
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        /**
+         * Removes all timeouts. The timeouts remain linked by their next reference.
+         *
+         * @return the first timeout or <code>null</code> if this slot is empty
+         */
+        MessageTimeout clear() {
+
+            MessageTimeout first = head;
+
+            for (MessageTimeout timeout = first; timeout != null; timeout = timeout.next) {
+
+                timeout.slot = null;
+                timeout.previous = null;
+            }
+
+            head = null;
+            tail = null;
+
+            return first;
+        }
+
+    }
+
+
+    /**
+     * The worker thread which advances the wheels.
+     */
+    class Worker implements Runnable {
+
+        /**
+         * Advances the wheels once per tick until the timer is stopped.
+         */
+        @Override
+        public void run() {
+
+            startTime = System.nanoTime();
+            startSignal.countDown();
+
+            while (state.get() == STARTED) {
+
+                long tick = currentTick + 1L;
+                if (!awaitTick(tick)) {
+
+                    break;
+                }
+
+                advance(tick);
+            }
+        }
+
+        /**
+         * Waits until the specified tick is due.
+         *
+         * @param tick
+         *        the next tick
+         *
+         * @return <code>true</code> if the tick is due, <code>false</code> if the timer
+         *         has been stopped
+         */
+        private boolean awaitTick(long tick) {
+
+            long deadline = tick * tickDuration;
+
+            while (state.get() == STARTED) {
+
+                long remainingTime = deadline - (System.nanoTime() - startTime);
+                if (remainingTime <= 0L) {
+
+                    return true;
+                }
+
+                LockSupport.parkNanos(this, remainingTime);
+            }
+
+            return false;
+        }
+
+    }
+
+}
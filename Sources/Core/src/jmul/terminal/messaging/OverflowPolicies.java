@@ -0,0 +1,72 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+/**
+ * This enumeration contains all policies which determine what happens when a message
+ * is sent to a full mailbox.
+ *
+ * @author Kristian Kutin
+ */
+public enum OverflowPolicies {
+
+
+    /**
+     * The sender waits until there is space in the mailbox.
+     */
+    BLOCK,
+
+    /**
+     * The message is rejected and the sender gets an exception.
+     */
+    FAIL,
+
+    /**
+     * The new message is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest message in the mailbox is dropped to make space for the new message.
+     */
+    DROP_OLDEST,
+
+    /**
+     * A log entry whose log level is lower than a threshold is dropped. All other
+     * messages are treated like {@link #BLOCK}.
+     */
+    DROP_BY_LOG_LEVEL;
+
+}
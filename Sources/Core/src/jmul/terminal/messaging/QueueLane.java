@@ -0,0 +1,132 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+
+
+/**
+ * An implementation of a message lane which is backed by a lock-free linked queue.
+ * This lane has no capacity limit.
+ *
+ * @author Kristian Kutin
+ */
+public class QueueLane implements MessageLane {
+
+    /**
+     * The messages in this lane.
+     */
+    private final Queue<Message> messages;
+
+    /**
+     * The default constructor.
+     */
+    public QueueLane() {
+
+        super();
+
+        messages = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Adds the specified message to this lane.
+     *
+     * @param message
+     *        a message
+     */
+    @Override
+    public void offer(Message message) {
+
+        messages.offer(message);
+    }
+
+    /**
+     * Removes the oldest message from this lane.
+     *
+     * @return a message or <code>null</code> if this lane is empty
+     */
+    @Override
+    public Message poll() {
+
+        return messages.poll();
+    }
+
+    /**
+     * Removes the oldest message from this lane if it satisfies the specified condition.
+     *
+     * @param condition
+     *        a condition
+     *
+     * @return a message or <code>null</code> if this lane is empty or the oldest
+     *         message doesn't satisfy the condition
+     */
+    @Override
+    public Message pollIf(Predicate<? super Message> condition) {
+
+        while (true) {
+
+            Message message = messages.peek();
+            if ((message == null) || !condition.test(message)) {
+
+                return null;
+            }
+
+            if (messages.remove(message)) {
+
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest message if it is selected by the specified selector. This
+     * lane has no index, thus only the oldest message is examined.
+     *
+     * @param selector
+     *        a selector
+     *
+     * @return a message or <code>null</code> if the oldest message wasn't selected
+     */
+    @Override
+    public Message select(Predicate<? super Message> selector) {
+
+        return pollIf(selector);
+    }
+
+}
\ No newline at end of file
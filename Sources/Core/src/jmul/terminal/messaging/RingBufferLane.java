@@ -0,0 +1,321 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+
+
+/**
+ * An implementation of a message lane which is backed by a preallocated ring buffer.
+ * Adding a message doesn't allocate any memory. Every slot carries a sequence number
+ * which tells producers and consumers if the slot is free or if it has been published.
+ * A producer claims a slot by advancing the write sequence and waits according to a
+ * wait strategy if the ring buffer is full.
+ *
+ * @author Kristian Kutin
+ */
+public class RingBufferLane implements MessageLane {
+
+    /**
+     * The slots of this ring buffer.
+     */
+    private final Message[] slots;
+
+    /**
+     * The sequence numbers of all slots.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * A mask to calculate the slot index of a sequence number.
+     */
+    private final int mask;
+
+    /**
+     * The next write sequence.
+     */
+    private final AtomicLong writeSequence;
+
+    /**
+     * The next read sequence.
+     */
+    private final AtomicLong readSequence;
+
+    /**
+     * The number of threads which may write into this ring buffer.
+     */
+    private final ProducerTypes producerType;
+
+    /**
+     * The wait strategy of producers if this ring buffer is full.
+     */
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * Creates a new ring buffer according to the specified parameters.
+     *
+     * @param capacity
+     *        the capacity (i.e. a power of two)
+     * @param producerType
+     *        the number of threads which may write into this ring buffer
+     * @param waitStrategy
+     *        the wait strategy of producers if this ring buffer is full
+     */
+    public RingBufferLane(int capacity, ProducerTypes producerType, WaitStrategy waitStrategy) {
+
+        super();
+
+        checkCapacity(capacity);
+        checkProducerType(producerType);
+        checkWaitStrategy(waitStrategy);
+
+        this.slots = new Message[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.writeSequence = new AtomicLong();
+        this.readSequence = new AtomicLong();
+        this.producerType = producerType;
+        this.waitStrategy = waitStrategy;
+
+        for (int a = 0; a < capacity; a++) {
+
+            sequences.set(a, a);
+        }
+    }
+
+    /**
+     * Adds the specified message to this ring buffer. If the ring buffer is full the
+     * calling thread waits until a slot is free.
+     *
+     * @param message
+     *        a message
+     */
+    @Override
+    public void offer(Message message) {
+
+        int attempt = 0;
+
+        while (true) {
+
+            long sequence = writeSequence.get();
+            int index = (int) (sequence & mask);
+            long difference = sequences.get(index) - sequence;
+
+            if (difference == 0L) {
+
+                if (claim(sequence)) {
+
+                    slots[index] = message;
+                    sequences.set(index, sequence + 1L);
+                    return;
+                }
+
+            } else if (difference < 0L) {
+
+                waitStrategy.idle(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Claims the slot with the specified sequence number.
+     *
+     * @param sequence
+     *        a sequence number
+     *
+     * @return <code>true</code> if the slot was claimed, else <code>false</code>
+     */
+    private boolean claim(long sequence) {
+
+        if (producerType == ProducerTypes.SINGLE) {
+
+            writeSequence.lazySet(sequence + 1L);
+            return true;
+        }
+
+        return writeSequence.compareAndSet(sequence, sequence + 1L);
+    }
+
+    /**
+     * Removes the oldest message from this ring buffer.
+     *
+     * @return a message or <code>null</code> if this ring buffer is empty
+     */
+    @Override
+    public Message poll() {
+
+        while (true) {
+
+            long sequence = readSequence.get();
+            int index = (int) (sequence & mask);
+            long difference = sequences.get(index) - (sequence + 1L);
+
+            if (difference < 0L) {
+
+                return null;
+
+            } else if ((difference == 0L) && readSequence.compareAndSet(sequence, sequence + 1L)) {
+
+                Message message = slots[index];
+                slots[index] = null;
+                sequences.set(index, sequence + slots.length);
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest message from this ring buffer if it satisfies the specified
+     * condition. The message is only removed if no other consumer has removed it in
+     * the meantime.
+     *
+     * @param condition
+     *        a condition
+     *
+     * @return a message or <code>null</code> if this ring buffer is empty or the oldest
+     *         message doesn't satisfy the condition
+     */
+    @Override
+    public Message pollIf(Predicate<? super Message> condition) {
+
+        while (true) {
+
+            long sequence = readSequence.get();
+            int index = (int) (sequence & mask);
+            long difference = sequences.get(index) - (sequence + 1L);
+
+            if (difference < 0L) {
+
+                return null;
+
+            } else if (difference == 0L) {
+
+                Message message = slots[index];
+                if ((message == null) || (readSequence.get() != sequence)) {
+
+                    continue;
+                }
+
+                if (!condition.test(message)) {
+
+                    return null;
+                }
+
+                if (readSequence.compareAndSet(sequence, sequence + 1L)) {
+
+                    slots[index] = null;
+                    sequences.set(index, sequence + slots.length);
+                    return message;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest message if it is selected by the specified selector. This
+     * ring buffer has no index, thus only the oldest message is examined.
+     *
+     * @param selector
+     *        a selector
+     *
+     * @return a message or <code>null</code> if the oldest message wasn't selected
+     */
+    @Override
+    public Message select(Predicate<? super Message> selector) {
+
+        return pollIf(selector);
+    }
+
+    /**
+     * Returns the capacity of this ring buffer.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+
+        return slots.length;
+    }
+
+    /**
+     * Checks the specified capacity.
+     *
+     * @param capacity
+     *        a capacity
+     */
+    private static void checkCapacity(int capacity) {
+
+        if ((capacity < 2) || (Integer.bitCount(capacity) != 1)) {
+
+            String message = String.format("The capacity (%d) is not a power of two!", capacity);
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Checks the specified producer type.
+     *
+     * @param producerType
+     *        a producer type
+     */
+    private static void checkProducerType(ProducerTypes producerType) {
+
+        if (producerType == null) {
+
+            String message = "No producer type (null) was specified!";
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Checks the specified wait strategy.
+     *
+     * @param waitStrategy
+     *        a wait strategy
+     */
+    private static void checkWaitStrategy(WaitStrategy waitStrategy) {
+
+        if (waitStrategy == null) {
+
+            String message = "No wait strategy (null) was specified!";
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+}
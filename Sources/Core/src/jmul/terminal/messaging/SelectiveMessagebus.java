@@ -0,0 +1,103 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQuery;
+import jmul.messaging.MessageQueryResult;
+
+
+/**
+ * This interface describes a messagebus which allows a receiver to fetch only certain
+ * messages (e.g. only messages with certain topics). Messages which are not selected
+ * remain in the receiver's mailbox.
+ *
+ * @author Kristian Kutin
+ */
+public interface SelectiveMessagebus extends BlockingMessagebus {
+
+    /**
+     * Fetches the oldest message for the specified receiver which is selected by the
+     * specified selector. This method doesn't wait for new messages.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector (see {@link MessageSelectors})
+     *
+     * @return the query result
+     */
+    MessageQueryResult fetch(MessageQuery query, Predicate<? super Message> selector);
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * selected by the specified selector.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector (see {@link MessageSelectors})
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the query result
+     */
+    MessageQueryResult await(MessageQuery query, Predicate<? super Message> selector, long timeout);
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * selected by the specified selector. Afterwards up to the specified number of
+     * selected messages are passed to the specified consumer.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector (see {@link MessageSelectors})
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    int drain(MessageQuery query, Predicate<? super Message> selector, int maxMessages,
+              Consumer<? super Message> consumer, long timeout);
+
+}
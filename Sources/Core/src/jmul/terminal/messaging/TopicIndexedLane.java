@@ -0,0 +1,292 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+
+
+/**
+ * An implementation of a message lane which keeps a separate queue for each topic.
+ * Every message is tagged with a sequence number, thus the lane still delivers the
+ * messages in the order in which they arrived. A selector only examines the oldest
+ * message of each topic, thus selecting a message costs the same regardless of how
+ * many messages with other topics are waiting.<br>
+ * <br>
+ * The sequence number is assigned and the message is queued while holding a lock,
+ * thus a message which has been offered completely is always delivered before any
+ * message which is offered afterwards, regardless of their topics. The queue of a
+ * topic is removed as soon as it is empty, thus the number of queues doesn't grow
+ * with the number of topics which were ever used.
+ *
+ * @author Kristian Kutin
+ */
+public class TopicIndexedLane implements MessageLane {
+
+    /**
+     * The topic which is used for messages without topic.
+     */
+    private static final String NO_TOPIC;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        NO_TOPIC = "";
+    }
+
+    /**
+     * The queues of all topics which have messages (i.e. the key is the topic). The
+     * map also serves as lock when a message is offered or an empty queue is removed.
+     */
+    private final ConcurrentHashMap<String, Queue<Entry>> topicQueues;
+
+    /**
+     * The next sequence number (i.e. guarded by the lock).
+     */
+    private long sequence;
+
+    /**
+     * The default constructor.
+     */
+    public TopicIndexedLane() {
+
+        super();
+
+        topicQueues = new ConcurrentHashMap<>();
+        sequence = 0L;
+    }
+
+    /**
+     * Returns the key of the specified topic.
+     *
+     * @param topic
+     *        a topic or <code>null</code>
+     *
+     * @return a key
+     */
+    private static String topicKey(String topic) {
+
+        return (topic == null) ? NO_TOPIC : topic;
+    }
+
+    /**
+     * Adds the specified message to the queue of the message's topic. If no queue
+     * exists yet a new queue is created.
+     *
+     * @param message
+     *        a message
+     */
+    @Override
+    public void offer(Message message) {
+
+        String key = topicKey(message.topic());
+
+        synchronized (topicQueues) {
+
+            Queue<Entry> queue = topicQueues.get(key);
+            if (queue == null) {
+
+                queue = new ConcurrentLinkedQueue<>();
+                topicQueues.put(key, queue);
+            }
+
+            queue.offer(new Entry(sequence, message));
+            sequence++;
+        }
+    }
+
+    /**
+     * Removes the queue of the specified topic if it is empty.
+     *
+     * @param topic
+     *        a topic or <code>null</code>
+     * @param queue
+     *        the queue of the topic
+     */
+    private void removeIfEmpty(String topic, Queue<Entry> queue) {
+
+        if (!queue.isEmpty()) {
+
+            return;
+        }
+
+        synchronized (topicQueues) {
+
+            // a message may have been offered in the meantime
+            if (queue.isEmpty()) {
+
+                topicQueues.remove(topicKey(topic), queue);
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest message from this lane.
+     *
+     * @return a message or <code>null</code> if this lane is empty
+     */
+    @Override
+    public Message poll() {
+
+        return pollIf(null, false);
+    }
+
+    /**
+     * Removes the oldest message from this lane if it satisfies the specified condition.
+     *
+     * @param condition
+     *        a condition
+     *
+     * @return a message or <code>null</code> if this lane is empty or the oldest
+     *         message doesn't satisfy the condition
+     */
+    @Override
+    public Message pollIf(Predicate<? super Message> condition) {
+
+        return pollIf(condition, false);
+    }
+
+    /**
+     * Removes the oldest message which is selected by the specified selector. Only the
+     * oldest message of each topic is examined.
+     *
+     * @param selector
+     *        a selector
+     *
+     * @return a message or <code>null</code> if no message was selected
+     */
+    @Override
+    public Message select(Predicate<? super Message> selector) {
+
+        return pollIf(selector, true);
+    }
+
+    /**
+     * Removes the oldest message. Depending on the specified flag the condition is
+     * applied to the oldest message of this lane or to the oldest message of each topic.
+     *
+     * @param condition
+     *        a condition or <code>null</code>
+     * @param selective
+     *        <code>true</code> if the condition is applied to the oldest message of each
+     *        topic, <code>false</code> if the condition is applied to the oldest message
+     *        of this lane
+     *
+     * @return a message or <code>null</code>
+     */
+    private Message pollIf(Predicate<? super Message> condition, boolean selective) {
+
+        while (true) {
+
+            Queue<Entry> oldestQueue = null;
+            Entry oldestEntry = null;
+
+            for (Queue<Entry> queue : topicQueues.values()) {
+
+                Entry entry = queue.peek();
+                if (entry == null) {
+
+                    continue;
+                }
+
+                if (selective && !condition.test(entry.message)) {
+
+                    continue;
+                }
+
+                if ((oldestEntry == null) || (entry.sequence < oldestEntry.sequence)) {
+
+                    oldestQueue = queue;
+                    oldestEntry = entry;
+                }
+            }
+
+            if (oldestEntry == null) {
+
+                return null;
+            }
+
+            if (!selective && (condition != null) && !condition.test(oldestEntry.message)) {
+
+                return null;
+            }
+
+            if (oldestQueue.remove(oldestEntry)) {
+
+                removeIfEmpty(oldestEntry.message.topic(), oldestQueue);
+                return oldestEntry.message;
+            }
+        }
+    }
+
+
+    /**
+     * A message and its sequence number.
+     */
+    private static final class Entry {
+
+        /**
+         * The sequence number of the message.
+         */
+        private final long sequence;
+
+        /**
+         * The message.
+         */
+        private final Message message;
+
+        /**
+         * Creates a new entry according to the specified parameters.
+         *
+         * @param sequence
+         *        the sequence number of the message
+         * @param message
+         *        the message
+         */
+        private Entry(long sequence, Message message) {
+
+            this.sequence = sequence;
+            this.message = message;
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging;
+
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * This enumeration contains several wait strategies.
+ *
+ * @author Kristian Kutin
+ */
+public enum WaitStrategies implements WaitStrategy {
+
+
+    /**
+     * The waiting thread spins (i.e. lowest latency, occupies a core).
+     */
+    BUSY_SPIN {
+
+        @Override
+        public void idle(int attempt) {
+
+            // spin
+        }
+    },
+
+    /**
+     * The waiting thread spins for a short time and yields afterwards.
+     */
+    YIELDING {
+
+        @Override
+        public void idle(int attempt) {
+
+            if (attempt >= SPIN_ATTEMPTS) {
+
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * The waiting thread spins, yields and finally parks for a short time.
+     */
+    PARKING {
+
+        @Override
+        public void idle(int attempt) {
+
+            if (attempt < SPIN_ATTEMPTS) {
+
+                return;
+            }
+
+            if (attempt < SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+
+                Thread.yield();
+                return;
+            }
+
+            LockSupport.parkNanos(PARK_TIME);
+        }
+    };
+
+
+    /**
+     * The number of attempts during which a thread spins.
+     */
+    private static final int SPIN_ATTEMPTS = 100;
+
+    /**
+     * The number of attempts during which a thread yields.
+     */
+    private static final int YIELD_ATTEMPTS = 100;
+
+    /**
+     * The park time in nanoseconds.
+     */
+    private static final long PARK_TIME = 100000L;
+
+}
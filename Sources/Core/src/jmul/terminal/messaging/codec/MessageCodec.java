@@ -0,0 +1,78 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.codec;
+
+
+import java.nio.ByteBuffer;
+
+import jmul.messaging.Message;
+
+
+/**
+ * This interface describes an entity which converts messages into a binary
+ * representation and vice versa.
+ *
+ * @author Kristian Kutin
+ */
+public interface MessageCodec {
+
+    /**
+     * Writes the specified message into the specified buffer (i.e. starting at the
+     * buffer's current position).
+     *
+     * @param message
+     *        a message
+     * @param buffer
+     *        a buffer
+     *
+     * @throws java.nio.BufferOverflowException
+     *         is thrown if the buffer is too small
+     */
+    void encode(Message message, ByteBuffer buffer);
+
+    /**
+     * Reads a message from the specified buffer (i.e. starting at the buffer's
+     * current position).
+     *
+     * @param buffer
+     *        a buffer
+     *
+     * @return a message
+     *
+     * @throws MessageCodecException
+     *         is thrown if the buffer doesn't contain a valid message
+     */
+    Message decode(ByteBuffer buffer);
+
+}
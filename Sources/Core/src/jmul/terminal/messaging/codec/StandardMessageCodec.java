@@ -0,0 +1,923 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.codec;
+
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jmul.messaging.Message;
+import jmul.messaging.PropertyKey;
+import jmul.messaging.StandardMessage;
+import jmul.messaging.StandardPropertyKeys;
+
+import jmul.terminal.component.messages.ComponentMessage;
+import jmul.terminal.component.messages.ComponentReadyMessage;
+import jmul.terminal.component.messages.ComponentStoppedMessage;
+import jmul.terminal.component.messages.CustomPropertyKeys;
+import jmul.terminal.component.messages.EntryHelper;
+import jmul.terminal.component.messages.LogEntryMessage;
+import jmul.terminal.component.messages.RegisterComponentMessage;
+import jmul.terminal.component.messages.ReplyMessage;
+import jmul.terminal.component.messages.RequestMessage;
+import jmul.terminal.component.messages.StopMessage;
+import jmul.terminal.component.messages.UnregisterComponentMessage;
+import jmul.terminal.utils.logging.LogLevel;
+import jmul.terminal.utils.logging.LogLevels;
+
+
+/**
+ * A codec for standard messages and the custom message types of this project.<br>
+ * <br>
+ * An encoded message starts with the format version and the message type (i.e. a
+ * byte each) followed by the sender, the receiver, the topic (i.e. only for
+ * standard messages and requests), the creation date (i.e. only for component
+ * messages) and the number of additional properties. Every property consists of a
+ * key id (i.e. a fixed id which doesn't depend on the declaration order of the
+ * property keys), a value type and the value. Lengths, counts and numbers are
+ * written as varints, strings as UTF-8 bytes.<br>
+ * <br>
+ * The component state is not encoded. A decoded component message keeps the
+ * creation date of the encoded message. A decoded standard message gets the time of
+ * decoding as creation date since a standard message always sets its own creation
+ * date. Strings are decoded directly from the backing array of a heap buffer.
+ *
+ * @author Kristian Kutin
+ */
+public class StandardMessageCodec implements MessageCodec {
+
+    /**
+     * The version of the binary format.
+     */
+    public static final byte VERSION;
+
+    /**
+     * The type id of a standard message.
+     */
+    private static final byte STANDARD_MESSAGE;
+
+    /**
+     * The type id of a stop message.
+     */
+    private static final byte STOP_MESSAGE;
+
+    /**
+     * The type id of a ready message.
+     */
+    private static final byte READY_MESSAGE;
+
+    /**
+     * The type id of a stopped message.
+     */
+    private static final byte STOPPED_MESSAGE;
+
+    /**
+     * The type id of a log entry message.
+     */
+    private static final byte LOG_ENTRY_MESSAGE;
+
+    /**
+     * The type id of a request message.
+     */
+    private static final byte REQUEST_MESSAGE;
+
+    /**
+     * The type id of a reply message.
+     */
+    private static final byte REPLY_MESSAGE;
+
+    /**
+     * The type id of a message which registers a component.
+     */
+    private static final byte REGISTER_COMPONENT_MESSAGE;
+
+    /**
+     * The type id of a message which unregisters a component.
+     */
+    private static final byte UNREGISTER_COMPONENT_MESSAGE;
+
+    /**
+     * All encoded property keys (i.e. the index is the key id).
+     */
+    private static final PropertyKey[] PROPERTY_KEYS;
+
+    /**
+     * The ids of all encoded property keys.
+     */
+    private static final Map<PropertyKey, Integer> KEY_IDS;
+
+    /**
+     * The value type of a string.
+     */
+    private static final byte STRING_VALUE;
+
+    /**
+     * The value type of a log level.
+     */
+    private static final byte LOG_LEVEL_VALUE;
+
+    /**
+     * The value type of a long.
+     */
+    private static final byte LONG_VALUE;
+
+    /**
+     * The value type of an integer.
+     */
+    private static final byte INTEGER_VALUE;
+
+    /**
+     * The value type of a boolean.
+     */
+    private static final byte BOOLEAN_VALUE;
+
+    /**
+     * The value type of a date.
+     */
+    private static final byte DATE_VALUE;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        VERSION = 2;
+
+        STANDARD_MESSAGE = 0;
+        STOP_MESSAGE = 1;
+        READY_MESSAGE = 2;
+        STOPPED_MESSAGE = 3;
+        LOG_ENTRY_MESSAGE = 4;
+        REQUEST_MESSAGE = 5;
+        REPLY_MESSAGE = 6;
+        REGISTER_COMPONENT_MESSAGE = 7;
+        UNREGISTER_COMPONENT_MESSAGE = 8;
+
+        // The key ids are part of the binary format and must not be changed.
+        PROPERTY_KEYS = new PropertyKey[38];
+        PROPERTY_KEYS[33] = CustomPropertyKeys.LOG_LEVEL;
+        PROPERTY_KEYS[34] = CustomPropertyKeys.LOG_ENTRY;
+        PROPERTY_KEYS[35] = CustomPropertyKeys.CORRELATION_ID;
+        PROPERTY_KEYS[36] = CustomPropertyKeys.PAYLOAD;
+        PROPERTY_KEYS[37] = CustomPropertyKeys.COMPONENT_ROLE;
+
+        KEY_IDS = new HashMap<>();
+        for (int a = 0; a < PROPERTY_KEYS.length; a++) {
+
+            if (PROPERTY_KEYS[a] != null) {
+
+                KEY_IDS.put(PROPERTY_KEYS[a], a);
+            }
+        }
+
+        STRING_VALUE = 0;
+        LOG_LEVEL_VALUE = 1;
+        LONG_VALUE = 2;
+        INTEGER_VALUE = 3;
+        BOOLEAN_VALUE = 4;
+        DATE_VALUE = 5;
+    }
+
+    /**
+     * A buffer for decoding strings from direct buffers.
+     */
+    private static final ThreadLocal<byte[]> DECODING_BUFFER = new ThreadLocal<byte[]>() {
+
+        @Override
+        protected byte[] initialValue() {
+
+            return new byte[256];
+        }
+    };
+
+    /**
+     * The default constructor.
+     */
+    public StandardMessageCodec() {
+
+        super();
+    }
+
+    /**
+     * Writes the specified message into the specified buffer.
+     *
+     * @param message
+     *        a message
+     * @param buffer
+     *        a buffer
+     */
+    @Override
+    public void encode(Message message, ByteBuffer buffer) {
+
+        Class<?> messageType = message.getClass();
+        byte typeId;
+
+        if (messageType == StopMessage.class) {
+
+            typeId = STOP_MESSAGE;
+
+        } else if (messageType == ComponentReadyMessage.class) {
+
+            typeId = READY_MESSAGE;
+
+        } else if (messageType == ComponentStoppedMessage.class) {
+
+            typeId = STOPPED_MESSAGE;
+
+        } else if (messageType == LogEntryMessage.class) {
+
+            typeId = LOG_ENTRY_MESSAGE;
+
+        } else if (messageType == RequestMessage.class) {
+
+            typeId = REQUEST_MESSAGE;
+
+        } else if (messageType == ReplyMessage.class) {
+
+            typeId = REPLY_MESSAGE;
+
+        } else if (messageType == RegisterComponentMessage.class) {
+
+            typeId = REGISTER_COMPONENT_MESSAGE;
+
+        } else if (messageType == UnregisterComponentMessage.class) {
+
+            typeId = UNREGISTER_COMPONENT_MESSAGE;
+
+        } else if (messageType == StandardMessage.class) {
+
+            typeId = STANDARD_MESSAGE;
+
+        } else {
+
+            String text = String.format("Messages of type %s are not supported!", messageType.getName());
+            throw new MessageCodecException(text);
+        }
+
+        buffer.put(VERSION);
+        buffer.put(typeId);
+        writeString(buffer, message.senderName());
+        writeString(buffer, message.receiverName());
+
+        if ((typeId == STANDARD_MESSAGE) || (typeId == REQUEST_MESSAGE)) {
+
+            writeString(buffer, message.topic());
+        }
+
+        if (typeId != STANDARD_MESSAGE) {
+
+            writeVarlong(buffer, zigZag(((ComponentMessage) message).timestamp()));
+        }
+
+        Iterable<PropertyKey> propertyKeys = propertyKeys(message);
+
+        int count = 0;
+        for (PropertyKey key : propertyKeys) {
+
+            if (isEncodedProperty(key)) {
+
+                count++;
+            }
+        }
+
+        writeVarint(buffer, count);
+
+        for (PropertyKey key : propertyKeys) {
+
+            if (isEncodedProperty(key)) {
+
+                writeVarint(buffer, keyId(key));
+                writeValue(buffer, message.get(key));
+            }
+        }
+    }
+
+    /**
+     * Returns the property keys of the specified message.
+     *
+     * @param message
+     *        a standard message or a component message
+     *
+     * @return all property keys
+     */
+    @SuppressWarnings("unchecked")
+    private static Iterable<PropertyKey> propertyKeys(Message message) {
+
+        return (Iterable<PropertyKey>) message;
+    }
+
+    /**
+     * Checks if the specified property is encoded. The properties which are
+     * encoded separately or which are only meaningful within the process aren't.
+     *
+     * @param key
+     *        a property key
+     *
+     * @return <code>true</code> if the property is encoded, else <code>false</code>
+     */
+    private static boolean isEncodedProperty(PropertyKey key) {
+
+        return !(key instanceof StandardPropertyKeys) && (key != CustomPropertyKeys.COMPONENT_STATE);
+    }
+
+    /**
+     * Returns the id of the specified property key.
+     *
+     * @param key
+     *        a property key
+     *
+     * @return a key id
+     */
+    private static int keyId(PropertyKey key) {
+
+        Integer keyId = KEY_IDS.get(key);
+        if (keyId != null) {
+
+            return keyId;
+        }
+
+        String text = String.format("Property keys of type %s are not supported!", key.getClass().getName());
+        throw new MessageCodecException(text);
+    }
+
+    /**
+     * Writes the specified property value into the specified buffer.
+     *
+     * @param buffer
+     *        a buffer
+     * @param value
+     *        a property value
+     */
+    private static void writeValue(ByteBuffer buffer, Object value) {
+
+        if (value instanceof String) {
+
+            buffer.put(STRING_VALUE);
+            writeString(buffer, (String) value);
+
+        } else if (value instanceof LogLevels) {
+
+            buffer.put(LOG_LEVEL_VALUE);
+            buffer.put((byte) ((LogLevels) value).ordinal());
+
+        } else if (value instanceof Long) {
+
+            buffer.put(LONG_VALUE);
+            writeVarlong(buffer, zigZag((Long) value));
+
+        } else if (value instanceof Integer) {
+
+            buffer.put(INTEGER_VALUE);
+            writeVarlong(buffer, zigZag((Integer) value));
+
+        } else if (value instanceof Boolean) {
+
+            buffer.put(BOOLEAN_VALUE);
+            buffer.put((byte) (((Boolean) value) ? 1 : 0));
+
+        } else if (value instanceof Date) {
+
+            buffer.put(DATE_VALUE);
+            writeVarlong(buffer, zigZag(((Date) value).getTime()));
+
+        } else {
+
+            String typeName = (value == null) ? "null" : value.getClass().getName();
+            String text = String.format("Property values of type %s are not supported!", typeName);
+            throw new MessageCodecException(text);
+        }
+    }
+
+    /**
+     * Reads a message from the specified buffer.
+     *
+     * @param buffer
+     *        a buffer
+     *
+     * @return a message
+     */
+    @Override
+    public Message decode(ByteBuffer buffer) {
+
+        try {
+
+            byte version = buffer.get();
+            if (version != VERSION) {
+
+                String text = String.format("An unsupported format version (%d) was read!", version);
+                throw new MessageCodecException(text);
+            }
+
+            byte messageType = buffer.get();
+            String sender = readString(buffer);
+            String receiver = readString(buffer);
+            boolean hasTopic = (messageType == STANDARD_MESSAGE) || (messageType == REQUEST_MESSAGE);
+            String topic = hasTopic ? readString(buffer) : null;
+            long timestamp = (messageType == STANDARD_MESSAGE) ? 0L : unZigZag(readVarlong(buffer));
+
+            int count = readVarint(buffer);
+            List<Map.Entry<PropertyKey, Object>> entries = new ArrayList<>(count);
+
+            for (int a = 0; a < count; a++) {
+
+                PropertyKey key = readKey(buffer);
+                entries.add(EntryHelper.newEntry(key, readValue(buffer)));
+            }
+
+            ComponentMessage message;
+
+            switch (messageType) {
+
+            case 0:
+                return newStandardMessage(sender, receiver, topic, entries);
+
+            case 1:
+                message = new StopMessage(sender, receiver);
+                break;
+
+            case 2:
+                message = new ComponentReadyMessage(sender, receiver);
+                break;
+
+            case 3:
+                message = new ComponentStoppedMessage(sender, receiver);
+                break;
+
+            case 4:
+                LogLevel logLevel = (LogLevel) findValue(entries, CustomPropertyKeys.LOG_LEVEL);
+                String logEntry = (String) findValue(entries, CustomPropertyKeys.LOG_ENTRY);
+                message = new LogEntryMessage(sender, receiver, logLevel, logEntry);
+                break;
+
+            case 5:
+                long requestId = (Long) findValue(entries, CustomPropertyKeys.CORRELATION_ID);
+                message = new RequestMessage(sender, receiver, topic, requestId,
+                                             findOptionalValue(entries, CustomPropertyKeys.PAYLOAD));
+                break;
+
+            case 6:
+                long replyId = (Long) findValue(entries, CustomPropertyKeys.CORRELATION_ID);
+                message = new ReplyMessage(sender, receiver, replyId,
+                                           findOptionalValue(entries, CustomPropertyKeys.PAYLOAD));
+                break;
+
+            case 7:
+                String role = (String) findValue(entries, CustomPropertyKeys.COMPONENT_ROLE);
+                message = new RegisterComponentMessage(sender, receiver, role);
+                break;
+
+            case 8:
+                message = new UnregisterComponentMessage(sender, receiver);
+                break;
+
+            default:
+                String text = String.format("An unknown message type (%d) was read!", messageType);
+                throw new MessageCodecException(text);
+            }
+
+            return message.withTimestamp(timestamp);
+
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e) {
+
+            throw new MessageCodecException("The buffer doesn't contain a complete message!", e);
+        }
+    }
+
+    /**
+     * Creates a standard message with the specified properties.
+     *
+     * @param sender
+     *        the name of the sender
+     * @param receiver
+     *        the name of the receiver
+     * @param topic
+     *        the topic
+     * @param entries
+     *        additional properties
+     *
+     * @return a message
+     */
+    private static Message newStandardMessage(String sender, String receiver, String topic,
+                                              List<Map.Entry<PropertyKey, Object>> entries) {
+
+        if (entries.isEmpty()) {
+
+            return new StandardMessage(sender, receiver, topic);
+        }
+
+        return new StandardMessage(sender, receiver, topic, toArray(entries));
+    }
+
+    /**
+     * Converts the specified properties into an array (i.e. the argument type of the
+     * standard message constructor).
+     *
+     * @param entries
+     *        properties
+     *
+     * @return an array with the same properties
+     */
+    @SuppressWarnings("unchecked")
+    private static Map.Entry<PropertyKey, Object>[] toArray(List<Map.Entry<PropertyKey, Object>> entries) {
+
+        Map.Entry<PropertyKey, Object>[] array = (Map.Entry<PropertyKey, Object>[]) new Map.Entry<?, ?>[entries.size()];
+        return entries.toArray(array);
+    }
+
+    /**
+     * Looks up the value of the specified property.
+     *
+     * @param entries
+     *        all decoded properties
+     * @param key
+     *        the key of the required property
+     *
+     * @return a property value
+     */
+    private static Object findValue(List<Map.Entry<PropertyKey, Object>> entries, PropertyKey key) {
+
+        Object value = findOptionalValue(entries, key);
+        if (value != null) {
+
+            return value;
+        }
+
+        String text = String.format("The property %s is missing!", key);
+        throw new MessageCodecException(text);
+    }
+
+    /**
+     * Looks up the value of the specified optional property.
+     *
+     * @param entries
+     *        all decoded properties
+     * @param key
+     *        the key of the optional property
+     *
+     * @return a property value or <code>null</code>
+     */
+    private static Object findOptionalValue(List<Map.Entry<PropertyKey, Object>> entries, PropertyKey key) {
+
+        for (Map.Entry<PropertyKey, Object> entry : entries) {
+
+            if (entry.getKey() == key) {
+
+                return entry.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads a property key from the specified buffer.
+     *
+     * @param buffer
+     *        a buffer
+     *
+     * @return a property key
+     */
+    private static PropertyKey readKey(ByteBuffer buffer) {
+
+        int keyId = readVarint(buffer);
+
+        PropertyKey key = null;
+        if (keyId < PROPERTY_KEYS.length) {
+
+            key = PROPERTY_KEYS[keyId];
+        }
+
+        if (key == null) {
+
+            String text = String.format("An unknown property key (%d) was read!", keyId);
+            throw new MessageCodecException(text);
+        }
+
+        return key;
+    }
+
+    /**
+     * Reads a property value from the specified buffer.
+     *
+     * @param buffer
+     *        a buffer
+     *
+     * @return a property value
+     */
+    private static Object readValue(ByteBuffer buffer) {
+
+        byte valueType = buffer.get();
+
+        switch (valueType) {
+
+        case 0:
+            return readString(buffer);
+
+        case 1:
+            return LogLevels.values()[buffer.get()];
+
+        case 2:
+            return unZigZag(readVarlong(buffer));
+
+        case 3:
+            return (int) unZigZag(readVarlong(buffer));
+
+        case 4:
+            return buffer.get() != 0;
+
+        case 5:
+            return new Date(unZigZag(readVarlong(buffer)));
+
+        default:
+            String text = String.format("An unknown value type (%d) was read!", valueType);
+            throw new MessageCodecException(text);
+        }
+    }
+
+    /**
+     * Writes the specified string into the specified buffer (i.e. the length of the
+     * UTF-8 representation as varint followed by the UTF-8 bytes). The string is
+     * encoded directly into the buffer.
+     *
+     * @param buffer
+     *        a buffer
+     * @param string
+     *        a string
+     */
+    private static void writeString(ByteBuffer buffer, String string) {
+
+        int length = string.length();
+        writeVarint(buffer, utf8Length(string));
+
+        for (int a = 0; a < length; a++) {
+
+            char c = string.charAt(a);
+
+            if (c < 0x80) {
+
+                buffer.put((byte) c);
+
+            } else if (c < 0x800) {
+
+                buffer.put((byte) (0xc0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+
+            } else if (Character.isHighSurrogate(c) && (a + 1 < length) &&
+                       Character.isLowSurrogate(string.charAt(a + 1))) {
+
+                int codePoint = Character.toCodePoint(c, string.charAt(a + 1));
+                a++;
+
+                buffer.put((byte) (0xf0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+
+            } else if (Character.isSurrogate(c)) {
+
+                // an unpaired surrogate is replaced like String.getBytes does
+                buffer.put((byte) '?');
+
+            } else {
+
+                buffer.put((byte) (0xe0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    /**
+     * Determines the length of the UTF-8 representation of the specified string.
+     *
+     * @param string
+     *        a string
+     *
+     * @return the number of bytes
+     */
+    static int utf8Length(String string) {
+
+        int length = string.length();
+        int utf8Length = 0;
+
+        for (int a = 0; a < length; a++) {
+
+            char c = string.charAt(a);
+
+            if (c < 0x80) {
+
+                utf8Length++;
+
+            } else if (c < 0x800) {
+
+                utf8Length += 2;
+
+            } else if (Character.isHighSurrogate(c) && (a + 1 < length) &&
+                       Character.isLowSurrogate(string.charAt(a + 1))) {
+
+                utf8Length += 4;
+                a++;
+
+            } else if (Character.isSurrogate(c)) {
+
+                utf8Length++;
+
+            } else {
+
+                utf8Length += 3;
+            }
+        }
+
+        return utf8Length;
+    }
+
+    /**
+     * Reads a string from the specified buffer. The string is decoded directly from
+     * the backing array if the buffer has one.
+     *
+     * @param buffer
+     *        a buffer
+     *
+     * @return a string
+     */
+    private static String readString(ByteBuffer buffer) {
+
+        int length = readVarint(buffer);
+        if (length > buffer.remaining()) {
+
+            throw new BufferUnderflowException();
+        }
+
+        int position = buffer.position();
+        String string;
+
+        if (buffer.hasArray()) {
+
+            string = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+
+        } else {
+
+            byte[] bytes = DECODING_BUFFER.get();
+            if (bytes.length < length) {
+
+                bytes = new byte[Integer.highestOneBit(length) << 1];
+                DECODING_BUFFER.set(bytes);
+            }
+
+            buffer.get(bytes, 0, length);
+            string = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        buffer.position(position + length);
+
+        return string;
+    }
+
+    /**
+     * Writes the specified non-negative number as varint (i.e. seven bits per byte,
+     * least significant group first).
+     *
+     * @param buffer
+     *        a buffer
+     * @param value
+     *        a non-negative number
+     */
+    static void writeVarint(ByteBuffer buffer, int value) {
+
+        writeVarlong(buffer, value);
+    }
+
+    /**
+     * Writes the specified number as varint (i.e. seven bits per byte, least
+     * significant group first).
+     *
+     * @param buffer
+     *        a buffer
+     * @param value
+     *        a number (i.e. interpreted as unsigned number)
+     */
+    static void writeVarlong(ByteBuffer buffer, long value) {
+
+        long remainder = value;
+
+        while ((remainder & ~0x7fL) != 0) {
+
+            buffer.put((byte) ((remainder & 0x7f) | 0x80));
+            remainder >>>= 7;
+        }
+
+        buffer.put((byte) remainder);
+    }
+
+    /**
+     * Reads a non-negative number which was written as varint.
+     *
+     * @param buffer
+     *        a buffer
+     *
+     * @return a non-negative number
+     */
+    static int readVarint(ByteBuffer buffer) {
+
+        long value = readVarlong(buffer);
+        if ((value < 0) || (value > Integer.MAX_VALUE)) {
+
+            String text = String.format("An invalid length or count (%d) was read!", value);
+            throw new MessageCodecException(text);
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Reads a number which was written as varint.
+     *
+     * @param buffer
+     *        a buffer
+     *
+     * @return a number
+     */
+    static long readVarlong(ByteBuffer buffer) {
+
+        long value = 0L;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0) {
+
+                return value;
+            }
+        }
+
+        throw new MessageCodecException("A varint is too long!");
+    }
+
+    /**
+     * Maps the specified signed number to an unsigned number (i.e. numbers with a
+     * small absolute value result in short varints).
+     *
+     * @param value
+     *        a signed number
+     *
+     * @return an unsigned number
+     */
+    private static long zigZag(long value) {
+
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Maps the specified unsigned number back to a signed number.
+     *
+     * @param value
+     *        an unsigned number
+     *
+     * @return a signed number
+     */
+    private static long unZigZag(long value) {
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
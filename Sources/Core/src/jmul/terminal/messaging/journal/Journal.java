@@ -0,0 +1,563 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.journal;
+
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+import jmul.messaging.Message;
+
+import jmul.terminal.messaging.codec.MessageCodec;
+
+
+/**
+ * A write-ahead journal for messages. The journal consists of memory-mapped segment
+ * files of a fixed size. Records are identified by ascending sequence numbers.<br>
+ * <br>
+ * Appended records are made durable by group commit. A thread which waits for its
+ * record either forces the current segment itself or waits for another thread which
+ * is already doing it. A single force thus acknowledges all records which were
+ * appended before it started.
+ *
+ * @author Kristian Kutin
+ */
+public class Journal {
+
+    /**
+     * The name of the file which contains the consumer offsets.
+     */
+    private static final String OFFSETS_FILE;
+
+    /**
+     * The name of the temporary file which is used to replace the offsets file.
+     */
+    private static final String TEMPORARY_OFFSETS_FILE;
+
+    /**
+     * The initial size of the encoding buffer.
+     */
+    private static final int INITIAL_ENCODING_BUFFER_SIZE;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        OFFSETS_FILE = "offsets";
+        TEMPORARY_OFFSETS_FILE = "offsets.tmp";
+        INITIAL_ENCODING_BUFFER_SIZE = 1024;
+    }
+
+    /**
+     * The journal directory.
+     */
+    private final Path directory;
+
+    /**
+     * The size of a segment file in bytes.
+     */
+    private final int segmentSize;
+
+    /**
+     * A codec for messages.
+     */
+    private final MessageCodec codec;
+
+    /**
+     * All segments which are no longer written (i.e. the oldest segment first).
+     */
+    private final List<JournalSegment> closedSegments;
+
+    /**
+     * The segment which is currently written.
+     */
+    private volatile JournalSegment currentSegment;
+
+    /**
+     * A buffer for encoding messages.
+     */
+    private ByteBuffer encodingBuffer;
+
+    /**
+     * A checksum calculator.
+     */
+    private final CRC32 checksum;
+
+    /**
+     * The sequence number of the last appended record.
+     */
+    private volatile long lastSequence;
+
+    /**
+     * A monitor for the group commit.
+     */
+    private final Object commitMonitor;
+
+    /**
+     * The sequence number of the last durable record.
+     */
+    private long committedSequence;
+
+    /**
+     * A flag which indicates that a thread is currently forcing the journal.
+     */
+    private boolean committing;
+
+    /**
+     * Opens the journal in the specified directory. Existing segments are scanned and
+     * new records are appended to a new segment. Segments without records (e.g. the
+     * segment which was created when the journal was opened the last time) are
+     * reused or deleted, thus the journal can be opened any number of times.
+     *
+     * @param directory
+     *        the journal directory
+     * @param segmentSize
+     *        the size of a segment file in bytes
+     * @param codec
+     *        a codec for messages
+     */
+    public Journal(Path directory, int segmentSize, MessageCodec codec) {
+
+        super();
+
+        if (directory == null) {
+
+            throw new IllegalArgumentException("No directory (null) was specified!");
+        }
+
+        if (segmentSize <= JournalSegment.HEADER_SIZE) {
+
+            String message = String.format("An invalid segment size (%d) was specified!", segmentSize);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (codec == null) {
+
+            throw new IllegalArgumentException("No codec (null) was specified!");
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.codec = codec;
+
+        closedSegments = new ArrayList<>();
+        encodingBuffer = ByteBuffer.allocate(INITIAL_ENCODING_BUFFER_SIZE);
+        checksum = new CRC32();
+        commitMonitor = new Object();
+
+        try {
+
+            Files.createDirectories(directory);
+
+        } catch (IOException e) {
+
+            String message = String.format("Couldn't create the journal directory %s!", directory);
+            throw new JournalException(message, e);
+        }
+
+        long sequence = 0L;
+        List<Path> emptySegmentFiles = new ArrayList<>();
+
+        for (Path file : segmentFiles()) {
+
+            JournalSegment segment = JournalSegment.read(file, codec, null);
+            sequence = Math.max(sequence, segment.lastSequence());
+
+            if (segment.lastSequence() < segment.firstSequence()) {
+
+                emptySegmentFiles.add(file);
+
+            } else {
+
+                closedSegments.add(segment);
+            }
+        }
+
+        Path nextSegmentFile = directory.resolve(JournalSegment.fileName(sequence + 1L));
+        for (Path file : emptySegmentFiles) {
+
+            if (!file.equals(nextSegmentFile)) {
+
+                deleteFile(file);
+            }
+        }
+
+        lastSequence = sequence;
+        committedSequence = sequence;
+        currentSegment = JournalSegment.reuse(directory, sequence + 1L, segmentSize);
+    }
+
+    /**
+     * Deletes the specified file.
+     *
+     * @param file
+     *        a segment file
+     */
+    private static void deleteFile(Path file) {
+
+        try {
+
+            Files.deleteIfExists(file);
+
+        } catch (IOException e) {
+
+            String message = String.format("Couldn't delete the journal segment %s!", file);
+            throw new JournalException(message, e);
+        }
+    }
+
+    /**
+     * Returns all segment files in the order of their sequence numbers.
+     *
+     * @return segment files
+     */
+    private List<Path> segmentFiles() {
+
+        List<Path> files = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + JournalSegment.FILE_EXTENSION)) {
+
+            for (Path file : stream) {
+
+                files.add(file);
+            }
+
+        } catch (IOException e) {
+
+            String message = String.format("Couldn't read the journal directory %s!", directory);
+            throw new JournalException(message, e);
+        }
+
+        Collections.sort(files);
+
+        return files;
+    }
+
+    /**
+     * Passes all records of the segments which existed when the journal was opened to
+     * the specified visitor.
+     *
+     * @param visitor
+     *        an entity which processes the records
+     */
+    public synchronized void replay(ObjLongConsumer<Message> visitor) {
+
+        for (JournalSegment segment : closedSegments) {
+
+            JournalSegment.read(segment.file(), codec, visitor);
+        }
+    }
+
+    /**
+     * Appends the specified message to the journal. The record is not durable until
+     * {@link #awaitCommit(long)} returns.
+     *
+     * @param message
+     *        a message
+     *
+     * @return the sequence number of the record
+     */
+    public synchronized long append(Message message) {
+
+        int length = encode(message);
+
+        checksum.reset();
+        checksum.update(encodingBuffer.array(), 0, length);
+        int recordChecksum = (int) checksum.getValue();
+
+        long sequence = lastSequence + 1L;
+
+        if (!currentSegment.append(sequence, encodingBuffer.array(), length, recordChecksum)) {
+
+            if (JournalSegment.HEADER_SIZE + length > segmentSize) {
+
+                String text = String.format("The message (%d bytes) is too large for a segment!", length);
+                throw new IllegalArgumentException(text);
+            }
+
+            currentSegment.close();
+            closedSegments.add(currentSegment);
+            currentSegment = JournalSegment.create(directory, sequence, segmentSize);
+            currentSegment.append(sequence, encodingBuffer.array(), length, recordChecksum);
+        }
+
+        lastSequence = sequence;
+
+        return sequence;
+    }
+
+    /**
+     * Encodes the specified message. The encoding buffer is enlarged if necessary.
+     *
+     * @param message
+     *        a message
+     *
+     * @return the length of the encoded message
+     */
+    private int encode(Message message) {
+
+        while (true) {
+
+            encodingBuffer.clear();
+
+            try {
+
+                codec.encode(message, encodingBuffer);
+                return encodingBuffer.position();
+
+            } catch (BufferOverflowException e) {
+
+                encodingBuffer = ByteBuffer.allocate(encodingBuffer.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Waits until the record with the specified sequence number is durable. If the
+     * waiting thread is interrupted it returns immediately and the interrupt flag is
+     * restored.
+     *
+     * @param sequence
+     *        the sequence number of a record
+     */
+    public void awaitCommit(long sequence) {
+
+        while (true) {
+
+            synchronized (commitMonitor) {
+
+                if (committedSequence >= sequence) {
+
+                    return;
+                }
+
+                if (committing) {
+
+                    try {
+
+                        commitMonitor.wait();
+
+                    } catch (InterruptedException e) {
+
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    continue;
+                }
+
+                committing = true;
+            }
+
+            long targetSequence = lastSequence;
+
+            try {
+
+                forceCurrentSegment();
+
+            } finally {
+
+                synchronized (commitMonitor) {
+
+                    committedSequence = Math.max(committedSequence, targetSequence);
+                    committing = false;
+                    commitMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Forces the segment which is currently written. Segments are forced when they
+     * are closed, thus only the current segment may contain changes. Appending isn't
+     * blocked while the segment is forced.
+     */
+    private void forceCurrentSegment() {
+
+        currentSegment.force();
+    }
+
+    /**
+     * Returns the sequence number of the last durable record.
+     *
+     * @return a sequence number
+     */
+    public long committedSequence() {
+
+        synchronized (commitMonitor) {
+
+            return committedSequence;
+        }
+    }
+
+    /**
+     * Returns the sequence number of the last appended record.
+     *
+     * @return a sequence number
+     */
+    public long lastSequence() {
+
+        return lastSequence;
+    }
+
+    /**
+     * Deletes all closed segments whose records have the specified sequence number
+     * or a lower one.
+     *
+     * @param sequence
+     *        a sequence number
+     */
+    public synchronized void deleteSegments(long sequence) {
+
+        Iterator<JournalSegment> iterator = closedSegments.iterator();
+
+        while (iterator.hasNext()) {
+
+            JournalSegment segment = iterator.next();
+            if (segment.lastSequence() > sequence) {
+
+                break;
+            }
+
+            segment.close();
+            deleteFile(segment.file());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Reads the consumer offsets.
+     *
+     * @return all offsets (i.e. the key is the receiver name and the value the sequence
+     *         number of the last consumed record)
+     */
+    public Map<String, Long> readOffsets() {
+
+        Map<String, Long> offsets = new HashMap<>();
+        Path file = directory.resolve(OFFSETS_FILE);
+
+        if (!Files.exists(file)) {
+
+            return offsets;
+        }
+
+        try (InputStream stream = Files.newInputStream(file); DataInputStream input = new DataInputStream(stream)) {
+
+            int count = input.readInt();
+            for (int a = 0; a < count; a++) {
+
+                String receiverName = input.readUTF();
+                offsets.put(receiverName, input.readLong());
+            }
+
+        } catch (IOException e) {
+
+            String message = String.format("Couldn't read the offsets file %s!", file);
+            throw new JournalException(message, e);
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Writes the specified consumer offsets. The offsets file is replaced atomically.
+     *
+     * @param offsets
+     *        all offsets (i.e. the key is the receiver name and the value the sequence
+     *        number of the last consumed record)
+     */
+    public void writeOffsets(Map<String, Long> offsets) {
+
+        Path temporaryFile = directory.resolve(TEMPORARY_OFFSETS_FILE);
+
+        try (FileOutputStream stream = new FileOutputStream(temporaryFile.toFile());
+             DataOutputStream output = new DataOutputStream(stream)) {
+
+            output.writeInt(offsets.size());
+            for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+
+                output.writeUTF(entry.getKey());
+                output.writeLong(entry.getValue());
+            }
+
+            output.flush();
+            stream.getFD().sync();
+
+        } catch (IOException e) {
+
+            String message = String.format("Couldn't write the offsets file %s!", temporaryFile);
+            throw new JournalException(message, e);
+        }
+
+        try {
+
+            Files.move(temporaryFile, directory.resolve(OFFSETS_FILE), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException e) {
+
+            String message = String.format("Couldn't replace the offsets file in %s!", directory);
+            throw new JournalException(message, e);
+        }
+    }
+
+    /**
+     * Forces and closes the journal.
+     */
+    public synchronized void close() {
+
+        currentSegment.close();
+    }
+
+}
@@ -0,0 +1,453 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.journal;
+
+
+import java.io.IOException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+import jmul.messaging.Message;
+
+import jmul.terminal.messaging.codec.MessageCodec;
+import jmul.terminal.messaging.codec.MessageCodecException;
+
+
+/**
+ * This class represents a single file of a journal. The file is mapped into memory
+ * and records are appended one after another. Every record consists of a header
+ * (i.e. length, checksum and sequence number) and the encoded message. The length is
+ * written last, thus a record which was only partially written is not read.
+ *
+ * @author Kristian Kutin
+ */
+class JournalSegment {
+
+    /**
+     * The size of a record header in bytes.
+     */
+    static final int HEADER_SIZE;
+
+    /**
+     * The file extension of segment files.
+     */
+    static final String FILE_EXTENSION;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        HEADER_SIZE = 16;
+        FILE_EXTENSION = ".segment";
+    }
+
+    /**
+     * The segment file.
+     */
+    private final Path file;
+
+    /**
+     * The sequence number of the first record in this segment.
+     */
+    private final long firstSequence;
+
+    /**
+     * The sequence number of the last record in this segment.
+     */
+    private volatile long lastSequence;
+
+    /**
+     * The channel of the segment file (only while the segment is open).
+     */
+    private FileChannel channel;
+
+    /**
+     * The memory-mapped content of the segment file (only while the segment is open).
+     */
+    private volatile MappedByteBuffer buffer;
+
+    /**
+     * The position of the next record.
+     */
+    private int writePosition;
+
+    /**
+     * Creates a new segment according to the specified parameters.
+     *
+     * @param file
+     *        the segment file
+     * @param firstSequence
+     *        the sequence number of the first record
+     */
+    private JournalSegment(Path file, long firstSequence) {
+
+        super();
+
+        this.file = file;
+        this.firstSequence = firstSequence;
+        this.lastSequence = firstSequence - 1L;
+    }
+
+    /**
+     * Creates a new segment file and maps it into memory.
+     *
+     * @param directory
+     *        the journal directory
+     * @param firstSequence
+     *        the sequence number of the first record
+     * @param size
+     *        the size of the segment file in bytes
+     *
+     * @return a new segment
+     */
+    static JournalSegment create(Path directory, long firstSequence, int size) {
+
+        return create(directory, firstSequence, size, StandardOpenOption.CREATE_NEW);
+    }
+
+    /**
+     * Creates a new segment file or truncates an existing empty segment file (i.e. a
+     * segment file without records) and maps it into memory.
+     *
+     * @param directory
+     *        the journal directory
+     * @param firstSequence
+     *        the sequence number of the first record
+     * @param size
+     *        the size of the segment file in bytes
+     *
+     * @return a new segment
+     */
+    static JournalSegment reuse(Path directory, long firstSequence, int size) {
+
+        return create(directory, firstSequence, size, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Creates a segment file and maps it into memory.
+     *
+     * @param directory
+     *        the journal directory
+     * @param firstSequence
+     *        the sequence number of the first record
+     * @param size
+     *        the size of the segment file in bytes
+     * @param option
+     *        determines how an existing file is handled
+     *
+     * @return a new segment
+     */
+    private static JournalSegment create(Path directory, long firstSequence, int size, StandardOpenOption option) {
+
+        Path file = directory.resolve(fileName(firstSequence));
+        JournalSegment segment = new JournalSegment(file, firstSequence);
+
+        try {
+
+            if (option == StandardOpenOption.CREATE_NEW) {
+
+                segment.channel =
+                    FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                     StandardOpenOption.WRITE);
+
+            } else {
+
+                segment.channel =
+                    FileChannel.open(file, StandardOpenOption.CREATE, option, StandardOpenOption.READ,
+                                     StandardOpenOption.WRITE);
+            }
+
+            segment.buffer = segment.channel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+
+        } catch (IOException e) {
+
+            segment.close();
+
+            String message = String.format("Couldn't create the journal segment %s!", file);
+            throw new JournalException(message, e);
+        }
+
+        return segment;
+    }
+
+    /**
+     * Reads an existing segment file and passes all complete records to the specified
+     * visitor.
+     *
+     * @param file
+     *        a segment file
+     * @param codec
+     *        a codec for messages
+     * @param visitor
+     *        an entity which processes the records (may be <code>null</code>)
+     *
+     * @return the segment (closed)
+     */
+    static JournalSegment read(Path file, MessageCodec codec, ObjLongConsumer<Message> visitor) {
+
+        String fileName = file.getFileName().toString();
+        long firstSequence = Long.parseLong(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()));
+        JournalSegment segment = new JournalSegment(file, firstSequence);
+
+        MappedByteBuffer content = null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            CRC32 checksum = new CRC32();
+            int position = 0;
+
+            while (position + HEADER_SIZE <= content.limit()) {
+
+                int length = content.getInt(position);
+                if ((length <= 0) || (position + HEADER_SIZE + length > content.limit())) {
+
+                    break;
+                }
+
+                int expectedChecksum = content.getInt(position + 4);
+                long sequence = content.getLong(position + 8);
+
+                byte[] payload = new byte[length];
+                content.position(position + HEADER_SIZE);
+                content.get(payload);
+
+                checksum.reset();
+                checksum.update(payload, 0, length);
+                if ((int) checksum.getValue() != expectedChecksum) {
+
+                    break;
+                }
+
+                if (visitor != null) {
+
+                    visitor.accept(codec.decode(ByteBuffer.wrap(payload)), sequence);
+                }
+
+                segment.lastSequence = sequence;
+                position += HEADER_SIZE + length;
+            }
+
+        } catch (IOException | MessageCodecException e) {
+
+            String message = String.format("Couldn't read the journal segment %s!", file);
+            throw new JournalException(message, e);
+
+        } finally {
+
+            if (content != null) {
+
+                unmap(content);
+            }
+        }
+
+        return segment;
+    }
+
+    /**
+     * Returns the file name for a segment.
+     *
+     * @param firstSequence
+     *        the sequence number of the first record
+     *
+     * @return a file name
+     */
+    static String fileName(long firstSequence) {
+
+        return String.format("%020d%s", firstSequence, FILE_EXTENSION);
+    }
+
+    /**
+     * Appends a record to this segment.
+     *
+     * @param sequence
+     *        the sequence number of the record
+     * @param payload
+     *        the encoded message
+     * @param length
+     *        the length of the encoded message
+     * @param checksum
+     *        the checksum of the encoded message
+     *
+     * @return <code>true</code> if the record was appended, <code>false</code> if the
+     *         segment is full
+     */
+    boolean append(long sequence, byte[] payload, int length, int checksum) {
+
+        MappedByteBuffer currentBuffer = buffer;
+
+        if (writePosition + HEADER_SIZE + length > currentBuffer.capacity()) {
+
+            return false;
+        }
+
+        currentBuffer.putInt(writePosition + 4, checksum);
+        currentBuffer.putLong(writePosition + 8, sequence);
+        currentBuffer.position(writePosition + HEADER_SIZE);
+        currentBuffer.put(payload, 0, length);
+        currentBuffer.putInt(writePosition, length);
+
+        writePosition += HEADER_SIZE + length;
+        lastSequence = sequence;
+
+        return true;
+    }
+
+    /**
+     * Releases the memory mapping of the specified buffer right away instead of
+     * waiting for the garbage collector, thus the file can be deleted afterwards. The
+     * buffer must not be accessed anymore. If the java runtime doesn't allow releasing
+     * the mapping, the mapping is released by the garbage collector.
+     *
+     * @param mappedBuffer
+     *        a memory-mapped buffer
+     */
+    private static void unmap(MappedByteBuffer mappedBuffer) {
+
+        try {
+
+            Class<?> unsafeType = Class.forName("sun.misc.Unsafe");
+
+            try {
+
+                Method invokeCleaner = unsafeType.getMethod("invokeCleaner", ByteBuffer.class);
+                Field unsafeField = unsafeType.getDeclaredField("theUnsafe");
+                unsafeField.setAccessible(true);
+                invokeCleaner.invoke(unsafeField.get(null), mappedBuffer);
+
+            } catch (NoSuchMethodException e) {
+
+                Method cleanerMethod = mappedBuffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(mappedBuffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+
+        } catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException | IllegalAccessException |
+                 InvocationTargetException | RuntimeException e) {
+
+            // The mapping is released by the garbage collector.
+        }
+    }
+
+    /**
+     * Writes all changes of this segment to the storage device.
+     */
+    synchronized void force() {
+
+        MappedByteBuffer currentBuffer = buffer;
+
+        if (currentBuffer != null) {
+
+            currentBuffer.force();
+        }
+    }
+
+    /**
+     * Closes this segment and releases the memory mapping. The segment cannot be
+     * written afterwards.
+     */
+    synchronized void close() {
+
+        MappedByteBuffer currentBuffer = buffer;
+
+        if (currentBuffer != null) {
+
+            currentBuffer.force();
+            buffer = null;
+            unmap(currentBuffer);
+        }
+
+        if (channel != null) {
+
+            try {
+
+                channel.close();
+
+            } catch (IOException e) {
+
+                String message = String.format("Couldn't close the journal segment %s!", file);
+                throw new JournalException(message, e);
+
+            } finally {
+
+                channel = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the segment file.
+     *
+     * @return a file
+     */
+    Path file() {
+
+        return file;
+    }
+
+    /**
+     * Returns the sequence number of the first record in this segment.
+     *
+     * @return a sequence number
+     */
+    long firstSequence() {
+
+        return firstSequence;
+    }
+
+    /**
+     * Returns the sequence number of the last record in this segment.
+     *
+     * @return a sequence number (i.e. lower than the first sequence number if the
+     *         segment is empty)
+     */
+    long lastSequence() {
+
+        return lastSequence;
+    }
+
+}
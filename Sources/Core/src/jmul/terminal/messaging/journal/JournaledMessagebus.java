@@ -0,0 +1,510 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.journal;
+
+
+import java.nio.file.Path;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQuery;
+import jmul.messaging.MessageQueryResult;
+
+import jmul.terminal.messaging.BlockingMessagebus;
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.codec.StandardMessageCodec;
+
+
+/**
+ * A messagebus which writes every message to a journal before the sender is
+ * acknowledged. The messages are delivered by an in-memory messagebus. A message is
+ * only delivered after its journal entry is durable, thus a receiver never processes
+ * a message which would be lost on a crash. Messages are delivered in the order of
+ * their journal entries.<br>
+ * <br>
+ * The sequence number of the last fetched message is tracked per receiver (i.e. the
+ * consumer offset). Offsets are written regularly and when the messagebus is closed.
+ * When the messagebus is created again all messages which were not fetched yet are
+ * replayed. Messages which were fetched after the last checkpoint are delivered again.
+ * Segments which only contain fetched messages are deleted.
+ *
+ * @author Kristian Kutin
+ */
+public class JournaledMessagebus implements BlockingMessagebus {
+
+    /**
+     * The minimum interval in milliseconds between two checkpoints.
+     */
+    private static final long CHECKPOINT_INTERVAL;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        CHECKPOINT_INTERVAL = 1000L;
+    }
+
+    /**
+     * The journal.
+     */
+    private final Journal journal;
+
+    /**
+     * The messagebus which delivers the messages.
+     */
+    private final BlockingQueuingMessagebus messagebus;
+
+    /**
+     * The sequence numbers of all messages which were not fetched yet, per receiver.
+     * The order is the same as in the receiver's mailbox.
+     */
+    private final ConcurrentHashMap<String, Queue<Long>> pendingSequences;
+
+    /**
+     * All journaled messages which are not durable yet and thus not delivered yet
+     * (i.e. the oldest message first).
+     */
+    private final Queue<JournaledMessage> undeliveredMessages;
+
+    /**
+     * The sequence number of the last fetched message, per receiver.
+     */
+    private final ConcurrentHashMap<String, Long> offsets;
+
+    /**
+     * A flag which indicates that a checkpoint is currently written.
+     */
+    private final AtomicBoolean checkpointing;
+
+    /**
+     * The time of the next checkpoint.
+     */
+    private volatile long nextCheckpoint;
+
+    /**
+     * Creates a new messagebus according to the specified parameters. All messages
+     * in the journal which were not fetched yet are replayed.
+     *
+     * @param directory
+     *        the journal directory
+     * @param segmentSize
+     *        the size of a segment file in bytes
+     * @param receiverNames
+     *        the names of all receivers which are known in advance
+     */
+    public JournaledMessagebus(Path directory, int segmentSize, String... receiverNames) {
+
+        super();
+
+        journal = new Journal(directory, segmentSize, new StandardMessageCodec());
+        messagebus = new BlockingQueuingMessagebus(receiverNames);
+        pendingSequences = new ConcurrentHashMap<>();
+        undeliveredMessages = new ArrayDeque<>();
+        offsets = new ConcurrentHashMap<>(journal.readOffsets());
+        checkpointing = new AtomicBoolean();
+        nextCheckpoint = System.currentTimeMillis() + CHECKPOINT_INTERVAL;
+
+        journal.replay(new ObjLongConsumer<Message>() {
+
+            @Override
+            public void accept(Message message, long sequence) {
+
+                if (sequence > offset(message.receiverName())) {
+
+                    pendingSequences(message.receiverName()).add(sequence);
+                    messagebus.send(message);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the sequence number of the last message which the specified receiver
+     * fetched.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return a sequence number or zero if the receiver didn't fetch a message yet
+     */
+    public long offset(String receiverName) {
+
+        Long offset = offsets.get(receiverName);
+        if (offset == null) {
+
+            return 0L;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Returns the pending sequence numbers of the specified receiver. A missing queue
+     * is created.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return the pending sequence numbers
+     */
+    private Queue<Long> pendingSequences(String receiverName) {
+
+        Queue<Long> sequences = pendingSequences.get(receiverName);
+        if (sequences == null) {
+
+            pendingSequences.putIfAbsent(receiverName, new ConcurrentLinkedQueue<Long>());
+            sequences = pendingSequences.get(receiverName);
+        }
+
+        return sequences;
+    }
+
+    /**
+     * Appends the specified message to the journal, waits until the journal entry is
+     * durable and delivers it. Messages of other senders which became durable with the
+     * same commit are delivered as well. If the sender is interrupted while waiting,
+     * the message is delivered with the next commit.
+     *
+     * @param message
+     *        a message
+     */
+    @Override
+    public void send(Message message) {
+
+        if (message == null) {
+
+            throw new IllegalArgumentException("No message (null) was specified!");
+        }
+
+        long sequence;
+
+        synchronized (this) {
+
+            sequence = journal.append(message);
+            undeliveredMessages.add(new JournaledMessage(message, sequence));
+        }
+
+        journal.awaitCommit(sequence);
+        deliverDurableMessages();
+
+        if (System.currentTimeMillis() >= nextCheckpoint) {
+
+            checkpoint();
+        }
+    }
+
+    /**
+     * Delivers all journaled messages which are durable in the order of their journal
+     * entries.
+     */
+    private synchronized void deliverDurableMessages() {
+
+        long committedSequence = journal.committedSequence();
+
+        while (!undeliveredMessages.isEmpty() && (undeliveredMessages.peek().sequence <= committedSequence)) {
+
+            JournaledMessage journaledMessage = undeliveredMessages.poll();
+            Message message = journaledMessage.message;
+
+            pendingSequences(message.receiverName()).add(journaledMessage.sequence);
+            messagebus.send(message);
+        }
+    }
+
+    /**
+     * Updates the offset of the specified receiver after a message was fetched.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     */
+    private void acknowledge(String receiverName) {
+
+        Queue<Long> sequences = pendingSequences.get(receiverName);
+        if (sequences == null) {
+
+            return;
+        }
+
+        Long sequence = sequences.poll();
+        if (sequence != null) {
+
+            offsets.put(receiverName, sequence);
+        }
+    }
+
+    /**
+     * Updates the offset of the receiver if a message was fetched.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param result
+     *        the query result
+     *
+     * @return the specified query result
+     */
+    private MessageQueryResult acknowledge(MessageQuery query, MessageQueryResult result) {
+
+        if (result.existsResult()) {
+
+            acknowledge(query.queryString());
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a consumer which updates the offset of the receiver before passing each
+     * message to the specified consumer.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return a consumer
+     */
+    private Consumer<Message> acknowledging(final MessageQuery query, final Consumer<? super Message> consumer) {
+
+        if (consumer == null) {
+
+            throw new IllegalArgumentException("No consumer (null) was specified!");
+        }
+
+        return new Consumer<Message>() {
+
+            @Override
+            public void accept(Message message) {
+
+                acknowledge(query.queryString());
+                consumer.accept(message);
+            }
+        };
+    }
+
+    /**
+     * Fetches the next message for the specified receiver.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult fetch(MessageQuery query) {
+
+        return acknowledge(query, messagebus.fetch(query));
+    }
+
+    /**
+     * Waits until a message for the specified receiver is available and returns it.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult await(MessageQuery query) {
+
+        return acknowledge(query, messagebus.await(query));
+    }
+
+    /**
+     * Waits at most the specified time until a message for the specified receiver is
+     * available.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult await(MessageQuery query, long timeout) {
+
+        return acknowledge(query, messagebus.await(query, timeout));
+    }
+
+    /**
+     * Passes up to the specified number of messages for the specified receiver to the
+     * specified consumer.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    @Override
+    public int drain(MessageQuery query, int maxMessages, Consumer<? super Message> consumer) {
+
+        return messagebus.drain(query, maxMessages, acknowledging(query, consumer));
+    }
+
+    /**
+     * Waits at most the specified time for the first message and passes up to the
+     * specified number of messages for the specified receiver to the specified consumer.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    @Override
+    public int drain(MessageQuery query, int maxMessages, Consumer<? super Message> consumer, long timeout) {
+
+        return messagebus.drain(query, maxMessages, acknowledging(query, consumer), timeout);
+    }
+
+    /**
+     * Returns the number of messages which were not fetched yet.
+     *
+     * @return the number of messages
+     */
+    @Override
+    public int size() {
+
+        return messagebus.size();
+    }
+
+    /**
+     * Writes the consumer offsets and deletes all segments which only contain fetched
+     * messages. If another thread is already writing a checkpoint this method returns
+     * immediately.
+     */
+    public void checkpoint() {
+
+        if (!checkpointing.compareAndSet(false, true)) {
+
+            return;
+        }
+
+        try {
+
+            long lowestPendingSequence;
+
+            synchronized (this) {
+
+                lowestPendingSequence = journal.lastSequence() + 1L;
+
+                JournaledMessage undeliveredMessage = undeliveredMessages.peek();
+                if (undeliveredMessage != null) {
+
+                    lowestPendingSequence = undeliveredMessage.sequence;
+                }
+
+                for (Queue<Long> sequences : pendingSequences.values()) {
+
+                    Long sequence = sequences.peek();
+                    if (sequence != null) {
+
+                        lowestPendingSequence = Math.min(lowestPendingSequence, sequence);
+                    }
+                }
+            }
+
+            Map<String, Long> snapshot = new HashMap<>(offsets);
+            journal.writeOffsets(snapshot);
+            journal.deleteSegments(lowestPendingSequence - 1L);
+
+            nextCheckpoint = System.currentTimeMillis() + CHECKPOINT_INTERVAL;
+
+        } finally {
+
+            checkpointing.set(false);
+        }
+    }
+
+    /**
+     * Writes a checkpoint and closes the journal.
+     */
+    public void close() {
+
+        checkpoint();
+        journal.close();
+    }
+
+
+    /**
+     * A message and the sequence number of its journal entry.
+     */
+    static final class JournaledMessage {
+
+        /**
+         * The message.
+         */
+        final Message message;
+
+        /**
+         * The sequence number of the journal entry.
+         */
+        final long sequence;
+
+        /**
+         * Creates a new instance according to the specified parameters.
+         *
+         * @param message
+         *        a message
+         * @param sequence
+         *        the sequence number of the journal entry
+         */
+        JournaledMessage(Message message, long sequence) {
+
+            this.message = message;
+            this.sequence = sequence;
+        }
+
+    }
+
+}
@@ -0,0 +1,328 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.socket;
+
+
+import java.io.IOException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * This class represents the address of a message broker. A Unix domain socket is used
+ * if the Java runtime supports it (i.e. Java 16 or later). Otherwise a TCP socket on
+ * the loopback interface is used.
+ *
+ * @author Kristian Kutin
+ */
+public final class BrokerAddress {
+
+    /**
+     * The path of the Unix domain socket or <code>null</code> if a TCP socket is used.
+     */
+    private final Path socketFile;
+
+    /**
+     * The TCP port (only relevant if no Unix domain socket is used).
+     */
+    private final int port;
+
+    /**
+     * Creates a new address according to the specified parameters.
+     *
+     * @param socketFile
+     *        the path of a Unix domain socket or <code>null</code>
+     * @param port
+     *        a TCP port
+     */
+    private BrokerAddress(Path socketFile, int port) {
+
+        super();
+
+        this.socketFile = socketFile;
+        this.port = port;
+    }
+
+    /**
+     * Returns an address for a Unix domain socket if the Java runtime supports it,
+     * else an address for a TCP socket on the loopback interface.
+     *
+     * @param socketFile
+     *        the path of the Unix domain socket
+     * @param fallbackPort
+     *        the TCP port if Unix domain sockets are not supported
+     *
+     * @return an address
+     */
+    public static BrokerAddress newAddress(Path socketFile, int fallbackPort) {
+
+        if (socketFile == null) {
+
+            throw new IllegalArgumentException("No socket file (null) was specified!");
+        }
+
+        if (isUnixDomainSocketSupported()) {
+
+            return new BrokerAddress(socketFile, 0);
+        }
+
+        return newLoopbackAddress(fallbackPort);
+    }
+
+    /**
+     * Returns an address for a TCP socket on the loopback interface.
+     *
+     * @param port
+     *        a TCP port
+     *
+     * @return an address
+     */
+    public static BrokerAddress newLoopbackAddress(int port) {
+
+        if ((port < 0) || (port > 65535)) {
+
+            String message = String.format("An invalid port (%d) was specified!", port);
+            throw new IllegalArgumentException(message);
+        }
+
+        return new BrokerAddress(null, port);
+    }
+
+    /**
+     * Checks if the Java runtime supports Unix domain sockets.
+     *
+     * @return <code>true</code> if Unix domain sockets are supported, else <code>false</code>
+     */
+    public static boolean isUnixDomainSocketSupported() {
+
+        try {
+
+            Class.forName("java.net.UnixDomainSocketAddress");
+            StandardProtocolFamily.valueOf("UNIX");
+            return true;
+
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+
+            return false;
+        }
+    }
+
+    /**
+     * Checks if this address refers to a Unix domain socket.
+     *
+     * @return <code>true</code> if this address refers to a Unix domain socket, else
+     *         <code>false</code>
+     */
+    public boolean isUnixDomainSocket() {
+
+        return socketFile != null;
+    }
+
+    /**
+     * Opens a server socket which is bound to this address. An existing socket file
+     * is deleted.
+     *
+     * @return a server socket channel
+     *
+     * @throws IOException
+     *         is thrown if the socket cannot be bound
+     */
+    public ServerSocketChannel bind() throws IOException {
+
+        if (socketFile == null) {
+
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            return channel;
+        }
+
+        Files.deleteIfExists(socketFile);
+
+        ServerSocketChannel channel = (ServerSocketChannel) openUnixDomainChannel(ServerSocketChannel.class);
+        channel.bind(unixDomainSocketAddress());
+        return channel;
+    }
+
+    /**
+     * Opens a socket which is connected to this address.
+     *
+     * @return a socket channel
+     *
+     * @throws IOException
+     *         is thrown if the socket cannot be connected
+     */
+    public SocketChannel connect() throws IOException {
+
+        if (socketFile == null) {
+
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            channel.socket().setTcpNoDelay(true);
+            return channel;
+        }
+
+        SocketChannel channel = (SocketChannel) openUnixDomainChannel(SocketChannel.class);
+        channel.connect(unixDomainSocketAddress());
+        return channel;
+    }
+
+    /**
+     * Opens an unbound channel for Unix domain sockets.
+     *
+     * @param channelType
+     *        the channel type (i.e. a server socket channel or a socket channel)
+     *
+     * @return a channel
+     *
+     * @throws IOException
+     *         is thrown if the channel cannot be opened
+     */
+    private static Object openUnixDomainChannel(Class<?> channelType) throws IOException {
+
+        try {
+
+            Method method = channelType.getMethod("open", ProtocolFamily.class);
+            return invoke(method, null, StandardProtocolFamily.valueOf("UNIX"));
+
+        } catch (NoSuchMethodException e) {
+
+            throw new IOException("Unix domain sockets are not supported!", e);
+        }
+    }
+
+    /**
+     * Creates a Unix domain socket address.
+     *
+     * @return a socket address
+     *
+     * @throws IOException
+     *         is thrown if the address cannot be created
+     */
+    private SocketAddress unixDomainSocketAddress() throws IOException {
+
+        try {
+
+            Class<?> addressClass = Class.forName("java.net.UnixDomainSocketAddress");
+            return (SocketAddress) invoke(addressClass.getMethod("of", Path.class), null, socketFile);
+
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+
+            throw new IOException("Unix domain sockets are not supported!", e);
+        }
+    }
+
+    /**
+     * Invokes the specified method.
+     *
+     * @param method
+     *        a method
+     * @param target
+     *        the target object or <code>null</code> for a static method
+     * @param arguments
+     *        the arguments
+     *
+     * @return the result
+     *
+     * @throws IOException
+     *         is thrown if the method cannot be invoked or throws an exception
+     */
+    private static Object invoke(Method method, Object target, Object... arguments) throws IOException {
+
+        try {
+
+            return method.invoke(target, arguments);
+
+        } catch (InvocationTargetException e) {
+
+            if (e.getCause() instanceof IOException) {
+
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Couldn't open a Unix domain socket!", e.getCause());
+
+        } catch (IllegalAccessException e) {
+
+            throw new IOException("Couldn't open a Unix domain socket!", e);
+        }
+    }
+
+    /**
+     * Returns the path of the Unix domain socket.
+     *
+     * @return a path or <code>null</code> if a TCP socket is used
+     */
+    public Path socketFile() {
+
+        return socketFile;
+    }
+
+    /**
+     * Returns the TCP port.
+     *
+     * @return a port
+     */
+    public int port() {
+
+        return port;
+    }
+
+    /**
+     * Returns a string representation for this address.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        if (socketFile != null) {
+
+            return "unix:" + socketFile;
+        }
+
+        return "tcp:localhost:" + port;
+    }
+
+}
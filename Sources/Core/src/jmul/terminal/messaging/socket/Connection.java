@@ -0,0 +1,674 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.socket;
+
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import jmul.messaging.Message;
+
+import jmul.terminal.messaging.DeadLetterQueue;
+import jmul.terminal.messaging.DeadLetterReasons;
+import jmul.terminal.messaging.Mailbox;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.MessagePriorities;
+import jmul.terminal.messaging.codec.MessageCodec;
+import jmul.terminal.messaging.codec.MessageCodecException;
+
+
+/**
+ * This class represents a connection between a messagebus client and a message broker.
+ * Data is exchanged in frames. Every frame starts with its length and a frame type.
+ * Outgoing messages are queued in a bounded mailbox and written in batches (i.e. one
+ * frame contains the messages which were queued while the previous frame was written
+ * as long as they fit into a frame). Messages which cannot be encoded or which exceed
+ * the maximum frame size are passed to the dead letter queue. When the connection is
+ * closed all queued messages are passed to the dead letter queue as well.
+ *
+ * @author Kristian Kutin
+ */
+class Connection {
+
+    /**
+     * The frame type for announcing receivers.
+     */
+    private static final byte HELLO_FRAME;
+
+    /**
+     * The frame type for messages.
+     */
+    private static final byte MESSAGES_FRAME;
+
+    /**
+     * The maximum number of messages in a frame.
+     */
+    private static final int MAX_BATCH_SIZE;
+
+    /**
+     * The initial size of the frame buffers.
+     */
+    private static final int INITIAL_BUFFER_SIZE;
+
+    /**
+     * The maximum size of a frame.
+     */
+    private static final int MAX_FRAME_SIZE;
+
+    /**
+     * The size of a message frame's header (i.e. length, frame type and message count).
+     */
+    private static final int FRAME_HEADER_SIZE;
+
+    /**
+     * The time in milliseconds after which the writer checks if the connection was
+     * closed.
+     */
+    private static final long POLL_TIME;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        HELLO_FRAME = 1;
+        MESSAGES_FRAME = 2;
+        MAX_BATCH_SIZE = 256;
+        INITIAL_BUFFER_SIZE = 65536;
+        MAX_FRAME_SIZE = 64 * 1024 * 1024;
+        FRAME_HEADER_SIZE = 9;
+        POLL_TIME = 100L;
+    }
+
+    /**
+     * The name of this connection.
+     */
+    private final String name;
+
+    /**
+     * The socket channel.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * A codec for messages.
+     */
+    private final MessageCodec codec;
+
+    /**
+     * An entity which is notified about received frames.
+     */
+    private final ConnectionListener listener;
+
+    /**
+     * All messages which were not written yet.
+     */
+    private final Mailbox outgoingMessages;
+
+    /**
+     * The dead letter queue for messages which cannot be transmitted.
+     */
+    private final DeadLetterQueue deadLetterQueue;
+
+    /**
+     * A lock for writing frames.
+     */
+    private final Object writeLock;
+
+    /**
+     * The thread which reads frames.
+     */
+    private final Thread readerThread;
+
+    /**
+     * The thread which writes message frames.
+     */
+    private final Thread writerThread;
+
+    /**
+     * A flag which indicates that this connection is closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a new connection according to the specified parameters.
+     *
+     * @param name
+     *        the name of this connection
+     * @param channel
+     *        a connected socket channel
+     * @param codec
+     *        a codec for messages
+     * @param listener
+     *        an entity which is notified about received frames
+     * @param configuration
+     *        the configuration of the queue for outgoing messages
+     * @param deadLetterQueue
+     *        the dead letter queue for messages which cannot be transmitted
+     */
+    Connection(String name, SocketChannel channel, MessageCodec codec, ConnectionListener listener,
+               MailboxConfiguration configuration, DeadLetterQueue deadLetterQueue) {
+
+        super();
+
+        this.name = name;
+        this.channel = channel;
+        this.codec = codec;
+        this.listener = listener;
+        this.deadLetterQueue = deadLetterQueue;
+
+        outgoingMessages = new Mailbox(name, configuration);
+        outgoingMessages.setDeadLetterQueue(deadLetterQueue);
+        writeLock = new Object();
+
+        readerThread = new Thread(name + " (reader)") {
+
+            @Override
+            public void run() {
+
+                readFrames();
+            }
+        };
+        readerThread.setDaemon(true);
+
+        writerThread = new Thread(name + " (writer)") {
+
+            @Override
+            public void run() {
+
+                writeFrames();
+            }
+        };
+        writerThread.setDaemon(true);
+    }
+
+    /**
+     * Starts reading and writing frames.
+     */
+    void start() {
+
+        readerThread.start();
+        writerThread.start();
+    }
+
+    /**
+     * Queues the specified message. If the queue is full the overflow policy of the queue
+     * is applied. If the connection has been closed the message is passed to the dead
+     * letter queue.
+     *
+     * @param message
+     *        a message
+     *
+     * @throws jmul.terminal.messaging.MailboxOverflowException
+     *         is thrown if the message was rejected
+     */
+    void send(Message message) {
+
+        outgoingMessages.put(message);
+    }
+
+    /**
+     * Queues the specified message unless the queue is full. A message which doesn't
+     * fit is passed to the dead letter queue.
+     *
+     * @param message
+     *        a message
+     *
+     * @return <code>true</code> if the message was queued, else <code>false</code>
+     */
+    boolean trySend(Message message) {
+
+        return outgoingMessages.offer(message, MessagePriorities.STANDARD);
+    }
+
+    /**
+     * Announces the receivers which are served by this side of the connection.
+     *
+     * @param receiverNames
+     *        the names of receivers
+     *
+     * @throws IOException
+     *         is thrown if the frame cannot be written
+     */
+    void announce(String... receiverNames) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+        while (true) {
+
+            try {
+
+                buffer.clear();
+                buffer.position(4);
+                buffer.put(HELLO_FRAME);
+                buffer.putInt(receiverNames.length);
+
+                for (String receiverName : receiverNames) {
+
+                    byte[] bytes = receiverName.getBytes(StandardCharsets.UTF_8);
+                    buffer.putInt(bytes.length);
+                    buffer.put(bytes);
+                }
+
+                break;
+
+            } catch (BufferOverflowException e) {
+
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+
+        writeFrame(buffer);
+    }
+
+    /**
+     * Writes message frames until this connection is closed. Remaining messages are
+     * written before the writer ends.
+     */
+    private void writeFrames() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        final List<Message> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        Consumer<Message> collector = new Consumer<Message>() {
+
+            @Override
+            public void accept(Message message) {
+
+                batch.add(message);
+            }
+        };
+
+        try {
+
+            while (!closed || (outgoingMessages.size() > 0)) {
+
+                Message message = outgoingMessages.poll(POLL_TIME, TimeUnit.MILLISECONDS);
+                if (message == null) {
+
+                    continue;
+                }
+
+                batch.clear();
+                batch.add(message);
+                outgoingMessages.drain(MAX_BATCH_SIZE - 1, collector);
+
+                buffer = writeMessages(buffer, batch);
+            }
+
+        } catch (IOException e) {
+
+            close();
+        }
+    }
+
+    /**
+     * Encodes the specified messages and writes them in as few frames as possible. The
+     * buffer is enlarged up to the maximum frame size if a single message doesn't fit.
+     * Messages which cannot be encoded or which exceed the maximum frame size are passed
+     * to the dead letter queue.
+     *
+     * @param buffer
+     *        a buffer
+     * @param messages
+     *        the messages
+     *
+     * @return the buffer which was used last
+     *
+     * @throws IOException
+     *         is thrown if a frame cannot be written
+     */
+    private ByteBuffer writeMessages(ByteBuffer buffer, List<Message> messages) throws IOException {
+
+        ByteBuffer currentBuffer = buffer;
+        startMessagesFrame(currentBuffer);
+        int count = 0;
+
+        for (Message message : messages) {
+
+            while (true) {
+
+                int lengthPosition = currentBuffer.position();
+
+                try {
+
+                    if (encodeMessage(currentBuffer, message)) {
+
+                        count++;
+
+                    } else {
+
+                        currentBuffer.position(lengthPosition);
+                        deadLetterQueue.add(message, DeadLetterReasons.UNENCODABLE);
+                    }
+
+                    break;
+
+                } catch (BufferOverflowException e) {
+
+                    currentBuffer.position(lengthPosition);
+                }
+
+                if (count > 0) {
+
+                    // the frame is full; the message is encoded into the next frame
+                    writeMessagesFrame(currentBuffer, count);
+                    startMessagesFrame(currentBuffer);
+                    count = 0;
+
+                } else if (currentBuffer.capacity() < MAX_FRAME_SIZE) {
+
+                    currentBuffer = ByteBuffer.allocate(Math.min(currentBuffer.capacity() * 2, MAX_FRAME_SIZE));
+                    startMessagesFrame(currentBuffer);
+
+                } else {
+
+                    deadLetterQueue.add(message, DeadLetterReasons.UNENCODABLE);
+                    break;
+                }
+            }
+        }
+
+        if (count > 0) {
+
+            writeMessagesFrame(currentBuffer, count);
+        }
+
+        return currentBuffer;
+    }
+
+    /**
+     * Writes the header of a message frame into the specified buffer.
+     *
+     * @param buffer
+     *        a buffer
+     */
+    private static void startMessagesFrame(ByteBuffer buffer) {
+
+        buffer.clear();
+        buffer.position(4);
+        buffer.put(MESSAGES_FRAME);
+        buffer.putInt(0);
+    }
+
+    /**
+     * Writes the specified message frame.
+     *
+     * @param buffer
+     *        a buffer which contains the frame
+     * @param count
+     *        the number of messages in the frame
+     *
+     * @throws IOException
+     *         is thrown if the frame cannot be written
+     */
+    private void writeMessagesFrame(ByteBuffer buffer, int count) throws IOException {
+
+        buffer.putInt(FRAME_HEADER_SIZE - 4, count);
+        writeFrame(buffer);
+    }
+
+    /**
+     * Encodes the specified message at the current position of the specified buffer.
+     *
+     * @param buffer
+     *        a buffer
+     * @param message
+     *        a message
+     *
+     * @return <code>true</code> if the message was encoded, <code>false</code> if the
+     *         message cannot be encoded
+     *
+     * @throws BufferOverflowException
+     *         is thrown if the message doesn't fit into the buffer
+     */
+    private boolean encodeMessage(ByteBuffer buffer, Message message) {
+
+        int lengthPosition = buffer.position();
+        if (buffer.remaining() < 4) {
+
+            throw new BufferOverflowException();
+        }
+
+        buffer.position(lengthPosition + 4);
+
+        try {
+
+            codec.encode(message, buffer);
+
+        } catch (MessageCodecException e) {
+
+            return false;
+        }
+
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - 4);
+        return true;
+    }
+
+    /**
+     * Writes the specified frame (i.e. from the beginning of the buffer to its current
+     * position). The frame length is written into the first four bytes.
+     *
+     * @param buffer
+     *        a buffer which contains the frame
+     *
+     * @throws IOException
+     *         is thrown if the frame cannot be written
+     */
+    private void writeFrame(ByteBuffer buffer) throws IOException {
+
+        buffer.putInt(0, buffer.position() - 4);
+        buffer.flip();
+
+        synchronized (writeLock) {
+
+            while (buffer.hasRemaining()) {
+
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads frames until this connection is closed.
+     */
+    private void readFrames() {
+
+        ByteBuffer header = ByteBuffer.allocate(4);
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+        try {
+
+            while (!closed) {
+
+                header.clear();
+                readFully(header);
+                int length = header.getInt(0);
+
+                if ((length <= 0) || (length > MAX_FRAME_SIZE)) {
+
+                    String message = String.format("An invalid frame length (%d) was read!", length);
+                    throw new IOException(message);
+                }
+
+                if (buffer.capacity() < length) {
+
+                    buffer = ByteBuffer.allocate(Integer.highestOneBit(length) * 2);
+                }
+
+                buffer.clear();
+                buffer.limit(length);
+                readFully(buffer);
+                buffer.flip();
+
+                processFrame(buffer);
+            }
+
+        } catch (IOException | RuntimeException e) {
+
+            // the connection is closed
+        }
+
+        close();
+        listener.connectionClosed(this);
+    }
+
+    /**
+     * Reads until the specified buffer is full.
+     *
+     * @param buffer
+     *        a buffer
+     *
+     * @throws IOException
+     *         is thrown if the channel cannot be read or the end of the stream is reached
+     */
+    private void readFully(ByteBuffer buffer) throws IOException {
+
+        while (buffer.hasRemaining()) {
+
+            if (channel.read(buffer) < 0) {
+
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Processes the specified frame.
+     *
+     * @param buffer
+     *        a buffer which contains the frame (without length)
+     */
+    private void processFrame(ByteBuffer buffer) {
+
+        byte frameType = buffer.get();
+        int count = buffer.getInt();
+
+        if (frameType == HELLO_FRAME) {
+
+            String[] receiverNames = new String[count];
+            for (int a = 0; a < count; a++) {
+
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                receiverNames[a] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            listener.receiversAnnounced(this, receiverNames);
+
+        } else if (frameType == MESSAGES_FRAME) {
+
+            for (int a = 0; a < count; a++) {
+
+                int length = buffer.getInt();
+                int end = buffer.position() + length;
+
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(end);
+                listener.messageReceived(this, codec.decode(slice));
+
+                buffer.position(end);
+            }
+        }
+    }
+
+    /**
+     * Closes this connection. Queued messages are written before the channel is closed.
+     * Messages which couldn't be written are passed to the dead letter queue.
+     */
+    void close() {
+
+        if (closed) {
+
+            return;
+        }
+
+        closed = true;
+
+        if (Thread.currentThread() != writerThread) {
+
+            try {
+
+                writerThread.join(POLL_TIME * 10L);
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        try {
+
+            channel.close();
+
+        } catch (IOException e) {
+
+            // the channel is closed anyway
+        }
+
+        outgoingMessages.close();
+    }
+
+    /**
+     * Returns the name of this connection.
+     *
+     * @return a name
+     */
+    String name() {
+
+        return name;
+    }
+
+    /**
+     * Returns a string representation for this connection.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        return name;
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.socket;
+
+
+import jmul.messaging.Message;
+
+
+/**
+ * This interface describes an entity which is notified about frames which were
+ * received by a connection.
+ *
+ * @author Kristian Kutin
+ */
+interface ConnectionListener {
+
+    /**
+     * The remote side announced the receivers which it serves.
+     *
+     * @param connection
+     *        the connection
+     * @param receiverNames
+     *        the names of receivers
+     */
+    void receiversAnnounced(Connection connection, String[] receiverNames);
+
+    /**
+     * A message was received.
+     *
+     * @param connection
+     *        the connection
+     * @param message
+     *        a message
+     */
+    void messageReceived(Connection connection, Message message);
+
+    /**
+     * The connection was closed.
+     *
+     * @param connection
+     *        the connection
+     */
+    void connectionClosed(Connection connection);
+
+}
@@ -0,0 +1,472 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.socket;
+
+
+import java.io.IOException;
+
+import java.net.InetSocketAddress;
+
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jmul.messaging.Message;
+
+import jmul.terminal.messaging.DeadLetterQueue;
+import jmul.terminal.messaging.DeadLetterReasons;
+import jmul.terminal.messaging.Mailbox;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.MailboxOverflowException;
+import jmul.terminal.messaging.OverflowPolicies;
+import jmul.terminal.messaging.codec.MessageCodec;
+import jmul.terminal.messaging.codec.StandardMessageCodec;
+
+
+/**
+ * A local message broker which routes messages between processes. Every client
+ * announces the receivers which it serves. A message is forwarded to the client
+ * which serves the message's receiver. Messages for receivers which were not
+ * announced yet are kept until a client announces the receiver.<br>
+ * <br>
+ * The messages for every client and every unannounced receiver are kept in bounded
+ * mailboxes. If a mailbox is full the overflow policy is applied. Rejected messages
+ * are passed to the broker's dead letter queue. Blocking overflow policies should be
+ * avoided because a slow client would stall the routing for all clients.
+ *
+ * @author Kristian Kutin
+ */
+public class MessageBroker {
+
+    /**
+     * The default capacity of the mailboxes for clients and unannounced receivers.
+     */
+    public static final int DEFAULT_BACKLOG_CAPACITY;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_BACKLOG_CAPACITY = 65536;
+    }
+
+    /**
+     * The address which the broker was asked to listen on.
+     */
+    private final BrokerAddress requestedAddress;
+
+    /**
+     * The address which the broker actually listens on.
+     */
+    private volatile BrokerAddress address;
+
+    /**
+     * A codec for messages.
+     */
+    private final MessageCodec codec;
+
+    /**
+     * The routes (i.e. the key is the receiver name and the value the connection to
+     * the client which serves the receiver).
+     */
+    private final Map<String, Connection> routes;
+
+    /**
+     * Messages for receivers which were not announced yet.
+     */
+    private final Map<String, Mailbox> backlog;
+
+    /**
+     * The configuration of the mailboxes for clients and unannounced receivers.
+     */
+    private final MailboxConfiguration backlogConfiguration;
+
+    /**
+     * The dead letter queue for messages which cannot be routed.
+     */
+    private final DeadLetterQueue deadLetterQueue;
+
+    /**
+     * All open connections.
+     */
+    private final Set<Connection> connections;
+
+    /**
+     * The server socket.
+     */
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * The thread which accepts new connections.
+     */
+    private Thread acceptorThread;
+
+    /**
+     * A flag which indicates that the broker was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a new broker according to the specified parameter. Messages are rejected
+     * if a client's mailbox is full.
+     *
+     * @param address
+     *        the address which the broker listens on (i.e. a TCP port of zero selects
+     *        a free port)
+     */
+    public MessageBroker(BrokerAddress address) {
+
+        this(address, new MailboxConfiguration(DEFAULT_BACKLOG_CAPACITY, OverflowPolicies.FAIL));
+    }
+
+    /**
+     * Creates a new broker according to the specified parameters.
+     *
+     * @param address
+     *        the address which the broker listens on (i.e. a TCP port of zero selects
+     *        a free port)
+     * @param backlogConfiguration
+     *        the configuration of the mailboxes for clients and unannounced receivers
+     */
+    public MessageBroker(BrokerAddress address, MailboxConfiguration backlogConfiguration) {
+
+        super();
+
+        if (address == null) {
+
+            throw new IllegalArgumentException("No address (null) was specified!");
+        }
+
+        if (backlogConfiguration == null) {
+
+            throw new IllegalArgumentException("No backlog configuration (null) was specified!");
+        }
+
+        this.requestedAddress = address;
+        this.address = address;
+        this.backlogConfiguration = backlogConfiguration;
+
+        codec = new StandardMessageCodec();
+        routes = new HashMap<>();
+        backlog = new HashMap<>();
+        connections = ConcurrentHashMap.newKeySet();
+        deadLetterQueue = new DeadLetterQueue();
+    }
+
+    /**
+     * Binds the server socket and starts accepting connections.
+     *
+     * @throws IOException
+     *         is thrown if the server socket cannot be bound
+     */
+    public synchronized void start() throws IOException {
+
+        if (serverChannel != null) {
+
+            throw new IllegalStateException("The broker has already been started!");
+        }
+
+        serverChannel = requestedAddress.bind();
+
+        if (!requestedAddress.isUnixDomainSocket()) {
+
+            int port = ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+            address = BrokerAddress.newLoopbackAddress(port);
+        }
+
+        acceptorThread = new Thread("message broker (" + address + ")") {
+
+            @Override
+            public void run() {
+
+                acceptConnections();
+            }
+        };
+        acceptorThread.setDaemon(true);
+        acceptorThread.start();
+    }
+
+    /**
+     * Accepts connections until the broker is closed.
+     */
+    private void acceptConnections() {
+
+        int connectionNumber = 0;
+
+        while (!closed) {
+
+            try {
+
+                SocketChannel channel = serverChannel.accept();
+                connectionNumber++;
+
+                Connection connection =
+                    new Connection("broker connection " + connectionNumber, channel, codec, new BrokerListener(),
+                                   backlogConfiguration, deadLetterQueue);
+                connections.add(connection);
+                connection.start();
+
+            } catch (IOException e) {
+
+                // the server socket was closed
+                break;
+            }
+        }
+    }
+
+    /**
+     * Routes the specified message.
+     *
+     * @param message
+     *        a message
+     */
+    private synchronized void route(Message message) {
+
+        Connection connection = routes.get(message.receiverName());
+
+        if (connection != null) {
+
+            forward(connection, message);
+            return;
+        }
+
+        Mailbox pendingMessages = backlog.get(message.receiverName());
+        if (pendingMessages == null) {
+
+            pendingMessages = new Mailbox(message.receiverName(), backlogConfiguration);
+            pendingMessages.setDeadLetterQueue(deadLetterQueue);
+            backlog.put(message.receiverName(), pendingMessages);
+        }
+
+        try {
+
+            pendingMessages.put(message);
+
+        } catch (MailboxOverflowException e) {
+
+            deadLetterQueue.add(message, DeadLetterReasons.REJECTED);
+        }
+    }
+
+    /**
+     * Forwards the specified message to the specified client. If the client's mailbox
+     * is full and rejects the message the message is passed to the dead letter queue.
+     *
+     * @param connection
+     *        the connection to a client
+     * @param message
+     *        a message
+     */
+    private void forward(Connection connection, Message message) {
+
+        try {
+
+            connection.send(message);
+
+        } catch (MailboxOverflowException e) {
+
+            deadLetterQueue.add(message, DeadLetterReasons.REJECTED);
+        }
+    }
+
+    /**
+     * Adds routes for the specified receivers. Kept messages are forwarded.
+     *
+     * @param connection
+     *        the connection to a client
+     * @param receiverNames
+     *        the names of receivers
+     */
+    private synchronized void addRoutes(Connection connection, String[] receiverNames) {
+
+        for (String receiverName : receiverNames) {
+
+            routes.put(receiverName, connection);
+
+            Mailbox pendingMessages = backlog.remove(receiverName);
+            if (pendingMessages != null) {
+
+                while (true) {
+
+                    Message message = pendingMessages.poll();
+                    if (message == null) {
+
+                        break;
+                    }
+
+                    forward(connection, message);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all routes to the specified connection.
+     *
+     * @param connection
+     *        the connection to a client
+     */
+    private synchronized void removeRoutes(Connection connection) {
+
+        Iterator<Connection> iterator = routes.values().iterator();
+
+        while (iterator.hasNext()) {
+
+            if (iterator.next() == connection) {
+
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the address which the broker actually listens on.
+     *
+     * @return an address
+     */
+    public BrokerAddress address() {
+
+        return address;
+    }
+
+    /**
+     * Returns the number of messages for receivers which were not announced yet.
+     *
+     * @return the number of messages
+     */
+    public synchronized int backlogSize() {
+
+        int size = 0;
+
+        for (Mailbox pendingMessages : backlog.values()) {
+
+            size += pendingMessages.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the dead letter queue for messages which cannot be routed (e.g. because a
+     * client's mailbox is full or because a message cannot be encoded).
+     *
+     * @return a dead letter queue
+     */
+    public DeadLetterQueue deadLetterQueue() {
+
+        return deadLetterQueue;
+    }
+
+    /**
+     * Closes the broker and all connections. Messages which were not forwarded yet are
+     * passed to the dead letter queue.
+     */
+    public void close() {
+
+        closed = true;
+
+        synchronized (this) {
+
+            for (Mailbox pendingMessages : backlog.values()) {
+
+                pendingMessages.close();
+            }
+            backlog.clear();
+
+            if (serverChannel != null) {
+
+                try {
+
+                    serverChannel.close();
+
+                } catch (IOException e) {
+
+                    // the server socket is closed anyway
+                }
+            }
+        }
+
+        for (Connection connection : connections) {
+
+            connection.close();
+        }
+
+        if (address.isUnixDomainSocket()) {
+
+            try {
+
+                Files.deleteIfExists(address.socketFile());
+
+            } catch (IOException e) {
+
+                // the socket file is removed with the next start
+            }
+        }
+    }
+
+
+    /**
+     * A listener which routes received messages.
+     */
+    class BrokerListener implements ConnectionListener {
+
+        @Override
+        public void receiversAnnounced(Connection connection, String[] receiverNames) {
+
+            addRoutes(connection, receiverNames);
+        }
+
+        @Override
+        public void messageReceived(Connection connection, Message message) {
+
+            route(message);
+        }
+
+        @Override
+        public void connectionClosed(Connection connection) {
+
+            connections.remove(connection);
+            removeRoutes(connection);
+        }
+
+    }
+
+}
@@ -0,0 +1,511 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.messaging.socket;
+
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import jmul.messaging.Message;
+import jmul.messaging.MessageQuery;
+import jmul.messaging.MessageQueryResult;
+
+import jmul.terminal.messaging.BlockingQueuingMessagebus;
+import jmul.terminal.messaging.DeadLetterQueue;
+import jmul.terminal.messaging.DeadLetterReasons;
+import jmul.terminal.messaging.MailboxConfiguration;
+import jmul.terminal.messaging.MailboxOverflowException;
+import jmul.terminal.messaging.ManagedMessagebus;
+import jmul.terminal.messaging.OverflowPolicies;
+import jmul.terminal.messaging.codec.StandardMessageCodec;
+
+
+/**
+ * A messagebus which is connected to a message broker. The receivers of the local
+ * process are announced to the broker and their messages are delivered by a local
+ * messagebus. Messages for other receivers are sent to the broker in batches.<br>
+ * <br>
+ * Mailboxes which are opened at runtime belong to the local process and are announced
+ * to the broker. Subscriptions and broadcasts only reach local receivers, thus a core
+ * component which uses this messagebus manages the components of its own process.
+ * Messages which cannot be transmitted or delivered are put into the dead letter queue
+ * of the local messagebus.
+ *
+ * @author Kristian Kutin
+ */
+public class SocketMessagebus implements ManagedMessagebus {
+
+    /**
+     * The default capacity of the queue for messages which are sent to the broker.
+     */
+    public static final int DEFAULT_OUTGOING_CAPACITY;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        DEFAULT_OUTGOING_CAPACITY = 65536;
+    }
+
+    /**
+     * The names of all receivers of the local process.
+     */
+    private final Set<String> localReceiverNames;
+
+    /**
+     * The messagebus which delivers messages to the local receivers.
+     */
+    private final BlockingQueuingMessagebus messagebus;
+
+    /**
+     * The connection to the broker.
+     */
+    private final Connection connection;
+
+    /**
+     * Creates a new messagebus and connects it to the broker with the specified address.
+     * Senders wait if the queue for messages which are sent to the broker is full.
+     *
+     * @param address
+     *        the address of a broker
+     * @param localReceiverNames
+     *        the names of all receivers of the local process
+     *
+     * @throws IOException
+     *         is thrown if the messagebus cannot connect to the broker
+     */
+    public SocketMessagebus(BrokerAddress address, String... localReceiverNames) throws IOException {
+
+        this(address, new MailboxConfiguration(DEFAULT_OUTGOING_CAPACITY, OverflowPolicies.BLOCK), localReceiverNames);
+    }
+
+    /**
+     * Creates a new messagebus and connects it to the broker with the specified address.
+     *
+     * @param address
+     *        the address of a broker
+     * @param outgoingConfiguration
+     *        the configuration of the queue for messages which are sent to the broker
+     * @param localReceiverNames
+     *        the names of all receivers of the local process
+     *
+     * @throws IOException
+     *         is thrown if the messagebus cannot connect to the broker
+     */
+    public SocketMessagebus(BrokerAddress address, MailboxConfiguration outgoingConfiguration,
+                            String... localReceiverNames) throws IOException {
+
+        super();
+
+        if (address == null) {
+
+            throw new IllegalArgumentException("No address (null) was specified!");
+        }
+
+        if (outgoingConfiguration == null) {
+
+            throw new IllegalArgumentException("No configuration (null) was specified!");
+        }
+
+        this.messagebus = new BlockingQueuingMessagebus(localReceiverNames);
+        this.localReceiverNames = ConcurrentHashMap.newKeySet();
+        this.localReceiverNames.addAll(Arrays.asList(localReceiverNames));
+
+        connection =
+            new Connection("messagebus connection (" + address + ")", address.connect(), new StandardMessageCodec(),
+                           new ClientListener(), outgoingConfiguration, messagebus.deadLetterQueue());
+        connection.start();
+        connection.announce(localReceiverNames);
+    }
+
+    /**
+     * Sends the specified message. Messages for local receivers are delivered directly.
+     * Messages which cannot be encoded or which exceed the maximum frame size are put
+     * into the dead letter queue.
+     *
+     * @param message
+     *        a message
+     *
+     * @throws MailboxOverflowException
+     *         is thrown if the message was rejected
+     */
+    @Override
+    public void send(Message message) {
+
+        if (message == null) {
+
+            throw new IllegalArgumentException("No message (null) was specified!");
+        }
+
+        if (localReceiverNames.contains(message.receiverName())) {
+
+            messagebus.send(message);
+            return;
+        }
+
+        connection.send(message);
+    }
+
+    /**
+     * Sends the specified message unless the receiver's mailbox or the queue for
+     * messages which are sent to the broker is full. The sender never waits. A message
+     * which doesn't fit is put into the dead letter queue.
+     *
+     * @param message
+     *        a message
+     *
+     * @return <code>true</code> if the message was sent or queued, else <code>false</code>
+     */
+    @Override
+    public boolean trySend(Message message) {
+
+        if (message == null) {
+
+            throw new IllegalArgumentException("No message (null) was specified!");
+        }
+
+        if (localReceiverNames.contains(message.receiverName())) {
+
+            return messagebus.trySend(message);
+        }
+
+        return connection.trySend(message);
+    }
+
+    /**
+     * Fetches the next message for the specified local receiver.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult fetch(MessageQuery query) {
+
+        return messagebus.fetch(query);
+    }
+
+    /**
+     * Waits until a message for the specified local receiver is available.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult await(MessageQuery query) {
+
+        return messagebus.await(query);
+    }
+
+    /**
+     * Waits at most the specified time until a message for the specified local receiver
+     * is available.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult await(MessageQuery query, long timeout) {
+
+        return messagebus.await(query, timeout);
+    }
+
+    /**
+     * Passes up to the specified number of messages for the specified local receiver
+     * to the specified consumer.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    @Override
+    public int drain(MessageQuery query, int maxMessages, Consumer<? super Message> consumer) {
+
+        return messagebus.drain(query, maxMessages, consumer);
+    }
+
+    /**
+     * Waits at most the specified time for the first message and passes up to the
+     * specified number of messages for the specified local receiver to the specified
+     * consumer.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    @Override
+    public int drain(MessageQuery query, int maxMessages, Consumer<? super Message> consumer, long timeout) {
+
+        return messagebus.drain(query, maxMessages, consumer, timeout);
+    }
+
+    /**
+     * Fetches the oldest message for the specified local receiver which is selected by
+     * the specified selector.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult fetch(MessageQuery query, Predicate<? super Message> selector) {
+
+        return messagebus.fetch(query, selector);
+    }
+
+    /**
+     * Waits at most the specified time until a message for the specified local receiver
+     * is selected by the specified selector.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the query result
+     */
+    @Override
+    public MessageQueryResult await(MessageQuery query, Predicate<? super Message> selector, long timeout) {
+
+        return messagebus.await(query, selector, timeout);
+    }
+
+    /**
+     * Waits at most the specified time for the first selected message and passes up to
+     * the specified number of selected messages for the specified local receiver to the
+     * specified consumer.
+     *
+     * @param query
+     *        a query which identifies the receiver
+     * @param selector
+     *        a selector
+     * @param maxMessages
+     *        the maximum number of messages
+     * @param consumer
+     *        an entity which processes the messages
+     * @param timeout
+     *        the maximum waiting time in milliseconds
+     *
+     * @return the number of messages which were passed to the consumer
+     */
+    @Override
+    public int drain(MessageQuery query, Predicate<? super Message> selector, int maxMessages,
+                     Consumer<? super Message> consumer, long timeout) {
+
+        return messagebus.drain(query, selector, maxMessages, consumer, timeout);
+    }
+
+    /**
+     * Subscribes the specified local receiver to the specified topic.
+     *
+     * @param topic
+     *        a topic
+     * @param receiverName
+     *        the name of a local receiver
+     */
+    @Override
+    public void subscribe(String topic, String receiverName) {
+
+        messagebus.subscribe(topic, receiverName);
+    }
+
+    /**
+     * Removes the subscription of the specified local receiver to the specified topic.
+     *
+     * @param topic
+     *        a topic
+     * @param receiverName
+     *        the name of a local receiver
+     */
+    @Override
+    public void unsubscribe(String topic, String receiverName) {
+
+        messagebus.unsubscribe(topic, receiverName);
+    }
+
+    /**
+     * Delivers the specified message to all local receivers which have subscribed to
+     * the message's topic.
+     *
+     * @param message
+     *        a message
+     *
+     * @return the number of subscribers which received the message
+     */
+    @Override
+    public int publish(Message message) {
+
+        return messagebus.publish(message);
+    }
+
+    /**
+     * Opens a local mailbox for the specified receiver and announces the receiver to
+     * the broker.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @throws UncheckedIOException
+     *         is thrown if the receiver cannot be announced
+     */
+    @Override
+    public void openMailbox(String receiverName) {
+
+        messagebus.openMailbox(receiverName);
+
+        if (localReceiverNames.add(receiverName)) {
+
+            try {
+
+                connection.announce(receiverName);
+
+            } catch (IOException e) {
+
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Closes the local mailbox of the specified receiver. Messages which arrive for the
+     * receiver afterwards are put into the dead letter queue.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     *
+     * @return the number of reclaimed messages
+     */
+    @Override
+    public int closeMailbox(String receiverName) {
+
+        return messagebus.closeMailbox(receiverName);
+    }
+
+    /**
+     * Returns the queue for messages which cannot be delivered or transmitted.
+     *
+     * @return a dead letter queue
+     */
+    @Override
+    public DeadLetterQueue deadLetterQueue() {
+
+        return messagebus.deadLetterQueue();
+    }
+
+    /**
+     * Returns the number of messages for local receivers which were not fetched yet.
+     *
+     * @return the number of messages
+     */
+    @Override
+    public int size() {
+
+        return messagebus.size();
+    }
+
+    /**
+     * Closes the connection to the broker. Queued messages are sent before, messages
+     * which couldn't be sent are put into the dead letter queue.
+     */
+    public void close() {
+
+        connection.close();
+    }
+
+
+    /**
+     * A listener which delivers received messages to the local receivers.
+     */
+    class ClientListener implements ConnectionListener {
+
+        @Override
+        public void receiversAnnounced(Connection connection, String[] receiverNames) {
+
+            // the broker doesn't announce receivers
+        }
+
+        @Override
+        public void messageReceived(Connection connection, Message message) {
+
+            try {
+
+                messagebus.send(message);
+
+            } catch (MailboxOverflowException e) {
+
+                // the reader must not stop because a local mailbox is full
+                messagebus.deadLetterQueue().add(message, DeadLetterReasons.REJECTED);
+            }
+        }
+
+        @Override
+        public void connectionClosed(Connection connection) {
+
+            // local receivers simply don't get messages from other processes anymore
+        }
+
+    }
+
+}
@@ -0,0 +1,285 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.monitoring;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A histogram for latencies with log-linear buckets. Every power of two is split into
+ * eight buckets, thus the relative error of a percentile is at most 12.5 %. Recording
+ * a value doesn't allocate memory and doesn't require a lock.
+ *
+ * @author Kristian Kutin
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of bits which select a bucket within a power of two.
+     */
+    private static final int SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets within a power of two.
+     */
+    private static final int SUB_BUCKET_COUNT;
+
+    /**
+     * The total number of buckets.
+     */
+    private static final int BUCKET_COUNT;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        SUB_BUCKET_BITS = 3;
+        SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+        BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    }
+
+    /**
+     * The number of values in each bucket.
+     */
+    private final AtomicLongArray buckets;
+
+    /**
+     * The number of recorded values.
+     */
+    private final LongAdder count;
+
+    /**
+     * The sum of all recorded values.
+     */
+    private final LongAdder sum;
+
+    /**
+     * The highest recorded value.
+     */
+    private final AtomicLong max;
+
+    /**
+     * The default constructor.
+     */
+    public LatencyHistogram() {
+
+        super();
+
+        buckets = new AtomicLongArray(BUCKET_COUNT);
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records the specified latency.
+     *
+     * @param latency
+     *        a latency in nanoseconds (negative values are recorded as zero)
+     */
+    public void record(long latency) {
+
+        long value = Math.max(0L, latency);
+
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+
+        long currentMax = max.get();
+        while ((value > currentMax) && !max.compareAndSet(currentMax, value)) {
+
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Returns the bucket index for the specified value.
+     *
+     * @param value
+     *        a value which is zero or positive
+     *
+     * @return a bucket index
+     */
+    static int bucketIndex(long value) {
+
+        if (value < SUB_BUCKET_COUNT) {
+
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the highest value of the specified bucket.
+     *
+     * @param index
+     *        a bucket index
+     *
+     * @return a value
+     */
+    static long upperBound(int index) {
+
+        if (index < SUB_BUCKET_COUNT) {
+
+            return index;
+        }
+
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS;
+
+        long lowerBound = ((long) (SUB_BUCKET_COUNT + subBucket)) << shift;
+        return lowerBound + ((1L << shift) - 1L);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of values
+     */
+    public long count() {
+
+        return count.sum();
+    }
+
+    /**
+     * Returns the highest recorded value.
+     *
+     * @return a latency in nanoseconds
+     */
+    public long max() {
+
+        return max.get();
+    }
+
+    /**
+     * Returns the average of all recorded values.
+     *
+     * @return a latency in nanoseconds
+     */
+    public double mean() {
+
+        long currentCount = count.sum();
+        if (currentCount == 0L) {
+
+            return 0.0d;
+        }
+
+        return sum.sum() / (double) currentCount;
+    }
+
+    /**
+     * Returns the specified percentile. The result is the upper bound of the bucket
+     * which contains the percentile, but not higher than the highest recorded value.
+     *
+     * @param percentile
+     *        a percentile between 0.0 and 1.0 (e.g. 0.99)
+     *
+     * @return a latency in nanoseconds
+     */
+    public long percentile(double percentile) {
+
+        if ((percentile < 0.0d) || (percentile > 1.0d)) {
+
+            String message = String.format("An invalid percentile (%s) was specified!", percentile);
+            throw new IllegalArgumentException(message);
+        }
+
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0L;
+
+        for (int a = 0; a < BUCKET_COUNT; a++) {
+
+            counts[a] = buckets.get(a);
+            total += counts[a];
+        }
+
+        if (total == 0L) {
+
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(percentile * total));
+        long accumulated = 0L;
+
+        for (int a = 0; a < BUCKET_COUNT; a++) {
+
+            accumulated += counts[a];
+
+            if (accumulated >= rank) {
+
+                return Math.min(upperBound(a), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+
+        for (int a = 0; a < BUCKET_COUNT; a++) {
+
+            buckets.set(a, 0L);
+        }
+
+        count.reset();
+        sum.reset();
+        max.set(0L);
+    }
+
+    /**
+     * Returns a summary of this histogram.
+     *
+     * @return a string representation
+     */
+    @Override
+    public String toString() {
+
+        return String.format("count=%d, mean=%.1fus, p50=%.1fus, p99=%.1fus, p999=%.1fus, max=%.1fus", count(),
+                             mean() / 1000.0d, percentile(0.5d) / 1000.0d, percentile(0.99d) / 1000.0d,
+                             percentile(0.999d) / 1000.0d, max() / 1000.0d);
+    }
+
+}
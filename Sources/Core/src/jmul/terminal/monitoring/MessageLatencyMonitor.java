@@ -0,0 +1,311 @@
+/*
+ * SPDX-License-Identifier: GPL-3.0
+ *
+ *
+ * (J)ava (M)iscellaneous (U)tilities (L)ibrary
+ *
+ * JMUL is a central repository for utilities which are used in my
+ * other public and private repositories.
+ *
+ * Copyright (C) 2024  Kristian Kutin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * e-mail: kristian.kutin@arcor.de
+ */
+
+/*
+ * This section contains meta informations.
+ *
+ * $Id$
+ */
+
+package jmul.terminal.monitoring;
+
+
+import java.lang.management.ManagementFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import jmul.messaging.Message;
+import jmul.messaging.StandardPropertyKeys;
+
+import jmul.terminal.component.messages.ComponentMessage;
+
+
+/**
+ * This class records how long messages wait in the messagebus (i.e. from their creation
+ * until they are fetched) and how long message handlers need to process them. The
+ * latencies are recorded per receiver and per message type.
+ *
+ * @author Kristian Kutin
+ */
+public class MessageLatencyMonitor implements MessageLatencyMonitorMBean {
+
+    /**
+     * The object name for the management interface.
+     */
+    public static final String OBJECT_NAME;
+
+    /*
+     * The static initializer.
+     */
+    static {
+
+        OBJECT_NAME = "jmul.terminal:type=MessageLatencyMonitor";
+    }
+
+    /**
+     * The waiting times of messages in the messagebus.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<Class<?>, LatencyHistogram>> queueWaitTimes;
+
+    /**
+     * The processing times of message handlers.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<Class<?>, LatencyHistogram>> handlerTimes;
+
+    /**
+     * The default constructor.
+     */
+    public MessageLatencyMonitor() {
+
+        super();
+
+        queueWaitTimes = new ConcurrentHashMap<>();
+        handlerTimes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Records the time the specified message spent in the messagebus. The message's
+     * creation date is used as the time the message was sent, thus the resolution is
+     * one millisecond.
+     *
+     * @param receiverName
+     *        the name of the receiver who fetched the message
+     * @param message
+     *        the fetched message
+     */
+    public void recordQueueWait(String receiverName, Message message) {
+
+        long creationTime;
+
+        if (message instanceof ComponentMessage) {
+
+            creationTime = ((ComponentMessage) message).timestamp();
+
+        } else {
+
+            Object creationDate = message.get(StandardPropertyKeys.CREATION_DATE);
+            if (!(creationDate instanceof Date)) {
+
+                return;
+            }
+
+            creationTime = ((Date) creationDate).getTime();
+        }
+
+        long waitTime = System.currentTimeMillis() - creationTime;
+        histogram(queueWaitTimes, receiverName, message.getClass()).record(TimeUnit.MILLISECONDS.toNanos(waitTime));
+    }
+
+    /**
+     * Records the time a message handler needed to process a message.
+     *
+     * @param receiverName
+     *        the name of the receiver who processed the message
+     * @param messageType
+     *        the type of the processed message
+     * @param processingTime
+     *        the processing time in nanoseconds
+     */
+    public void recordHandlerTime(String receiverName, Class<?> messageType, long processingTime) {
+
+        histogram(handlerTimes, receiverName, messageType).record(processingTime);
+    }
+
+    /**
+     * Returns the histogram for the specified receiver and message type. A missing
+     * histogram is created.
+     *
+     * @param histograms
+     *        all histograms
+     * @param receiverName
+     *        the name of a receiver
+     * @param messageType
+     *        a message type
+     *
+     * @return a histogram
+     */
+    private static LatencyHistogram histogram(
+        ConcurrentMap<String, ConcurrentMap<Class<?>, LatencyHistogram>> histograms, String receiverName,
+        Class<?> messageType) {
+
+        ConcurrentMap<Class<?>, LatencyHistogram> receiverHistograms = histograms.get(receiverName);
+        if (receiverHistograms == null) {
+
+            histograms.putIfAbsent(receiverName, new ConcurrentHashMap<Class<?>, LatencyHistogram>());
+            receiverHistograms = histograms.get(receiverName);
+        }
+
+        LatencyHistogram histogram = receiverHistograms.get(messageType);
+        if (histogram == null) {
+
+            receiverHistograms.putIfAbsent(messageType, new LatencyHistogram());
+            histogram = receiverHistograms.get(messageType);
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Returns the waiting times of the specified receiver and message type.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     * @param messageType
+     *        a message type
+     *
+     * @return a histogram
+     */
+    public LatencyHistogram queueWaitTimes(String receiverName, Class<?> messageType) {
+
+        return histogram(queueWaitTimes, receiverName, messageType);
+    }
+
+    /**
+     * Returns the processing times of the specified receiver and message type.
+     *
+     * @param receiverName
+     *        the name of a receiver
+     * @param messageType
+     *        a message type
+     *
+     * @return a histogram
+     */
+    public LatencyHistogram handlerTimes(String receiverName, Class<?> messageType) {
+
+        return histogram(handlerTimes, receiverName, messageType);
+    }
+
+    /**
+     * Returns a summary of the time messages spent in the messagebus.
+     *
+     * @return a summary (i.e. one line per receiver and message type)
+     */
+    @Override
+    public String[] getQueueWaitTimes() {
+
+        return summarize("queue wait", queueWaitTimes);
+    }
+
+    /**
+     * Returns a summary of the time message handlers needed to process messages.
+     *
+     * @return a summary (i.e. one line per receiver and message type)
+     */
+    @Override
+    public String[] getHandlerTimes() {
+
+        return summarize("handler time", handlerTimes);
+    }
+
+    /**
+     * Summarizes the specified histograms.
+     *
+     * @param label
+     *        a label for each line
+     * @param histograms
+     *        all histograms
+     *
+     * @return a summary (i.e. one line per receiver and message type)
+     */
+    private static String[] summarize(String label,
+                                      ConcurrentMap<String, ConcurrentMap<Class<?>, LatencyHistogram>> histograms) {
+
+        List<String> lines = new ArrayList<>();
+
+        for (Map.Entry<String, ConcurrentMap<Class<?>, LatencyHistogram>> receiverEntry : histograms.entrySet()) {
+
+            for (Map.Entry<Class<?>, LatencyHistogram> entry : receiverEntry.getValue().entrySet()) {
+
+                if (entry.getValue().count() == 0L) {
+
+                    continue;
+                }
+
+                String line = String.format("%s %s %s: %s", receiverEntry.getKey(), entry.getKey().getSimpleName(),
+                                            label, entry.getValue());
+                lines.add(line);
+            }
+        }
+
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    /**
+     * Removes all recorded latencies.
+     */
+    @Override
+    public void reset() {
+
+        reset(queueWaitTimes);
+        reset(handlerTimes);
+    }
+
+    /**
+     * Resets the specified histograms.
+     *
+     * @param histograms
+     *        all histograms
+     */
+    private static void reset(ConcurrentMap<String, ConcurrentMap<Class<?>, LatencyHistogram>> histograms) {
+
+        for (ConcurrentMap<Class<?>, LatencyHistogram> receiverHistograms : histograms.values()) {
+
+            for (LatencyHistogram histogram : receiverHistograms.values()) {
+
+                histogram.reset();
+            }
+        }
+    }
+
+    /**
+     * Registers this monitor with the platform's MBean server.
+     *
+     * @return <code>true</code> if this monitor was registered, else <code>false</code>
+     */
+    public boolean registerMBean() {
+
+        try {
+
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+            return true;
+
+        } catch (JMException e) {
+
+            return false;
+        }
+    }
+
+}